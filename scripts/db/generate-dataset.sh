@@ -0,0 +1,24 @@
+#!/bin/bash
+set -e
+
+# Synthetic Dataset Generator
+# Loads production-scale companies, customers, coupons and purchases into the database the
+# application is configured for (DB_URL, DB_USER, DB_PASSWORD), deterministically from a seed.
+#
+# Usage:
+#   ./scripts/db/generate-dataset.sh [--dataset.<property>=<value> ...]
+#
+# Examples:
+#   ./scripts/db/generate-dataset.sh --dataset.truncate=true
+#   ./scripts/db/generate-dataset.sh --dataset.customers=100000 --dataset.purchases=1000000 --dataset.seed=7
+
+cd "$(dirname "$0")/../.."
+
+JAR=$(ls target/CouponSystemProject-*.jar 2>/dev/null | grep -v '\.original$' | head -1)
+if [ -z "$JAR" ]; then
+    echo "Building application jar..."
+    mvn -q -DskipTests package
+    JAR=$(ls target/CouponSystemProject-*.jar | grep -v '\.original$' | head -1)
+fi
+
+exec java -jar "$JAR" --spring.profiles.active=dataset "$@"
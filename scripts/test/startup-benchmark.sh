@@ -0,0 +1,98 @@
+#!/bin/bash
+set -e
+
+# Startup Benchmark
+# Measures time from JVM launch to the first successful GET /api/v1/public/coupons, for the plain
+# jar and for the same jar with Spring AOT and the CDS archive, using the artifacts of
+#   mvn -Pstartup package -DskipTests
+# The application connects to the database it is configured for (DB_URL, DB_USER, DB_PASSWORD,
+# ADMIN_PASSWORD), e.g. the docker compose postgres.
+#
+# Usage:
+#   ./scripts/test/startup-benchmark.sh [--runs N] [--budget-ms MS] [-- <application args>]
+#
+# --budget-ms fails the script (exit 1) when the median AOT + CDS startup exceeds the budget.
+# Results are written to target/startup/startup-benchmark.txt, application logs to target/startup/logs/.
+
+cd "$(dirname "$0")/../.."
+
+RUNS=5
+BUDGET_MS=""
+PORT="${PORT:-8080}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --runs) RUNS="$2"; shift 2 ;;
+        --budget-ms) BUDGET_MS="$2"; shift 2 ;;
+        --) shift; break ;;
+        *) echo "Unknown option: $1"; exit 2 ;;
+    esac
+done
+
+DIR=target/startup
+JAR=$(ls "$DIR"/CouponSystemProject-*.jar 2>/dev/null | head -1)
+if [ -z "$JAR" ] || [ ! -f "$DIR/application.jsa" ]; then
+    echo "Building AOT jar and CDS archive..."
+    mvn -q -Pstartup -DskipTests package
+    JAR=$(ls "$DIR"/CouponSystemProject-*.jar | head -1)
+fi
+JAR=$(basename "$JAR")
+mkdir -p "$DIR/logs"
+REPORT="$DIR/startup-benchmark.txt"
+URL="http://localhost:${PORT}/api/v1/public/coupons"
+
+# Prints the milliseconds from launch to the first 200 response, or fails
+measure() {
+    local log="$1"; shift
+    local start end pid
+    start=$(date +%s%N)
+    (cd "$DIR" && exec java "$@" -jar "$JAR" --server.port="$PORT" "${APP_ARGS[@]}") > "$log" 2>&1 &
+    pid=$!
+    while ! curl -s -f -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited during startup, see $log" >&2
+            return 1
+        fi
+        if [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+            kill "$pid"; wait "$pid" 2>/dev/null || true
+            echo "No successful response within ${TIMEOUT_SECONDS}s, see $log" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+APP_ARGS=("$@")
+echo "Startup benchmark: $RUNS runs per mode, time to first 200 from $URL" | tee "$REPORT"
+
+# Runs one mode RUNS times; sets MEDIAN_MS
+benchmark() {
+    local mode="$1"; shift
+    local times=() t
+    for run in $(seq 1 "$RUNS"); do
+        t=$(measure "$DIR/logs/$mode-$run.log" "$@")
+        times+=("$t")
+    done
+    MEDIAN_MS=$(printf '%s\n' "${times[@]}" | median)
+    printf '%-9s median %6d ms   runs: %s\n' "$mode" "$MEDIAN_MS" "${times[*]}" | tee -a "$REPORT"
+}
+
+benchmark baseline
+benchmark aot-cds -Dspring.aot.enabled=true -XX:SharedArchiveFile=application.jsa
+AOT_CDS_MS=$MEDIAN_MS
+
+if [ -n "$BUDGET_MS" ]; then
+    if [ "$AOT_CDS_MS" -gt "$BUDGET_MS" ]; then
+        echo "FAIL: AOT + CDS startup ${AOT_CDS_MS} ms exceeds the ${BUDGET_MS} ms budget" | tee -a "$REPORT"
+        exit 1
+    fi
+    echo "OK: AOT + CDS startup ${AOT_CDS_MS} ms within the ${BUDGET_MS} ms budget" | tee -a "$REPORT"
+fi
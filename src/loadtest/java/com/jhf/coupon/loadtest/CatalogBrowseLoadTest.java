@@ -0,0 +1,38 @@
+package com.jhf.coupon.loadtest;
+
+import com.jhf.coupon.backend.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Catalog browse: a read-only mix of the public coupon list, single coupons and a customer's
+ * available coupons, against a catalog of a few hundred coupons.
+ */
+class CatalogBrowseLoadTest extends LoadTestSupport {
+
+    @Test
+    void testCatalogBrowse_AllReadsSucceedWithinBudget() throws Exception {
+        int coupons = intProperty("catalog-browse.coupons", 500);
+        int customers = intProperty("catalog-browse.customers", 50);
+        int rate = intProperty("catalog-browse.rate", 100);
+        int requests = intProperty("catalog-browse.requests", 1000);
+        String passwordHash = PasswordHasher.hashPassword(PASSWORD);
+        seedCustomers(customers, passwordHash);
+        seedCoupons(seedCompany(passwordHash), 1, coupons, 100);
+        String[] tokens = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            tokens[i] = customerToken(i + 1);
+        }
+
+        LoadResult result = OpenModelLoad.run("catalog-browse", rate, requests, index -> switch (index % 10) {
+            case 0 -> get("/api/v1/public/coupons", null);
+            case 1, 2 -> get("/api/v1/customer/coupons/available", tokens[index % customers]);
+            default -> get("/api/v1/public/coupons/" + (index % coupons + 1), null);
+        });
+        result.report(REPORT_DIRECTORY);
+
+        assertEquals(requests, result.count(200), result.summary());
+        assertLatencyBudget(result, 99, "catalog-browse.p99-ms", 1000);
+    }
+}
@@ -0,0 +1,45 @@
+package com.jhf.coupon.loadtest;
+
+import com.jhf.coupon.backend.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Flash sale: every customer tries to buy the same coupon within two seconds, more
+ * customers than there is stock. Exactly the stock must be sold, everyone else must get
+ * 409 (out of stock) and nobody a 5xx.
+ */
+class FlashSaleLoadTest extends LoadTestSupport {
+
+    private static final int COUPON_ID = 1;
+
+    @Test
+    void testFlashSale_SellsExactlyTheStock() throws Exception {
+        int customers = intProperty("flash-sale.customers", 1000);
+        int stock = intProperty("flash-sale.stock", 100);
+        int rate = intProperty("flash-sale.rate", 500);
+        String passwordHash = PasswordHasher.hashPassword(PASSWORD);
+        seedCustomers(customers, passwordHash);
+        seedCoupons(seedCompany(passwordHash), COUPON_ID, 1, stock);
+        String[] tokens = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            tokens[i] = customerToken(i + 1);
+        }
+
+        LoadResult result = OpenModelLoad.run("flash-sale", rate, customers,
+                index -> post("/api/v1/customer/coupons/" + COUPON_ID + "/purchase", null, tokens[index]));
+        result.report(REPORT_DIRECTORY);
+
+        assertEquals(0, result.countServerErrors(), result.summary());
+        assertEquals(stock, result.count(200), result.summary());
+        assertEquals(customers - stock, result.count(409), result.summary());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT amount FROM coupons WHERE id = ?", Integer.class, COUPON_ID), "no oversell");
+        assertEquals(stock, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customers_vs_coupons WHERE coupon_id = ?", Integer.class, COUPON_ID));
+        assertEquals(stock, jdbcTemplate.queryForObject(
+                "SELECT SUM(purchases) FROM coupon_sales_daily", Integer.class));
+        assertLatencyBudget(result, 99, "flash-sale.p99-ms", 2000);
+    }
+}
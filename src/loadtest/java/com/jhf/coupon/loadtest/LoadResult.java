@@ -0,0 +1,79 @@
+package com.jhf.coupon.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (microseconds) and response status counts of one OpenModelLoad run.
+ */
+final class LoadResult {
+    private final String scenario;
+    private final int ratePerSecond;
+    private final Histogram histogram;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private final long elapsedNanos;
+
+    LoadResult(String scenario, int ratePerSecond, Histogram histogram, Map<Integer, LongAdder> statuses,
+               long elapsedNanos) {
+        this.scenario = scenario;
+        this.ratePerSecond = ratePerSecond;
+        this.histogram = histogram;
+        statuses.forEach((status, count) -> this.statuses.put(status, count.sum()));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    long getRequests() {
+        return histogram.getTotalCount();
+    }
+
+    long count(int status) {
+        return statuses.getOrDefault(status, 0L);
+    }
+
+    /**
+     * Requests answered with a 5xx status or not answered at all.
+     */
+    long countServerErrors() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 500 || entry.getKey() == OpenModelLoad.NO_RESPONSE)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    String summary() {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format("%s: %d requests at %d/s in %.1fs (%.0f/s), statuses %s, "
+                        + "p50 %.1fms p90 %.1fms p99 %.1fms p99.9 %.1fms max %.1fms",
+                scenario, getRequests(), ratePerSecond, seconds, getRequests() / seconds, statuses,
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Prints the summary and writes the full percentile distribution, in milliseconds, to
+     * directory/scenario.hgrm (plottable with HdrHistogram's histogram plotter).
+     *
+     * @return The report file
+     */
+    Path report(Path directory) throws IOException {
+        System.out.println(summary());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(scenario + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+        return file;
+    }
+}
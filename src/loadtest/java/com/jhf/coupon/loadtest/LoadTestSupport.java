@@ -0,0 +1,141 @@
+package com.jhf.coupon.loadtest;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.login.ClientType;
+import com.jhf.coupon.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Base class for load tests: boots the application on a random port against H2, seeds data
+ * straight through JDBC and sends requests with java.net.http.
+ *
+ * Rates, request counts and latency budgets default to values that finish in seconds on a
+ * laptop and can be raised with -Dloadtest.&lt;name&gt;=&lt;value&gt;.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class LoadTestSupport {
+    static final Path REPORT_DIRECTORY = Path.of("target", "load-test");
+    static final String PASSWORD = "password123";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @BeforeEach
+    void cleanDatabase() {
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupon_sales_daily");
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("loadtest." + name, defaultValue);
+    }
+
+    int seedCompany(String passwordHash) {
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+                1, "Load Test Company", "company@load.test", passwordHash);
+        return 1;
+    }
+
+    /**
+     * Inserts customers 1..count, all sharing one password hash (customerN@load.test / PASSWORD).
+     */
+    void seedCustomers(int count, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            rows.add(new Object[]{id, "Load", "Customer" + id, customerEmail(id), passwordHash});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Inserts coupons firstId..firstId + count - 1 for the company, spread over all categories.
+     */
+    void seedCoupons(int companyId, int firstId, int count, int amount) {
+        Category[] categories = Category.values();
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            rows.add(new Object[]{id, companyId, categories[id % categories.length].getId(), "Coupon " + id,
+                    "Load test coupon " + id, Date.valueOf(today), Date.valueOf(today.plusDays(30)), amount,
+                    9.99 + id % 100, "image.jpg"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO coupons (ID, COMPANY_ID, CATEGORY_ID, TITLE, DESCRIPTION, "
+                + "START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    static String customerEmail(int id) {
+        return "customer" + id + "@load.test";
+    }
+
+    String customerToken(int customerId) {
+        return jwtTokenProvider.generateAccessToken(customerEmail(customerId), ClientType.CUSTOMER, customerId);
+    }
+
+    int get(String path, String token) throws Exception {
+        return send(request(path, token).GET().build());
+    }
+
+    int post(String path, String jsonBody, String token) throws Exception {
+        HttpRequest.BodyPublisher body = jsonBody == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(jsonBody);
+        return send(request(path, token).header("Content-Type", "application/json").POST(body).build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Fails if the given percentile is above the budget.
+     *
+     * @param name Property holding the budget, e.g. "flash-sale.p99-ms"
+     */
+    static void assertLatencyBudget(LoadResult result, double percentile, String name, int defaultBudgetMillis) {
+        int budget = intProperty(name, defaultBudgetMillis);
+        double actual = result.percentileMillis(percentile);
+        assertTrue(actual <= budget, String.format("p%s latency %.1fms exceeds the %dms budget (loadtest.%s)",
+                percentile, actual, budget, name));
+    }
+}
@@ -0,0 +1,30 @@
+package com.jhf.coupon.loadtest;
+
+import com.jhf.coupon.backend.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Login storm: customers logging in at a steady rate, e.g. when a sale opens. Each login
+ * verifies a BCrypt hash at the configured cost, so this measures how many logins per second
+ * the CPU sustains before latency grows. Rate limiting is off in the test profile.
+ */
+class LoginStormLoadTest extends LoadTestSupport {
+
+    @Test
+    void testLoginStorm_AllLoginsSucceedWithinBudget() throws Exception {
+        int customers = intProperty("login-storm.customers", 100);
+        int rate = intProperty("login-storm.rate", 10);
+        int requests = intProperty("login-storm.requests", 100);
+        seedCustomers(customers, PasswordHasher.hashPassword(PASSWORD));
+
+        LoadResult result = OpenModelLoad.run("login-storm", rate, requests, index -> post("/api/v1/auth/login",
+                "{\"email\":\"" + customerEmail(index % customers + 1) + "\",\"password\":\"" + PASSWORD
+                        + "\",\"clientType\":\"customer\"}", null));
+        result.report(REPORT_DIRECTORY);
+
+        assertEquals(requests, result.count(200), result.summary());
+        assertLatencyBudget(result, 99, "login-storm.p99-ms", 3000);
+    }
+}
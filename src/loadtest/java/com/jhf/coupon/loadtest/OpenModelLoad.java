@@ -0,0 +1,79 @@
+package com.jhf.coupon.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule whether or not earlier ones
+ * have finished, the way independent users arrive. Each request runs on its own virtual thread.
+ *
+ * Latency is measured from the scheduled start rather than the actual one, so a server that
+ * stalls shows up as queueing delay in the percentiles instead of as fewer samples
+ * (coordinated omission).
+ */
+final class OpenModelLoad {
+    /** Status recorded for requests that got no HTTP response (connect error, timeout). */
+    static final int NO_RESPONSE = 0;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private OpenModelLoad() {
+    }
+
+    /**
+     * One client request.
+     */
+    @FunctionalInterface
+    interface Request {
+        /**
+         * @param index Sequence number of the request, 0 to requests - 1
+         * @return HTTP status of the response
+         */
+        int send(int index) throws Exception;
+    }
+
+    /**
+     * Starts requests at a constant rate and waits for all of them to complete.
+     *
+     * @param scenario Name used in reports
+     * @param ratePerSecond Arrival rate
+     * @param requests Total number of requests to start
+     * @param request The request to send
+     */
+    static LoadResult run(String scenario, int ratePerSecond, int requests, Request request) {
+        ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int index = i;
+                clients.execute(() -> {
+                    int status;
+                    try {
+                        status = request.send(index);
+                    } catch (Exception e) {
+                        status = NO_RESPONSE;
+                    }
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                    histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+                });
+            }
+        }
+        return new LoadResult(scenario, ratePerSecond, histogram, statuses, System.nanoTime() - start);
+    }
+}
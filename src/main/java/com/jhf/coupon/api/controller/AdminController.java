@@ -2,7 +2,10 @@ package com.jhf.coupon.api.controller;
 
 import com.jhf.coupon.api.dto.CompanyRequest;
 import com.jhf.coupon.api.dto.CustomerRequest;
+import com.jhf.coupon.api.streaming.NdjsonStreamer;
+import com.jhf.coupon.backend.beans.CategoryStock;
 import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.CompanyCouponValue;
 import com.jhf.coupon.backend.beans.Customer;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.exceptions.company.CantDeleteCompanyHasCoupons;
@@ -12,15 +15,19 @@ import com.jhf.coupon.backend.exceptions.customer.CantDeleteCustomerHasCoupons;
 import com.jhf.coupon.backend.exceptions.customer.CantUpdateCustomerException;
 import com.jhf.coupon.backend.exceptions.customer.CustomerAlreadyExistsException;
 import com.jhf.coupon.backend.facade.AdminFacade;
+import com.jhf.coupon.backend.reporting.CouponSnapshotService;
 import com.jhf.coupon.backend.validation.ValidationException;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Admin Controller
@@ -34,9 +41,14 @@ import java.util.ArrayList;
 public class AdminController {
 
     private final AdminFacade adminFacade;
+    private final CouponSnapshotService couponSnapshotService;
+    private final NdjsonStreamer ndjsonStreamer;
 
-    public AdminController(AdminFacade adminFacade) {
+    public AdminController(AdminFacade adminFacade, CouponSnapshotService couponSnapshotService,
+                           NdjsonStreamer ndjsonStreamer) {
         this.adminFacade = adminFacade;
+        this.couponSnapshotService = couponSnapshotService;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     // ========== Company Management ==========
@@ -69,7 +81,7 @@ public class AdminController {
      * @throws ValidationException if validation fails
      */
     @PutMapping("/companies/{id}")
-    public ResponseEntity<Company> updateCompany(@PathVariable int id, @Valid @RequestBody CompanyRequest companyRequest)
+    public ResponseEntity<Company> updateCompany(@PathVariable long id, @Valid @RequestBody CompanyRequest companyRequest)
             throws SQLException, CantUpdateCompanyException, ValidationException {
         Company company = new Company(id, companyRequest.getName(), companyRequest.getEmail(), companyRequest.getPassword());
         adminFacade.updateCompany(company);
@@ -86,7 +98,7 @@ public class AdminController {
      * @throws CantDeleteCompanyHasCoupons if company has coupons
      */
     @DeleteMapping("/companies/{id}")
-    public ResponseEntity<Void> deleteCompany(@PathVariable int id)
+    public ResponseEntity<Void> deleteCompany(@PathVariable long id)
             throws SQLException, CategoryNotFoundException, CantDeleteCompanyHasCoupons {
         adminFacade.deleteCompany(id);
         return ResponseEntity.noContent().build();
@@ -104,6 +116,16 @@ public class AdminController {
         return ResponseEntity.ok(companies);
     }
 
+    /**
+     * Stream all companies as NDJSON (Accept: application/x-ndjson), one row in memory at a time
+     *
+     * @return One company per line
+     */
+    @GetMapping(value = "/companies", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCompanies() {
+        return ndjsonStreamer.stream(adminFacade::streamCompanies);
+    }
+
     /**
      * Get company by ID
      *
@@ -112,7 +134,7 @@ public class AdminController {
      * @throws SQLException if database error occurs
      */
     @GetMapping("/companies/{id}")
-    public ResponseEntity<Company> getCompanyById(@PathVariable int id) throws SQLException {
+    public ResponseEntity<Company> getCompanyById(@PathVariable long id) throws SQLException {
         Company company = adminFacade.getCompany(id);
         return ResponseEntity.ok(company);
     }
@@ -161,7 +183,7 @@ public class AdminController {
      * @throws ValidationException if validation fails
      */
     @PutMapping("/customers/{id}")
-    public ResponseEntity<Customer> updateCustomer(@PathVariable int id, @Valid @RequestBody CustomerRequest customerRequest)
+    public ResponseEntity<Customer> updateCustomer(@PathVariable long id, @Valid @RequestBody CustomerRequest customerRequest)
             throws SQLException, CantUpdateCustomerException, ValidationException {
         Customer customer = new Customer(id, customerRequest.getFirstName(), customerRequest.getLastName(),
                 customerRequest.getEmail(), customerRequest.getPassword());
@@ -178,7 +200,7 @@ public class AdminController {
      * @throws CantDeleteCustomerHasCoupons if customer has purchased coupons
      */
     @DeleteMapping("/customers/{id}")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable int id)
+    public ResponseEntity<Void> deleteCustomer(@PathVariable long id)
             throws SQLException, CantDeleteCustomerHasCoupons {
         adminFacade.deleteCustomer(id);
         return ResponseEntity.noContent().build();
@@ -196,6 +218,16 @@ public class AdminController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * Stream all customers as NDJSON (Accept: application/x-ndjson), one row in memory at a time
+     *
+     * @return One customer per line
+     */
+    @GetMapping(value = "/customers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        return ndjsonStreamer.stream(adminFacade::streamCustomers);
+    }
+
     /**
      * Get customer by ID
      *
@@ -204,7 +236,7 @@ public class AdminController {
      * @throws SQLException if database error occurs
      */
     @GetMapping("/customers/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable int id) throws SQLException {
+    public ResponseEntity<Customer> getCustomerById(@PathVariable long id) throws SQLException {
         Customer customer = adminFacade.getCustomer(id);
         return ResponseEntity.ok(customer);
     }
@@ -221,4 +253,48 @@ public class AdminController {
         adminFacade.unlockCustomerAccount(email);
         return ResponseEntity.noContent().build();
     }
+
+    // ========== Reports ==========
+    // Served from the in-memory coupon snapshot, up to reporting.snapshot.refresh-ms stale
+
+    /**
+     * Get coupons, units in stock and stock value per category
+     *
+     * @return One entry per category
+     * @throws SQLException if database error occurs
+     * @throws CategoryNotFoundException if category error occurs
+     */
+    @GetMapping("/reports/stock-by-category")
+    public ResponseEntity<List<CategoryStock>> getStockByCategory()
+            throws SQLException, CategoryNotFoundException {
+        return ResponseEntity.ok(couponSnapshotService.getStockByCategory());
+    }
+
+    /**
+     * Get coupons, units in stock and stock value per company
+     *
+     * @return One entry per company with coupons, by company ID
+     * @throws SQLException if database error occurs
+     * @throws CategoryNotFoundException if category error occurs
+     */
+    @GetMapping("/reports/value-by-company")
+    public ResponseEntity<List<CompanyCouponValue>> getValueByCompany()
+            throws SQLException, CategoryNotFoundException {
+        return ResponseEntity.ok(couponSnapshotService.getValueByCompany());
+    }
+
+    /**
+     * Get coupons per category that end within the next days
+     *
+     * @param days Look-ahead in days (0-365, default 7)
+     * @return One entry per category
+     * @throws SQLException if database error occurs
+     * @throws CategoryNotFoundException if category error occurs
+     * @throws ValidationException if days is out of range
+     */
+    @GetMapping("/reports/expiring")
+    public ResponseEntity<List<CategoryStock>> getExpiringCoupons(@RequestParam(defaultValue = "7") int days)
+            throws SQLException, CategoryNotFoundException, ValidationException {
+        return ResponseEntity.ok(couponSnapshotService.getExpiringWithin(days));
+    }
 }
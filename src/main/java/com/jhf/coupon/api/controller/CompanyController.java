@@ -1,26 +1,35 @@
 package com.jhf.coupon.api.controller;
 
+import com.jhf.coupon.api.dto.CouponBatchRequest;
 import com.jhf.coupon.api.dto.CouponRequest;
+import com.jhf.coupon.api.dto.ImageUploadResponse;
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.exceptions.coupon.CantUpdateCouponException;
 import com.jhf.coupon.backend.exceptions.coupon.CouponAlreadyExistsForCompanyException;
 import com.jhf.coupon.backend.facade.CompanyFacade;
+import com.jhf.coupon.backend.images.ImageRefs;
 import com.jhf.coupon.backend.validation.ValidationException;
-import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Company Controller
@@ -33,12 +42,12 @@ import java.util.ArrayList;
 @PreAuthorize("hasRole('COMPANY')")
 public class CompanyController {
 
+    private static final int DEFAULT_SALES_RANGE_DAYS = 30;
+
     private final CompanyFacade companyFacade;
-    private final CompaniesDAO companiesDAO;
 
-    public CompanyController(CompanyFacade companyFacade, CompaniesDAO companiesDAO) {
+    public CompanyController(CompanyFacade companyFacade) {
         this.companyFacade = companyFacade;
-        this.companiesDAO = companiesDAO;
     }
 
     /**
@@ -54,28 +63,55 @@ public class CompanyController {
     @PostMapping("/coupons")
     public ResponseEntity<Coupon> addCoupon(@Valid @RequestBody CouponRequest couponRequest, HttpServletRequest request)
             throws SQLException, CouponAlreadyExistsForCompanyException, ValidationException {
-        int companyId = (int) request.getAttribute("userId");
+        long companyId = (long) request.getAttribute("userId");
 
-        // Parse category name to Category enum
-        Category category = Category.valueOf(couponRequest.getCategory().toUpperCase());
-
-        Coupon coupon = new Coupon(
-                0,
-                companyId,
-                category,
-                couponRequest.getTitle(),
-                couponRequest.getDescription(),
-                Date.valueOf(couponRequest.getStartDate()),
-                Date.valueOf(couponRequest.getEndDate()),
-                couponRequest.getAmount(),
-                couponRequest.getPrice(),
-                couponRequest.getImage()
-        );
+        Coupon coupon = toCoupon(0, companyId, couponRequest);
 
         companyFacade.addCoupon(coupon);
         return ResponseEntity.status(HttpStatus.CREATED).body(coupon);
     }
 
+    /**
+     * Add several coupons for the logged-in company in one insert batch.
+     * Either all coupons are added or none.
+     *
+     * @param batchRequest Coupon details, at most CouponBatchRequest.MAX_COUPONS
+     * @param request HTTP request to extract company ID from JWT
+     * @return Created coupons with their IDs, in request order
+     * @throws SQLException if database error occurs
+     * @throws CouponAlreadyExistsForCompanyException if a coupon already exists or a title repeats
+     * @throws ValidationException if validation fails
+     */
+    @PostMapping("/coupons/batch")
+    public ResponseEntity<List<Coupon>> addCoupons(@Valid @RequestBody CouponBatchRequest batchRequest,
+                                                   HttpServletRequest request)
+            throws SQLException, CouponAlreadyExistsForCompanyException, ValidationException {
+        long companyId = (long) request.getAttribute("userId");
+
+        List<Coupon> coupons = new ArrayList<>();
+        for (CouponRequest couponRequest : batchRequest.getCoupons()) {
+            coupons.add(toCoupon(0, companyId, couponRequest));
+        }
+
+        companyFacade.addCoupons(coupons);
+        return ResponseEntity.status(HttpStatus.CREATED).body(coupons);
+    }
+
+    /**
+     * Upload a coupon image; use the returned hash as the coupon image
+     *
+     * @param file PNG, JPEG or GIF image (multipart field "file")
+     * @return Content hash and URL of the stored image
+     * @throws ValidationException if the file is not a supported image or is too large
+     * @throws IOException if the image cannot be stored
+     */
+    @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageUploadResponse> uploadImage(@RequestParam("file") MultipartFile file)
+            throws ValidationException, IOException {
+        String hash = companyFacade.uploadImage(file.getBytes());
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ImageUploadResponse(hash, ImageRefs.urlOf(hash)));
+    }
+
     /**
      * Update an existing coupon
      *
@@ -89,26 +125,12 @@ public class CompanyController {
      * @throws ValidationException if validation fails
      */
     @PutMapping("/coupons/{id}")
-    public ResponseEntity<Coupon> updateCoupon(@PathVariable int id, @Valid @RequestBody CouponRequest couponRequest,
+    public ResponseEntity<Coupon> updateCoupon(@PathVariable long id, @Valid @RequestBody CouponRequest couponRequest,
                                                 HttpServletRequest request)
             throws SQLException, CategoryNotFoundException, CantUpdateCouponException, ValidationException {
-        int companyId = (int) request.getAttribute("userId");
+        long companyId = (long) request.getAttribute("userId");
 
-        // Parse category name to Category enum
-        Category category = Category.valueOf(couponRequest.getCategory().toUpperCase());
-
-        Coupon coupon = new Coupon(
-                id,
-                companyId,
-                category,
-                couponRequest.getTitle(),
-                couponRequest.getDescription(),
-                Date.valueOf(couponRequest.getStartDate()),
-                Date.valueOf(couponRequest.getEndDate()),
-                couponRequest.getAmount(),
-                couponRequest.getPrice(),
-                couponRequest.getImage()
-        );
+        Coupon coupon = toCoupon(id, companyId, couponRequest);
 
         companyFacade.updateCoupon(coupon);
         return ResponseEntity.ok(coupon);
@@ -122,7 +144,7 @@ public class CompanyController {
      * @throws SQLException if database error occurs
      */
     @DeleteMapping("/coupons/{id}")
-    public ResponseEntity<Void> deleteCoupon(@PathVariable int id) throws SQLException {
+    public ResponseEntity<Void> deleteCoupon(@PathVariable long id) throws SQLException {
         companyFacade.deleteCoupon(id);
         return ResponseEntity.noContent().build();
     }
@@ -138,9 +160,8 @@ public class CompanyController {
     @GetMapping("/coupons")
     public ResponseEntity<ArrayList<Coupon>> getCompanyCoupons(HttpServletRequest request)
             throws SQLException, CategoryNotFoundException {
-        int companyId = (int) request.getAttribute("userId");
-        Company company = companiesDAO.getCompany(companyId);
-        ArrayList<Coupon> coupons = companyFacade.getCompanyCoupons(company);
+        long companyId = (long) request.getAttribute("userId");
+        ArrayList<Coupon> coupons = companyFacade.getCompanyCoupons(companyId);
         return ResponseEntity.ok(coupons);
     }
 
@@ -156,10 +177,9 @@ public class CompanyController {
     @GetMapping("/coupons/category/{categoryId}")
     public ResponseEntity<ArrayList<Coupon>> getCouponsByCategory(@PathVariable int categoryId, HttpServletRequest request)
             throws SQLException, CategoryNotFoundException {
-        int companyId = (int) request.getAttribute("userId");
-        Company company = companiesDAO.getCompany(companyId);
+        long companyId = (long) request.getAttribute("userId");
         Category category = Category.getCategory(categoryId);
-        ArrayList<Coupon> coupons = companyFacade.getCompanyCoupons(company, category);
+        ArrayList<Coupon> coupons = companyFacade.getCompanyCoupons(companyId, category);
         return ResponseEntity.ok(coupons);
     }
 
@@ -175,9 +195,8 @@ public class CompanyController {
     @GetMapping("/coupons/price/{maxPrice}")
     public ResponseEntity<ArrayList<Coupon>> getCouponsByMaxPrice(@PathVariable double maxPrice, HttpServletRequest request)
             throws SQLException, CategoryNotFoundException {
-        int companyId = (int) request.getAttribute("userId");
-        Company company = companiesDAO.getCompany(companyId);
-        ArrayList<Coupon> coupons = companyFacade.getCompanyCoupons(company, maxPrice);
+        long companyId = (long) request.getAttribute("userId");
+        ArrayList<Coupon> coupons = companyFacade.getCompanyCoupons(companyId, maxPrice);
         return ResponseEntity.ok(coupons);
     }
 
@@ -190,9 +209,74 @@ public class CompanyController {
      */
     @GetMapping("/details")
     public ResponseEntity<Company> getCompanyDetails(HttpServletRequest request) throws SQLException {
-        int companyId = (int) request.getAttribute("userId");
-        Company company = companiesDAO.getCompany(companyId);
-        Company details = companyFacade.getCompanyDetails(company);
+        long companyId = (long) request.getAttribute("userId");
+        Company details = companyFacade.getCompanyDetails(companyId);
         return ResponseEntity.ok(details);
     }
+
+    /**
+     * Get coupons sold per day and category for the logged-in company.
+     * Defaults to the last 30 days when no range is given.
+     *
+     * @param from First day (inclusive, yyyy-MM-dd)
+     * @param to Last day (inclusive, yyyy-MM-dd)
+     * @param request HTTP request to extract company ID from JWT
+     * @return Daily sales per category
+     * @throws SQLException if database error occurs
+     * @throws CategoryNotFoundException if category error occurs
+     * @throws ValidationException if the range is invalid
+     */
+    @GetMapping("/analytics/sales/daily")
+    public ResponseEntity<ArrayList<DailyCategorySales>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request)
+            throws SQLException, CategoryNotFoundException, ValidationException {
+        long companyId = (long) request.getAttribute("userId");
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_SALES_RANGE_DAYS - 1);
+        return ResponseEntity.ok(companyFacade.getCompanyDailySales(companyId, start, end));
+    }
+
+    /**
+     * Get total coupons sold per category for the logged-in company.
+     * Defaults to the last 30 days when no range is given.
+     *
+     * @param from First day (inclusive, yyyy-MM-dd)
+     * @param to Last day (inclusive, yyyy-MM-dd)
+     * @param request HTTP request to extract company ID from JWT
+     * @return Purchases per category
+     * @throws SQLException if database error occurs
+     * @throws CategoryNotFoundException if category error occurs
+     * @throws ValidationException if the range is invalid
+     */
+    @GetMapping("/analytics/sales/categories")
+    public ResponseEntity<Map<Category, Integer>> getSalesByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request)
+            throws SQLException, CategoryNotFoundException, ValidationException {
+        long companyId = (long) request.getAttribute("userId");
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_SALES_RANGE_DAYS - 1);
+        return ResponseEntity.ok(companyFacade.getCompanySalesByCategory(companyId, start, end));
+    }
+
+    private static Coupon toCoupon(long id, long companyId, CouponRequest couponRequest) {
+        // Parse category name to Category enum
+        Category category = Category.valueOf(couponRequest.getCategory().toUpperCase());
+
+        return new Coupon(
+                id,
+                companyId,
+                category,
+                couponRequest.getTitle(),
+                couponRequest.getDescription(),
+                Date.valueOf(couponRequest.getStartDate()),
+                Date.valueOf(couponRequest.getEndDate()),
+                couponRequest.getAmount(),
+                couponRequest.getPrice(),
+                couponRequest.getImage()
+        );
+    }
 }
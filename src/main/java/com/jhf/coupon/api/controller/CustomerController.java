@@ -1,5 +1,8 @@
 package com.jhf.coupon.api.controller;
 
+import com.jhf.coupon.api.dto.CartCheckoutRequest;
+import com.jhf.coupon.api.dto.CartCheckoutResponse;
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
 import com.jhf.coupon.backend.couponCategory.Category;
@@ -8,14 +11,16 @@ import com.jhf.coupon.backend.exceptions.coupon.CouponNotInStockException;
 import com.jhf.coupon.backend.exceptions.coupon.CustomerAlreadyPurchasedCouponException;
 import com.jhf.coupon.backend.facade.CustomerFacade;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
-import com.jhf.coupon.sql.dao.customer.CustomerDAO;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Customer Controller
@@ -29,12 +34,10 @@ import java.util.ArrayList;
 public class CustomerController {
 
     private final CustomerFacade customerFacade;
-    private final CustomerDAO customerDAO;
     private final CouponsDAO couponsDAO;
 
-    public CustomerController(CustomerFacade customerFacade, CustomerDAO customerDAO, CouponsDAO couponsDAO) {
+    public CustomerController(CustomerFacade customerFacade, CouponsDAO couponsDAO) {
         this.customerFacade = customerFacade;
-        this.customerDAO = customerDAO;
         this.couponsDAO = couponsDAO;
     }
 
@@ -50,17 +53,35 @@ public class CustomerController {
      * @throws CouponNotInStockException if coupon is out of stock
      */
     @PostMapping("/coupons/{couponId}/purchase")
-    public ResponseEntity<String> purchaseCoupon(@PathVariable int couponId, HttpServletRequest request)
+    public ResponseEntity<String> purchaseCoupon(@PathVariable long couponId, HttpServletRequest request)
             throws SQLException, CustomerAlreadyPurchasedCouponException, CategoryNotFoundException, CouponNotInStockException {
-        int customerId = (int) request.getAttribute("userId");
+        long customerId = (long) request.getAttribute("userId");
 
-        Customer customer = customerDAO.getCustomer(customerId);
-        Coupon coupon = couponsDAO.getCoupon(couponId);
-
-        customerFacade.purchaseCoupon(coupon, customer);
+        customerFacade.purchaseCoupon(customerId, couponId);
         return ResponseEntity.ok("Coupon purchased successfully");
     }
 
+    /**
+     * Purchase several coupons for the logged-in customer in one transaction: all of them or none
+     *
+     * @param cartRequest Coupon IDs, at most CartCheckoutRequest.MAX_ITEMS
+     * @param request HTTP request to extract customer ID from JWT
+     * @return 200 with one result per coupon if all were purchased, otherwise 409 with the
+     *         reason on each coupon that failed (CROSS_SHARD on every coupon of a cart spanning
+     *         shards, when sharding is enabled)
+     * @throws SQLException if database error occurs
+     */
+    @PostMapping("/cart/checkout")
+    public ResponseEntity<CartCheckoutResponse> checkoutCart(@Valid @RequestBody CartCheckoutRequest cartRequest,
+                                                             HttpServletRequest request) throws SQLException {
+        long customerId = (long) request.getAttribute("userId");
+
+        List<CartItemResult> items = customerFacade.checkoutCart(customerId, cartRequest.getCouponIds());
+        boolean purchased = items.stream().allMatch(CartItemResult::isPurchased);
+        return ResponseEntity.status(purchased ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .body(new CartCheckoutResponse(purchased, items));
+    }
+
     /**
      * Get all coupons purchased by the logged-in customer
      *
@@ -72,9 +93,8 @@ public class CustomerController {
     @GetMapping("/coupons")
     public ResponseEntity<ArrayList<Coupon>> getCustomerCoupons(HttpServletRequest request)
             throws SQLException, CategoryNotFoundException {
-        int customerId = (int) request.getAttribute("userId");
-        Customer customer = customerDAO.getCustomer(customerId);
-        ArrayList<Coupon> coupons = customerFacade.getCustomerCoupons(customer);
+        long customerId = (long) request.getAttribute("userId");
+        ArrayList<Coupon> coupons = customerFacade.getCustomerCoupons(customerId);
         return ResponseEntity.ok(coupons);
     }
 
@@ -104,10 +124,9 @@ public class CustomerController {
     @GetMapping("/coupons/category/{categoryId}")
     public ResponseEntity<ArrayList<Coupon>> getCouponsByCategory(@PathVariable int categoryId, HttpServletRequest request)
             throws SQLException, CategoryNotFoundException {
-        int customerId = (int) request.getAttribute("userId");
-        Customer customer = customerDAO.getCustomer(customerId);
+        long customerId = (long) request.getAttribute("userId");
         Category category = Category.getCategory(categoryId);
-        ArrayList<Coupon> coupons = customerFacade.getCustomerCoupons(customer, category);
+        ArrayList<Coupon> coupons = customerFacade.getCustomerCoupons(customerId, category);
         return ResponseEntity.ok(coupons);
     }
 
@@ -123,9 +142,8 @@ public class CustomerController {
     @GetMapping("/coupons/price/{maxPrice}")
     public ResponseEntity<ArrayList<Coupon>> getCouponsByMaxPrice(@PathVariable double maxPrice, HttpServletRequest request)
             throws SQLException, CategoryNotFoundException {
-        int customerId = (int) request.getAttribute("userId");
-        Customer customer = customerDAO.getCustomer(customerId);
-        ArrayList<Coupon> coupons = customerFacade.getCustomerCoupons(customer, maxPrice);
+        long customerId = (long) request.getAttribute("userId");
+        ArrayList<Coupon> coupons = customerFacade.getCustomerCoupons(customerId, maxPrice);
         return ResponseEntity.ok(coupons);
     }
 
@@ -138,9 +156,8 @@ public class CustomerController {
      */
     @GetMapping("/details")
     public ResponseEntity<Customer> getCustomerDetails(HttpServletRequest request) throws SQLException {
-        int customerId = (int) request.getAttribute("userId");
-        Customer customer = customerDAO.getCustomer(customerId);
-        Customer details = customerFacade.getCustomerDetails(customer);
+        long customerId = (long) request.getAttribute("userId");
+        Customer details = customerFacade.getCustomerDetails(customerId);
         return ResponseEntity.ok(details);
     }
 }
@@ -0,0 +1,108 @@
+package com.jhf.coupon.api.controller;
+
+import com.jhf.coupon.backend.exceptions.ImageNotFoundException;
+import com.jhf.coupon.backend.images.ImageStore;
+import com.jhf.coupon.backend.images.StoredImage;
+import com.jhf.coupon.backend.images.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Image Controller
+ * Serves coupon images from the content-addressed ImageStore
+ * No authentication required
+ * Endpoint: /api/v1/public/images
+ *
+ * Image URLs name their content, so responses are cacheable forever by browsers and CDNs.
+ * File bodies are handed to Tomcat's sendfile when the connector supports it (the kernel copies
+ * the file to the socket), otherwise copied with FileChannel.transferTo; neither goes through
+ * a heap byte[].
+ */
+@RestController
+@RequestMapping("/api/v1/public/images")
+public class ImageController {
+
+    static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    static final String PENDING_CACHE_CONTROL = "public, max-age=60";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStore imageStore;
+    private final ThumbnailService thumbnailService;
+
+    public ImageController(ImageStore imageStore, ThumbnailService thumbnailService) {
+        this.imageStore = imageStore;
+        this.thumbnailService = thumbnailService;
+    }
+
+    /**
+     * Get an original image
+     *
+     * @param hash SHA-256 content hash
+     * @throws ImageNotFoundException if no image has this hash
+     */
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws ImageNotFoundException, IOException {
+        send(imageStore.getOriginal(hash), request, response);
+    }
+
+    /**
+     * Get a thumbnail; serves the original until the thumbnail has been generated
+     *
+     * @param hash SHA-256 content hash
+     * @param width One of images.thumbnail.widths
+     * @throws ImageNotFoundException if no image has this hash or the width is not configured
+     */
+    @GetMapping("/{hash}/w/{width}")
+    public void getThumbnail(@PathVariable String hash, @PathVariable int width,
+                             HttpServletRequest request, HttpServletResponse response)
+            throws ImageNotFoundException, IOException {
+        send(thumbnailService.getThumbnail(hash, width), request, response);
+    }
+
+    private void send(StoredImage image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // A thumbnail and the original it stands in for must not share an ETag
+        String etag = "\"" + image.getPath().getFileName() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, image.isImmutable() ? IMMUTABLE_CACHE_CONTROL : PENDING_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setContentType(image.getFormat() != null
+                ? image.getFormat().getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(image.getSize());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.getPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, image.getSize());
+            return;
+        }
+        try (FileChannel file = FileChannel.open(image.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            long size = file.size();
+            while (position < size) {
+                position += file.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.jhf.coupon.api.controller;
 
+import com.jhf.coupon.api.streaming.NdjsonStreamer;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -20,9 +23,11 @@ import java.util.ArrayList;
 public class PublicCouponController {
 
     private final CouponsDAO couponsDAO;
+    private final NdjsonStreamer ndjsonStreamer;
 
-    public PublicCouponController(CouponsDAO couponsDAO) {
+    public PublicCouponController(CouponsDAO couponsDAO, NdjsonStreamer ndjsonStreamer) {
         this.couponsDAO = couponsDAO;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     /**
@@ -38,6 +43,16 @@ public class PublicCouponController {
         return ResponseEntity.ok(coupons);
     }
 
+    /**
+     * Stream all coupons as NDJSON (Accept: application/x-ndjson), one row in memory at a time
+     *
+     * @return One coupon per line
+     */
+    @GetMapping(value = "/coupons", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCoupons() {
+        return ndjsonStreamer.stream(couponsDAO::forEachCoupon);
+    }
+
     /**
      * Get coupon by ID
      *
@@ -47,7 +62,7 @@ public class PublicCouponController {
      * @throws CategoryNotFoundException if category error occurs
      */
     @GetMapping("/coupons/{id}")
-    public ResponseEntity<Coupon> getCouponById(@PathVariable int id)
+    public ResponseEntity<Coupon> getCouponById(@PathVariable long id)
             throws SQLException, CategoryNotFoundException {
         Coupon coupon = couponsDAO.getCoupon(id);
         return ResponseEntity.ok(coupon);
@@ -0,0 +1,35 @@
+package com.jhf.coupon.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Cart Checkout Request DTO
+ * Used for purchasing several coupons at once via /api/v1/customer/cart/checkout
+ */
+public class CartCheckoutRequest {
+
+    public static final int MAX_ITEMS = 50;
+
+    @NotEmpty(message = "At least one coupon is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " coupons per checkout")
+    private List<@NotNull(message = "Coupon ID is required") Long> couponIds;
+
+    public CartCheckoutRequest() {
+    }
+
+    public CartCheckoutRequest(List<Long> couponIds) {
+        this.couponIds = couponIds;
+    }
+
+    public List<Long> getCouponIds() {
+        return couponIds;
+    }
+
+    public void setCouponIds(List<Long> couponIds) {
+        this.couponIds = couponIds;
+    }
+}
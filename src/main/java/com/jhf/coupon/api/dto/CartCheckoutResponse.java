@@ -0,0 +1,39 @@
+package com.jhf.coupon.api.dto;
+
+import com.jhf.coupon.backend.beans.CartItemResult;
+
+import java.util.List;
+
+/**
+ * Cart Checkout Response DTO
+ * Returned by a cart checkout; items holds one result per distinct coupon, in coupon ID order
+ */
+public class CartCheckoutResponse {
+
+    private boolean purchased;
+    private List<CartItemResult> items;
+
+    public CartCheckoutResponse() {
+    }
+
+    public CartCheckoutResponse(boolean purchased, List<CartItemResult> items) {
+        this.purchased = purchased;
+        this.items = items;
+    }
+
+    public boolean isPurchased() {
+        return purchased;
+    }
+
+    public void setPurchased(boolean purchased) {
+        this.purchased = purchased;
+    }
+
+    public List<CartItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CartItemResult> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,35 @@
+package com.jhf.coupon.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Coupon Batch Request DTO
+ * Used for creating several coupons at once via /api/company/coupons/batch
+ */
+public class CouponBatchRequest {
+
+    public static final int MAX_COUPONS = 100;
+
+    @NotEmpty(message = "At least one coupon is required")
+    @Size(max = MAX_COUPONS, message = "At most " + MAX_COUPONS + " coupons per batch")
+    private List<@Valid CouponRequest> coupons;
+
+    public CouponBatchRequest() {
+    }
+
+    public CouponBatchRequest(List<CouponRequest> coupons) {
+        this.coupons = coupons;
+    }
+
+    public List<CouponRequest> getCoupons() {
+        return coupons;
+    }
+
+    public void setCoupons(List<CouponRequest> coupons) {
+        this.coupons = coupons;
+    }
+}
@@ -33,7 +33,9 @@ public class CouponRequest {
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
     private double price;
 
-    @Size(max = 48, message = "Image URL must not exceed 48 characters")
+    // A legacy image URL, or an uploaded image's content hash (bare or as its /api/v1/public/images URL)
+    @Pattern(regexp = "(?s).{0,48}|[0-9a-f]{64}|/api/v1/public/images/[0-9a-f]{64}",
+            message = "Image URL must not exceed 48 characters unless it is an uploaded image reference")
     private String image;
 
     public CouponRequest() {
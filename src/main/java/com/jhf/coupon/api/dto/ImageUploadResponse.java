@@ -0,0 +1,35 @@
+package com.jhf.coupon.api.dto;
+
+/**
+ * Image Upload Response DTO
+ * Returned after a coupon image is stored; hash is the value to send as the coupon image
+ */
+public class ImageUploadResponse {
+
+    private String hash;
+    private String url;
+
+    public ImageUploadResponse() {
+    }
+
+    public ImageUploadResponse(String hash, String url) {
+        this.hash = hash;
+        this.url = url;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+}
@@ -47,7 +47,7 @@ public class LoginResponse {
      * Nested class for user information
      */
     public static class UserInfo {
-        private int userId;
+        private long userId;
         private String email;
         private String clientType;
         private String name; // Company name or Customer full name
@@ -55,18 +55,18 @@ public class LoginResponse {
         public UserInfo() {
         }
 
-        public UserInfo(int userId, String email, String clientType, String name) {
+        public UserInfo(long userId, String email, String clientType, String name) {
             this.userId = userId;
             this.email = email;
             this.clientType = clientType;
             this.name = name;
         }
 
-        public int getUserId() {
+        public long getUserId() {
             return userId;
         }
 
-        public void setUserId(int userId) {
+        public void setUserId(long userId) {
             this.userId = userId;
         }
 
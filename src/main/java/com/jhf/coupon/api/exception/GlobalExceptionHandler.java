@@ -2,6 +2,7 @@ package com.jhf.coupon.api.exception;
 
 import com.jhf.coupon.api.dto.ErrorResponse;
 import com.jhf.coupon.backend.exceptions.AccountLockedException;
+import com.jhf.coupon.backend.exceptions.ImageNotFoundException;
 import com.jhf.coupon.backend.exceptions.InvalidLoginCredentialsException;
 import com.jhf.coupon.backend.exceptions.company.CantDeleteCompanyHasCoupons;
 import com.jhf.coupon.backend.exceptions.company.CantUpdateCompanyException;
@@ -26,6 +27,7 @@ import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 /**
  * Global Exception Handler
@@ -69,7 +71,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
             CompanyNotFoundException.class,
             CustomerNotFoundException.class,
-            CouponNotFoundException.class
+            CouponNotFoundException.class,
+            ImageNotFoundException.class
     })
     public ResponseEntity<ErrorResponse> handleNotFound(
             Exception ex, HttpServletRequest request) {
@@ -169,6 +172,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceeded(
+            MaxUploadSizeExceededException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                "Payload Too Large",
+                "Uploaded file is too large",
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ErrorResponse> handleHttpRequestMethodNotSupported(
             HttpRequestMethodNotSupportedException ex, HttpServletRequest request) {
@@ -0,0 +1,72 @@
+package com.jhf.coupon.api.filter;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.backend.metrics.SloTracker;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Controller-level latency metrics: times every request dispatched to a controller method and
+ * records it under its route template ("POST /api/v1/customer/coupons/{couponId}/purchase",
+ * never the raw URI) and the caller's client type, then counts it against the route's SLO.
+ *
+ * Timing starts when the handler is resolved, after the security, rate limiting and admission
+ * control filters, so requests rejected there are not included. Streamed (NDJSON) responses
+ * are timed until the stream is handed to the container, like RequestResponseLoggingFilter.
+ */
+@Component
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".start";
+
+    private final PrometheusMetrics metrics;
+    private final SloTracker sloTracker;
+
+    public EndpointMetricsInterceptor(PrometheusMetrics metrics, SloTracker sloTracker) {
+        this.metrics = metrics;
+        this.sloTracker = sloTracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getDispatcherType() == DispatcherType.REQUEST) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        record(request, response.getStatus());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        // An exception no handler resolved becomes a 500 after this interceptor returns
+        record(request, ex == null ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+
+    private void record(HttpServletRequest request, int status) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (!(start instanceof Long startNanos) || pattern == null) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+
+        long durationNanos = System.nanoTime() - startNanos;
+        String route = request.getMethod() + " " + pattern;
+        Object clientType = request.getAttribute("clientType");
+
+        metrics.recordHttpRequest(route, clientType == null ? "anonymous" : clientType.toString(), status,
+                durationNanos, sloTracker.getThreshold(route));
+        sloTracker.record(route, status, durationNanos);
+    }
+}
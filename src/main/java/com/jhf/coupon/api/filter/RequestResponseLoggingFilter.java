@@ -8,6 +8,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -16,6 +18,7 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Request/Response Logging Filter
@@ -26,7 +29,8 @@ import java.util.Enumeration;
  * - User information (from JWT)
  * - Request/Response Bodies (configurable)
  *
- * Runs early in filter chain (before security filters)
+ * Runs early in filter chain (before security filters). Latency metrics per route are
+ * recorded by EndpointMetricsInterceptor; this filter only logs.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 1)
@@ -47,17 +51,31 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Streamed (NDJSON) responses are written after this filter returns and can be any size,
+        // so they are passed through unbuffered and only the request line is logged
+        if (isStreamingRequest(request)) {
+            long startTime = System.nanoTime();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                logger.info("{} {} -> streaming response started in {}ms", request.getMethod(), requestURI,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            }
+            return;
+        }
+
         // Wrap request and response to cache bodies for logging
         ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
 
-        long startTime = System.currentTimeMillis();
+        // Monotonic clock: wall-clock adjustments must not produce negative or inflated durations
+        long startTime = System.nanoTime();
 
         try {
             // Process request
             filterChain.doFilter(requestWrapper, responseWrapper);
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
 
             // Log request and response
             logRequestResponse(requestWrapper, responseWrapper, duration);
@@ -74,11 +92,17 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
         return requestURI.startsWith("/css/") ||
                requestURI.startsWith("/js/") ||
                requestURI.startsWith("/images/") ||
+               requestURI.startsWith("/api/v1/public/images/") ||
                requestURI.startsWith("/favicon.ico") ||
                requestURI.equals("/actuator/health") ||
                requestURI.equals("/actuator/prometheus");
     }
 
+    private boolean isStreamingRequest(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
     /**
      * Log request and response details
      */
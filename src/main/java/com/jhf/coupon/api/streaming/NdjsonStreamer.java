@@ -0,0 +1,64 @@
+package com.jhf.coupon.api.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jhf.coupon.sql.dao.RowHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Writes query results as NDJSON (one JSON object per line) while the query is still open.
+ *
+ * One JsonGenerator is created per response and reused for every row, so memory stays
+ * constant however many rows the table has. The body is written on an MVC async thread
+ * after the handler returns; the status (200) is committed before the first row, so a
+ * query that fails mid-stream aborts the connection instead of returning an error body.
+ * Clients ask for this representation with {@code Accept: application/x-ndjson}.
+ */
+@Component
+public class NdjsonStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonStreamer.class);
+
+    private final ObjectWriter writer;
+
+    public NdjsonStreamer(ObjectMapper objectMapper) {
+        // The generator is flushed by its buffer, not after every row
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Source of rows for one response, typically a DAO forEach method.
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(RowHandler<T> handler) throws Exception;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(RowSource<T> source) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                // Rows are separated by newlines rather than the default space
+                generator.setRootValueSeparator(null);
+                source.forEach(row -> {
+                    writer.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                });
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.error("NDJSON stream aborted", e);
+                throw new IOException("NDJSON stream aborted", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
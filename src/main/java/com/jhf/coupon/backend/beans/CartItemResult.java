@@ -0,0 +1,36 @@
+package com.jhf.coupon.backend.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one coupon of a cart checkout (see CouponsDAO.addCouponPurchases).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemResult {
+
+	public enum Status {
+		/** Bought: stock decremented and purchase recorded */
+		PURCHASED,
+		/** No coupon with the ID exists */
+		NOT_FOUND,
+		/** The customer already owns the coupon */
+		ALREADY_PURCHASED,
+		/** The coupon has no units left */
+		OUT_OF_STOCK,
+		/** Could be bought, but the checkout was rolled back because another coupon failed */
+		NOT_PURCHASED,
+		/** Stored on a different shard than other coupons of the cart, which cannot be bought in one transaction */
+		CROSS_SHARD
+	}
+
+	private long couponId;
+	private Status status;
+
+	public boolean isPurchased() {
+		return status == Status.PURCHASED;
+	}
+}
@@ -0,0 +1,20 @@
+package com.jhf.coupon.backend.beans;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coupons of one category in a reporting snapshot: how many, units left in stock and
+ * their value (amount x price).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStock {
+	private Category category;
+	private int coupons;
+	private long stock;
+	private double value;
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Company {
-	private int id;
+	private long id;
 	private String name;
 	private String email;
 	private String password;
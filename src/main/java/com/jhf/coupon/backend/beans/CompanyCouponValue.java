@@ -0,0 +1,19 @@
+package com.jhf.coupon.backend.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coupons of one company in a reporting snapshot: how many, units left in stock and
+ * their value (amount x price).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyCouponValue {
+	private long companyId;
+	private int coupons;
+	private long stock;
+	private double value;
+}
@@ -1,6 +1,7 @@
 package com.jhf.coupon.backend.beans;
 
 import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.images.ImageRefs;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,8 +12,8 @@ import java.sql.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Coupon {
-	private int id;
-	private int companyID;
+	private long id;
+	private long companyID;
 	private Category CATEGORY;
 	private String title;
 	private String description;
@@ -21,4 +22,11 @@ public class Coupon {
 	private int amount;
 	private double price;
 	private String image;
+
+	/**
+	 * URL to load the image from; image holds a content hash for images in the image store.
+	 */
+	public String getImageUrl() {
+		return ImageRefs.urlOf(image);
+	}
 }
@@ -0,0 +1,20 @@
+package com.jhf.coupon.backend.beans;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the coupon_sales_daily rollup: coupons of a company sold in one category on one day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCategorySales {
+	private LocalDate date;
+	private Category category;
+	private int purchases;
+}
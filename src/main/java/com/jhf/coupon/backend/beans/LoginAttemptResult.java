@@ -0,0 +1,49 @@
+package com.jhf.coupon.backend.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a single lockout-aware authentication attempt.
+ * Produced by the DAO authenticateAndTrack methods, which read the password hash and
+ * lockout columns in one row read and write the outcome back in at most one UPDATE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAttemptResult {
+
+	public enum Outcome {
+		/** No account exists for the email */
+		NOT_FOUND,
+		/** Account is locked and the lockout has not expired; password was not checked */
+		LOCKED,
+		/** Password verified; failed attempts were reset if needed */
+		SUCCESS,
+		/** Password rejected; failed attempts were incremented */
+		FAILURE
+	}
+
+	private Outcome outcome;
+	private long userId;
+
+	/**
+	 * Lockout state after the attempt was recorded, or null when the account was not found.
+	 */
+	private AccountLockoutStatus lockoutStatus;
+
+	/**
+	 * Stored hash that verified successfully but was created with a lower cost factor than
+	 * the current one, or null when no upgrade is needed.
+	 */
+	private String passwordHashToUpgrade;
+
+	public LoginAttemptResult(Outcome outcome, long userId, AccountLockoutStatus lockoutStatus) {
+		this(outcome, userId, lockoutStatus, null);
+	}
+
+	public boolean isAuthenticated() {
+		return outcome == Outcome.SUCCESS;
+	}
+}
@@ -0,0 +1,24 @@
+package com.jhf.coupon.backend.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of the outbox_events table: a domain change recorded in the same transaction as the
+ * change itself, delivered to in-process subscribers by the OutboxRelay.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+	private long id;
+	private String aggregateType;
+	private long aggregateId;
+	private String eventType;
+	/** JSON object with the fields a subscriber needs (see CouponEventType) */
+	private String payload;
+	private LocalDateTime createdAt;
+}
@@ -8,6 +8,21 @@ public enum Category {
 	FANCY_RESTAURANT(30),
 	ALL_INCLUSIVE_VACATION(40);
 
+	// Indexed by id. Ids are small, so a dense table gives an O(1) lookup without the
+	// array copy values() makes on every call.
+	private static final Category[] BY_ID;
+
+	static {
+		int maxId = 0;
+		for (Category category : values()) {
+			maxId = Math.max(maxId, category.id);
+		}
+		BY_ID = new Category[maxId + 1];
+		for (Category category : values()) {
+			BY_ID[category.id] = category;
+		}
+	}
+
 	private final int id;
 
 	Category(int id) {
@@ -19,10 +34,8 @@ public enum Category {
 	}
 
 	public static Category getCategory(int id) throws CategoryNotFoundException {
-		for (Category category : values()) {
-			if (category.id == id) {
-				return category;
-			}
+		if (id >= 0 && id < BY_ID.length && BY_ID[id] != null) {
+			return BY_ID[id];
 		}
 		throw new CategoryNotFoundException("Could not find Category with id: " + id);
 	}
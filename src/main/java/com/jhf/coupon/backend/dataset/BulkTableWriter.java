@@ -0,0 +1,30 @@
+package com.jhf.coupon.backend.dataset;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one table: through COPY on PostgreSQL, otherwise through multi-row
+ * INSERT statements. Rows are buffered, so they reach the database in chunks and the last
+ * ones only on close(). The caller owns the connection and its transaction.
+ */
+public interface BulkTableWriter extends AutoCloseable {
+
+	/**
+	 * @param values One value per column, in the order the writer was opened with
+	 */
+	void row(Object... values) throws SQLException;
+
+	@Override
+	void close() throws SQLException;
+
+	static BulkTableWriter open(Connection connection, int batchRows, String table, String... columns)
+			throws SQLException {
+		if (connection.isWrapperFor(PGConnection.class)) {
+			return new PostgresCopyWriter(connection.unwrap(PGConnection.class), table, columns);
+		}
+		return new MultiRowInsertWriter(connection, batchRows, table, columns);
+	}
+}
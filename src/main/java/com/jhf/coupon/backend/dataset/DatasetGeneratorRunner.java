@@ -0,0 +1,40 @@
+package com.jhf.coupon.backend.dataset;
+
+import com.jhf.coupon.config.DatasetProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line entry point of the "dataset" profile: generates the dataset described by the
+ * dataset.* properties, then shuts the application down. Run through
+ * scripts/db/generate-dataset.sh, e.g.
+ * <pre>
+ * ./scripts/db/generate-dataset.sh --dataset.customers=1000000 --dataset.purchases=10000000 --dataset.truncate=true
+ * </pre>
+ * A failure aborts startup, so the process exits non-zero.
+ */
+@Component
+@Profile("dataset")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+	private final SyntheticDatasetGenerator generator;
+	private final DatasetProperties properties;
+	private final ConfigurableApplicationContext context;
+
+	public DatasetGeneratorRunner(SyntheticDatasetGenerator generator, DatasetProperties properties,
+	                              ConfigurableApplicationContext context) {
+		this.generator = generator;
+		this.properties = properties;
+		this.context = context;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		generator.generate(properties);
+		// Scheduler threads would keep the JVM alive
+		System.exit(SpringApplication.exit(context, () -> 0));
+	}
+}
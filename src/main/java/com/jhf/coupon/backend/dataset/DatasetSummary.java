@@ -0,0 +1,16 @@
+package com.jhf.coupon.backend.dataset;
+
+import lombok.Value;
+
+/**
+ * Rows written by one SyntheticDatasetGenerator run and how long it took.
+ */
+@Value
+public class DatasetSummary {
+	int companies;
+	int customers;
+	int coupons;
+	int purchases;
+	int dailySalesRows;
+	long elapsedMillis;
+}
@@ -0,0 +1,85 @@
+package com.jhf.coupon.backend.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * INSERT INTO table (...) VALUES (...), (...), ... with up to batchRows rows per statement, for
+ * databases without COPY (H2 in tests). One round trip and one statement per batch instead of
+ * per row; the full-size statement is prepared once and reused.
+ */
+final class MultiRowInsertWriter implements BulkTableWriter {
+	/**
+	 * PostgreSQL's limit on bind parameters per statement, the lowest of the supported databases.
+	 */
+	private static final int MAX_PARAMETERS = 32767;
+
+	private final Connection connection;
+	private final String table;
+	private final String[] columns;
+	private final Object[][] pending;
+	private int pendingRows;
+	private PreparedStatement fullStatement;
+
+	MultiRowInsertWriter(Connection connection, int batchRows, String table, String... columns) {
+		this.connection = connection;
+		this.table = table;
+		this.columns = columns;
+		this.pending = new Object[Math.max(1, Math.min(batchRows, MAX_PARAMETERS / columns.length))][];
+	}
+
+	@Override
+	public void row(Object... values) throws SQLException {
+		pending[pendingRows++] = values;
+		if (pendingRows == pending.length) {
+			flush();
+		}
+	}
+
+	private void flush() throws SQLException {
+		if (pendingRows == 0) {
+			return;
+		}
+		if (pendingRows == pending.length) {
+			if (fullStatement == null) {
+				fullStatement = connection.prepareStatement(insertSql(pending.length));
+			}
+			execute(fullStatement);
+		} else {
+			try (PreparedStatement statement = connection.prepareStatement(insertSql(pendingRows))) {
+				execute(statement);
+			}
+		}
+		pendingRows = 0;
+	}
+
+	private void execute(PreparedStatement statement) throws SQLException {
+		int index = 1;
+		for (int row = 0; row < pendingRows; row++) {
+			for (Object value : pending[row]) {
+				statement.setObject(index++, value);
+			}
+			pending[row] = null;
+		}
+		statement.executeUpdate();
+	}
+
+	private String insertSql(int rows) {
+		String placeholders = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+		return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES "
+				+ String.join(", ", Collections.nCopies(rows, placeholders));
+	}
+
+	@Override
+	public void close() throws SQLException {
+		try {
+			flush();
+		} finally {
+			if (fullStatement != null) {
+				fullStatement.close();
+			}
+		}
+	}
+}
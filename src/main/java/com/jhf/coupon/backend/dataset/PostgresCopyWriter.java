@@ -0,0 +1,84 @@
+package com.jhf.coupon.backend.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * COPY ... FROM STDIN in PostgreSQL's text format: one line per row, tab-separated, \N for
+ * NULL. Skips per-row statement parsing and planning, which makes it several times faster than
+ * even multi-row INSERTs for millions of rows.
+ */
+final class PostgresCopyWriter implements BulkTableWriter {
+	private static final int FLUSH_CHARS = 1 << 20;
+
+	private final CopyIn copyIn;
+	private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+
+	PostgresCopyWriter(PGConnection connection, String table, String... columns) throws SQLException {
+		this.copyIn = connection.getCopyAPI().copyIn(
+				"COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN");
+	}
+
+	@Override
+	public void row(Object... values) throws SQLException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				buffer.append('\t');
+			}
+			appendValue(buffer, values[i]);
+		}
+		buffer.append('\n');
+		if (buffer.length() >= FLUSH_CHARS) {
+			flush();
+		}
+	}
+
+	/**
+	 * Appends the value in COPY text format, escaping the characters that delimit fields and rows.
+	 */
+	static void appendValue(StringBuilder out, Object value) {
+		if (value == null) {
+			out.append("\\N");
+			return;
+		}
+		if (value instanceof Boolean bool) {
+			out.append(bool ? 't' : 'f');
+			return;
+		}
+		String text = value.toString();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '\\' -> out.append("\\\\");
+				case '\t' -> out.append("\\t");
+				case '\n' -> out.append("\\n");
+				case '\r' -> out.append("\\r");
+				default -> out.append(c);
+			}
+		}
+	}
+
+	private void flush() throws SQLException {
+		if (buffer.isEmpty()) {
+			return;
+		}
+		byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+		copyIn.writeToCopy(bytes, 0, bytes.length);
+		buffer.setLength(0);
+	}
+
+	@Override
+	public void close() throws SQLException {
+		try {
+			flush();
+			copyIn.endCopy();
+		} finally {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+	}
+}
@@ -0,0 +1,310 @@
+package com.jhf.coupon.backend.dataset;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.config.DatasetProperties;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the database with companies, customers, coupons and purchases at production-like
+ * volumes, for benchmarks, scaling tests and reproducing slow queries locally.
+ *
+ * Rows are a pure function of the seed, the reference date and the row's id: every row draws
+ * from its own SplittableRandom, so the output does not depend on how the ids are split over
+ * the parallel writers. Coupon popularity is Zipfian over a seeded shuffle of the coupon ids,
+ * so the best sellers are spread over companies and categories. Each customer gets
+ * purchases / customers distinct coupons (the first purchases % customers one more); a coupon
+ * the customer already has is replaced by the next rank. The coupon_sales_daily rollup is built
+ * from the purchases afterwards; coupon amounts are independent stock levels, not decremented,
+ * and no outbox events are written.
+ *
+ * Ids are written explicitly from 1, and the identity sequences are moved past them at the end.
+ *
+ * Registered only under the "dataset" profile, since a run with dataset.truncate empties the tables.
+ */
+@Component
+@Profile("dataset")
+public class SyntheticDatasetGenerator {
+	private static final Logger logger = LoggerFactory.getLogger(SyntheticDatasetGenerator.class);
+	private static final String EMAIL_DOMAIN = "@dataset.test";
+	private static final String IMAGE = "https://placehold.co/400x300";
+	private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+			"Michael", "Linda", "David", "Elizabeth", "William", "Susan", "Noa", "Yosef", "Maya", "Omar"};
+	private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+			"Miller", "Davis", "Cohen", "Levi", "Mizrahi", "Haddad", "Wilson", "Taylor", "Clark", "Lewis"};
+	private static final String[] COMPANY_WORDS = {"Sky", "Mountain", "Gourmet", "Paradise", "Extreme",
+			"Ocean", "Urban", "Golden", "Alpine", "Sunset", "Royal", "Wild"};
+	private static final String[] COMPANY_KINDS = {"Adventures", "Sports", "Dining", "Resorts", "Travel",
+			"Getaways", "Experiences", "Kitchens"};
+
+	private static final long COMPANY_SALT = 1;
+	private static final long CUSTOMER_SALT = 2;
+	private static final long COUPON_SALT = 3;
+	private static final long PURCHASE_SALT = 4;
+	private static final long POPULARITY_SALT = 5;
+
+	private final DataSource dataSource;
+
+	public SyntheticDatasetGenerator(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	public DatasetSummary generate(DatasetProperties spec) throws SQLException, InterruptedException {
+		validate(spec);
+		long start = System.nanoTime();
+		LocalDate referenceDate = spec.getReferenceDate() != null ? spec.getReferenceDate() : LocalDate.now();
+		int couponCount = spec.getCompanies() * spec.getCouponsPerCompany();
+		String passwordHash = PasswordHasher.hashPassword(spec.getPassword());
+		prepareTables(spec.isTruncate());
+
+		writeInParallel(spec, spec.getCompanies(), "companies", (writer, id) -> writer.row(
+				id, companyName(spec.getSeed(), id), "company" + id + EMAIL_DOMAIN, passwordHash),
+				"id", "name", "email", "password");
+		writeInParallel(spec, spec.getCustomers(), "customers", (writer, id) -> {
+			SplittableRandom random = rowRandom(spec.getSeed(), CUSTOMER_SALT, id);
+			String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+			String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+			writer.row(id, firstName, lastName,
+					(firstName + "." + lastName + id).toLowerCase() + EMAIL_DOMAIN, passwordHash);
+		}, "id", "first_name", "last_name", "email", "password");
+		writeInParallel(spec, couponCount, "coupons", (writer, id) -> writeCoupon(writer, spec, referenceDate, id),
+				"id", "company_id", "category_id", "title", "description", "start_date", "end_date", "amount",
+				"price", "image");
+
+		ZipfDistribution popularity = new ZipfDistribution(couponCount, spec.getZipfExponent());
+		int[] couponByRank = shuffledIds(couponCount, new SplittableRandom(spec.getSeed() + POPULARITY_SALT));
+		writeInParallel(spec, spec.getCustomers(), "customers_vs_coupons", (writer, customerId) ->
+						writePurchases(writer, spec, referenceDate, popularity, couponByRank, customerId),
+				"customer_id", "coupon_id", "purchased_at");
+
+		int dailySalesRows = buildDailySales();
+		finish(spec.getCompanies(), spec.getCustomers(), couponCount);
+		DatasetSummary summary = new DatasetSummary(spec.getCompanies(), spec.getCustomers(), couponCount,
+				spec.getPurchases(), dailySalesRows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		logger.info("Generated dataset (seed {}): {}", spec.getSeed(), summary);
+		return summary;
+	}
+
+	private static void validate(DatasetProperties spec) {
+		if (spec.getCompanies() <= 0 || spec.getCustomers() <= 0 || spec.getCouponsPerCompany() <= 0
+				|| spec.getPurchases() < 0 || spec.getWriters() <= 0 || spec.getHistoryDays() <= 0) {
+			throw new IllegalArgumentException(
+					"Dataset volumes, writers and history days must be positive (purchases may be 0)");
+		}
+		long coupons = (long) spec.getCompanies() * spec.getCouponsPerCompany();
+		if (coupons > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many coupons: " + coupons);
+		}
+		long maxPerCustomer = ((long) spec.getPurchases() + spec.getCustomers() - 1) / spec.getCustomers();
+		if (maxPerCustomer > coupons) {
+			throw new IllegalArgumentException("Each customer would need " + maxPerCustomer
+					+ " distinct coupons but there are only " + coupons);
+		}
+	}
+
+	private void prepareTables(boolean truncate) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+		     Statement statement = connection.createStatement()) {
+			if (truncate) {
+				if (connection.isWrapperFor(PGConnection.class)) {
+					statement.execute("TRUNCATE TABLE customers_vs_coupons, coupon_sales_daily, outbox_events, "
+							+ "coupons, customers, companies RESTART IDENTITY CASCADE");
+				} else {
+					for (String table : new String[]{"customers_vs_coupons", "coupon_sales_daily", "outbox_events",
+							"coupons", "customers", "companies"}) {
+						statement.executeUpdate("DELETE FROM " + table);
+					}
+				}
+				return;
+			}
+			for (String table : new String[]{"companies", "customers", "coupons"}) {
+				try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+					if (resultSet.next() && resultSet.getLong(1) > 0) {
+						throw new IllegalStateException("Table " + table
+								+ " is not empty; set dataset.truncate=true to replace its rows");
+					}
+				}
+			}
+		}
+	}
+
+	private static String companyName(long seed, int id) {
+		SplittableRandom random = rowRandom(seed, COMPANY_SALT, id);
+		return COMPANY_WORDS[random.nextInt(COMPANY_WORDS.length)] + " "
+				+ COMPANY_KINDS[random.nextInt(COMPANY_KINDS.length)] + " " + id;
+	}
+
+	private static void writeCoupon(BulkTableWriter writer, DatasetProperties spec, LocalDate referenceDate, int id)
+			throws SQLException {
+		SplittableRandom random = rowRandom(spec.getSeed(), COUPON_SALT, id);
+		int companyId = (id - 1) / spec.getCouponsPerCompany() + 1;
+		int number = (id - 1) % spec.getCouponsPerCompany() + 1;
+		Category category = Category.values()[random.nextInt(Category.values().length)];
+		LocalDate startDate = referenceDate.minusDays(random.nextInt(spec.getHistoryDays()));
+		LocalDate endDate = startDate.plusDays(7 + random.nextInt(180));
+		writer.row(id, companyId, category.getId(), category.name().replace('_', ' ') + " deal " + number,
+				"Generated coupon " + number + " of company " + companyId, Date.valueOf(startDate),
+				Date.valueOf(endDate), random.nextInt(501), (500 + random.nextInt(49_500)) / 100.0, IMAGE);
+	}
+
+	private static void writePurchases(BulkTableWriter writer, DatasetProperties spec, LocalDate referenceDate,
+	                                   ZipfDistribution popularity, int[] couponByRank, int customerId)
+			throws SQLException {
+		int count = spec.getPurchases() / spec.getCustomers()
+				+ (customerId <= spec.getPurchases() % spec.getCustomers() ? 1 : 0);
+		SplittableRandom random = rowRandom(spec.getSeed(), PURCHASE_SALT, customerId);
+		int[] owned = new int[count];
+		for (int i = 0; i < count; i++) {
+			int rank = popularity.sample(random);
+			while (contains(owned, i, couponByRank[rank])) {
+				rank = (rank + 1) % couponByRank.length;
+			}
+			owned[i] = couponByRank[rank];
+			Timestamp purchasedAt = Timestamp.valueOf(referenceDate.minusDays(random.nextInt(spec.getHistoryDays()))
+					.atStartOfDay().plusSeconds(random.nextInt(86_400)));
+			writer.row(customerId, owned[i], purchasedAt);
+		}
+	}
+
+	private static boolean contains(int[] values, int length, int value) {
+		for (int i = 0; i < length; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Coupon ids 1..count in a seeded random order (Fisher-Yates): index r holds the coupon of
+	 * popularity rank r.
+	 */
+	private static int[] shuffledIds(int count, SplittableRandom random) {
+		int[] ids = new int[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = i + 1;
+		}
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = ids[i];
+			ids[i] = ids[j];
+			ids[j] = swap;
+		}
+		return ids;
+	}
+
+	private static SplittableRandom rowRandom(long seed, long salt, int id) {
+		return new SplittableRandom(seed + salt * 0x9E3779B97F4A7C15L + id * 0xC2B2AE3D27D4EB4FL);
+	}
+
+	@FunctionalInterface
+	private interface RowGenerator {
+		void write(BulkTableWriter writer, int id) throws SQLException;
+	}
+
+	/**
+	 * Writes ids 1..total split into one contiguous range per writer, each range on its own
+	 * connection and in its own transaction.
+	 */
+	private void writeInParallel(DatasetProperties spec, int total, String table, RowGenerator generator,
+	                             String... columns) throws SQLException, InterruptedException {
+		long start = System.nanoTime();
+		int writers = Math.min(spec.getWriters(), Math.max(1, total));
+		int span = (total + writers - 1) / writers;
+		try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+			List<Future<Void>> ranges = new ArrayList<>();
+			for (int first = 1; first <= total; first += span) {
+				int from = first;
+				int to = Math.min(total, first + span - 1);
+				ranges.add(executor.submit(() -> {
+					writeRange(spec, table, columns, generator, from, to);
+					return null;
+				}));
+			}
+			for (Future<Void> range : ranges) {
+				try {
+					range.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof SQLException sqlException) {
+						throw sqlException;
+					}
+					throw new IllegalStateException("Failed to write " + table, e.getCause());
+				}
+			}
+		}
+		logger.info("Wrote {} in {} ms", table, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private void writeRange(DatasetProperties spec, String table, String[] columns, RowGenerator generator,
+	                        int from, int to) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				try (BulkTableWriter writer = BulkTableWriter.open(connection, spec.getBatchRows(), table, columns)) {
+					for (int id = from; id <= to; id++) {
+						generator.write(writer, id);
+					}
+				}
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		}
+	}
+
+	private int buildDailySales() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+		     Statement statement = connection.createStatement()) {
+			return statement.executeUpdate("INSERT INTO coupon_sales_daily "
+					+ "(company_id, sale_date, category_id, purchases) "
+					+ "SELECT c.company_id, CAST(p.purchased_at AS DATE), c.category_id, COUNT(*) "
+					+ "FROM customers_vs_coupons p JOIN coupons c ON c.id = p.coupon_id "
+					+ "GROUP BY c.company_id, CAST(p.purchased_at AS DATE), c.category_id");
+		}
+	}
+
+	/**
+	 * Moves the identity sequences past the generated ids and refreshes planner statistics.
+	 */
+	private void finish(int companies, int customers, int coupons) throws SQLException {
+		String[] tables = {"companies", "customers", "coupons"};
+		int[] lastIds = {companies, customers, coupons};
+		try (Connection connection = dataSource.getConnection();
+		     Statement statement = connection.createStatement()) {
+			boolean postgres = connection.isWrapperFor(PGConnection.class);
+			for (int i = 0; i < tables.length; i++) {
+				if (postgres) {
+					statement.execute("SELECT setval(pg_get_serial_sequence('" + tables[i] + "', 'id'), "
+							+ lastIds[i] + ")");
+				} else {
+					statement.execute("ALTER TABLE " + tables[i] + " ALTER COLUMN id RESTART WITH " + (lastIds[i] + 1));
+				}
+			}
+			statement.execute("ANALYZE");
+		}
+	}
+}
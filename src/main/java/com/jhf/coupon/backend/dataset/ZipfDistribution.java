@@ -0,0 +1,55 @@
+package com.jhf.coupon.backend.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zipf's law over ranks 0..size - 1: rank r is drawn with probability proportional to
+ * 1 / (r + 1)^exponent. With exponent 1 the most popular item is drawn twice as often as the
+ * second and ten times as often as the tenth. Sampling is a binary search over the precomputed
+ * cumulative weights, so it is O(log size) and the table costs 8 bytes per item.
+ */
+public final class ZipfDistribution {
+	private final double[] cumulative;
+
+	public ZipfDistribution(int size, double exponent) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Zipf distribution needs at least one item, got " + size);
+		}
+		if (exponent < 0 || Double.isNaN(exponent)) {
+			throw new IllegalArgumentException("Zipf exponent must not be negative, got " + exponent);
+		}
+		cumulative = new double[size];
+		double total = 0;
+		for (int rank = 0; rank < size; rank++) {
+			total += 1 / Math.pow(rank + 1, exponent);
+			cumulative[rank] = total;
+		}
+	}
+
+	public int size() {
+		return cumulative.length;
+	}
+
+	public double probability(int rank) {
+		double previous = rank == 0 ? 0 : cumulative[rank - 1];
+		return (cumulative[rank] - previous) / cumulative[cumulative.length - 1];
+	}
+
+	/**
+	 * @return A rank in 0..size - 1, 0 being the most likely
+	 */
+	public int sample(SplittableRandom random) {
+		double target = random.nextDouble() * cumulative[cumulative.length - 1];
+		int low = 0;
+		int high = cumulative.length - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cumulative[middle] > target) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+}
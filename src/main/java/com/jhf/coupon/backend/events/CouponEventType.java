@@ -0,0 +1,34 @@
+package com.jhf.coupon.backend.events;
+
+/**
+ * Coupon lifecycle events written to the outbox by CouponsDAO.
+ *
+ * Payloads are JSON objects with couponId, companyId, categoryId and price; purchase
+ * events also carry customerId.
+ */
+public enum CouponEventType {
+	COUPON_CREATED,
+	COUPON_UPDATED,
+	COUPON_DELETED,
+	COUPON_PURCHASED;
+
+	public static final String AGGREGATE_TYPE = "coupon";
+
+	/**
+	 * Builds the JSON payload of a coupon event.
+	 *
+	 * @param customerId Buyer of a purchase event, null for the other events
+	 */
+	public static String payload(long couponId, long companyId, int categoryId, double price, Long customerId) {
+		StringBuilder payload = new StringBuilder(96)
+				.append("{\"couponId\":").append(couponId)
+				.append(",\"companyId\":").append(companyId)
+				.append(",\"categoryId\":").append(categoryId)
+				.append(",\"price\":").append(price);
+		if (customerId != null) {
+			payload.append(",\"customerId\":").append(customerId);
+		}
+		payload.append('}');
+		return payload.toString();
+	}
+}
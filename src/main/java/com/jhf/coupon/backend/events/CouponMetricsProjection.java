@@ -0,0 +1,55 @@
+package com.jhf.coupon.backend.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives the coupon creation and purchase business metrics from outbox events, so they count
+ * committed changes only and cost the request path nothing.
+ */
+@Component
+public class CouponMetricsProjection {
+	static final String SUBSCRIBER = "coupon-metrics";
+
+	private final EventBus eventBus;
+	private final PrometheusMetrics metrics;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public CouponMetricsProjection(EventBus eventBus, PrometheusMetrics metrics) {
+		this.eventBus = eventBus;
+		this.metrics = metrics;
+	}
+
+	@PostConstruct
+	public void subscribe() {
+		eventBus.subscribe(SUBSCRIBER, this::handle);
+	}
+
+	void handle(OutboxEvent event) {
+		if (!CouponEventType.AGGREGATE_TYPE.equals(event.getAggregateType())) {
+			return;
+		}
+		CouponEventType type = CouponEventType.valueOf(event.getEventType());
+		if (type != CouponEventType.COUPON_CREATED && type != CouponEventType.COUPON_PURCHASED) {
+			return;
+		}
+		try {
+			JsonNode payload = objectMapper.readTree(event.getPayload());
+			String category = Category.getCategory(payload.path("categoryId").asInt()).name();
+			if (type == CouponEventType.COUPON_CREATED) {
+				metrics.recordCouponCreation(category);
+			} else {
+				metrics.recordCouponPurchase(category, payload.path("price").asDouble());
+			}
+		} catch (JsonProcessingException | CategoryNotFoundException e) {
+			throw new IllegalArgumentException("Malformed payload in outbox event " + event.getId(), e);
+		}
+	}
+}
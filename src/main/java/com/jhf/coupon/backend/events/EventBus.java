@@ -0,0 +1,112 @@
+package com.jhf.coupon.backend.events;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of outbox events to subscribers.
+ *
+ * Each subscriber gets its own bounded queue and worker thread, so a slow subscriber never
+ * delays the others or a request thread. Only OutboxRelay publishes: when a queue is full,
+ * publish blocks and the relay stops draining the outbox, leaving the backlog in the database
+ * instead of in memory. Handler exceptions are logged and counted; the event is not retried.
+ */
+@Component
+public class EventBus {
+	private static final Logger logger = LoggerFactory.getLogger(EventBus.class);
+
+	private final PrometheusMetrics metrics;
+	private final int queueCapacity;
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	public EventBus(PrometheusMetrics metrics, @Value("${event-bus.queue-capacity:1024}") int queueCapacity) {
+		this.metrics = metrics;
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Registers a subscriber that receives every event published from now on.
+	 *
+	 * @param name Subscriber name (metrics tag and worker thread name)
+	 * @param handler Called on the subscriber's worker thread, in publication order
+	 */
+	public void subscribe(String name, Consumer<OutboxEvent> handler) {
+		Subscription subscription = new Subscription(name, handler, new ArrayBlockingQueue<>(queueCapacity));
+		metrics.registerEventQueue(name, subscription.queue::size);
+		subscriptions.add(subscription);
+		subscription.worker.start();
+	}
+
+	/**
+	 * Hands the event to every subscriber, waiting while a subscriber's queue is full.
+	 */
+	public void publish(OutboxEvent event) throws InterruptedException {
+		for (Subscription subscription : subscriptions) {
+			subscription.queue.put(event);
+		}
+	}
+
+	/**
+	 * @return Total events waiting in subscriber queues
+	 */
+	public int pendingCount() {
+		int pending = 0;
+		for (Subscription subscription : subscriptions) {
+			pending += subscription.queue.size();
+		}
+		return pending;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		for (Subscription subscription : subscriptions) {
+			subscription.worker.interrupt();
+		}
+		subscriptions.clear();
+	}
+
+	private final class Subscription {
+		private final String name;
+		private final Consumer<OutboxEvent> handler;
+		private final BlockingQueue<OutboxEvent> queue;
+		private final Thread worker;
+
+		private Subscription(String name, Consumer<OutboxEvent> handler, BlockingQueue<OutboxEvent> queue) {
+			this.name = name;
+			this.handler = handler;
+			this.queue = queue;
+			this.worker = new Thread(this::run, "event-bus-" + name);
+			this.worker.setDaemon(true);
+		}
+
+		private void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				OutboxEvent event;
+				try {
+					event = queue.take();
+				} catch (InterruptedException e) {
+					return;
+				}
+				try {
+					handler.accept(event);
+					metrics.recordEventDelivery(name, "delivered");
+				} catch (RuntimeException e) {
+					metrics.recordEventDelivery(name, "failed");
+					logger.warn("Subscriber {} failed to handle outbox event {} ({})",
+							name, event.getId(), event.getEventType(), e);
+				}
+			}
+		}
+	}
+}
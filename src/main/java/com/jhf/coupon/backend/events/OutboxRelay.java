@@ -0,0 +1,156 @@
+package com.jhf.coupon.backend.events;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.dao.outbox.OutboxDAO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox into the EventBus on a dedicated thread.
+ *
+ * Each pass claims up to batch-size unpublished events in id order, publishes them, then marks
+ * them published, in one transaction (OutboxDAO.publishUnpublished). Claimed rows are skipped by
+ * the relays of other instances, so each event reaches the subscribers of one instance. Delivery
+ * is at-least-once: a crash between publishing and committing republishes the batch. A full
+ * batch is followed immediately by the next one; otherwise the relay sleeps poll-interval-ms.
+ * Published rows are pruned after retention-hours.
+ */
+@Component
+public class OutboxRelay {
+	private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+	private static final long PRUNE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+	private static final String PRIMARY_OUTBOX = "primary";
+
+	private final String outbox;
+	private final OutboxDAO outboxDAO;
+	private final EventBus eventBus;
+	private final PrometheusMetrics metrics;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long pollIntervalMillis;
+	private final Duration retention;
+
+	private volatile Thread worker;
+	private long lastPruneNanos = System.nanoTime();
+
+	@Autowired
+	public OutboxRelay(OutboxDAO outboxDAO, EventBus eventBus, PrometheusMetrics metrics,
+	                   @Value("${outbox.relay.enabled:true}") boolean enabled,
+	                   @Value("${outbox.relay.batch-size:100}") int batchSize,
+	                   @Value("${outbox.relay.poll-interval-ms:200}") long pollIntervalMillis,
+	                   @Value("${outbox.retention-hours:24}") long retentionHours) {
+		this(PRIMARY_OUTBOX, outboxDAO, eventBus, metrics, enabled, batchSize, pollIntervalMillis, retentionHours);
+	}
+
+	/**
+	 * Relay for the outbox of one coupon shard (see ShardingConfig).
+	 *
+	 * @param outbox Shard name, used for the thread name and the pending-events gauge
+	 */
+	public OutboxRelay(String outbox, OutboxDAO outboxDAO, EventBus eventBus, PrometheusMetrics metrics,
+	                   boolean enabled, int batchSize, long pollIntervalMillis, long retentionHours) {
+		this.outbox = outbox;
+		this.outboxDAO = outboxDAO;
+		this.eventBus = eventBus;
+		this.metrics = metrics;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.retention = Duration.ofHours(retentionHours);
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			logger.info("Outbox relay disabled");
+			return;
+		}
+		Thread thread = new Thread(this::runLoop,
+				PRIMARY_OUTBOX.equals(outbox) ? "outbox-relay" : "outbox-relay-" + outbox);
+		thread.setDaemon(true);
+		worker = thread;
+		thread.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		Thread thread = worker;
+		worker = null;
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Publishes one batch of unpublished events.
+	 *
+	 * @return Number of events published
+	 */
+	public synchronized int relayOnce() throws SQLException, InterruptedException {
+		List<OutboxEvent> batch = outboxDAO.publishUnpublished(batchSize, events -> {
+			for (OutboxEvent event : events) {
+				eventBus.publish(event);
+			}
+		});
+		LocalDateTime publishedAt = LocalDateTime.now();
+		for (OutboxEvent event : batch) {
+			metrics.recordOutboxPublished(event.getEventType(),
+					Duration.between(event.getCreatedAt(), publishedAt).toMillis());
+		}
+		metrics.setOutboxPending(outbox, outboxDAO.countUnpublished());
+		return batch.size();
+	}
+
+	/**
+	 * Deletes published events older than the retention period.
+	 *
+	 * @return Number of deleted events
+	 */
+	public synchronized int pruneOnce() throws SQLException {
+		return outboxDAO.deletePublishedBefore(LocalDateTime.now().minus(retention));
+	}
+
+	private void runLoop() {
+		while (worker != null && !Thread.currentThread().isInterrupted()) {
+			try {
+				int published = relayOnce();
+				if (System.nanoTime() - lastPruneNanos > PRUNE_INTERVAL_NANOS) {
+					lastPruneNanos = System.nanoTime();
+					int pruned = pruneOnce();
+					if (pruned > 0) {
+						logger.info("Pruned {} published outbox events", pruned);
+					}
+				}
+				if (published < batchSize) {
+					Thread.sleep(pollIntervalMillis);
+				}
+			} catch (InterruptedException e) {
+				return;
+			} catch (SQLException | RuntimeException e) {
+				logger.warn("Outbox relay pass failed, retrying in {}ms", pollIntervalMillis, e);
+				try {
+					Thread.sleep(pollIntervalMillis);
+				} catch (InterruptedException ie) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.jhf.coupon.backend.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.List;
+
+/**
+ * Outbox relays of the additional coupon shards (see ShardingConfig). Every shard writes its
+ * coupon events to its own outbox_events table, in the same transaction as the coupon change,
+ * so each one needs its own relay; the primary's is the OutboxRelay bean.
+ */
+public class ShardOutboxRelays {
+	private final List<OutboxRelay> relays;
+
+	public ShardOutboxRelays(List<OutboxRelay> relays) {
+		this.relays = List.copyOf(relays);
+	}
+
+	@PostConstruct
+	public void start() {
+		relays.forEach(OutboxRelay::start);
+	}
+
+	@PreDestroy
+	public void stop() {
+		relays.forEach(OutboxRelay::stop);
+	}
+
+	public List<OutboxRelay> getRelays() {
+		return relays;
+	}
+}
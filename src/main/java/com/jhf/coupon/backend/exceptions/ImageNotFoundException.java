@@ -0,0 +1,7 @@
+package com.jhf.coupon.backend.exceptions;
+
+public class ImageNotFoundException extends Exception {
+	public ImageNotFoundException(String message) {
+		super(message);
+	}
+}
@@ -11,9 +11,11 @@ import com.jhf.coupon.backend.exceptions.company.CompanyAlreadyExistsException;
 import com.jhf.coupon.backend.exceptions.customer.CantDeleteCustomerHasCoupons;
 import com.jhf.coupon.backend.exceptions.customer.CantUpdateCustomerException;
 import com.jhf.coupon.backend.exceptions.customer.CustomerAlreadyExistsException;
+import com.jhf.coupon.backend.login.PrincipalCache;
 import com.jhf.coupon.backend.security.PasswordHasher;
 import com.jhf.coupon.backend.validation.InputValidator;
 import com.jhf.coupon.backend.validation.ValidationException;
+import com.jhf.coupon.sql.dao.RowHandler;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import com.jhf.coupon.sql.dao.company.CompanyNotFoundException;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
@@ -49,8 +51,9 @@ public class AdminFacade extends ClientFacade {
 	@Value("${admin.password}")
 	private String ADMIN_PASSWORD;
 
-	public AdminFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO) {
-		super(companiesDAO, customerDAO, couponsDAO);
+	public AdminFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO,
+	                   PrincipalCache principalCache) {
+		super(companiesDAO, customerDAO, couponsDAO, principalCache);
 	}
 
 	public boolean login(@NotNull String email, String password) {
@@ -116,22 +119,28 @@ public class AdminFacade extends ClientFacade {
 			throw new CantUpdateCompanyException("Unable to update company " + company.getName() + ", Company Name can't be updated");
 		}
 		companiesDAO.updateCompany(company);
+		principalCache.invalidateCompany(company.getId());
 	}
 
 	@Transactional(rollbackFor = {SQLException.class, CategoryNotFoundException.class, CantDeleteCompanyHasCoupons.class})
-	public void deleteCompany(int companyId) throws SQLException, CategoryNotFoundException, CantDeleteCompanyHasCoupons {
+	public void deleteCompany(long companyId) throws SQLException, CategoryNotFoundException, CantDeleteCompanyHasCoupons {
 		// Check if company has any coupons (N+1 fix: use targeted query instead of loading all coupons)
 		if (!couponsDAO.getCompanyCoupons(companyId).isEmpty()) {
 			throw new CantDeleteCompanyHasCoupons("Unable to delete Company " + companyId + ", Company still has Coupons");
 		}
 		companiesDAO.deleteCompany(companyId);
+		principalCache.invalidateCompany(companyId);
 	}
 
 	public ArrayList<Company> getCompanies() throws SQLException {
 		return companiesDAO.getAllCompanies();
 	}
 
-	public Company getCompany(int companyId) throws SQLException {
+	public void streamCompanies(RowHandler<Company> handler) throws SQLException, IOException {
+		companiesDAO.forEachCompany(handler);
+	}
+
+	public Company getCompany(long companyId) throws SQLException {
 		return companiesDAO.getCompany(companyId);
 	}
 
@@ -181,18 +190,24 @@ public class AdminFacade extends ClientFacade {
 		customerDAO.getCustomer(customer.getId());
 
 		customerDAO.updateCustomer(customer);
+		principalCache.invalidateCustomer(customer.getId());
 	}
 
 	@Transactional(rollbackFor = {SQLException.class, CantDeleteCustomerHasCoupons.class})
-	public void deleteCustomer(int customerId) throws SQLException, CantDeleteCustomerHasCoupons {
+	public void deleteCustomer(long customerId) throws SQLException, CantDeleteCustomerHasCoupons {
 		customerDAO.deleteCustomer(customerId);
+		principalCache.invalidateCustomer(customerId);
 	}
 
 	public ArrayList<Customer> getAllCustomers() throws SQLException {
 		return customerDAO.getAllCustomers();
 	}
 
-	public Customer getCustomer(int customerId) throws SQLException {
+	public void streamCustomers(RowHandler<Customer> handler) throws SQLException, IOException {
+		customerDAO.forEachCustomer(handler);
+	}
+
+	public Customer getCustomer(long customerId) throws SQLException {
 		return customerDAO.getCustomer(customerId);
 	}
 
@@ -1,5 +1,6 @@
 package com.jhf.coupon.backend.facade;
 
+import com.jhf.coupon.backend.login.PrincipalCache;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
 import com.jhf.coupon.sql.dao.customer.CustomerDAO;
@@ -11,11 +12,14 @@ public abstract class ClientFacade {
 	protected final CompaniesDAO companiesDAO;
 	protected final CustomerDAO customerDAO;
 	protected final CouponsDAO couponsDAO;
+	protected final PrincipalCache principalCache;
 
-	protected ClientFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO) {
+	protected ClientFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO,
+	                       PrincipalCache principalCache) {
 		this.companiesDAO = companiesDAO;
 		this.customerDAO = customerDAO;
 		this.couponsDAO = couponsDAO;
+		this.principalCache = principalCache;
 	}
 
 	public abstract boolean login(String email, String password) throws SQLException;
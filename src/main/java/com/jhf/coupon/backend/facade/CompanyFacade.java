@@ -2,10 +2,15 @@ package com.jhf.coupon.backend.facade;
 
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.exceptions.coupon.CantUpdateCouponException;
 import com.jhf.coupon.backend.exceptions.coupon.CouponAlreadyExistsForCompanyException;
+import com.jhf.coupon.backend.images.ImageRefs;
+import com.jhf.coupon.backend.images.ImageStore;
+import com.jhf.coupon.backend.images.ThumbnailService;
+import com.jhf.coupon.backend.login.PrincipalCache;
 import com.jhf.coupon.backend.validation.InputValidator;
 import com.jhf.coupon.backend.validation.ValidationException;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
@@ -16,14 +21,29 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CompanyFacade extends ClientFacade {
 
-	public CompanyFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO) {
-		super(companiesDAO, customerDAO, couponsDAO);
+	static final int MAX_SALES_RANGE_DAYS = 366;
+
+	private final ImageStore imageStore;
+	private final ThumbnailService thumbnailService;
+
+	public CompanyFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO,
+	                     PrincipalCache principalCache, ImageStore imageStore, ThumbnailService thumbnailService) {
+		super(companiesDAO, customerDAO, couponsDAO, principalCache);
+		this.imageStore = imageStore;
+		this.thumbnailService = thumbnailService;
 	}
 
 	public boolean login(String email, String password) throws SQLException {
@@ -35,6 +55,35 @@ public class CompanyFacade extends ClientFacade {
 
 	@Transactional(rollbackFor = {SQLException.class, CouponAlreadyExistsForCompanyException.class, ValidationException.class})
 	public void addCoupon(Coupon coupon) throws SQLException, CouponAlreadyExistsForCompanyException, ValidationException {
+		validateNewCoupon(coupon);
+
+		if (!couponsDAO.couponExists(coupon)) {
+			couponsDAO.addCoupon(coupon);
+		} else
+			throw new CouponAlreadyExistsForCompanyException("Unable to add coupon " + coupon.getTitle() +
+					                                                 ", Company Coupon ID " + coupon.getCompanyID() + " exists.");
+	}
+
+	/**
+	 * Adds several coupons in one insert batch; each gets its ID set.
+	 * Nothing is added if any coupon is invalid or already exists (or repeats a title within the batch).
+	 *
+	 * @param coupons Coupons to add, in the order their IDs are assigned
+	 */
+	@Transactional(rollbackFor = {SQLException.class, CouponAlreadyExistsForCompanyException.class, ValidationException.class})
+	public void addCoupons(@NotNull List<Coupon> coupons) throws SQLException, CouponAlreadyExistsForCompanyException, ValidationException {
+		Set<String> titles = new HashSet<>();
+		for (Coupon coupon : coupons) {
+			validateNewCoupon(coupon);
+			if (!titles.add(coupon.getCompanyID() + "/" + coupon.getTitle()) || couponsDAO.couponExists(coupon)) {
+				throw new CouponAlreadyExistsForCompanyException("Unable to add coupon " + coupon.getTitle() +
+						                                                 ", Company Coupon ID " + coupon.getCompanyID() + " exists.");
+			}
+		}
+		couponsDAO.addCoupons(coupons);
+	}
+
+	private void validateNewCoupon(Coupon coupon) throws ValidationException {
 		// Validate coupon input
 		if (!InputValidator.isValidString(coupon.getTitle())) {
 			throw new ValidationException("Invalid coupon title: must not be empty");
@@ -57,12 +106,7 @@ public class CompanyFacade extends ClientFacade {
 		if (!InputValidator.isPositivePrice(coupon.getPrice())) {
 			throw new ValidationException("Invalid price: must be positive");
 		}
-
-		if (!couponsDAO.couponExists(coupon)) {
-			couponsDAO.addCoupon(coupon);
-		} else
-			throw new CouponAlreadyExistsForCompanyException("Unable to add coupon " + coupon.getTitle() +
-					                                                 ", Company Coupon ID " + coupon.getCompanyID() + " exists.");
+		coupon.setImage(resolveImage(coupon.getImage()));
 	}
 
 	@Transactional(rollbackFor = {SQLException.class, CategoryNotFoundException.class, CantUpdateCouponException.class, ValidationException.class})
@@ -86,6 +130,7 @@ public class CompanyFacade extends ClientFacade {
 		if (!InputValidator.isPositivePrice(coupon.getPrice())) {
 			throw new ValidationException("Invalid price: must be positive");
 		}
+		coupon.setImage(resolveImage(coupon.getImage()));
 
 		// Get existing coupon to check if it exists and validate immutable fields
 		Coupon existingCoupon = couponsDAO.getCoupon(coupon.getId());
@@ -97,8 +142,32 @@ public class CompanyFacade extends ClientFacade {
 		couponsDAO.updateCoupon(coupon);
 	}
 
+	/**
+	 * Stores an uploaded coupon image and queues its thumbnails.
+	 *
+	 * @param content Image bytes, PNG, JPEG or GIF
+	 * @return Content hash to use as the coupon image
+	 */
+	public String uploadImage(byte[] content) throws ValidationException, IOException {
+		String hash = imageStore.store(content);
+		thumbnailService.schedule(hash);
+		return hash;
+	}
+
+	// Image store references (bare hash or image URL) are kept as the bare hash; other values are legacy URLs
+	private String resolveImage(String image) throws ValidationException {
+		String hash = ImageRefs.hashOf(image);
+		if (hash == null) {
+			return image;
+		}
+		if (!imageStore.contains(hash)) {
+			throw new ValidationException("Invalid image: not found in image store");
+		}
+		return hash;
+	}
+
 	@Transactional(rollbackFor = SQLException.class)
-	public void deleteCoupon(int couponId) throws SQLException {
+	public void deleteCoupon(long couponId) throws SQLException {
 		couponsDAO.deleteCoupon(couponId);
 	}
 
@@ -118,4 +187,48 @@ public class CompanyFacade extends ClientFacade {
 		return companiesDAO.getCompany(company.getId());
 	}
 
+	// ID-based variants for authenticated requests (single query, no company row lookup)
+
+	public ArrayList<Coupon> getCompanyCoupons(long companyId) throws SQLException, CategoryNotFoundException {
+		return couponsDAO.getCompanyCoupons(companyId);
+	}
+
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, Category CATEGORY) throws SQLException, CategoryNotFoundException {
+		return couponsDAO.getCompanyCoupons(companyId, CATEGORY);
+	}
+
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, double maxPrice) throws SQLException, CategoryNotFoundException {
+		return couponsDAO.getCompanyCoupons(companyId, maxPrice);
+	}
+
+	public Company getCompanyDetails(long companyId) throws SQLException {
+		return principalCache.getCompany(companyId, companiesDAO::getCompany);
+	}
+
+	// Sales analytics, answered from the coupon_sales_daily rollup
+
+	public ArrayList<DailyCategorySales> getCompanyDailySales(long companyId, LocalDate from, LocalDate to)
+			throws SQLException, CategoryNotFoundException, ValidationException {
+		validateSalesRange(from, to);
+		return couponsDAO.getCompanyDailySales(companyId, from, to);
+	}
+
+	public Map<Category, Integer> getCompanySalesByCategory(long companyId, LocalDate from, LocalDate to)
+			throws SQLException, CategoryNotFoundException, ValidationException {
+		validateSalesRange(from, to);
+		return couponsDAO.getCompanySalesByCategory(companyId, from, to);
+	}
+
+	private void validateSalesRange(LocalDate from, LocalDate to) throws ValidationException {
+		if (from == null || to == null) {
+			throw new ValidationException("Invalid sales range: from and to dates are required");
+		}
+		if (from.isAfter(to)) {
+			throw new ValidationException("Invalid sales range: from date must not be after to date");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= MAX_SALES_RANGE_DAYS) {
+			throw new ValidationException("Invalid sales range: cannot exceed " + MAX_SALES_RANGE_DAYS + " days");
+		}
+	}
+
 }
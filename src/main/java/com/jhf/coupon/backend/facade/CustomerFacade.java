@@ -1,27 +1,34 @@
 package com.jhf.coupon.backend.facade;
 
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.exceptions.coupon.CouponNotInStockException;
 import com.jhf.coupon.backend.exceptions.coupon.CustomerAlreadyPurchasedCouponException;
+import com.jhf.coupon.backend.login.PrincipalCache;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
 import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerNotFoundException;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public class CustomerFacade extends ClientFacade {
 
-	public CustomerFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO) {
-		super(companiesDAO, customerDAO, couponsDAO);
+	public CustomerFacade(CompaniesDAO companiesDAO, CustomerDAO customerDAO, CouponsDAO couponsDAO,
+	                      PrincipalCache principalCache) {
+		super(companiesDAO, customerDAO, couponsDAO, principalCache);
 	}
 
 	public boolean login(String email, String password) throws SQLException {
@@ -31,7 +38,7 @@ public class CustomerFacade extends ClientFacade {
 		return customerDAO.isCustomerExists(email, password);
 	}
 
-	@Transactional(rollbackFor = {SQLException.class, CustomerAlreadyPurchasedCouponException.class, CategoryNotFoundException.class, CouponNotInStockException.class})
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public void purchaseCoupon(@NotNull Coupon coupon, @NotNull Customer customer) throws SQLException, CustomerAlreadyPurchasedCouponException, CategoryNotFoundException, CouponNotInStockException {
 		if (couponsDAO.customerCouponPurchaseExists(customer.getId(), coupon.getId())) {
 			throw new CustomerAlreadyPurchasedCouponException("Unable to purchase Coupon " + coupon.getId() + " Customer " + customer.getId() + " Already purchased it.");
@@ -42,7 +49,77 @@ public class CustomerFacade extends ClientFacade {
 		if (couponsDAO.getCoupon(coupon.getId()).getAmount() <= 0) {
 			throw new CouponNotInStockException("Unable to Purchase coupon " + coupon.getId() + " it's not available in stock");
 		}
-		couponsDAO.addCouponPurchase(customer.getId(), coupon.getId());
+		// The stock check above is advisory; the DAO's conditional decrement is what prevents overselling
+		if (!couponsDAO.addCouponPurchase(customer.getId(), coupon.getId())) {
+			throw new CouponNotInStockException("Unable to Purchase coupon " + coupon.getId() + " it's not available in stock");
+		}
+	}
+
+	/**
+	 * Purchase a coupon for the authenticated customer, identified by the JWT userId.
+	 * The customer row is not loaded; the coupon is read once for existence and stock. A
+	 * customer deleted since the token was issued fails the purchase insert on its foreign key,
+	 * which is reported as CustomerNotFoundException.
+	 *
+	 * NOT_SUPPORTED: the DAO commits the purchase in its own local transaction, and an outer
+	 * transaction would hold a second pool connection per request for nothing, which exhausts
+	 * the pool when many customers buy at once. The annotation still routes the call to the
+	 * primary and makes the buyer read their own purchase.
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void purchaseCoupon(long customerId, long couponId) throws SQLException, CustomerAlreadyPurchasedCouponException, CategoryNotFoundException, CouponNotInStockException {
+		if (couponsDAO.customerCouponPurchaseExists(customerId, couponId)) {
+			throw new CustomerAlreadyPurchasedCouponException("Unable to purchase Coupon " + couponId + " Customer " + customerId + " Already purchased it.");
+		}
+		// Throws CouponNotFoundException if the coupon does not exist
+		if (couponsDAO.getCoupon(couponId).getAmount() <= 0) {
+			throw new CouponNotInStockException("Unable to Purchase coupon " + couponId + " it's not available in stock");
+		}
+		// The stock check above is advisory; the DAO's conditional decrement is what prevents overselling
+		boolean inStock;
+		try {
+			inStock = couponsDAO.addCouponPurchase(customerId, couponId);
+		} catch (SQLException e) {
+			throw purchaseFailure(customerId, e);
+		}
+		if (!inStock) {
+			throw new CouponNotInStockException("Unable to Purchase coupon " + couponId + " it's not available in stock");
+		}
+	}
+
+	/**
+	 * Check out a cart for the authenticated customer: all the coupons are bought in one DAO
+	 * transaction, or none are and the results say why (see CouponsDAO.addCouponPurchases).
+	 * Replaces one purchaseCoupon call, with its own checks and transaction, per coupon.
+	 *
+	 * NOT_SUPPORTED for the same reason as purchaseCoupon.
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<CartItemResult> checkoutCart(long customerId, @NotNull Collection<Long> couponIds) throws SQLException {
+		try {
+			return couponsDAO.addCouponPurchases(customerId, couponIds);
+		} catch (SQLException e) {
+			throw purchaseFailure(customerId, e);
+		}
+	}
+
+	/**
+	 * Maps an integrity violation (SQLState class 23) on a purchase to CustomerNotFoundException
+	 * when the customer is gone, i.e. the customer foreign key failed. Anything else is returned
+	 * unchanged for the caller to rethrow.
+	 */
+	private SQLException purchaseFailure(long customerId, SQLException e) {
+		if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+			return e;
+		}
+		try {
+			customerDAO.getCustomer(customerId);
+		} catch (CustomerNotFoundException notFound) {
+			return notFound;
+		} catch (SQLException lookupFailure) {
+			e.addSuppressed(lookupFailure);
+		}
+		return e;
 	}
 
 	public ArrayList<Coupon> getCustomerCoupons(Customer customer) throws SQLException, CategoryNotFoundException {
@@ -65,4 +142,26 @@ public class CustomerFacade extends ClientFacade {
 		return customerDAO.getCustomer(customer.getId());
 	}
 
+	// ID-based variants for authenticated requests (single query, no customer row lookup)
+
+	public ArrayList<Coupon> getCustomerCoupons(long customerId) throws SQLException, CategoryNotFoundException {
+		return couponsDAO.getCustomerCoupons(customerId);
+	}
+
+	public ArrayList<Coupon> getCustomerCoupons(long customerId, Category CATEGORY) throws SQLException, CategoryNotFoundException {
+		ArrayList<Coupon> list = getCustomerCoupons(customerId);
+		list.removeIf(coupon -> !coupon.getCATEGORY().equals(CATEGORY));
+		return list;
+	}
+
+	public ArrayList<Coupon> getCustomerCoupons(long customerId, double maxPrice) throws SQLException, CategoryNotFoundException {
+		ArrayList<Coupon> list = getCustomerCoupons(customerId);
+		list.removeIf(coupon -> coupon.getPrice() > maxPrice);
+		return list;
+	}
+
+	public Customer getCustomerDetails(long customerId) throws SQLException {
+		return principalCache.getCustomer(customerId, customerDAO::getCustomer);
+	}
+
 }
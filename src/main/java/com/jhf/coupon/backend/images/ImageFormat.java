@@ -0,0 +1,51 @@
+package com.jhf.coupon.backend.images;
+
+/**
+ * Image formats accepted by the image store, recognised by their leading magic bytes rather
+ * than by file name or the Content-Type sent by the client.
+ */
+public enum ImageFormat {
+	PNG("image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+	JPEG("image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+	GIF("image/gif", new byte[]{'G', 'I', 'F', '8'});
+
+	/** Bytes to read from the start of a file to tell the formats apart. */
+	public static final int MAGIC_LENGTH = 8;
+
+	private final String contentType;
+	private final byte[] magic;
+
+	ImageFormat(String contentType, byte[] magic) {
+		this.contentType = contentType;
+		this.magic = magic;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * Identifies the format from the first bytes of an image.
+	 *
+	 * @param head At least the first MAGIC_LENGTH bytes, or the whole content if shorter
+	 * @param length Number of valid bytes in head
+	 * @return The format, or null if the bytes are not a supported image
+	 */
+	public static ImageFormat sniff(byte[] head, int length) {
+		for (ImageFormat format : values()) {
+			if (length >= format.magic.length && startsWith(head, format.magic)) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	private static boolean startsWith(byte[] head, byte[] magic) {
+		for (int i = 0; i < magic.length; i++) {
+			if (head[i] != magic[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
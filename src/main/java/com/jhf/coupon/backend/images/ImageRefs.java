@@ -0,0 +1,49 @@
+package com.jhf.coupon.backend.images;
+
+import java.util.regex.Pattern;
+
+/**
+ * Conversions between the value kept in coupons.image and the URL clients load it from.
+ *
+ * A coupon image is either the SHA-256 content hash of an image in the ImageStore (64 lowercase
+ * hex characters) or, for coupons created before the store existed, an arbitrary URL that is
+ * passed through unchanged.
+ */
+public final class ImageRefs {
+	public static final String URL_PREFIX = "/api/v1/public/images/";
+	private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+	private ImageRefs() {
+	}
+
+	public static boolean isContentHash(String value) {
+		return value != null && CONTENT_HASH.matcher(value).matches();
+	}
+
+	/**
+	 * Extracts the content hash from a bare hash or an image store URL.
+	 *
+	 * @return The hash, or null if the value does not reference the image store
+	 */
+	public static String hashOf(String reference) {
+		if (reference == null) {
+			return null;
+		}
+		String candidate = reference.startsWith(URL_PREFIX) ? reference.substring(URL_PREFIX.length()) : reference;
+		return isContentHash(candidate) ? candidate : null;
+	}
+
+	/**
+	 * URL of the original image for a stored coupon image value; legacy URLs are returned as-is.
+	 */
+	public static String urlOf(String image) {
+		return isContentHash(image) ? URL_PREFIX + image : image;
+	}
+
+	/**
+	 * URL of a thumbnail for a stored coupon image value, or null for legacy URLs.
+	 */
+	public static String thumbnailUrlOf(String image, int width) {
+		return isContentHash(image) ? URL_PREFIX + image + "/w/" + width : null;
+	}
+}
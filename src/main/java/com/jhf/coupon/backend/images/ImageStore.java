@@ -0,0 +1,176 @@
+package com.jhf.coupon.backend.images;
+
+import com.jhf.coupon.backend.exceptions.ImageNotFoundException;
+import com.jhf.coupon.backend.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Content-addressed image storage on the local filesystem.
+ *
+ * An image is stored once under the SHA-256 of its bytes, in a directory named after the first
+ * two hex characters of the hash (256 directories keep listings short): {dir}/ab/ab12...ef.
+ * Thumbnails sit next to the original as {hash}-w{width}. Files are written to a temporary name
+ * and atomically renamed, so readers never see a partial file, and are never modified afterwards,
+ * which is what lets them be served with an immutable Cache-Control. The directory can be a
+ * mounted volume shared by all instances, standing in for an object store.
+ */
+@Component
+public class ImageStore {
+	private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+	private final Path root;
+	private final int maxBytes;
+	private final long maxPixels;
+
+	public ImageStore(@Value("${images.store.dir:./data/images}") String dir,
+	                  @Value("${images.max-bytes:5242880}") int maxBytes,
+	                  @Value("${images.max-pixels:40000000}") long maxPixels) throws IOException {
+		this.root = Paths.get(dir).toAbsolutePath().normalize();
+		this.maxBytes = maxBytes;
+		this.maxPixels = maxPixels;
+		Files.createDirectories(root);
+		logger.info("Image store at {}", root);
+	}
+
+	/**
+	 * Validates and stores an image. Storing the same bytes twice is a no-op.
+	 *
+	 * @param content Image bytes, PNG, JPEG or GIF
+	 * @return SHA-256 content hash, lowercase hex
+	 * @throws ValidationException if the content is empty, too large, not a supported image,
+	 *                             or its dimensions exceed images.max-pixels
+	 */
+	public String store(byte[] content) throws ValidationException, IOException {
+		if (content == null || content.length == 0) {
+			throw new ValidationException("Invalid image: must not be empty");
+		}
+		if (content.length > maxBytes) {
+			throw new ValidationException("Invalid image: cannot exceed " + maxBytes + " bytes");
+		}
+		if (ImageFormat.sniff(content, content.length) == null) {
+			throw new ValidationException("Invalid image: only PNG, JPEG and GIF are supported");
+		}
+		checkDimensions(content);
+
+		String hash = sha256(content);
+		Path target = originalPath(hash);
+		if (!Files.exists(target)) {
+			write(target, content);
+		}
+		return hash;
+	}
+
+	public boolean contains(String hash) {
+		return ImageRefs.isContentHash(hash) && Files.isRegularFile(originalPath(hash));
+	}
+
+	/**
+	 * Looks up a stored original.
+	 *
+	 * @throws ImageNotFoundException if the hash is malformed or not stored
+	 */
+	public StoredImage getOriginal(String hash) throws ImageNotFoundException, IOException {
+		if (!ImageRefs.isContentHash(hash)) {
+			throw new ImageNotFoundException("Image not found: " + hash);
+		}
+		StoredImage image = open(hash, originalPath(hash));
+		if (image == null) {
+			throw new ImageNotFoundException("Image not found: " + hash);
+		}
+		return image;
+	}
+
+	/**
+	 * Looks up a generated thumbnail.
+	 *
+	 * @return The thumbnail, or null if it has not been generated
+	 */
+	public StoredImage getThumbnail(String hash, int width) throws IOException {
+		return open(hash, thumbnailPath(hash, width));
+	}
+
+	public void writeThumbnail(String hash, int width, byte[] content) throws IOException {
+		write(thumbnailPath(hash, width), content);
+	}
+
+	Path originalPath(String hash) {
+		return root.resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	Path thumbnailPath(String hash, int width) {
+		return root.resolve(hash.substring(0, 2)).resolve(hash + "-w" + width);
+	}
+
+	private StoredImage open(String hash, Path path) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+		byte[] head = new byte[ImageFormat.MAGIC_LENGTH];
+		int read;
+		try (InputStream in = Files.newInputStream(path)) {
+			read = in.readNBytes(head, 0, head.length);
+		}
+		return new StoredImage(hash, path, ImageFormat.sniff(head, read), Files.size(path), true);
+	}
+
+	private void checkDimensions(byte[] content) throws ValidationException, IOException {
+		// Read the header only: decoding a small file that claims huge dimensions would exhaust the heap
+		try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+			if (!readers.hasNext()) {
+				throw new ValidationException("Invalid image: unreadable");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+				if (pixels <= 0 || pixels > maxPixels) {
+					throw new ValidationException("Invalid image: cannot exceed " + maxPixels + " pixels");
+				}
+			} catch (IIOException e) {
+				throw new ValidationException("Invalid image: unreadable");
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private void write(Path target, byte[] content) throws IOException {
+		Path dir = target.getParent();
+		Files.createDirectories(dir);
+		Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+		try {
+			Files.write(temp, content);
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
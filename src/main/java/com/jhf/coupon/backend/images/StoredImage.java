@@ -0,0 +1,19 @@
+package com.jhf.coupon.backend.images;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * An image file ready to be sent: where it is, what it is, and whether it can be cached forever.
+ * Originals and generated thumbnails are immutable (their URL names their content); an original
+ * served in place of a thumbnail that is still being generated is not.
+ */
+@Value
+public class StoredImage {
+	String hash;
+	Path path;
+	ImageFormat format;
+	long size;
+	boolean immutable;
+}
@@ -0,0 +1,164 @@
+package com.jhf.coupon.backend.images;
+
+import com.jhf.coupon.backend.exceptions.ImageNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates coupon image thumbnails off the request path.
+ *
+ * Uploads queue a job on a fixed pool of images.thumbnail.workers threads that writes one
+ * thumbnail per configured width into the ImageStore. The queue is bounded; when it is full the
+ * job is dropped and regenerated the next time the thumbnail is requested. Until a thumbnail
+ * exists, getThumbnail() serves the original with a short-lived cache header.
+ */
+@Service
+public class ThumbnailService {
+	private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+	private final ImageStore imageStore;
+	private final int[] widths;
+	private final ThreadPoolExecutor executor;
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+	public ThumbnailService(ImageStore imageStore,
+	                        @Value("${images.thumbnail.widths:160,480}") int[] widths,
+	                        @Value("${images.thumbnail.workers:2}") int workers,
+	                        @Value("${images.thumbnail.queue-capacity:1000}") int queueCapacity) {
+		this.imageStore = imageStore;
+		this.widths = Arrays.stream(widths).sorted().distinct().toArray();
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@PreDestroy
+	public void stop() {
+		executor.shutdownNow();
+	}
+
+	public int[] getWidths() {
+		return widths.clone();
+	}
+
+	/**
+	 * Queues thumbnail generation for a stored image. Does nothing if a job for the image is
+	 * already queued or running.
+	 */
+	public void schedule(String hash) {
+		if (!inFlight.add(hash)) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					generate(hash);
+				} catch (IOException | RuntimeException e) {
+					logger.warn("Failed to generate thumbnails for image {}", hash, e);
+				} finally {
+					inFlight.remove(hash);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			inFlight.remove(hash);
+			logger.debug("Thumbnail queue full, skipping image {}", hash);
+		}
+	}
+
+	/**
+	 * Writes every missing thumbnail of a stored image. Images no wider than a thumbnail width
+	 * are stored as-is for that width rather than upscaled.
+	 */
+	public void generate(String hash) throws IOException {
+		StoredImage original;
+		try {
+			original = imageStore.getOriginal(hash);
+		} catch (ImageNotFoundException e) {
+			return;
+		}
+		BufferedImage source = null;
+		for (int width : widths) {
+			if (imageStore.getThumbnail(hash, width) != null) {
+				continue;
+			}
+			if (source == null) {
+				source = ImageIO.read(original.getPath().toFile());
+				if (source == null) {
+					throw new IOException("Unreadable image " + hash);
+				}
+			}
+			byte[] thumbnail = source.getWidth() <= width
+					? Files.readAllBytes(original.getPath())
+					: encode(scale(source, width));
+			imageStore.writeThumbnail(hash, width, thumbnail);
+		}
+	}
+
+	/**
+	 * Gets the thumbnail of a stored image, falling back to the original (marked not immutable)
+	 * and queueing generation if the thumbnail does not exist yet.
+	 *
+	 * @throws ImageNotFoundException if the image is not stored or the width is not configured
+	 */
+	public StoredImage getThumbnail(String hash, int width) throws ImageNotFoundException, IOException {
+		StoredImage original = imageStore.getOriginal(hash);
+		if (Arrays.binarySearch(widths, width) < 0) {
+			throw new ImageNotFoundException("Thumbnail width not available: " + width);
+		}
+		StoredImage thumbnail = imageStore.getThumbnail(hash, width);
+		if (thumbnail != null) {
+			return thumbnail;
+		}
+		schedule(hash);
+		return new StoredImage(original.getHash(), original.getPath(), original.getFormat(), original.getSize(), false);
+	}
+
+	private static BufferedImage scale(BufferedImage source, int width) {
+		int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+		boolean alpha = source.getColorModel().hasAlpha();
+		BufferedImage scaled = new BufferedImage(width, height,
+				alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			graphics.dispose();
+		}
+		return scaled;
+	}
+
+	// JPEG for opaque images; PNG keeps transparency
+	private static byte[] encode(BufferedImage image) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		String format = image.getColorModel().hasAlpha() ? "png" : "jpg";
+		if (!ImageIO.write(image, format, out)) {
+			throw new IOException("No image writer for " + format);
+		}
+		return out.toByteArray();
+	}
+}
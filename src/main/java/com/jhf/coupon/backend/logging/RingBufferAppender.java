@@ -0,0 +1,350 @@
+package com.jhf.coupon.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous appender backed by a preallocated ring buffer of event slots.
+ *
+ * <p>Request threads claim a slot with a single CAS and never take a lock. One daemon
+ * thread drains the slots in order and hands each event to the attached appenders
+ * (usually a file appender with the JSON encoder). Unlike logback's AsyncAppender there is
+ * no ArrayBlockingQueue lock and no per-event queue node.
+ *
+ * <p>Overflow policy, evaluated per event:
+ * <ul>
+ *   <li>When fewer than {@code discardingThreshold} slots are free, TRACE and DEBUG
+ *       events are dropped.</li>
+ *   <li>When the buffer is full, events at or above {@code blockingLevel} wait for a free
+ *       slot; lower levels are dropped. Set blockingLevel to OFF to never block.</li>
+ * </ul>
+ * Dropped events are counted per level and blocked events in total; RingBufferAppenderMetrics
+ * exports both to Prometheus.
+ *
+ * <p>Configuration (logback.xml):
+ * <pre>
+ * &lt;appender name="ASYNC_FILE" class="com.jhf.coupon.backend.logging.RingBufferAppender"&gt;
+ *     &lt;appender-ref ref="FILE"/&gt;
+ *     &lt;bufferSize&gt;8192&lt;/bufferSize&gt;
+ *     &lt;discardingThreshold&gt;1638&lt;/discardingThreshold&gt;
+ *     &lt;blockingLevel&gt;WARN&lt;/blockingLevel&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int UNDEFINED = -1;
+    // Producers unpark an idle drain thread, so this only bounds a missed wake-up
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int discardingThreshold = UNDEFINED;
+    private Level blockingLevel = Level.WARN;
+    private int maxFlushTime = 1000;
+
+    // Slot i holds the event published for sequence s when sequences[i] == s + 1,
+    // and is free for sequence s when sequences[i] == s (Vyukov bounded queue)
+    private ILoggingEvent[] events;
+    private AtomicLongArray sequences;
+    private int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final AtomicLong[] droppedByLevel = {
+            new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()
+    };
+    private final AtomicLong blocked = new AtomicLong();
+
+    private volatile Thread drainer;
+    // Set by the drain thread before it parks on an empty buffer; producers that see it unpark the thread
+    private volatile boolean idle;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            addError("bufferSize must be a power of two >= 2, was " + bufferSize);
+            return;
+        }
+        if (discardingThreshold == UNDEFINED) {
+            discardingThreshold = bufferSize / 5;
+        }
+
+        events = new ILoggingEvent[bufferSize];
+        sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            sequences.set(i, i);
+        }
+        mask = bufferSize - 1;
+        tail.set(0);
+        head = 0;
+
+        super.start();
+        Thread thread = new Thread(this::drainLoop, "log-drain-" + getName());
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(maxFlushTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                addWarn("Log drain did not finish within " + maxFlushTime + "ms, "
+                        + (tail.get() - head) + " events discarded");
+            }
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int levelInt = event.getLevel().toInt();
+        if (levelInt <= Level.DEBUG_INT && remainingCapacity() < discardingThreshold) {
+            recordDropped(event.getLevel());
+            return;
+        }
+
+        // Capture thread-bound state (MDC, formatted message) before the event changes threads
+        event.prepareForDeferredProcessing();
+
+        if (offer(event)) {
+            wakeDrainer();
+            return;
+        }
+        if (levelInt < blockingLevel.toInt()) {
+            recordDropped(event.getLevel());
+            return;
+        }
+
+        blocked.incrementAndGet();
+        while (!offer(event)) {
+            if (!isStarted()) {
+                recordDropped(event.getLevel());
+                return;
+            }
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+        wakeDrainer();
+    }
+
+    private void wakeDrainer() {
+        if (idle) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /**
+     * Multi-producer enqueue: claim the next sequence with a CAS, fill the slot, then
+     * publish it by advancing the slot sequence.
+     */
+    private boolean offer(ILoggingEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Single-consumer dequeue: only the drain thread advances head.
+     */
+    private ILoggingEvent poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        ILoggingEvent event = events[index];
+        events[index] = null;
+        sequences.set(index, position + bufferSize);
+        head = position + 1;
+        return event;
+    }
+
+    private void drainLoop() {
+        long deadline = 0;
+        while (true) {
+            ILoggingEvent event = poll();
+            if (event != null) {
+                deliver(event);
+                continue;
+            }
+            if (!isStarted()) {
+                // Flush whatever producers published before stop, bounded by maxFlushTime
+                if (deadline == 0) {
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxFlushTime);
+                }
+                if (tail.get() == head || System.nanoTime() - deadline > 0) {
+                    return;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            // Announce the park before re-checking tail: a producer that claimed a slot after
+            // this check sees idle and unparks, so an idle appender does not poll
+            idle = true;
+            if (tail.get() == head) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+    }
+
+    private void deliver(ILoggingEvent event) {
+        try {
+            appenders.appendLoopOnAppenders(event);
+        } catch (RuntimeException e) {
+            addError("Failed to deliver log event", e);
+        }
+    }
+
+    private void recordDropped(Level level) {
+        droppedByLevel[levelIndex(level)].incrementAndGet();
+    }
+
+    private static int levelIndex(Level level) {
+        switch (level.toInt()) {
+            case Level.TRACE_INT:
+                return 0;
+            case Level.DEBUG_INT:
+                return 1;
+            case Level.INFO_INT:
+                return 2;
+            case Level.WARN_INT:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    // ========== Statistics ==========
+
+    public long getDroppedCount(Level level) {
+        return droppedByLevel[levelIndex(level)].get();
+    }
+
+    public long getBlockedCount() {
+        return blocked.get();
+    }
+
+    public int getQueuedCount() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int remainingCapacity() {
+        return bufferSize - getQueuedCount();
+    }
+
+    // ========== Configuration ==========
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public Level getBlockingLevel() {
+        return blockingLevel;
+    }
+
+    public void setBlockingLevel(String blockingLevel) {
+        this.blockingLevel = Level.toLevel(blockingLevel, Level.WARN);
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    // ========== AppenderAttachable ==========
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,51 @@
+package com.jhf.coupon.backend.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Finds the RingBufferAppenders configured in logback and exports their drop/block
+ * counters. Logback creates appenders before Spring starts, so they are looked up on the
+ * logger context rather than injected.
+ */
+@Component
+public class RingBufferAppenderMetrics {
+
+    private final PrometheusMetrics metrics;
+
+    public RingBufferAppenderMetrics(PrometheusMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void registerAppenders() {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext context)) {
+            return;
+        }
+
+        // The same appender is usually referenced by several loggers
+        Set<RingBufferAppender> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Logger logger : context.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders();
+            while (it.hasNext()) {
+                if (it.next() instanceof RingBufferAppender appender && appender.isStarted()
+                        && registered.add(appender)) {
+                    metrics.registerRingBufferAppender(appender);
+                }
+            }
+        }
+    }
+}
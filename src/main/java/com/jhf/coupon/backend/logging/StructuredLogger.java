@@ -1,14 +1,22 @@
 package com.jhf.coupon.backend.logging;
 
+import net.logstash.logback.marker.Markers;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
+import org.slf4j.Marker;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Structured logging utility that adds contextual information to log entries.
- * Uses SLF4J's MDC (Mapped Diagnostic Context) to add structured fields to logs.
+ * Fields travel with the event as a logstash marker (written as top-level JSON fields),
+ * so the per-thread MDC is left untouched and request-scoped context set with
+ * setRequestId/setUserContext survives individual log calls.
+ *
+ * <p>Entries for a disabled level return a shared no-op instance, so neither the entry
+ * nor its fields are allocated.
  *
  * <p>Example usage:
  * <pre>
@@ -21,9 +29,12 @@ import java.util.UUID;
  */
 public class StructuredLogger {
 
+    private static final StructuredLogger DISABLED = new StructuredLogger(null, null, null);
+
     private final Logger logger;
     private final String message;
     private final LogLevel level;
+    private Map<String, Object> entries;
 
     private enum LogLevel {
         TRACE, DEBUG, INFO, WARN, ERROR
@@ -35,84 +46,98 @@ public class StructuredLogger {
         this.level = level;
     }
 
+    private static StructuredLogger create(Logger logger, String message, LogLevel level, Throwable throwable) {
+        if (!isEnabled(logger, level)) {
+            return DISABLED;
+        }
+        StructuredLogger sl = new StructuredLogger(logger, message, level);
+        sl.throwable = throwable;
+        return sl;
+    }
+
+    private static boolean isEnabled(Logger logger, LogLevel level) {
+        switch (level) {
+            case TRACE:
+                return logger.isTraceEnabled();
+            case DEBUG:
+                return logger.isDebugEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            default:
+                return logger.isErrorEnabled();
+        }
+    }
+
     /**
      * Creates a TRACE level structured log entry.
      */
     public static StructuredLogger trace(Logger logger, String message) {
-        return new StructuredLogger(logger, message, LogLevel.TRACE);
+        return create(logger, message, LogLevel.TRACE, null);
     }
 
     /**
      * Creates a TRACE level structured log entry with exception.
      */
     public static StructuredLogger trace(Logger logger, String message, Throwable throwable) {
-        StructuredLogger sl = new StructuredLogger(logger, message, LogLevel.TRACE);
-        sl.throwable = throwable;
-        return sl;
+        return create(logger, message, LogLevel.TRACE, throwable);
     }
 
     /**
      * Creates a DEBUG level structured log entry.
      */
     public static StructuredLogger debug(Logger logger, String message) {
-        return new StructuredLogger(logger, message, LogLevel.DEBUG);
+        return create(logger, message, LogLevel.DEBUG, null);
     }
 
     /**
      * Creates a DEBUG level structured log entry with exception.
      */
     public static StructuredLogger debug(Logger logger, String message, Throwable throwable) {
-        StructuredLogger sl = new StructuredLogger(logger, message, LogLevel.DEBUG);
-        sl.throwable = throwable;
-        return sl;
+        return create(logger, message, LogLevel.DEBUG, throwable);
     }
 
     /**
      * Creates an INFO level structured log entry.
      */
     public static StructuredLogger info(Logger logger, String message) {
-        return new StructuredLogger(logger, message, LogLevel.INFO);
+        return create(logger, message, LogLevel.INFO, null);
     }
 
     /**
      * Creates an INFO level structured log entry with exception.
      */
     public static StructuredLogger info(Logger logger, String message, Throwable throwable) {
-        StructuredLogger sl = new StructuredLogger(logger, message, LogLevel.INFO);
-        sl.throwable = throwable;
-        return sl;
+        return create(logger, message, LogLevel.INFO, throwable);
     }
 
     /**
      * Creates a WARN level structured log entry.
      */
     public static StructuredLogger warn(Logger logger, String message) {
-        return new StructuredLogger(logger, message, LogLevel.WARN);
+        return create(logger, message, LogLevel.WARN, null);
     }
 
     /**
      * Creates a WARN level structured log entry with exception.
      */
     public static StructuredLogger warn(Logger logger, String message, Throwable throwable) {
-        StructuredLogger sl = new StructuredLogger(logger, message, LogLevel.WARN);
-        sl.throwable = throwable;
-        return sl;
+        return create(logger, message, LogLevel.WARN, throwable);
     }
 
     /**
      * Creates an ERROR level structured log entry.
      */
     public static StructuredLogger error(Logger logger, String message) {
-        return new StructuredLogger(logger, message, LogLevel.ERROR);
+        return create(logger, message, LogLevel.ERROR, null);
     }
 
     /**
      * Creates an ERROR level structured log entry with exception.
      */
     public static StructuredLogger error(Logger logger, String message, Throwable throwable) {
-        StructuredLogger sl = new StructuredLogger(logger, message, LogLevel.ERROR);
-        sl.throwable = throwable;
-        return sl;
+        return create(logger, message, LogLevel.ERROR, throwable);
     }
 
     private Throwable throwable;
@@ -122,7 +147,7 @@ public class StructuredLogger {
      */
     public StructuredLogger field(String key, String value) {
         if (value != null) {
-            MDC.put(key, value);
+            put(key, value);
         }
         return this;
     }
@@ -132,7 +157,7 @@ public class StructuredLogger {
      */
     public StructuredLogger field(String key, Number value) {
         if (value != null) {
-            MDC.put(key, value.toString());
+            put(key, value);
         }
         return this;
     }
@@ -141,7 +166,7 @@ public class StructuredLogger {
      * Adds a boolean field to the log entry.
      */
     public StructuredLogger field(String key, boolean value) {
-        MDC.put(key, Boolean.toString(value));
+        put(key, value);
         return this;
     }
 
@@ -152,58 +177,47 @@ public class StructuredLogger {
         if (fields != null) {
             fields.forEach((key, value) -> {
                 if (value != null) {
-                    MDC.put(key, value);
+                    put(key, value);
                 }
             });
         }
         return this;
     }
 
+    private void put(String key, Object value) {
+        if (this == DISABLED) {
+            return;
+        }
+        if (entries == null) {
+            entries = new LinkedHashMap<>();
+        }
+        entries.put(key, value);
+    }
+
     /**
-     * Logs the message with all accumulated fields, then clears the MDC.
+     * Logs the message with all accumulated fields.
      */
     public void log() {
-        try {
-            switch (level) {
-                case TRACE:
-                    if (throwable != null) {
-                        logger.trace(message, throwable);
-                    } else {
-                        logger.trace(message);
-                    }
-                    break;
-                case DEBUG:
-                    if (throwable != null) {
-                        logger.debug(message, throwable);
-                    } else {
-                        logger.debug(message);
-                    }
-                    break;
-                case INFO:
-                    if (throwable != null) {
-                        logger.info(message, throwable);
-                    } else {
-                        logger.info(message);
-                    }
-                    break;
-                case WARN:
-                    if (throwable != null) {
-                        logger.warn(message, throwable);
-                    } else {
-                        logger.warn(message);
-                    }
-                    break;
-                case ERROR:
-                    if (throwable != null) {
-                        logger.error(message, throwable);
-                    } else {
-                        logger.error(message);
-                    }
-                    break;
-            }
-        } finally {
-            // Always clear MDC after logging to prevent context leakage
-            MDC.clear();
+        if (this == DISABLED) {
+            return;
+        }
+        Marker marker = entries != null ? Markers.appendEntries(entries) : null;
+        switch (level) {
+            case TRACE:
+                logger.trace(marker, message, throwable);
+                break;
+            case DEBUG:
+                logger.debug(marker, message, throwable);
+                break;
+            case INFO:
+                logger.info(marker, message, throwable);
+                break;
+            case WARN:
+                logger.warn(marker, message, throwable);
+                break;
+            case ERROR:
+                logger.error(marker, message, throwable);
+                break;
         }
     }
 
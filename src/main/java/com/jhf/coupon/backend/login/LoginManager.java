@@ -1,6 +1,7 @@
 package com.jhf.coupon.backend.login;
 
 import com.jhf.coupon.backend.beans.AccountLockoutStatus;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
 import com.jhf.coupon.backend.exceptions.AccountLockedException;
 import com.jhf.coupon.backend.exceptions.ClientTypeNotFoundException;
 import com.jhf.coupon.backend.exceptions.InvalidLoginCredentialsException;
@@ -8,7 +9,10 @@ import com.jhf.coupon.backend.facade.AdminFacade;
 import com.jhf.coupon.backend.facade.ClientFacade;
 import com.jhf.coupon.backend.facade.CompanyFacade;
 import com.jhf.coupon.backend.facade.CustomerFacade;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.backend.security.AdminLockoutTracker;
 import com.jhf.coupon.backend.security.LockoutConfig;
+import com.jhf.coupon.backend.security.PasswordRehashService;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import com.jhf.coupon.sql.dao.customer.CustomerDAO;
 import org.jetbrains.annotations.NotNull;
@@ -17,8 +21,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.sql.SQLException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * LoginManager with account lockout functionality.
@@ -30,9 +32,8 @@ public class LoginManager {
 
 	private ClientFacade facade;
 
-	// Thread-safe in-memory tracking for admin lockout attempts
-	// Key: email, Value: failed attempt count
-	private final ConcurrentHashMap<String, AtomicInteger> adminFailedAttempts;
+	// Bounded, time-decaying in-memory tracking for admin lockout attempts
+	private final AdminLockoutTracker adminLockoutTracker;
 
 	// DAOs for lockout management
 	private final CompaniesDAO companiesDAO;
@@ -41,18 +42,27 @@ public class LoginManager {
 	// Configuration
 	private final LockoutConfig lockoutConfig;
 
+	// Admin login rejections
+	private final PrometheusMetrics metrics;
+
+	// Background upgrade of password hashes below the current BCrypt cost
+	private final PasswordRehashService passwordRehashService;
+
 	// Facades for authentication
 	private final AdminFacade adminFacade;
 	private final CompanyFacade companyFacade;
 	private final CustomerFacade customerFacade;
 
 	public LoginManager(CompaniesDAO companiesDAO, CustomerDAO customerDAO,
-			LockoutConfig lockoutConfig, AdminFacade adminFacade,
-			CompanyFacade companyFacade, CustomerFacade customerFacade) {
-		this.adminFailedAttempts = new ConcurrentHashMap<>();
+			LockoutConfig lockoutConfig, AdminLockoutTracker adminLockoutTracker,
+			PrometheusMetrics metrics, PasswordRehashService passwordRehashService,
+			AdminFacade adminFacade, CompanyFacade companyFacade, CustomerFacade customerFacade) {
+		this.adminLockoutTracker = adminLockoutTracker;
+		this.metrics = metrics;
 		this.companiesDAO = companiesDAO;
 		this.customerDAO = customerDAO;
 		this.lockoutConfig = lockoutConfig;
+		this.passwordRehashService = passwordRehashService;
 		this.adminFacade = adminFacade;
 		this.companyFacade = companyFacade;
 		this.customerFacade = customerFacade;
@@ -62,12 +72,16 @@ public class LoginManager {
 	 * Login with account lockout protection.
 	 *
 	 * Flow:
-	 * 1. Check if account is locked (DB for Company/Customer, memory for Admin)
-	 * 2. Auto-unlock if lockout period expired
-	 * 3. Attempt login via facade
+	 * 1. Check if account is locked (DB for Company/Customer, AdminLockoutTracker for Admin)
+	 * 2. Ignore an expired lockout (LockoutExpirySweepJob clears it in the background)
+	 * 3. Verify password
 	 * 4. On success: reset failed attempts
 	 * 5. On failure: increment failed attempts, lock if threshold reached
 	 *
+	 * For Company/Customer, steps 1-5 are a single DAO call (authenticateAndTrack):
+	 * one row read plus at most one UPDATE. Hashes created with a lower BCrypt cost than the
+	 * current one are upgraded in the background after a successful login.
+	 *
 	 * @param email User email
 	 * @param password User password
 	 * @param clientType Type of client (admin/company/customer)
@@ -97,16 +111,17 @@ public class LoginManager {
 			throws SQLException, InvalidLoginCredentialsException,
 			AccountLockedException {
 
-		// Check if admin lockout is enabled
-		if (lockoutConfig.isAdminLockoutEnabled()) {
-			// Check in-memory lockout status
-			AtomicInteger attempts = adminFailedAttempts.computeIfAbsent(email,
-					k -> new AtomicInteger(0));
+		// Only the configured admin email can succeed: reject anything else before tracking it
+		if (!adminLockoutTracker.isAdminEmail(email)) {
+			metrics.recordAdminLoginRejected("not_admin_email");
+			throw new InvalidLoginCredentialsException("Could not Authenticate user: " + email);
+		}
 
-			if (attempts.get() >= lockoutConfig.getMaxAttempts()) {
-				logger.warn("Admin account {} is locked due to too many failed attempts", email);
-				throw new AccountLockedException(email, null); // Permanent lock for admin
-			}
+		// Check in-memory lockout status
+		if (lockoutConfig.isAdminLockoutEnabled() && adminLockoutTracker.isLocked(email)) {
+			logger.warn("Admin account {} is locked due to too many failed attempts", email);
+			metrics.recordAdminLoginRejected("locked");
+			throw new AccountLockedException(email, adminLockoutTracker.getLockedUntil(email));
 		}
 
 		// Attempt login
@@ -115,23 +130,21 @@ public class LoginManager {
 		if (loginSuccess) {
 			// Reset failed attempts on success
 			if (lockoutConfig.isAdminLockoutEnabled()) {
-				adminFailedAttempts.remove(email);
+				adminLockoutTracker.reset(email);
 			}
 			logger.debug("Admin login successful for {}", email);
 			return adminFacade;
 		} else {
-			// Increment failed attempts on failure
+			// Count the failure in the sliding window, locking once the threshold is reached
 			if (lockoutConfig.isAdminLockoutEnabled()) {
-				AtomicInteger attempts = adminFailedAttempts.computeIfAbsent(email,
-						k -> new AtomicInteger(0));
-				int newAttempts = attempts.incrementAndGet();
+				int attempts = adminLockoutTracker.recordFailure(email);
 
 				logger.warn("Failed admin login attempt for {}. Attempts: {}/{}",
-						email, newAttempts, lockoutConfig.getMaxAttempts());
+						email, attempts, lockoutConfig.getMaxAttempts());
 
-				if (newAttempts >= lockoutConfig.getMaxAttempts()) {
+				if (attempts >= lockoutConfig.getMaxAttempts()) {
 					logger.error("Admin account {} LOCKED after {} failed attempts",
-							email, newAttempts);
+							email, attempts);
 				}
 			}
 			throw new InvalidLoginCredentialsException("Could not Authenticate user: " + email);
@@ -142,101 +155,72 @@ public class LoginManager {
 			throws SQLException, InvalidLoginCredentialsException,
 			AccountLockedException {
 
-		// 1. Check lockout status from database
-		AccountLockoutStatus lockoutStatus = companiesDAO.getAccountLockoutStatus(email);
-
-		if (lockoutStatus != null) {
-			// 2. Auto-unlock if lockout period expired
-			if (lockoutStatus.isLockoutExpired()) {
-				logger.info("Auto-unlocking company account {} after lockout period expired", email);
-				companiesDAO.unlockAccount(email);
-				lockoutStatus.setAccountLocked(false);
-			}
-
-			// 3. Check if account is currently locked
-			if (lockoutStatus.isCurrentlyLocked()) {
-				logger.warn("Login attempt to locked company account: {}", email);
-				throw new AccountLockedException(email, lockoutStatus.getLockedUntil());
-			}
-		}
-
-		// 4. Attempt login
-		boolean loginSuccess = companyFacade.login(email, password);
+		// Single read of hash + lockout columns, outcome written back in at most one UPDATE
+		LoginAttemptResult result = companiesDAO.authenticateAndTrack(email, password,
+				lockoutConfig.getMaxAttempts(), lockoutConfig.getLockoutDurationMinutes());
 
-		if (loginSuccess) {
-			// 5. Reset failed attempts on success
-			companiesDAO.resetFailedLoginAttempts(email);
-			logger.debug("Company login successful for {}", email);
-			return companyFacade;
-		} else {
-			// 6. Increment failed attempts on failure
-			companiesDAO.incrementFailedLoginAttempts(email,
-					lockoutConfig.getMaxAttempts(),
-					lockoutConfig.getLockoutDurationMinutes());
-
-			// Fetch updated status to check if account is now locked
-			AccountLockoutStatus updatedStatus = companiesDAO.getAccountLockoutStatus(email);
-			if (updatedStatus != null && updatedStatus.isAccountLocked()) {
-				logger.error("Company account {} LOCKED after {} failed attempts",
-						email, updatedStatus.getFailedLoginAttempts());
-			} else if (updatedStatus != null) {
-				logger.warn("Failed company login for {}. Attempts: {}/{}",
-						email, updatedStatus.getFailedLoginAttempts(),
-						lockoutConfig.getMaxAttempts());
-			}
-
-			throw new InvalidLoginCredentialsException("Could not Authenticate user: " + email);
+		ClientFacade facade = handleLoginAttempt(result, email, "company", companyFacade);
+		if (result.getPasswordHashToUpgrade() != null) {
+			passwordRehashService.scheduleCompanyRehash(result.getUserId(), password,
+					result.getPasswordHashToUpgrade());
 		}
+		return facade;
 	}
 
 	private ClientFacade loginCustomer(String email, String password)
 			throws SQLException, InvalidLoginCredentialsException,
 			AccountLockedException {
 
-		// 1. Check lockout status from database
-		AccountLockoutStatus lockoutStatus = customerDAO.getAccountLockoutStatus(email);
+		// Single read of hash + lockout columns, outcome written back in at most one UPDATE
+		LoginAttemptResult result = customerDAO.authenticateAndTrack(email, password,
+				lockoutConfig.getMaxAttempts(), lockoutConfig.getLockoutDurationMinutes());
 
-		if (lockoutStatus != null) {
-			// 2. Auto-unlock if lockout period expired
-			if (lockoutStatus.isLockoutExpired()) {
-				logger.info("Auto-unlocking customer account {} after lockout period expired", email);
-				customerDAO.unlockAccount(email);
-				lockoutStatus.setAccountLocked(false);
-			}
-
-			// 3. Check if account is currently locked
-			if (lockoutStatus.isCurrentlyLocked()) {
-				logger.warn("Login attempt to locked customer account: {}", email);
-				throw new AccountLockedException(email, lockoutStatus.getLockedUntil());
-			}
+		ClientFacade facade = handleLoginAttempt(result, email, "customer", customerFacade);
+		if (result.getPasswordHashToUpgrade() != null) {
+			passwordRehashService.scheduleCustomerRehash(result.getUserId(), password,
+					result.getPasswordHashToUpgrade());
 		}
+		return facade;
+	}
 
-		// 4. Attempt login
-		boolean loginSuccess = customerFacade.login(email, password);
-
-		if (loginSuccess) {
-			// 5. Reset failed attempts on success
-			customerDAO.resetFailedLoginAttempts(email);
-			logger.debug("Customer login successful for {}", email);
-			return customerFacade;
-		} else {
-			// 6. Increment failed attempts on failure
-			customerDAO.incrementFailedLoginAttempts(email,
-					lockoutConfig.getMaxAttempts(),
-					lockoutConfig.getLockoutDurationMinutes());
-
-			// Fetch updated status to check if account is now locked
-			AccountLockoutStatus updatedStatus = customerDAO.getAccountLockoutStatus(email);
-			if (updatedStatus != null && updatedStatus.isAccountLocked()) {
-				logger.error("Customer account {} LOCKED after {} failed attempts",
-						email, updatedStatus.getFailedLoginAttempts());
-			} else if (updatedStatus != null) {
-				logger.warn("Failed customer login for {}. Attempts: {}/{}",
-						email, updatedStatus.getFailedLoginAttempts(),
-						lockoutConfig.getMaxAttempts());
-			}
-
-			throw new InvalidLoginCredentialsException("Could not Authenticate user: " + email);
+	/**
+	 * Translates a DAO authentication outcome into the facade to return or the exception to throw.
+	 *
+	 * @param result Outcome of DAO authenticateAndTrack
+	 * @param email User email
+	 * @param accountType "company" or "customer" (for logging)
+	 * @param facade Facade returned on success
+	 * @return The facade on successful authentication
+	 * @throws AccountLockedException if the account is locked
+	 * @throws InvalidLoginCredentialsException if the account was not found or the password was rejected
+	 */
+	private ClientFacade handleLoginAttempt(LoginAttemptResult result, String email,
+			String accountType, ClientFacade facade)
+			throws InvalidLoginCredentialsException, AccountLockedException {
+
+		AccountLockoutStatus status = result.getLockoutStatus();
+
+		switch (result.getOutcome()) {
+			case SUCCESS:
+				logger.debug("{} login successful for {}", accountType, email);
+				return facade;
+			case LOCKED:
+				logger.warn("Login attempt to locked {} account: {}", accountType, email);
+				throw new AccountLockedException(email, status.getLockedUntil());
+			case FAILURE:
+				if (status != null && status.isAccountLocked()) {
+					logger.error("{} account {} LOCKED after {} failed attempts",
+							accountType, email, status.getFailedLoginAttempts());
+					metrics.recordAccountLockout(accountType);
+				} else if (status != null) {
+					logger.warn("Failed {} login for {}. Attempts: {}/{}",
+							accountType, email, status.getFailedLoginAttempts(),
+							lockoutConfig.getMaxAttempts());
+				}
+				throw new InvalidLoginCredentialsException("Could not Authenticate user: " + email);
+			case NOT_FOUND:
+			default:
+				throw new InvalidLoginCredentialsException("Could not Authenticate user: " + email);
 		}
 	}
 
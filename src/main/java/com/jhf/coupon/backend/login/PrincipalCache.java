@@ -0,0 +1,113 @@
+package com.jhf.coupon.backend.login;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Short-lived cache of authenticated principals, keyed by the JWT userId.
+ *
+ * Populated at login and read by the company/customer facades, so authenticated
+ * requests do not reload the account row on every call. Entries never hold the
+ * password hash. AdminFacade invalidates an entry whenever the account is updated
+ * or deleted; the TTL bounds staleness for any other change.
+ */
+@Component
+public class PrincipalCache {
+
+	private final Cache<Long, Customer> customers;
+	private final Cache<Long, Company> companies;
+
+	public PrincipalCache(@Value("${principal.cache.ttl-seconds:60}") long ttlSeconds,
+	                      @Value("${principal.cache.max-size:10000}") long maxSize) {
+		this.customers = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.maximumSize(maxSize)
+				.build();
+		this.companies = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.maximumSize(maxSize)
+				.build();
+	}
+
+	/**
+	 * Loader for a principal that is not cached (usually a DAO lookup by ID).
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+		T load(long id) throws SQLException;
+	}
+
+	public void putCustomer(Customer customer) {
+		customers.put(customer.getId(), withoutPassword(customer));
+	}
+
+	public void putCompany(Company company) {
+		companies.put(company.getId(), withoutPassword(company));
+	}
+
+	/**
+	 * Get a customer principal, loading and caching it on a miss.
+	 *
+	 * @param customerId Customer ID from the JWT
+	 * @param loader Lookup used on a cache miss
+	 * @return Customer without password
+	 * @throws SQLException if the lookup fails (including CustomerNotFoundException)
+	 */
+	public Customer getCustomer(long customerId, Loader<Customer> loader) throws SQLException {
+		Customer cached = customers.getIfPresent(customerId);
+		if (cached != null) {
+			return withoutPassword(cached);
+		}
+		Customer customer = withoutPassword(loader.load(customerId));
+		customers.put(customerId, customer);
+		return withoutPassword(customer);
+	}
+
+	/**
+	 * Get a company principal, loading and caching it on a miss.
+	 *
+	 * @param companyId Company ID from the JWT
+	 * @param loader Lookup used on a cache miss
+	 * @return Company without password
+	 * @throws SQLException if the lookup fails (including CompanyNotFoundException)
+	 */
+	public Company getCompany(long companyId, Loader<Company> loader) throws SQLException {
+		Company cached = companies.getIfPresent(companyId);
+		if (cached != null) {
+			return withoutPassword(cached);
+		}
+		Company company = withoutPassword(loader.load(companyId));
+		companies.put(companyId, company);
+		return withoutPassword(company);
+	}
+
+	public void invalidateCustomer(long customerId) {
+		customers.invalidate(customerId);
+	}
+
+	public void invalidateCompany(long companyId) {
+		companies.invalidate(companyId);
+	}
+
+	public void invalidateAll() {
+		customers.invalidateAll();
+		companies.invalidateAll();
+	}
+
+	// Cached entries are shared across requests: store and hand out copies so callers cannot mutate them
+	private static Customer withoutPassword(Customer customer) {
+		return new Customer(customer.getId(), customer.getFirstName(), customer.getLastName(),
+				customer.getEmail(), null);
+	}
+
+	private static Company withoutPassword(Company company) {
+		return new Company(company.getId(), company.getName(), company.getEmail(), null);
+	}
+}
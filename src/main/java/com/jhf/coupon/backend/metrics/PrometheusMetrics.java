@@ -1,12 +1,21 @@
 package com.jhf.coupon.backend.metrics;
 
+import ch.qos.logback.classic.Level;
+import com.jhf.coupon.backend.logging.RingBufferAppender;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import io.micrometer.core.instrument.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * Centralized Prometheus metrics for the Coupon System using Micrometer.
@@ -41,20 +50,46 @@ public class PrometheusMetrics {
     // Track locked accounts count per client type (for gauges)
     private final ConcurrentHashMap<String, AtomicInteger> lockedAccountsCount;
 
+    // ========== Password Hashing Metrics ==========
+    private final Timer.Builder passwordVerifyDurationBuilder;
+    private final Counter.Builder passwordRehashesBuilder;
+    private final AtomicInteger bcryptStrength;
+    private final Counter.Builder adminLoginRejectionsBuilder;
+
     // ========== Coupon Metrics ==========
     private final Counter.Builder couponPurchasesBuilder;
     private final Counter.Builder couponsCreatedBuilder;
     private final Counter expiredCouponsDeleted;
 
+    // ========== Outbox & Event Bus Metrics ==========
+    private final Counter.Builder outboxPublishedBuilder;
+    private final Timer.Builder outboxLagBuilder;
+    private final ConcurrentHashMap<String, AtomicLong> outboxPending = new ConcurrentHashMap<>();
+    private final Counter.Builder eventDeliveriesBuilder;
+
     // ========== Company & Customer Metrics ==========
     private final Counter companyRegistrations;
     private final Counter customerRegistrations;
 
     // ========== Database Metrics ==========
     private final Timer.Builder dbQueryDurationBuilder;
+    private final Counter.Builder dataSourceRoutesBuilder;
+    private final Counter stickyPrimaryReads;
 
     // ========== Error Metrics ==========
     private final Counter.Builder errorsBuilder;
+    private final Counter.Builder requestsShedBuilder;
+
+    // ========== HTTP Metrics ==========
+    // Timers by route, client type and status class, built once: each carries a percentile histogram
+    private final ConcurrentHashMap<HttpTimerKey, Timer> httpRequestTimers = new ConcurrentHashMap<>();
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    // Periodic job metrics
+    private final Timer.Builder jobDurationBuilder;
+    private final Counter.Builder jobRunsBuilder;
+    private final Counter.Builder jobRowsBuilder;
+    private final ConcurrentHashMap<String, AtomicLong> jobLastSuccess = new ConcurrentHashMap<>();
 
     public PrometheusMetrics(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -72,6 +107,18 @@ public class PrometheusMetrics {
                 Tags.of("client_type", "customer", "application", "coupon-system"),
                 lockedAccountsCount.get("customer"));
 
+        // Register gauge for the BCrypt cost used for new hashes
+        this.bcryptStrength = new AtomicInteger(0);
+        meterRegistry.gauge("coupon_system_bcrypt_cost",
+                Tags.of("application", "coupon-system"),
+                bcryptStrength);
+
+        // Register gauge for outbox events not yet handed to the event bus, summed over all outboxes
+        Gauge.builder("coupon_system_outbox_pending", outboxPending,
+                        pending -> pending.values().stream().mapToLong(AtomicLong::get).sum())
+                .tags("application", "coupon-system")
+                .register(meterRegistry);
+
         // Initialize counter builders (actual counters created with labels on first use)
         this.loginAttemptsBuilder = Counter.builder("coupon_system_login_attempts_total")
                 .description("Total number of login attempts")
@@ -93,11 +140,62 @@ public class PrometheusMetrics {
                 .description("Total number of application errors")
                 .tags("application", "coupon-system");
 
+        this.requestsShedBuilder = Counter.builder("coupon_system_requests_shed_total")
+                .description("Requests rejected with 503 by admission control, by route and priority")
+                .tags("application", "coupon-system");
+
+        this.passwordRehashesBuilder = Counter.builder("coupon_system_password_rehashes_total")
+                .description("Total number of password hash upgrades by outcome")
+                .tags("application", "coupon-system");
+
+        this.adminLoginRejectionsBuilder = Counter.builder("coupon_system_admin_login_rejections_total")
+                .description("Admin logins rejected before password verification, by reason")
+                .tags("application", "coupon-system");
+
+        this.passwordVerifyDurationBuilder = Timer.builder("coupon_system_password_verify_duration")
+                .description("BCrypt password verification time")
+                .tags("application", "coupon-system")
+                .publishPercentileHistogram();
+
+        this.outboxPublishedBuilder = Counter.builder("coupon_system_outbox_published_total")
+                .description("Outbox events handed to the event bus, by event type")
+                .tags("application", "coupon-system");
+
+        this.outboxLagBuilder = Timer.builder("coupon_system_outbox_lag")
+                .description("Time from outbox write to publication on the event bus")
+                .tags("application", "coupon-system")
+                .publishPercentileHistogram();
+
+        this.eventDeliveriesBuilder = Counter.builder("coupon_system_event_deliveries_total")
+                .description("Events delivered to event bus subscribers, by subscriber and outcome")
+                .tags("application", "coupon-system");
+
         this.dbQueryDurationBuilder = Timer.builder("coupon_system_db_query_duration")
                 .description("Database query execution time")
                 .tags("application", "coupon-system");
 
+        this.dataSourceRoutesBuilder = Counter.builder("coupon_system_datasource_connections_total")
+                .description("Connections handed out by the routing DataSource, by pool")
+                .tags("application", "coupon-system");
+
         // Initialize non-labeled counters
+        this.stickyPrimaryReads = Counter.builder("coupon_system_datasource_sticky_reads_total")
+                .description("Read-only queries sent to the primary because the user wrote recently")
+                .tags("application", "coupon-system")
+                .register(meterRegistry);
+
+        this.jobDurationBuilder = Timer.builder("coupon_system_job_duration")
+                .description("Duration of one shard of a periodic job")
+                .tags("application", "coupon-system");
+
+        this.jobRunsBuilder = Counter.builder("coupon_system_job_runs_total")
+                .description("Periodic job shard runs by outcome (success, failure, skipped)")
+                .tags("application", "coupon-system");
+
+        this.jobRowsBuilder = Counter.builder("coupon_system_job_rows_processed_total")
+                .description("Rows processed by periodic jobs")
+                .tags("application", "coupon-system");
+
         this.expiredCouponsDeleted = Counter.builder("coupon_system_expired_coupons_deleted_total")
                 .description("Total number of expired coupons deleted by cleanup job")
                 .tags("application", "coupon-system")
@@ -158,6 +256,160 @@ public class PrometheusMetrics {
                 .updateAndGet(current -> Math.max(0, current - 1));
     }
 
+    /**
+     * Sets the locked-accounts gauge to a count read from the database, correcting drift from
+     * lockouts that expired or were recorded on another instance.
+     *
+     * @param clientType "company" or "customer"
+     * @param count Number of currently locked accounts
+     */
+    public void setLockedAccounts(String clientType, int count) {
+        lockedAccountsCount.computeIfAbsent(clientType, k -> new AtomicInteger(0)).set(count);
+    }
+
+    /**
+     * Records the duration of a password verification.
+     *
+     * @param cost BCrypt cost factor of the verified hash
+     * @param durationNanos Verification time in nanoseconds
+     */
+    public void recordPasswordVerification(int cost, long durationNanos) {
+        passwordVerifyDurationBuilder
+                .tags("cost", String.valueOf(cost))
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the outcome of a background password hash upgrade.
+     *
+     * @param clientType "company" or "customer"
+     * @param outcome "upgraded", "skipped", "failed", or "dropped"
+     */
+    public void recordPasswordRehash(String clientType, String outcome) {
+        passwordRehashesBuilder
+                .tags("client_type", clientType, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Sets the BCrypt cost factor used for new hashes.
+     *
+     * @param strength BCrypt cost factor
+     */
+    public void setBcryptStrength(int strength) {
+        bcryptStrength.set(strength);
+    }
+
+    /**
+     * Registers gauges for the in-memory admin lockout tracker.
+     *
+     * @param trackedEmails Supplies the number of tracked admin emails
+     * @param lockedEmails Supplies the number of currently locked admin emails
+     */
+    public void registerAdminLockoutGauges(Supplier<Number> trackedEmails, Supplier<Number> lockedEmails) {
+        Gauge.builder("coupon_system_admin_lockout_tracked", trackedEmails)
+                .description("Admin emails with failed attempts in the current window")
+                .tags("application", "coupon-system")
+                .register(meterRegistry);
+        Gauge.builder("coupon_system_admin_lockout_locked", lockedEmails)
+                .description("Admin emails currently locked")
+                .tags("application", "coupon-system")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an admin login rejected without checking the password.
+     *
+     * @param reason "not_admin_email" or "locked"
+     */
+    public void recordAdminLoginRejected(String reason) {
+        adminLoginRejectionsBuilder
+                .tags("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Registers drop, block and occupancy meters for an asynchronous ring-buffer log appender.
+     *
+     * @param appender Started RingBufferAppender
+     */
+    public void registerRingBufferAppender(RingBufferAppender appender) {
+        for (Level level : new Level[] {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR}) {
+            FunctionCounter.builder("coupon_system_log_events_dropped_total", appender,
+                            a -> a.getDroppedCount(level))
+                    .description("Log events dropped by the async appender overflow policy")
+                    .tags("application", "coupon-system", "appender", appender.getName(),
+                            "level", level.toString())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("coupon_system_log_events_blocked_total", appender,
+                        RingBufferAppender::getBlockedCount)
+                .description("Log events whose thread waited for a free ring buffer slot")
+                .tags("application", "coupon-system", "appender", appender.getName())
+                .register(meterRegistry);
+        Gauge.builder("coupon_system_log_buffer_queued", appender, RingBufferAppender::getQueuedCount)
+                .description("Log events waiting in the async appender ring buffer")
+                .tags("application", "coupon-system", "appender", appender.getName())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an outbox event published to the event bus.
+     *
+     * @param eventType Event type
+     * @param lagMillis Milliseconds between the outbox write and publication
+     */
+    public void recordOutboxPublished(String eventType, long lagMillis) {
+        outboxPublishedBuilder
+                .tags("event_type", eventType)
+                .register(meterRegistry)
+                .increment();
+        outboxLagBuilder
+                .register(meterRegistry)
+                .record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Updates the number of outbox events waiting for the relay of the primary database.
+     */
+    public void setOutboxPending(long pending) {
+        setOutboxPending("primary", pending);
+    }
+
+    /**
+     * Updates the number of outbox events waiting in one outbox (the primary's or a shard's).
+     * The gauge reports the total over all outboxes.
+     */
+    public void setOutboxPending(String outbox, long pending) {
+        outboxPending.computeIfAbsent(outbox, name -> new AtomicLong()).set(pending);
+    }
+
+    /**
+     * Records an event handed to a subscriber.
+     *
+     * @param subscriber Subscriber name
+     * @param outcome "delivered" or "failed"
+     */
+    public void recordEventDelivery(String subscriber, String outcome) {
+        eventDeliveriesBuilder
+                .tags("subscriber", subscriber, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Registers the queue depth gauge of an event bus subscriber.
+     */
+    public void registerEventQueue(String subscriber, Supplier<Number> depth) {
+        Gauge.builder("coupon_system_event_queue_depth", depth)
+                .description("Events waiting in a subscriber's event bus queue")
+                .tags("application", "coupon-system", "subscriber", subscriber)
+                .register(meterRegistry);
+    }
+
     /**
      * Records a coupon purchase.
      *
@@ -198,6 +450,64 @@ public class PrometheusMetrics {
         expiredCouponsDeleted.increment();
     }
 
+    /**
+     * Records one shard run of a periodic job.
+     *
+     * @param job Job name
+     * @param success false if the shard threw
+     * @param durationNanos Run time in nanoseconds
+     * @param rows Rows processed
+     */
+    public void recordJobRun(String job, boolean success, long durationNanos, int rows) {
+        String outcome = success ? "success" : "failure";
+        jobRunsBuilder
+                .tags("job", job, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+        jobDurationBuilder
+                .tags("job", job, "outcome", outcome)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            jobRowsBuilder
+                    .tags("job", job)
+                    .register(meterRegistry)
+                    .increment(rows);
+            jobLastSuccess.computeIfAbsent(job, name -> {
+                AtomicLong lastSuccess = new AtomicLong();
+                Gauge.builder("coupon_system_job_last_success_seconds", lastSuccess, AtomicLong::get)
+                        .description("Unix time of the last successful run of a periodic job on this instance")
+                        .tags("application", "coupon-system", "job", name)
+                        .register(meterRegistry);
+                return lastSuccess;
+            }).set(System.currentTimeMillis() / 1000);
+        }
+    }
+
+    /**
+     * Records a periodic job run skipped because the previous run had not finished.
+     */
+    public void recordJobSkipped(String job) {
+        jobRunsBuilder
+                .tags("job", job, "outcome", "skipped")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records the startup warm-up, once per instance start.
+     *
+     * @param success false if any warm-up step failed
+     * @param durationNanos Time from the start of the warm-up until the instance became ready
+     */
+    public void recordWarmup(boolean success, long durationNanos) {
+        Timer.builder("coupon_system_warmup_duration")
+                .description("Startup warm-up time before the instance reported ready")
+                .tags("application", "coupon-system", "outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * Records company registration.
      */
@@ -225,6 +535,73 @@ public class PrometheusMetrics {
                 .increment();
     }
 
+    /**
+     * Records a request rejected by admission control.
+     *
+     * @param route Route pattern, e.g. "GET /api/v1/public/**"
+     * @param priority "normal" or "low"
+     */
+    public void recordRequestShed(String route, String priority) {
+        requestsShedBuilder
+                .tags("route", route, "priority", priority)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a request handled by a controller.
+     *
+     * @param route HTTP method and route template, e.g. "POST /api/v1/customer/coupons/{couponId}/purchase"
+     * @param clientType "admin", "company", "customer", or "anonymous"
+     * @param status HTTP status code, tagged by class ("2xx", "4xx", ...)
+     * @param durationNanos Handling time in nanoseconds
+     * @param sloThreshold Latency SLO of the route, published as an extra histogram bucket; null if none
+     */
+    public void recordHttpRequest(String route, String clientType, int status, long durationNanos,
+                                  Duration sloThreshold) {
+        HttpTimerKey key = new HttpTimerKey(route, clientType, statusClass(status));
+        Timer timer = httpRequestTimers.get(key);
+        if (timer == null) {
+            timer = httpRequestTimers.computeIfAbsent(key, k -> httpRequestTimer(k, sloThreshold));
+        }
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer httpRequestTimer(HttpTimerKey key, Duration sloThreshold) {
+        Timer.Builder timer = Timer.builder("coupon_system_http_request_duration")
+                .description("Controller handling time by route template, client type and status class")
+                .tags("application", "coupon-system", "route", key.route(), "client_type", key.clientType(),
+                        "status", key.statusClass())
+                .publishPercentileHistogram();
+        if (sloThreshold != null) {
+            timer.serviceLevelObjectives(sloThreshold);
+        }
+        return timer.register(meterRegistry);
+    }
+
+    static String statusClass(int status) {
+        int index = status / 100 - 1;
+        return index >= 0 && index < STATUS_CLASSES.length ? STATUS_CLASSES[index] : "unknown";
+    }
+
+    private record HttpTimerKey(String route, String clientType, String statusClass) {
+    }
+
+    /**
+     * Registers the error-budget burn-rate gauge of a route SLO over one window.
+     * 1.0 spends the budget exactly over the SLO period; above 1.0 exhausts it early.
+     *
+     * @param route HTTP method and route template
+     * @param window Window label, e.g. "5m" or "1h"
+     * @param burnRate Supplies the burn rate over the window
+     */
+    public void registerSloBurnRate(String route, String window, Supplier<Number> burnRate) {
+        Gauge.builder("coupon_system_slo_burn_rate", burnRate)
+                .description("Error-budget burn rate of a route latency SLO over a trailing window")
+                .tags("application", "coupon-system", "route", route, "window", window)
+                .register(meterRegistry);
+    }
+
     /**
      * Times a database query and records the duration.
      *
@@ -249,6 +626,55 @@ public class PrometheusMetrics {
                 .register(meterRegistry));
     }
 
+    /**
+     * Records a connection handed out by the routing DataSource.
+     *
+     * @param route "primary" or "replica"
+     */
+    public void recordDataSourceRoute(String route) {
+        dataSourceRoutesBuilder
+                .tags("pool", route)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a read-only query routed to the primary for read-your-writes consistency.
+     */
+    public void recordStickyPrimaryRead() {
+        stickyPrimaryReads.increment();
+    }
+
+    /**
+     * Registers saturation gauges for a connection pool: active connections, threads
+     * waiting for a connection, and active/maximum utilization.
+     *
+     * @param pool Pool label ("primary" or "replica")
+     * @param dataSource Started Hikari pool
+     */
+    public void registerConnectionPool(String pool, HikariDataSource dataSource) {
+        Gauge.builder("coupon_system_db_pool_active", dataSource,
+                        ds -> poolValue(ds, HikariPoolMXBean::getActiveConnections))
+                .description("Connections currently in use")
+                .tags("application", "coupon-system", "pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("coupon_system_db_pool_pending", dataSource,
+                        ds -> poolValue(ds, HikariPoolMXBean::getThreadsAwaitingConnection))
+                .description("Threads waiting for a connection")
+                .tags("application", "coupon-system", "pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("coupon_system_db_pool_utilization", dataSource,
+                        ds -> poolValue(ds, HikariPoolMXBean::getActiveConnections) / ds.getMaximumPoolSize())
+                .description("Fraction of the pool in use (1.0 = saturated)")
+                .tags("application", "coupon-system", "pool", pool)
+                .register(meterRegistry);
+    }
+
+    private static double poolValue(HikariDataSource dataSource, ToIntFunction<HikariPoolMXBean> value) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : value.applyAsInt(pool);
+    }
+
     /**
      * Updates database connection pool metrics.
      * Note: HikariCP metrics are automatically exposed by Spring Boot Actuator.
@@ -0,0 +1,153 @@
+package com.jhf.coupon.backend.metrics;
+
+import com.jhf.coupon.config.SloProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the latency SLOs configured under slo.routes and publishes their error-budget
+ * burn rate (coupon_system_slo_burn_rate) for every configured window.
+ *
+ * A request is bad when it took longer than its route's threshold or ended in a 5xx; 4xx
+ * responses are counted as good. The burn rate over a window is
+ * (bad / total) / (1 - objective): 1.0 spends the error budget exactly over the SLO period,
+ * 14.4 sustained for an hour spends 2% of a 30-day budget.
+ *
+ * Counts are kept per route in one-minute buckets spanning the longest window, so an
+ * N-minute window covers the current partial minute and the N-1 before it. A window with
+ * no requests reads 0.
+ */
+@Component
+public class SloTracker {
+
+    private static final long BUCKET_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, RouteSlo> routes;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public SloTracker(SloProperties properties, PrometheusMetrics metrics) {
+        this(properties, metrics, System::nanoTime);
+    }
+
+    SloTracker(SloProperties properties, PrometheusMetrics metrics, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+
+        List<Duration> windows = properties.getWindows();
+        int buckets = 1;
+        for (Duration window : windows) {
+            if (window.toMinutes() < 1 || window.toNanos() % BUCKET_NANOS != 0) {
+                throw new IllegalArgumentException("SLO window must be a whole number of minutes: " + window);
+            }
+            buckets = Math.max(buckets, (int) window.toMinutes());
+        }
+
+        Map<String, RouteSlo> byRoute = new HashMap<>();
+        for (SloProperties.Route route : properties.getRoutes()) {
+            RouteSlo slo = new RouteSlo(route, buckets);
+            if (byRoute.putIfAbsent(route.getRoute(), slo) != null) {
+                throw new IllegalArgumentException("Duplicate SLO route: " + route.getRoute());
+            }
+            for (Duration window : windows) {
+                int minutes = (int) window.toMinutes();
+                metrics.registerSloBurnRate(route.getRoute(), windowLabel(window),
+                        () -> slo.burnRate(currentMinute(), minutes));
+            }
+        }
+        this.routes = Map.copyOf(byRoute);
+    }
+
+    /**
+     * Returns the latency threshold of a route, or null if the route has no SLO.
+     *
+     * @param route HTTP method and route template, e.g. "POST /api/v1/auth/login"
+     */
+    public Duration getThreshold(String route) {
+        RouteSlo slo = routes.get(route);
+        return slo == null ? null : slo.threshold;
+    }
+
+    /**
+     * Counts a completed request against its route's SLO. Routes without an SLO are ignored.
+     *
+     * @param route HTTP method and route template
+     * @param status HTTP status code
+     * @param durationNanos Handling time in nanoseconds
+     */
+    public void record(String route, int status, long durationNanos) {
+        RouteSlo slo = routes.get(route);
+        if (slo != null) {
+            slo.record(currentMinute(), status < 500 && durationNanos <= slo.thresholdNanos);
+        }
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(nanoClock.getAsLong(), BUCKET_NANOS);
+    }
+
+    static String windowLabel(Duration window) {
+        long minutes = window.toMinutes();
+        return minutes % 60 == 0 ? minutes / 60 + "h" : minutes + "m";
+    }
+
+    private static final class RouteSlo {
+        private final Duration threshold;
+        private final long thresholdNanos;
+        private final double errorBudget;
+        private final long[] bucketMinute;
+        private final long[] total;
+        private final long[] bad;
+
+        private RouteSlo(SloProperties.Route route, int buckets) {
+            if (route.getRoute() == null || route.getRoute().isBlank()) {
+                throw new IllegalArgumentException("SLO route must be \"METHOD /route/template\"");
+            }
+            if (route.getThreshold() == null || route.getThreshold().isNegative() || route.getThreshold().isZero()) {
+                throw new IllegalArgumentException("SLO threshold must be positive for " + route.getRoute());
+            }
+            if (!(route.getObjective() > 0 && route.getObjective() < 1)) {
+                throw new IllegalArgumentException("SLO objective must be between 0 and 1 for " + route.getRoute());
+            }
+            this.threshold = route.getThreshold();
+            this.thresholdNanos = threshold.toNanos();
+            this.errorBudget = 1 - route.getObjective();
+            this.bucketMinute = new long[buckets];
+            this.total = new long[buckets];
+            this.bad = new long[buckets];
+            Arrays.fill(bucketMinute, Long.MIN_VALUE);
+        }
+
+        private synchronized void record(long minute, boolean good) {
+            int slot = (int) Math.floorMod(minute, (long) bucketMinute.length);
+            if (bucketMinute[slot] != minute) {
+                bucketMinute[slot] = minute;
+                total[slot] = 0;
+                bad[slot] = 0;
+            }
+            total[slot]++;
+            if (!good) {
+                bad[slot]++;
+            }
+        }
+
+        private synchronized double burnRate(long minute, int windowMinutes) {
+            long requests = 0;
+            long failures = 0;
+            for (int slot = 0; slot < bucketMinute.length; slot++) {
+                if (bucketMinute[slot] > minute - windowMinutes && bucketMinute[slot] <= minute) {
+                    requests += total[slot];
+                    failures += bad[slot];
+                }
+            }
+            return requests == 0 ? 0 : (double) failures / requests / errorBudget;
+        }
+    }
+}
@@ -1,56 +1,84 @@
 package com.jhf.coupon.backend.periodicJob;
 
-import com.jhf.coupon.backend.beans.Coupon;
-import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.sql.Date;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 
+/**
+ * Deletes coupons whose end date has passed, daily at 2 AM.
+ *
+ * The coupons table is split into jobs.coupon-expiration.shards ID ranges; each instance
+ * deletes the ranges it leases, so the purge runs once per day however many instances are up.
+ * Shard ranges come from the highest coupon ID when the run starts on an instance; an instance
+ * starting after another has already deleted the highest IDs gets narrower ranges, so a few
+ * coupons may be left for the next day. Coupons are deleted one by one through
+ * CouponsDAO.deleteCoupon() so each deletion still writes its outbox event.
+ */
 @Component
-public class CouponExpirationDailyJob {
+public class CouponExpirationDailyJob implements PeriodicJob {
 	private static final Logger logger = LoggerFactory.getLogger(CouponExpirationDailyJob.class);
 
 	private final CouponsDAO couponsDAO;
+	private final JobRunner jobRunner;
+	private final PrometheusMetrics metrics;
+	private final int shards;
+	private volatile long maxId;
 
-	public CouponExpirationDailyJob(CouponsDAO couponsDAO) {
+	public CouponExpirationDailyJob(CouponsDAO couponsDAO, JobRunner jobRunner, PrometheusMetrics metrics,
+	                                @Value("${jobs.coupon-expiration.shards:4}") int shards) {
 		this.couponsDAO = couponsDAO;
+		this.jobRunner = jobRunner;
+		this.metrics = metrics;
+		this.shards = shards;
 	}
 
 	@Scheduled(cron = "0 0 2 * * ?")
 	public void executeJob() {
-		try {
-			deleteExpiredCoupons();
-		} catch (SQLException e) {
-			logger.error("Error in CouponExpirationDailyJob while deleting expired coupons", e);
-		} catch (CategoryNotFoundException e) {
-			logger.error("Category not found error in CouponExpirationDailyJob", e);
-		} catch (Exception e) {
-			logger.error("Unexpected error in CouponExpirationDailyJob", e);
-		}
+		jobRunner.run(this);
+	}
+
+	@Override
+	public String getName() {
+		return "coupon-expiration";
+	}
+
+	@Override
+	public int getShards() {
+		return shards;
+	}
+
+	@Override
+	public Duration getLease() {
+		return Duration.ofHours(1);
 	}
 
-	private void deleteExpiredCoupons() throws SQLException, CategoryNotFoundException {
-		ArrayList<Coupon> coupons = couponsDAO.getAllCoupons();
-		Date today = Date.valueOf(LocalDate.now());
-		int deletedCount = 0;
+	@Override
+	public void beforeRun() throws SQLException {
+		maxId = couponsDAO.getMaxCouponId();
+	}
 
-		for (Coupon coupon : coupons) {
-			if (coupon.getEndDate().before(today)) {
-				couponsDAO.deleteCoupon(coupon.getId());
-				deletedCount++;
-			}
+	@Override
+	public int run(JobShard shard) throws SQLException {
+		ArrayList<Long> expired = couponsDAO.getExpiredCouponIds(LocalDate.now(),
+				shard.firstId(maxId), shard.lastId(maxId));
+		for (long couponId : expired) {
+			couponsDAO.deleteCoupon(couponId);
+			metrics.recordExpiredCouponDeletion();
 		}
 
-		if (deletedCount > 0) {
-			logger.info("Deleted {} expired coupons", deletedCount);
+		if (!expired.isEmpty()) {
+			logger.info("Deleted {} expired coupons (shard {}/{})", expired.size(), shard.getIndex(), shard.getCount());
 		}
+		return expired.size();
 	}
 
 }
@@ -0,0 +1,133 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.dao.job.JobLeaseDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs PeriodicJobs with overlap protection and coordination between instances.
+ *
+ * A job that is still running on this instance is not started again. For each shard of a
+ * non-local job the runner takes the shard's lease in job_leases and runs the shard only if it
+ * got it, so with several instances triggered at the same time each shard runs once; an
+ * instance keeps renewing shards it already holds, which makes it the leader for single-shard
+ * jobs until it stops. Instances start at different shards to spread the work. Duration, rows
+ * processed and last success are recorded per job.
+ */
+@Component
+public class JobRunner {
+	private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+	private final JobLeaseDAO jobLeaseDAO;
+	private final PrometheusMetrics metrics;
+	private final String instanceId;
+	private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+	public JobRunner(JobLeaseDAO jobLeaseDAO, PrometheusMetrics metrics,
+	                 @Value("${jobs.instance-id:}") String instanceId) {
+		this.jobLeaseDAO = jobLeaseDAO;
+		this.metrics = metrics;
+		this.instanceId = instanceId == null || instanceId.isBlank() ? defaultInstanceId() : instanceId;
+	}
+
+	public String getInstanceId() {
+		return instanceId;
+	}
+
+	/**
+	 * Runs every shard of the job this instance can lease.
+	 *
+	 * @return Rows processed by this instance
+	 */
+	public int run(PeriodicJob job) {
+		if (!running.add(job.getName())) {
+			logger.warn("Job {} is still running, skipping this run", job.getName());
+			metrics.recordJobSkipped(job.getName());
+			return 0;
+		}
+		try {
+			try {
+				job.beforeRun();
+			} catch (Exception e) {
+				logger.error("Job {} failed to start", job.getName(), e);
+				metrics.recordJobRun(job.getName(), false, 0, 0);
+				return 0;
+			}
+			if (job.isLocal()) {
+				return runShard(job, new JobShard(0, 1));
+			}
+			int shards = job.getShards();
+			int offset = Math.floorMod(instanceId.hashCode(), shards);
+			int rows = 0;
+			for (int i = 0; i < shards; i++) {
+				JobShard shard = new JobShard((offset + i) % shards, shards);
+				if (acquire(job, shard)) {
+					rows += runShard(job, shard);
+				}
+			}
+			return rows;
+		} finally {
+			running.remove(job.getName());
+		}
+	}
+
+	private boolean acquire(PeriodicJob job, JobShard shard) {
+		LocalDateTime now = LocalDateTime.now();
+		try {
+			return jobLeaseDAO.tryAcquire(job.getName(), shard.getIndex(), instanceId, now, now.plus(job.getLease()));
+		} catch (SQLException e) {
+			logger.error("Failed to acquire lease for job {} shard {}", job.getName(), shard.getIndex(), e);
+			metrics.recordJobRun(job.getName(), false, 0, 0);
+			return false;
+		}
+	}
+
+	private int runShard(PeriodicJob job, JobShard shard) {
+		long start = System.nanoTime();
+		int rows;
+		try {
+			rows = job.run(shard);
+		} catch (Exception e) {
+			logger.error("Job {} shard {}/{} failed", job.getName(), shard.getIndex(), shard.getCount(), e);
+			metrics.recordJobRun(job.getName(), false, System.nanoTime() - start, 0);
+			return 0;
+		}
+		long durationNanos = System.nanoTime() - start;
+		metrics.recordJobRun(job.getName(), true, durationNanos, rows);
+		if (!job.isLocal()) {
+			if (durationNanos > job.getLease().toNanos()) {
+				logger.warn("Job {} shard {} ran {}ms, longer than its lease; another instance may have run it too",
+						job.getName(), shard.getIndex(), TimeUnit.NANOSECONDS.toMillis(durationNanos));
+			}
+			try {
+				jobLeaseDAO.recordSuccess(job.getName(), shard.getIndex(), LocalDateTime.now());
+			} catch (SQLException e) {
+				logger.warn("Failed to record success of job {} shard {}", job.getName(), shard.getIndex(), e);
+			}
+		}
+		logger.debug("Job {} shard {}/{} processed {} rows in {}ms", job.getName(), shard.getIndex(),
+				shard.getCount(), rows, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+		return rows;
+	}
+
+	private static String defaultInstanceId() {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			host = "unknown";
+		}
+		return host + ":" + ProcessHandle.current().pid();
+	}
+}
@@ -0,0 +1,37 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import lombok.Value;
+
+/**
+ * One of count shards of a job's work. Jobs over a table split it by ID range: shard i of n
+ * takes the i-th of n equal ranges of 1..maxId, and the last shard also takes every ID above
+ * maxId so rows inserted during the run are not skipped.
+ */
+@Value
+public class JobShard {
+	int index;
+	int count;
+
+	/**
+	 * @param maxId Highest ID in the table when the run started
+	 * @return First ID of this shard (inclusive)
+	 */
+	public long firstId(long maxId) {
+		return index * span(maxId) + 1;
+	}
+
+	/**
+	 * @param maxId Highest ID in the table when the run started
+	 * @return Last ID of this shard (inclusive); less than firstId if the shard is empty
+	 */
+	public long lastId(long maxId) {
+		if (index == count - 1) {
+			return Long.MAX_VALUE;
+		}
+		return Math.min((index + 1) * span(maxId), maxId);
+	}
+
+	private long span(long maxId) {
+		return Math.max(1, maxId / count + (maxId % count == 0 ? 0 : 1));
+	}
+}
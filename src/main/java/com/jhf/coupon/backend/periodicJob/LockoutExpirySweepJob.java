@@ -0,0 +1,85 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.dao.company.CompaniesDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Unlocks company and customer accounts whose lockout has expired, every
+ * jobs.lockout-sweep.interval-ms. One UPDATE per table; runs on the instance holding the lease.
+ * Login no longer unlocks expired accounts itself, it only ignores an expired lockout.
+ *
+ * Every instance then resets its locked-accounts gauge from a COUNT, since lockouts recorded
+ * on other instances and expiries are not seen by its own counters.
+ */
+@Component
+public class LockoutExpirySweepJob implements PeriodicJob {
+	private static final Logger logger = LoggerFactory.getLogger(LockoutExpirySweepJob.class);
+
+	private final CompaniesDAO companiesDAO;
+	private final CustomerDAO customerDAO;
+	private final JobRunner jobRunner;
+	private final PrometheusMetrics metrics;
+	private final Duration lease;
+
+	public LockoutExpirySweepJob(CompaniesDAO companiesDAO, CustomerDAO customerDAO, JobRunner jobRunner,
+	                             PrometheusMetrics metrics,
+	                             @Value("${jobs.lockout-sweep.interval-ms:60000}") long intervalMillis) {
+		this.companiesDAO = companiesDAO;
+		this.customerDAO = customerDAO;
+		this.jobRunner = jobRunner;
+		this.metrics = metrics;
+		// Longer than the interval: the instance that took the lease keeps renewing it on every run
+		this.lease = Duration.ofMillis(intervalMillis * 2);
+	}
+
+	@Scheduled(fixedDelayString = "${jobs.lockout-sweep.interval-ms:60000}",
+			initialDelayString = "${jobs.lockout-sweep.interval-ms:60000}")
+	public void executeJob() {
+		jobRunner.run(this);
+		refreshLockedAccountsGauge();
+	}
+
+	/**
+	 * Sets the locked-accounts gauge from the database. Failures keep the previous value.
+	 */
+	public void refreshLockedAccountsGauge() {
+		LocalDateTime now = LocalDateTime.now();
+		try {
+			metrics.setLockedAccounts("company", companiesDAO.countLockedAccounts(now));
+			metrics.setLockedAccounts("customer", customerDAO.countLockedAccounts(now));
+		} catch (SQLException e) {
+			logger.warn("Failed to count locked accounts, keeping the previous gauge values", e);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "lockout-expiry-sweep";
+	}
+
+	@Override
+	public Duration getLease() {
+		return lease;
+	}
+
+	@Override
+	public int run(JobShard shard) throws SQLException {
+		LocalDateTime now = LocalDateTime.now();
+		int companies = companiesDAO.unlockExpiredAccounts(now);
+		int customers = customerDAO.unlockExpiredAccounts(now);
+		if (companies + customers > 0) {
+			logger.info("Unlocked {} company and {} customer accounts with expired lockouts", companies, customers);
+		}
+		return companies + customers;
+	}
+}
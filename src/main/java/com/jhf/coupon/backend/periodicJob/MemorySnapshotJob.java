@@ -0,0 +1,45 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.sql.memory.MemoryStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snapshots the in-memory store every memory-storage.snapshot-interval-ms, which drops the
+ * write-ahead log segments the snapshot covers and bounds the replay on the next startup.
+ * The store belongs to this instance, so the job is local.
+ */
+@Component
+@Profile("memory")
+public class MemorySnapshotJob implements PeriodicJob {
+
+	private final MemoryStore memoryStore;
+	private final JobRunner jobRunner;
+
+	public MemorySnapshotJob(MemoryStore memoryStore, JobRunner jobRunner) {
+		this.memoryStore = memoryStore;
+		this.jobRunner = jobRunner;
+	}
+
+	@Scheduled(fixedDelayString = "${memory-storage.snapshot-interval-ms:300000}",
+			initialDelayString = "${memory-storage.snapshot-interval-ms:300000}")
+	public void executeJob() {
+		jobRunner.run(this);
+	}
+
+	@Override
+	public String getName() {
+		return "memory-snapshot";
+	}
+
+	@Override
+	public boolean isLocal() {
+		return true;
+	}
+
+	@Override
+	public int run(JobShard shard) throws Exception {
+		return memoryStore.snapshot();
+	}
+}
@@ -0,0 +1,54 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import java.time.Duration;
+
+/**
+ * A unit of periodic work run through JobRunner. The job's own @Scheduled method decides when
+ * it runs; JobRunner decides where (which instance, which shard) and records metrics.
+ */
+public interface PeriodicJob {
+
+	/**
+	 * Name used for leases and metric tags; must be unique and stable across releases.
+	 */
+	String getName();
+
+	/**
+	 * Called once per run on the instance, before any shard, e.g. to fix the ID bounds all
+	 * shards of the run are computed from. A failure aborts the run.
+	 */
+	default void beforeRun() throws Exception {
+	}
+
+	/**
+	 * Processes one shard of the work.
+	 *
+	 * @return Number of rows processed
+	 */
+	int run(JobShard shard) throws Exception;
+
+	/**
+	 * Number of shards the work is split into. Each shard runs on at most one instance per
+	 * lease; with several instances, shards are spread across them.
+	 */
+	default int getShards() {
+		return 1;
+	}
+
+	/**
+	 * How long an instance keeps a shard after taking it. Other instances skip the shard until
+	 * the lease ends, so it must be longer than a run and than the spread of the instances'
+	 * trigger times, and no longer than the interval between runs.
+	 */
+	default Duration getLease() {
+		return Duration.ofMinutes(5);
+	}
+
+	/**
+	 * Local jobs work on in-memory state of the instance they run on: every instance runs
+	 * them, without leases.
+	 */
+	default boolean isLocal() {
+		return false;
+	}
+}
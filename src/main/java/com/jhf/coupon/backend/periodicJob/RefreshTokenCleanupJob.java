@@ -0,0 +1,42 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.security.RefreshTokenStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops expired refresh tokens from this instance's RefreshTokenStore every
+ * jobs.refresh-token-cleanup.interval-ms. The store is in memory, so every instance runs it.
+ */
+@Component
+public class RefreshTokenCleanupJob implements PeriodicJob {
+
+	private final RefreshTokenStore refreshTokenStore;
+	private final JobRunner jobRunner;
+
+	public RefreshTokenCleanupJob(RefreshTokenStore refreshTokenStore, JobRunner jobRunner) {
+		this.refreshTokenStore = refreshTokenStore;
+		this.jobRunner = jobRunner;
+	}
+
+	@Scheduled(fixedDelayString = "${jobs.refresh-token-cleanup.interval-ms:600000}",
+			initialDelayString = "${jobs.refresh-token-cleanup.interval-ms:600000}")
+	public void executeJob() {
+		jobRunner.run(this);
+	}
+
+	@Override
+	public String getName() {
+		return "refresh-token-cleanup";
+	}
+
+	@Override
+	public boolean isLocal() {
+		return true;
+	}
+
+	@Override
+	public int run(JobShard shard) {
+		return refreshTokenStore.cleanupExpiredTokens();
+	}
+}
@@ -0,0 +1,187 @@
+package com.jhf.coupon.backend.reporting;
+
+import com.jhf.coupon.backend.beans.CategoryStock;
+import com.jhf.coupon.backend.beans.CompanyCouponValue;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.sql.dao.coupon.CouponColumnConsumer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, column-oriented copy of the coupons table for admin reports.
+ *
+ * Each coupon is one index into parallel primitive arrays, so an aggregation is a single
+ * pass over a few arrays that accumulates into small per-group arrays; no object is
+ * allocated per row. The company column is dictionary-encoded: companyIds holds the distinct
+ * ids in ascending order and companyOrdinal the position of each row's company in it, which
+ * lets group-by-company index an array instead of hashing, and keeps the 64-bit ids out of the
+ * per-row columns.
+ *
+ * Snapshots are never modified after build(); CouponSnapshotService swaps in a new one.
+ */
+public final class CouponColumnSnapshot {
+	private static final Category[] CATEGORIES = Category.values();
+
+	private final int size;
+	private final int[] companyOrdinal;
+	private final long[] companyIds;
+	private final byte[] category;
+	private final int[] endDateEpochDay;
+	private final int[] amount;
+	private final double[] price;
+	private final Instant builtAt;
+
+	private CouponColumnSnapshot(int size, int[] companyOrdinal, long[] companyIds, byte[] category,
+	                             int[] endDateEpochDay, int[] amount, double[] price, Instant builtAt) {
+		this.size = size;
+		this.companyOrdinal = companyOrdinal;
+		this.companyIds = companyIds;
+		this.category = category;
+		this.endDateEpochDay = endDateEpochDay;
+		this.amount = amount;
+		this.price = price;
+		this.builtAt = builtAt;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int companyCount() {
+		return companyIds.length;
+	}
+
+	public Instant getBuiltAt() {
+		return builtAt;
+	}
+
+	/**
+	 * Coupons, stock and stock value per category, for coupons ending between the two days.
+	 *
+	 * @param fromEpochDay First end day (inclusive)
+	 * @param toEpochDay Last end day (inclusive)
+	 * @return One entry per category, in Category order, including empty categories
+	 */
+	public List<CategoryStock> stockByCategory(int fromEpochDay, int toEpochDay) {
+		int[] coupons = new int[CATEGORIES.length];
+		long[] stock = new long[CATEGORIES.length];
+		double[] value = new double[CATEGORIES.length];
+		for (int i = 0; i < size; i++) {
+			int day = endDateEpochDay[i];
+			if (day < fromEpochDay || day > toEpochDay) {
+				continue;
+			}
+			int c = category[i];
+			coupons[c]++;
+			stock[c] += amount[i];
+			value[c] += amount[i] * price[i];
+		}
+
+		List<CategoryStock> result = new ArrayList<>(CATEGORIES.length);
+		for (int c = 0; c < CATEGORIES.length; c++) {
+			result.add(new CategoryStock(CATEGORIES[c], coupons[c], stock[c], value[c]));
+		}
+		return result;
+	}
+
+	/**
+	 * Coupons, stock and stock value per category over the whole snapshot.
+	 */
+	public List<CategoryStock> stockByCategory() {
+		return stockByCategory(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Coupons, stock and stock value per company.
+	 *
+	 * @return One entry per company with at least one coupon, by ascending company id
+	 */
+	public List<CompanyCouponValue> valueByCompany() {
+		int companies = companyIds.length;
+		int[] coupons = new int[companies];
+		long[] stock = new long[companies];
+		double[] value = new double[companies];
+		for (int i = 0; i < size; i++) {
+			int k = companyOrdinal[i];
+			coupons[k]++;
+			stock[k] += amount[i];
+			value[k] += amount[i] * price[i];
+		}
+
+		List<CompanyCouponValue> result = new ArrayList<>(companies);
+		for (int k = 0; k < companies; k++) {
+			result.add(new CompanyCouponValue(companyIds[k], coupons[k], stock[k], value[k]));
+		}
+		return result;
+	}
+
+	/**
+	 * Accumulates rows while scanning the coupons table. Columns start small and double, so
+	 * the row count does not need to be known up front.
+	 */
+	public static final class Builder implements CouponColumnConsumer {
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private int size;
+		private long[] companyId = new long[INITIAL_CAPACITY];
+		private byte[] category = new byte[INITIAL_CAPACITY];
+		private int[] endDateEpochDay = new int[INITIAL_CAPACITY];
+		private int[] amount = new int[INITIAL_CAPACITY];
+		private double[] price = new double[INITIAL_CAPACITY];
+
+		private Builder() {
+		}
+
+		@Override
+		public void accept(long companyId, int categoryId, int endDateEpochDay, int amount, double price)
+				throws CategoryNotFoundException {
+			if (size == this.companyId.length) {
+				grow();
+			}
+			this.companyId[size] = companyId;
+			this.category[size] = (byte) Category.getCategory(categoryId).ordinal();
+			this.endDateEpochDay[size] = endDateEpochDay;
+			this.amount[size] = amount;
+			this.price[size] = price;
+			size++;
+		}
+
+		public CouponColumnSnapshot build() {
+			long[] sorted = Arrays.copyOf(companyId, size);
+			Arrays.sort(sorted);
+			int distinct = 0;
+			for (int i = 0; i < size; i++) {
+				if (distinct == 0 || sorted[i] != sorted[distinct - 1]) {
+					sorted[distinct++] = sorted[i];
+				}
+			}
+			long[] companyIds = Arrays.copyOf(sorted, distinct);
+
+			int[] companyOrdinal = new int[size];
+			for (int i = 0; i < size; i++) {
+				companyOrdinal[i] = Arrays.binarySearch(companyIds, companyId[i]);
+			}
+
+			return new CouponColumnSnapshot(size, companyOrdinal, companyIds,
+					Arrays.copyOf(category, size), Arrays.copyOf(endDateEpochDay, size),
+					Arrays.copyOf(amount, size), Arrays.copyOf(price, size), Instant.now());
+		}
+
+		private void grow() {
+			int capacity = companyId.length * 2;
+			companyId = Arrays.copyOf(companyId, capacity);
+			category = Arrays.copyOf(category, capacity);
+			endDateEpochDay = Arrays.copyOf(endDateEpochDay, capacity);
+			amount = Arrays.copyOf(amount, capacity);
+			price = Arrays.copyOf(price, capacity);
+		}
+	}
+}
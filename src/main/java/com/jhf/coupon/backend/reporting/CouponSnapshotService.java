@@ -0,0 +1,97 @@
+package com.jhf.coupon.backend.reporting;
+
+import com.jhf.coupon.backend.beans.CategoryStock;
+import com.jhf.coupon.backend.beans.CompanyCouponValue;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.backend.validation.ValidationException;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Serves admin reports from a CouponColumnSnapshot instead of loading every Coupon.
+ *
+ * The snapshot is rebuilt every reporting.snapshot.refresh-ms with one scan of the coupons
+ * table, then published through a volatile field (copy-on-write): readers keep using the
+ * snapshot they picked up while the next one is built. Reports can therefore be up to one
+ * refresh interval stale. The first report builds the snapshot if the scheduler has not yet.
+ */
+@Component
+public class CouponSnapshotService {
+	private static final Logger logger = LoggerFactory.getLogger(CouponSnapshotService.class);
+	public static final int MAX_EXPIRING_DAYS = 365;
+
+	private final CouponsDAO couponsDAO;
+	private volatile CouponColumnSnapshot snapshot;
+
+	public CouponSnapshotService(CouponsDAO couponsDAO) {
+		this.couponsDAO = couponsDAO;
+	}
+
+	@Scheduled(fixedDelayString = "${reporting.snapshot.refresh-ms:60000}",
+			initialDelayString = "${reporting.snapshot.refresh-ms:60000}")
+	public void refresh() {
+		try {
+			rebuild();
+		} catch (SQLException | CategoryNotFoundException | RuntimeException e) {
+			logger.error("Failed to rebuild coupon reporting snapshot, keeping the previous one", e);
+		}
+	}
+
+	/**
+	 * Scans the coupons table into a new snapshot and publishes it.
+	 *
+	 * @return The new snapshot
+	 */
+	public synchronized CouponColumnSnapshot rebuild() throws SQLException, CategoryNotFoundException {
+		long start = System.nanoTime();
+		CouponColumnSnapshot.Builder builder = CouponColumnSnapshot.builder();
+		couponsDAO.scanCouponColumns(builder);
+		CouponColumnSnapshot built = builder.build();
+		snapshot = built;
+		logger.debug("Rebuilt coupon reporting snapshot: {} coupons, {} companies in {}ms",
+				built.size(), built.companyCount(), (System.nanoTime() - start) / 1_000_000);
+		return built;
+	}
+
+	/**
+	 * Gets the current snapshot, building it on first use.
+	 */
+	public CouponColumnSnapshot getSnapshot() throws SQLException, CategoryNotFoundException {
+		CouponColumnSnapshot current = snapshot;
+		if (current != null) {
+			return current;
+		}
+		synchronized (this) {
+			return snapshot != null ? snapshot : rebuild();
+		}
+	}
+
+	public List<CategoryStock> getStockByCategory() throws SQLException, CategoryNotFoundException {
+		return getSnapshot().stockByCategory();
+	}
+
+	public List<CompanyCouponValue> getValueByCompany() throws SQLException, CategoryNotFoundException {
+		return getSnapshot().valueByCompany();
+	}
+
+	/**
+	 * Gets coupons per category whose end date falls between today and today + days.
+	 *
+	 * @param days Look-ahead in days, 0 for coupons ending today
+	 */
+	public List<CategoryStock> getExpiringWithin(int days)
+			throws SQLException, CategoryNotFoundException, ValidationException {
+		if (days < 0 || days > MAX_EXPIRING_DAYS) {
+			throw new ValidationException("Invalid days: must be between 0 and " + MAX_EXPIRING_DAYS);
+		}
+		int today = (int) LocalDate.now().toEpochDay();
+		return getSnapshot().stockByCategory(today, today + days);
+	}
+}
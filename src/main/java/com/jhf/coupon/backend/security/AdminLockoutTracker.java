@@ -0,0 +1,215 @@
+package com.jhf.coupon.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory failed-attempt tracking for the admin login (admins have no DB row to store it in).
+ *
+ * Only the configured admin email is ever tracked: any other email is rejected by the caller
+ * before an entry is allocated. Entries live in a bounded Caffeine cache (internally striped,
+ * per-key atomic updates) and expire once they no longer matter: an unlocked entry expires
+ * one window after its latest failure, a locked entry when its lockout ends.
+ *
+ * Failures are counted over a sliding window of admin-window-minutes. Reaching max-attempts
+ * within the window locks the account for duration-minutes (0 = until restart, as before).
+ */
+@Component
+public class AdminLockoutTracker {
+
+	private final LockoutConfig lockoutConfig;
+	private final String adminEmail;
+	private final long windowNanos;
+	private final Ticker ticker;
+	private final Cache<String, FailureWindow> windows;
+
+	@Autowired
+	public AdminLockoutTracker(LockoutConfig lockoutConfig, PrometheusMetrics metrics,
+	                           @Value("${admin.email}") String adminEmail,
+	                           @Value("${account.lockout.admin-window-minutes:15}") long windowMinutes,
+	                           @Value("${account.lockout.admin-max-tracked:1024}") long maxTracked) {
+		this(lockoutConfig, adminEmail, windowMinutes, maxTracked, Ticker.systemTicker());
+		metrics.registerAdminLockoutGauges(this::trackedCount, this::lockedCount);
+	}
+
+	AdminLockoutTracker(LockoutConfig lockoutConfig, String adminEmail, long windowMinutes,
+	                    long maxTracked, Ticker ticker) {
+		this.lockoutConfig = lockoutConfig;
+		this.adminEmail = adminEmail;
+		this.windowNanos = TimeUnit.MINUTES.toNanos(windowMinutes);
+		this.ticker = ticker;
+		this.windows = Caffeine.newBuilder()
+				.maximumSize(maxTracked)
+				.expireAfter(new WindowExpiry())
+				.ticker(ticker)
+				.build();
+	}
+
+	/**
+	 * @param email Email submitted on the admin login path
+	 * @return true if the email is the configured admin email and should be tracked
+	 */
+	public boolean isAdminEmail(String email) {
+		return adminEmail.equals(email);
+	}
+
+	/**
+	 * @param email Admin email
+	 * @return true if the email is currently locked
+	 */
+	public boolean isLocked(String email) {
+		FailureWindow window = windows.getIfPresent(email);
+		return window != null && window.isLocked(ticker.read());
+	}
+
+	/**
+	 * @param email Admin email
+	 * @return When the lockout ends, or null for a lockout that lasts until restart
+	 */
+	public LocalDateTime getLockedUntil(String email) {
+		FailureWindow window = windows.getIfPresent(email);
+		if (window == null) {
+			return null;
+		}
+		long remainingNanos = window.remainingLockNanos(ticker.read());
+		if (remainingNanos == Long.MAX_VALUE) {
+			return null;
+		}
+		return LocalDateTime.now().plus(remainingNanos / 1_000_000L, ChronoUnit.MILLIS);
+	}
+
+	/**
+	 * Record a failed attempt, locking the email once max-attempts is reached in the window.
+	 *
+	 * @param email Admin email
+	 * @return Failed attempts within the current window, including this one
+	 */
+	public int recordFailure(String email) {
+		long now = ticker.read();
+		int maxAttempts = lockoutConfig.getMaxAttempts();
+		long lockNanos = lockoutConfig.getLockoutDurationMinutes() > 0
+				? TimeUnit.MINUTES.toNanos(lockoutConfig.getLockoutDurationMinutes())
+				: Long.MAX_VALUE;
+
+		FailureWindow window = windows.asMap().compute(email, (key, existing) -> {
+			FailureWindow updated = existing != null ? existing : new FailureWindow();
+			updated.recordFailure(now, windowNanos, maxAttempts, lockNanos);
+			return updated;
+		});
+		return window.attemptsAfterLastFailure();
+	}
+
+	/**
+	 * Forget all failures for an email after a successful login.
+	 */
+	public void reset(String email) {
+		windows.invalidate(email);
+	}
+
+	public void clear() {
+		windows.invalidateAll();
+	}
+
+	public long trackedCount() {
+		windows.cleanUp();
+		return windows.estimatedSize();
+	}
+
+	public long lockedCount() {
+		long now = ticker.read();
+		return windows.asMap().values().stream()
+				.filter(window -> window.isLocked(now))
+				.count();
+	}
+
+	/**
+	 * Failure timestamps within the sliding window (oldest first) plus the lock deadline.
+	 * All access is synchronized on the instance; contention is limited to a single email.
+	 */
+	private static final class FailureWindow {
+		private long[] failures = new long[0];
+		private int count;
+		private int attemptsAfterLastFailure;
+		private boolean locked;
+		private long lockedUntilNanos;
+
+		synchronized void recordFailure(long now, long windowNanos, int maxAttempts, long lockNanos) {
+			if (isLocked(now)) {
+				return;
+			}
+			locked = false;
+
+			// Drop failures that slid out of the window
+			int kept = 0;
+			for (int i = 0; i < count; i++) {
+				if (now - failures[i] < windowNanos) {
+					failures[kept++] = failures[i];
+				}
+			}
+			count = kept;
+
+			if (failures.length < Math.max(1, maxAttempts)) {
+				failures = Arrays.copyOf(failures, Math.max(1, maxAttempts));
+			}
+			if (count == failures.length) {
+				System.arraycopy(failures, 1, failures, 0, count - 1);
+				count--;
+			}
+			failures[count++] = now;
+			attemptsAfterLastFailure = count;
+
+			if (count >= maxAttempts) {
+				locked = true;
+				lockedUntilNanos = lockNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + lockNanos;
+				count = 0;
+			}
+		}
+
+		synchronized boolean isLocked(long now) {
+			return locked && (lockedUntilNanos == Long.MAX_VALUE || now - lockedUntilNanos < 0);
+		}
+
+		synchronized long remainingLockNanos(long now) {
+			if (!isLocked(now)) {
+				return 0L;
+			}
+			return lockedUntilNanos == Long.MAX_VALUE ? Long.MAX_VALUE : lockedUntilNanos - now;
+		}
+
+		synchronized long expiresAfterNanos(long now, long windowNanos) {
+			return isLocked(now) ? remainingLockNanos(now) : windowNanos;
+		}
+
+		synchronized int attemptsAfterLastFailure() {
+			return attemptsAfterLastFailure;
+		}
+	}
+
+	private final class WindowExpiry implements Expiry<String, FailureWindow> {
+		@Override
+		public long expireAfterCreate(String key, FailureWindow window, long currentTime) {
+			return window.expiresAfterNanos(currentTime, windowNanos);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, FailureWindow window, long currentTime, long currentDuration) {
+			return window.expiresAfterNanos(currentTime, windowNanos);
+		}
+
+		@Override
+		public long expireAfterRead(String key, FailureWindow window, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
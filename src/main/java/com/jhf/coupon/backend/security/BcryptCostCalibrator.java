@@ -0,0 +1,100 @@
+package com.jhf.coupon.backend.security;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt cost factor at startup.
+ *
+ * When calibration is enabled, the cost is raised one step at a time from the configured
+ * minimum for as long as a single verification on the current hardware stays within the
+ * configured budget. Each step doubles the work, so calibration itself costs roughly two
+ * budgets of CPU time. When disabled, the configured strength is used as-is.
+ *
+ * Also wires PasswordHasher verification timings into PrometheusMetrics so login
+ * capacity can be sized from the observed histogram.
+ */
+@Component
+public class BcryptCostCalibrator {
+	private static final Logger logger = LoggerFactory.getLogger(BcryptCostCalibrator.class);
+
+	private static final int MEASUREMENT_ROUNDS = 3;
+
+	@Value("${password.bcrypt.strength:12}")
+	private int configuredStrength;
+
+	@Value("${password.bcrypt.calibration.enabled:false}")
+	private boolean calibrationEnabled;
+
+	@Value("${password.bcrypt.calibration.verify-budget-ms:250}")
+	private long verifyBudgetMillis;
+
+	@Value("${password.bcrypt.calibration.min-strength:${password.bcrypt.strength:12}}")
+	private int minStrength;
+
+	@Value("${password.bcrypt.calibration.max-strength:16}")
+	private int maxStrength;
+
+	private final PrometheusMetrics metrics;
+
+	public BcryptCostCalibrator(PrometheusMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@PostConstruct
+	public void initialize() {
+		int strength = configuredStrength;
+		if (calibrationEnabled) {
+			long budgetNanos = verifyBudgetMillis * 1_000_000L;
+			long start = System.nanoTime();
+			strength = selectStrength(budgetNanos, minStrength, maxStrength,
+					cost -> PasswordHasher.measureVerificationNanos(cost, MEASUREMENT_ROUNDS));
+			logger.info("BCrypt cost calibrated to {} for a {}ms verification budget (calibration took {}ms)",
+					strength, verifyBudgetMillis, (System.nanoTime() - start) / 1_000_000L);
+		} else {
+			logger.info("BCrypt cost set to configured strength {}", strength);
+		}
+
+		PasswordHasher.setStrength(strength);
+		PasswordHasher.setVerificationObserver(metrics::recordPasswordVerification);
+		metrics.setBcryptStrength(strength);
+	}
+
+	/**
+	 * Select the highest cost factor whose measured verification time fits the budget.
+	 * Never returns less than minStrength: if even the minimum exceeds the budget, the
+	 * minimum is kept as a security floor.
+	 *
+	 * @param budgetNanos verification budget in nanoseconds
+	 * @param minStrength lowest acceptable cost factor
+	 * @param maxStrength highest acceptable cost factor
+	 * @param measure returns the verification time in nanoseconds for a cost factor
+	 * @return selected cost factor
+	 */
+	static int selectStrength(long budgetNanos, int minStrength, int maxStrength, IntToLongFunction measure) {
+		int strength = minStrength;
+		long duration = measure.applyAsLong(strength);
+		if (duration > budgetNanos) {
+			logger.warn("BCrypt verification at minimum cost {} takes {}ms, above the {}ms budget",
+					strength, duration / 1_000_000L, budgetNanos / 1_000_000L);
+			return strength;
+		}
+
+		// Each cost step doubles the work: only measure the next step if the estimate fits
+		while (strength < maxStrength && duration * 2 <= budgetNanos) {
+			long next = measure.applyAsLong(strength + 1);
+			if (next > budgetNanos) {
+				break;
+			}
+			strength++;
+			duration = next;
+		}
+		return strength;
+	}
+}
@@ -3,6 +3,8 @@ package com.jhf.coupon.backend.security;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Arrays;
+
 /**
  * Utility class for secure password hashing using bcrypt.
  *
@@ -17,7 +19,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class PasswordHasher {
 
     /**
-     * BCrypt cost factor (work factor).
+     * Default BCrypt cost factor (work factor).
      * Range: 4-31, where higher = slower but more secure
      *
      * - 10: ~100ms per hash (default, good for most applications)
@@ -25,14 +27,36 @@ public class PasswordHasher {
      * - 14: ~1 second per hash (very high security, may impact UX)
      *
      * We use 12 as a balance between security and performance.
+     * The effective cost can be changed at startup (see {@link BcryptCostCalibrator}).
+     */
+    public static final int DEFAULT_BCRYPT_STRENGTH = 12;
+
+    /**
+     * Lowest and highest cost factors accepted by {@link #setStrength(int)}.
      */
-    private static final int BCRYPT_STRENGTH = 12;
+    public static final int MIN_BCRYPT_STRENGTH = 4;
+    public static final int MAX_BCRYPT_STRENGTH = 31;
 
     /**
-     * Thread-safe singleton instance.
-     * BCryptPasswordEncoder is thread-safe and can be reused.
+     * Current cost factor and its encoder.
+     * BCryptPasswordEncoder is thread-safe and can be reused; both fields are swapped together
+     * by {@link #setStrength(int)} and read without locking on the hot path.
      */
-    private static final PasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+    private static volatile int strength = DEFAULT_BCRYPT_STRENGTH;
+    private static volatile PasswordEncoder encoder = new BCryptPasswordEncoder(DEFAULT_BCRYPT_STRENGTH);
+
+    /**
+     * Optional observer notified with the duration of every password verification.
+     */
+    private static volatile VerificationObserver verificationObserver;
+
+    /**
+     * Receives the cost factor of the verified hash and the verification time in nanoseconds.
+     */
+    @FunctionalInterface
+    public interface VerificationObserver {
+        void onVerification(int cost, long durationNanos);
+    }
 
     /**
      * Private constructor to prevent instantiation.
@@ -91,7 +115,14 @@ public class PasswordHasher {
             throw new IllegalArgumentException("Invalid bcrypt hash format");
         }
 
-        return encoder.matches(plainPassword, hashedPassword);
+        long start = System.nanoTime();
+        boolean matches = encoder.matches(plainPassword, hashedPassword);
+
+        VerificationObserver observer = verificationObserver;
+        if (observer != null) {
+            observer.onVerification(extractCost(hashedPassword), System.nanoTime() - start);
+        }
+        return matches;
     }
 
     /**
@@ -108,17 +139,87 @@ public class PasswordHasher {
             return true;
         }
 
-        // Extract cost factor from hash (format: $2a$12$...)
+        // Unparseable cost (-1) is always below the current strength
+        return extractCost(hashedPassword) < strength;
+    }
+
+    /**
+     * Get the cost factor currently used for new hashes.
+     *
+     * @return the current bcrypt cost factor
+     */
+    public static int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Change the cost factor used for new hashes.
+     * Existing hashes keep verifying at their own cost; {@link #needsRehash(String)} reports
+     * the ones below the new cost so they can be upgraded on the next successful login.
+     *
+     * @param newStrength cost factor between 4 and 31
+     * @throws IllegalArgumentException if the cost factor is out of range
+     */
+    public static synchronized void setStrength(int newStrength) {
+        if (newStrength < MIN_BCRYPT_STRENGTH || newStrength > MAX_BCRYPT_STRENGTH) {
+            throw new IllegalArgumentException("BCrypt strength must be between " + MIN_BCRYPT_STRENGTH
+                    + " and " + MAX_BCRYPT_STRENGTH + ": " + newStrength);
+        }
+        encoder = new BCryptPasswordEncoder(newStrength);
+        strength = newStrength;
+    }
+
+    /**
+     * Register an observer for verification timings (pass null to remove it).
+     *
+     * @param observer observer to notify after every verification
+     */
+    public static void setVerificationObserver(VerificationObserver observer) {
+        verificationObserver = observer;
+    }
+
+    /**
+     * Measure how long one verification takes at the given cost factor on this hardware.
+     * Runs one warm-up round followed by the given number of timed rounds and returns the median.
+     *
+     * @param cost cost factor to measure
+     * @param rounds number of timed rounds (at least 1)
+     * @return median verification time in nanoseconds
+     */
+    public static long measureVerificationNanos(int cost, int rounds) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(cost);
+        String sample = "calibration-sample-password";
+        String hash = probe.encode(sample);
+        probe.matches(sample, hash); // warm-up
+
+        long[] timings = new long[Math.max(1, rounds)];
+        for (int i = 0; i < timings.length; i++) {
+            long start = System.nanoTime();
+            probe.matches(sample, hash);
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        return timings[timings.length / 2];
+    }
+
+    /**
+     * Extract the cost factor from a bcrypt hash (format: $2a$12$...).
+     *
+     * @param hashedPassword The bcrypt hash
+     * @return the cost factor, or -1 if it cannot be determined
+     */
+    static int extractCost(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.isEmpty()) {
+            return -1;
+        }
         try {
             String[] parts = hashedPassword.split("\\$");
             if (parts.length >= 3) {
-                int hashCost = Integer.parseInt(parts[2]);
-                return hashCost < BCRYPT_STRENGTH;
+                return Integer.parseInt(parts[2]);
             }
         } catch (NumberFormatException e) {
-            return true; // Invalid format, should rehash
+            return -1; // Invalid format, should rehash
         }
-
-        return true; // Default to rehash if we can't determine
+        return -1; // Default to rehash if we can't determine
     }
 }
@@ -0,0 +1,99 @@
+package com.jhf.coupon.backend.security;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.dao.company.CompaniesDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upgrades password hashes created with a lower BCrypt cost than the current one.
+ *
+ * Scheduled after a successful login (the only moment the plaintext password is known)
+ * and executed on a single background thread so the login request never pays for the
+ * extra hash. The write is a compare-and-set on the old hash, so a password changed in
+ * the meantime is never overwritten. When the queue is full the upgrade is dropped and
+ * retried on a later login.
+ */
+@Component
+public class PasswordRehashService {
+	private static final Logger logger = LoggerFactory.getLogger(PasswordRehashService.class);
+
+	private static final int QUEUE_CAPACITY = 256;
+
+	private final CompaniesDAO companiesDAO;
+	private final CustomerDAO customerDAO;
+	private final PrometheusMetrics metrics;
+	private final ThreadPoolExecutor executor;
+
+	public PasswordRehashService(CompaniesDAO companiesDAO, CustomerDAO customerDAO, PrometheusMetrics metrics) {
+		this.companiesDAO = companiesDAO;
+		this.customerDAO = customerDAO;
+		this.metrics = metrics;
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-rehash");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Schedule a hash upgrade for a company account.
+	 *
+	 * @param companyId Company ID
+	 * @param plainPassword Verified plaintext password
+	 * @param currentHash Hash read during the login (compare-and-set guard)
+	 */
+	public void scheduleCompanyRehash(long companyId, String plainPassword, String currentHash) {
+		submit("company", () -> companiesDAO.updatePasswordHash(companyId, currentHash,
+				PasswordHasher.hashPassword(plainPassword)));
+	}
+
+	/**
+	 * Schedule a hash upgrade for a customer account.
+	 *
+	 * @param customerId Customer ID
+	 * @param plainPassword Verified plaintext password
+	 * @param currentHash Hash read during the login (compare-and-set guard)
+	 */
+	public void scheduleCustomerRehash(long customerId, String plainPassword, String currentHash) {
+		submit("customer", () -> customerDAO.updatePasswordHash(customerId, currentHash,
+				PasswordHasher.hashPassword(plainPassword)));
+	}
+
+	private void submit(String clientType, RehashTask task) {
+		try {
+			executor.execute(() -> {
+				try {
+					boolean updated = task.run();
+					metrics.recordPasswordRehash(clientType, updated ? "upgraded" : "skipped");
+				} catch (SQLException | RuntimeException e) {
+					logger.warn("Failed to upgrade {} password hash", clientType, e);
+					metrics.recordPasswordRehash(clientType, "failed");
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			metrics.recordPasswordRehash(clientType, "dropped");
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	@FunctionalInterface
+	private interface RehashTask {
+		boolean run() throws SQLException;
+	}
+}
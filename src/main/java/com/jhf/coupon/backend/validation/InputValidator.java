@@ -152,7 +152,7 @@ public class InputValidator {
 	 * @param id the ID to validate
 	 * @return true if ID is valid, false otherwise
 	 */
-	public static boolean isValidId(int id) {
+	public static boolean isValidId(long id) {
 		return id > 0;
 	}
 }
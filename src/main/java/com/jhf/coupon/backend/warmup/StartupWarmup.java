@@ -0,0 +1,204 @@
+package com.jhf.coupon.backend.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.login.ClientType;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.backend.reporting.CouponSnapshotService;
+import com.jhf.coupon.config.WarmupProperties;
+import com.jhf.coupon.security.JwtTokenProvider;
+import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import com.jhf.coupon.sql.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warms a freshly started instance before it takes traffic, on a background thread started
+ * once the application is ready:
+ * <ol>
+ *   <li>pool: opens warmup.pool-connections connections in every Hikari pool</li>
+ *   <li>queries: loads the warmup.top-coupons most-purchased coupons and runs the purchase
+ *       and login lookups, so their pages are in the database cache and the row mapping is hot</li>
+ *   <li>snapshot: builds the admin reporting snapshot</li>
+ *   <li>jwt: issues and parses synthetic access tokens</li>
+ *   <li>json: serializes the loaded coupons</li>
+ * </ol>
+ * WarmupHealthIndicator reports DOWN until this has finished. A failing step is logged and
+ * skipped: a cold instance is better than one that never becomes ready.
+ */
+@Component
+public class StartupWarmup {
+	private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+	private static final String SYNTHETIC_EMAIL = "warmup@warmup.invalid";
+
+	private final WarmupProperties properties;
+	private final DataSource dataSource;
+	private final CouponsDAO couponsDAO;
+	private final CustomerDAO customerDAO;
+	private final CouponSnapshotService snapshotService;
+	private final JwtTokenProvider tokenProvider;
+	private final ObjectMapper objectMapper;
+	private final PrometheusMetrics metrics;
+
+	private volatile boolean complete;
+	private volatile long durationMillis;
+	private volatile List<String> failedSteps = List.of();
+
+	public StartupWarmup(WarmupProperties properties, DataSource dataSource, CouponsDAO couponsDAO,
+	                     CustomerDAO customerDAO, CouponSnapshotService snapshotService,
+	                     JwtTokenProvider tokenProvider, ObjectMapper objectMapper, PrometheusMetrics metrics) {
+		this.properties = properties;
+		this.dataSource = dataSource;
+		this.couponsDAO = couponsDAO;
+		this.customerDAO = customerDAO;
+		this.snapshotService = snapshotService;
+		this.tokenProvider = tokenProvider;
+		this.objectMapper = objectMapper;
+		this.metrics = metrics;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!properties.isEnabled()) {
+			complete = true;
+			logger.info("Startup warm-up disabled");
+			return;
+		}
+		Thread thread = new Thread(this::run, "startup-warmup");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Runs every step on the calling thread and marks the warm-up complete.
+	 */
+	public void run() {
+		long start = System.nanoTime();
+		Map<String, Long> stepMillis = new LinkedHashMap<>();
+		List<String> failed = new ArrayList<>();
+		List<Coupon> coupons = new ArrayList<>();
+
+		step("pool", this::warmPools, stepMillis, failed);
+		step("queries", () -> coupons.addAll(warmQueries()), stepMillis, failed);
+		step("snapshot", snapshotService::rebuild, stepMillis, failed);
+		step("jwt", this::warmJwt, stepMillis, failed);
+		step("json", () -> warmJson(coupons), stepMillis, failed);
+
+		long durationNanos = System.nanoTime() - start;
+		failedSteps = List.copyOf(failed);
+		durationMillis = durationNanos / 1_000_000;
+		complete = true;
+		metrics.recordWarmup(failed.isEmpty(), durationNanos);
+		logger.info("Startup warm-up finished in {}ms (steps: {}{})", durationMillis, stepMillis,
+				failed.isEmpty() ? "" : ", failed: " + failed);
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * @return Warm-up duration in milliseconds, 0 until complete
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public List<String> getFailedSteps() {
+		return failedSteps;
+	}
+
+	@FunctionalInterface
+	private interface Step {
+		void run() throws Exception;
+	}
+
+	private static void step(String name, Step step, Map<String, Long> stepMillis, List<String> failed) {
+		long start = System.nanoTime();
+		try {
+			step.run();
+		} catch (Exception e) {
+			failed.add(name);
+			logger.warn("Startup warm-up step '{}' failed", name, e);
+		}
+		stepMillis.put(name, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private void warmPools() throws SQLException {
+		List<? extends DataSource> pools = dataSource instanceof ReadWriteRoutingDataSource routing
+				? routing.getPools() : List.of(dataSource);
+		for (DataSource pool : pools) {
+			int target = properties.getPoolConnections();
+			if (pool instanceof HikariDataSource hikari) {
+				target = Math.min(target, hikari.getMaximumPoolSize());
+			}
+			// Holding them all at once makes the pool open new ones instead of reusing an idle one
+			List<Connection> connections = new ArrayList<>(target);
+			try {
+				for (int i = 0; i < target; i++) {
+					Connection connection = pool.getConnection();
+					connections.add(connection);
+					connection.isValid(1);
+				}
+			} finally {
+				for (Connection connection : connections) {
+					connection.close();
+				}
+			}
+		}
+	}
+
+	private List<Coupon> warmQueries() throws Exception {
+		List<Coupon> coupons = new ArrayList<>();
+		for (long couponId : couponsDAO.getMostPurchasedCoupons(properties.getTopCoupons()).keySet()) {
+			try {
+				coupons.add(couponsDAO.getCoupon(couponId));
+			} catch (CouponNotFoundException e) {
+				// Deleted since the ranking query
+			}
+			couponsDAO.customerCouponPurchaseExists(0, couponId);
+		}
+		couponsDAO.getCustomerCoupons(0);
+		customerDAO.getAccountLockoutStatus(SYNTHETIC_EMAIL);
+		return coupons;
+	}
+
+	private void warmJwt() {
+		for (int i = 0; i < properties.getIterations(); i++) {
+			String token = tokenProvider.generateAccessToken(SYNTHETIC_EMAIL, ClientType.CUSTOMER, i);
+			tokenProvider.validateToken(token);
+			tokenProvider.getEmailFromToken(token);
+			tokenProvider.getClientTypeFromToken(token);
+			tokenProvider.getUserIdFromToken(token);
+		}
+	}
+
+	private void warmJson(List<Coupon> coupons) throws Exception {
+		List<Coupon> payload = new ArrayList<>(coupons);
+		// Exercise the serializer even on an empty database
+		payload.add(new Coupon(0, 0, Category.values()[0], "Warm-up", "Warm-up",
+				Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now()), 0, 0, ""));
+		for (int i = 0; i < properties.getIterations(); i++) {
+			objectMapper.writeValueAsBytes(payload.get(i % payload.size()));
+		}
+		objectMapper.writeValueAsBytes(payload);
+	}
+}
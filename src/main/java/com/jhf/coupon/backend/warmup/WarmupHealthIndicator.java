@@ -0,0 +1,31 @@
+package com.jhf.coupon.backend.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "warmup" health contributor: DOWN until StartupWarmup has finished. Part of the readiness
+ * group (management.endpoint.health.group.readiness.include), so /metrics/health/readiness
+ * keeps a starting instance out of the load balancer until it is warm.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+	private final StartupWarmup warmup;
+
+	public WarmupHealthIndicator(StartupWarmup warmup) {
+		this.warmup = warmup;
+	}
+
+	@Override
+	public Health health() {
+		if (!warmup.isComplete()) {
+			return Health.down().withDetail("warmup", "in progress").build();
+		}
+		Health.Builder health = Health.up().withDetail("durationMs", warmup.getDurationMillis());
+		if (!warmup.getFailedSteps().isEmpty()) {
+			health.withDetail("failedSteps", warmup.getFailedSteps());
+		}
+		return health.build();
+	}
+}
@@ -0,0 +1,96 @@
+package com.jhf.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for admission control (load shedding on connection pool saturation).
+ *
+ * Requests are classified by route into HIGH (logins, purchases), NORMAL and LOW (catalog
+ * browsing, listings, analytics) priority. When the database pool is under pressure, LOW is
+ * rejected first, then NORMAL; HIGH is always admitted.
+ *
+ * Example configuration in application.properties:
+ * <pre>
+ * admission-control.enabled=true
+ * admission-control.low-priority-max-utilization=0.75
+ * admission-control.low-priority-max-pending=0
+ * admission-control.normal-priority-max-pending=10
+ * admission-control.retry-after-seconds=2
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "admission-control")
+public class AdmissionControlProperties {
+
+    /**
+     * Enable or disable admission control globally.
+     */
+    private boolean enabled = true;
+
+    /**
+     * LOW priority requests are shed once this fraction of the pool is in use.
+     * Default: 0.75 (keeps a quarter of the connections for purchases and logins)
+     */
+    private double lowPriorityMaxUtilization = 0.75;
+
+    /**
+     * LOW priority requests are shed when more threads than this wait for a connection.
+     * Default: 0 (shed as soon as anyone is queueing)
+     */
+    private int lowPriorityMaxPending = 0;
+
+    /**
+     * NORMAL priority requests are shed when more threads than this wait for a connection.
+     * Default: 10
+     */
+    private int normalPriorityMaxPending = 10;
+
+    /**
+     * Value of the Retry-After header on 503 responses.
+     * Default: 2 seconds
+     */
+    private int retryAfterSeconds = 2;
+
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getLowPriorityMaxUtilization() {
+        return lowPriorityMaxUtilization;
+    }
+
+    public void setLowPriorityMaxUtilization(double lowPriorityMaxUtilization) {
+        this.lowPriorityMaxUtilization = lowPriorityMaxUtilization;
+    }
+
+    public int getLowPriorityMaxPending() {
+        return lowPriorityMaxPending;
+    }
+
+    public void setLowPriorityMaxPending(int lowPriorityMaxPending) {
+        this.lowPriorityMaxPending = lowPriorityMaxPending;
+    }
+
+    public int getNormalPriorityMaxPending() {
+        return normalPriorityMaxPending;
+    }
+
+    public void setNormalPriorityMaxPending(int normalPriorityMaxPending) {
+        this.normalPriorityMaxPending = normalPriorityMaxPending;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.coupon.ShardedCouponsDAO;
+import com.jhf.coupon.sql.memory.InMemoryCouponsDAO;
+import com.jhf.coupon.sql.routing.ReadWriteRoutingDataSource;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Fails startup when a read replica, coupon sharding or the "memory" profile is configured but
+ * the application runs from Spring AOT artifacts (-Dspring.aot.enabled=true, see the "startup"
+ * Maven profile) processed without it.
+ *
+ * AOT evaluates @Conditional and @Profile at build time, so ReadReplicaConfig, ShardingConfig
+ * and MemoryStorageConfig are either baked in or left out of the AOT jar; setting
+ * DB_REPLICA_URL, SHARDING_ENABLED or SPRING_PROFILES_ACTIVE=memory afterwards would otherwise
+ * be silently ignored, sending every read to the primary, every company to the primary
+ * database, or every query to the database instead of the memory store. Run such deployments
+ * without spring.aot.enabled.
+ */
+@Component
+public class AotReplicaGuard {
+
+    public AotReplicaGuard(@Value("${datasource.replica.url:}") String replicaUrl, DataSource dataSource,
+                           @Value("${sharding.enabled:false}") boolean shardingEnabled, CouponsDAO couponsDAO,
+                           Environment environment) {
+        check(AotDetector.useGeneratedArtifacts(), replicaUrl, dataSource);
+        checkSharding(AotDetector.useGeneratedArtifacts(), shardingEnabled, couponsDAO);
+        checkMemoryProfile(AotDetector.useGeneratedArtifacts(),
+                environment.acceptsProfiles(Profiles.of("memory")), couponsDAO);
+    }
+
+    static void check(boolean aotEnabled, String replicaUrl, DataSource dataSource) {
+        if (aotEnabled && replicaUrl != null && !replicaUrl.isBlank()
+                && !(dataSource instanceof ReadWriteRoutingDataSource)) {
+            throw new IllegalStateException("datasource.replica.url is set but this AOT-processed build "
+                    + "has no replica routing; start without -Dspring.aot.enabled=true");
+        }
+    }
+
+    static void checkSharding(boolean aotEnabled, boolean shardingEnabled, CouponsDAO couponsDAO) {
+        if (aotEnabled && shardingEnabled && !(couponsDAO instanceof ShardedCouponsDAO)) {
+            throw new IllegalStateException("sharding.enabled is set but this AOT-processed build "
+                    + "has no coupon sharding; start without -Dspring.aot.enabled=true");
+        }
+    }
+
+    static void checkMemoryProfile(boolean aotEnabled, boolean memoryProfile, CouponsDAO couponsDAO) {
+        if (aotEnabled && memoryProfile && !(couponsDAO instanceof InMemoryCouponsDAO)) {
+            throw new IllegalStateException("The memory profile is active but this AOT-processed build "
+                    + "has no memory storage; start without -Dspring.aot.enabled=true");
+        }
+    }
+}
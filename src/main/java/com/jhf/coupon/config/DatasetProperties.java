@@ -0,0 +1,197 @@
+package com.jhf.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Configuration properties for the synthetic dataset generator (the "dataset" profile).
+ *
+ * The same seed and reference date always produce the same rows. Coupon popularity follows a
+ * Zipf distribution, so a few coupons take most of the purchases as in production.
+ *
+ * Example configuration (usually given on the command line):
+ * <pre>
+ * dataset.seed=42
+ * dataset.companies=1000
+ * dataset.customers=1000000
+ * dataset.coupons-per-company=100
+ * dataset.purchases=10000000
+ * dataset.zipf-exponent=1.0
+ * dataset.writers=4
+ * dataset.truncate=true
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "dataset")
+public class DatasetProperties {
+
+    /**
+     * Seed for every random choice.
+     * Default: 42
+     */
+    private long seed = 42;
+
+    /**
+     * Day the generated history ends on; purchases and coupon dates are relative to it.
+     * Default: today
+     */
+    private LocalDate referenceDate;
+
+    /**
+     * Default: 1000
+     */
+    private int companies = 1000;
+
+    /**
+     * Default: 1000000
+     */
+    private int customers = 1_000_000;
+
+    /**
+     * Default: 100 (100000 coupons with the default company count)
+     */
+    private int couponsPerCompany = 100;
+
+    /**
+     * Total customers_vs_coupons rows, spread evenly over the customers.
+     * Default: 10000000
+     */
+    private int purchases = 10_000_000;
+
+    /**
+     * Exponent s of the popularity distribution: the coupon of rank r sells in proportion to
+     * 1 / r^s. 0 makes all coupons equally popular.
+     * Default: 1.0
+     */
+    private double zipfExponent = 1.0;
+
+    /**
+     * Days of purchase history before the reference date.
+     * Default: 90
+     */
+    private int historyDays = 90;
+
+    /**
+     * Parallel connections writing rows.
+     * Default: 4
+     */
+    private int writers = 4;
+
+    /**
+     * Rows per multi-row INSERT when the database does not support COPY.
+     * Default: 1000
+     */
+    private int batchRows = 1000;
+
+    /**
+     * Empty the tables first. Without it the generator refuses to write into a non-empty database.
+     * Default: false
+     */
+    private boolean truncate = false;
+
+    /**
+     * Password of every generated company and customer.
+     * Default: password123
+     */
+    private String password = "password123";
+
+    // Getters and Setters
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+    public void setReferenceDate(LocalDate referenceDate) {
+        this.referenceDate = referenceDate;
+    }
+
+    public int getCompanies() {
+        return companies;
+    }
+
+    public void setCompanies(int companies) {
+        this.companies = companies;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(int customers) {
+        this.customers = customers;
+    }
+
+    public int getCouponsPerCompany() {
+        return couponsPerCompany;
+    }
+
+    public void setCouponsPerCompany(int couponsPerCompany) {
+        this.couponsPerCompany = couponsPerCompany;
+    }
+
+    public int getPurchases() {
+        return purchases;
+    }
+
+    public void setPurchases(int purchases) {
+        this.purchases = purchases;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    public void setHistoryDays(int historyDays) {
+        this.historyDays = historyDays;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public int getBatchRows() {
+        return batchRows;
+    }
+
+    public void setBatchRows(int batchRows) {
+        this.batchRows = batchRows;
+    }
+
+    public boolean isTruncate() {
+        return truncate;
+    }
+
+    public void setTruncate(boolean truncate) {
+        this.truncate = truncate;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
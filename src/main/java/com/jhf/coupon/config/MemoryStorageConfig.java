@@ -0,0 +1,68 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.sql.ids.IdGenerator;
+import com.jhf.coupon.sql.memory.InMemoryCompaniesDAO;
+import com.jhf.coupon.sql.memory.InMemoryCouponsDAO;
+import com.jhf.coupon.sql.memory.InMemoryCustomerDAO;
+import com.jhf.coupon.sql.memory.InMemoryJobLeaseDAO;
+import com.jhf.coupon.sql.memory.InMemoryOutboxDAO;
+import com.jhf.coupon.sql.memory.MemoryStore;
+import com.jhf.coupon.sql.memory.MemoryTransactionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Embedded in-memory storage, enabled by the "memory" profile (see MemoryStorageProperties
+ * and application-memory.properties).
+ *
+ * Replaces the JDBC DAOs (which are @Profile("!memory")) with DAOs over one MemoryStore,
+ * recovered from its write-ahead log and snapshots on startup, and replaces the
+ * DataSourceTransactionManager so no database connection is ever opened. The store belongs to
+ * one process: it is meant for single-instance deployments, demos and benchmarks, and cannot
+ * be combined with sharding or read replicas.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("memory")
+public class MemoryStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public MemoryStore memoryStore(MemoryStorageProperties properties) throws IOException {
+        return MemoryStore.open(Path.of(properties.getDirectory()), properties.isFsync());
+    }
+
+    @Bean
+    public InMemoryOutboxDAO inMemoryOutboxDAO() {
+        return new InMemoryOutboxDAO();
+    }
+
+    @Bean
+    public InMemoryCompaniesDAO inMemoryCompaniesDAO(MemoryStore memoryStore, IdGenerator idGenerator) {
+        return new InMemoryCompaniesDAO(memoryStore, idGenerator);
+    }
+
+    @Bean
+    public InMemoryCustomerDAO inMemoryCustomerDAO(MemoryStore memoryStore, IdGenerator idGenerator) {
+        return new InMemoryCustomerDAO(memoryStore, idGenerator);
+    }
+
+    @Bean
+    public InMemoryCouponsDAO inMemoryCouponsDAO(MemoryStore memoryStore, InMemoryOutboxDAO inMemoryOutboxDAO,
+                                                 IdGenerator idGenerator) {
+        return new InMemoryCouponsDAO(memoryStore, inMemoryOutboxDAO, idGenerator);
+    }
+
+    @Bean
+    public InMemoryJobLeaseDAO inMemoryJobLeaseDAO() {
+        return new InMemoryJobLeaseDAO();
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new MemoryTransactionManager();
+    }
+}
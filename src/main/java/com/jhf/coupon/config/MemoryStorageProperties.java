@@ -0,0 +1,65 @@
+package com.jhf.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the embedded in-memory storage engine (Spring profile
+ * "memory", see MemoryStorageConfig).
+ *
+ * Example configuration in application-memory.properties:
+ * <pre>
+ * memory-storage.directory=/var/lib/couponsystem
+ * memory-storage.fsync=true
+ * memory-storage.snapshot-interval-ms=300000
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "memory-storage")
+public class MemoryStorageProperties {
+
+    /**
+     * Directory for the write-ahead log segments and snapshots. Must be on local disk and
+     * used by one instance only.
+     * Default: data/memory-store
+     */
+    private String directory = "data/memory-store";
+
+    /**
+     * Force every log append to disk before the change is applied. Without it a change
+     * survives a crash of the process but not of the machine.
+     */
+    private boolean fsync = true;
+
+    /**
+     * Interval between snapshots, which bound the log replayed on startup.
+     * Default: 300000 (5 minutes)
+     */
+    private long snapshotIntervalMs = 300_000;
+
+    // Getters and Setters
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    public long getSnapshotIntervalMs() {
+        return snapshotIntervalMs;
+    }
+
+    public void setSnapshotIntervalMs(long snapshotIntervalMs) {
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+}
@@ -0,0 +1,102 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.routing.ReadWriteRoutingDataSource;
+import com.jhf.coupon.sql.routing.ReadYourWritesTracker;
+import com.jhf.coupon.sql.routing.ReplicaRoutingInterceptor;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Read replica routing, enabled by setting datasource.replica.url (blank = single pool).
+ *
+ * Replaces Boot's single Hikari pool with a ReadWriteRoutingDataSource over two pools:
+ * the primary (spring.datasource.*) and the replica (datasource.replica.*, credentials
+ * default to the primary's). DAO methods annotated {@code @ReadOnlyQuery} and
+ * {@code @Transactional(readOnly = true)} methods read from the replica; all other access,
+ * and reads by users who wrote in the last sticky-seconds, stays on the primary.
+ *
+ * Example configuration:
+ * <pre>
+ * datasource.replica.url=jdbc:postgresql://replica:5432/couponsystem
+ * datasource.replica.hikari.maximum-pool-size=30
+ * datasource.replica.sticky-seconds=5
+ * </pre>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig primaryPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariConfig replicaPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties,
+                                                 @Qualifier("primaryPoolConfig") HikariConfig primaryConfig,
+                                                 @Qualifier("replicaPoolConfig") HikariConfig replicaConfig,
+                                                 @Value("${datasource.replica.url}") String replicaUrl,
+                                                 @Value("${datasource.replica.username:}") String replicaUsername,
+                                                 @Value("${datasource.replica.password:}") String replicaPassword,
+                                                 PrometheusMetrics metrics) {
+        primaryConfig.setJdbcUrl(properties.determineUrl());
+        primaryConfig.setUsername(properties.determineUsername());
+        primaryConfig.setPassword(properties.determinePassword());
+        primaryConfig.setDriverClassName(properties.determineDriverClassName());
+
+        replicaConfig.setJdbcUrl(replicaUrl);
+        replicaConfig.setUsername(replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername);
+        replicaConfig.setPassword(replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword);
+        replicaConfig.setDriverClassName(properties.determineDriverClassName());
+        replicaConfig.setReadOnly(true);
+        if (replicaConfig.getPoolName() == null) {
+            replicaConfig.setPoolName("CouponSystemReplicaHikariCP");
+        }
+
+        return new ReadWriteRoutingDataSource(new HikariDataSource(primaryConfig),
+                new HikariDataSource(replicaConfig), metrics);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.replica.sticky-seconds:5}") long stickySeconds,
+            @Value("${datasource.replica.sticky-max-tracked:100000}") long maxTracked) {
+        return new ReadYourWritesTracker(Duration.ofSeconds(stickySeconds), maxTracked);
+    }
+
+    /**
+     * Infrastructure role so the auto-proxy creator that applies @Transactional also applies
+     * this advisor. Ordered before the transaction advisor: the route must be set before a
+     * transaction acquires its connection.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaRoutingAdvisor(@Lazy ReadYourWritesTracker tracker, @Lazy PrometheusMetrics metrics) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ReplicaRoutingInterceptor.RoutedMethodPointcut(),
+                new ReplicaRoutingInterceptor(tracker, metrics));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
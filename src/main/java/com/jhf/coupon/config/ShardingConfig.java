@@ -0,0 +1,106 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.backend.events.EventBus;
+import com.jhf.coupon.backend.events.OutboxRelay;
+import com.jhf.coupon.backend.events.ShardOutboxRelays;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.dao.coupon.CouponDAOImpl;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.coupon.ShardedCouponsDAO;
+import com.jhf.coupon.sql.dao.outbox.OutboxDAOImpl;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import com.jhf.coupon.sql.sharding.ConsistentHashRing;
+import com.jhf.coupon.sql.sharding.ShardDataSources;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coupon sharding by company, enabled by sharding.enabled=true (see ShardingProperties).
+ *
+ * Replaces the CouponsDAO seen by facades and controllers with a ShardedCouponsDAO over the
+ * primary database (through the couponDAOImpl bean, so it keeps replica routing) and one
+ * Hikari pool per configured shard. Companies, customers and the other tables stay on the
+ * primary. Each shard must be initialized with postgres-shard-schema.sql; each gets an outbox
+ * relay publishing to the shared EventBus. Coupon IDs come from the IdGenerator, so they are
+ * unique across shards.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(ShardingProperties sharding, DataSourceProperties primary,
+                                             PrometheusMetrics metrics) {
+        if (sharding.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.enabled is set but no sharding.shards are configured");
+        }
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : sharding.getShards()) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(shard.getUrl());
+            config.setUsername(shard.getUsername() != null ? shard.getUsername() : primary.determineUsername());
+            config.setPassword(shard.getPassword() != null ? shard.getPassword() : primary.determinePassword());
+            config.setDriverClassName(primary.determineDriverClassName());
+            config.setMaximumPoolSize(shard.getMaximumPoolSize());
+            config.setPoolName("CouponSystemShard-" + shard.getName() + "HikariCP");
+            pools.put(shard.getName(), new HikariDataSource(config));
+        }
+        return new ShardDataSources(pools, metrics);
+    }
+
+    @Bean
+    @Primary
+    public ShardedCouponsDAO shardedCouponsDAO(ShardingProperties sharding, ShardDataSources shardDataSources,
+                                               @Qualifier("couponDAOImpl") CouponsDAO primaryCoupons,
+                                               IdGenerator idGenerator) {
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        List<CouponsDAO> daos = new ArrayList<>();
+        names.add(sharding.getPrimaryName());
+        weights.add(sharding.getPrimaryWeight());
+        daos.add(primaryCoupons);
+        for (ShardingProperties.Shard shard : sharding.getShards()) {
+            names.add(shard.getName());
+            weights.add(shard.getWeight());
+            daos.add(new CouponDAOImpl(shardDataSources.getPools().get(shard.getName()), idGenerator));
+        }
+        ConsistentHashRing ring = new ConsistentHashRing(names, weights, sharding.getVirtualNodes());
+
+        int threads = sharding.getFanOutThreads() > 0 ? sharding.getFanOutThreads() : 2 * sharding.getShards().size();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService fanOut = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ShardedCouponsDAO(ring, daos, fanOut, sharding.getLocationCacheSize());
+    }
+
+    @Bean
+    public ShardOutboxRelays shardOutboxRelays(ShardDataSources shardDataSources, EventBus eventBus,
+                                               PrometheusMetrics metrics,
+                                               @Value("${outbox.relay.enabled:true}") boolean enabled,
+                                               @Value("${outbox.relay.batch-size:100}") int batchSize,
+                                               @Value("${outbox.relay.poll-interval-ms:200}") long pollIntervalMillis,
+                                               @Value("${outbox.retention-hours:24}") long retentionHours) {
+        List<OutboxRelay> relays = new ArrayList<>();
+        shardDataSources.getPools().forEach((name, pool) -> relays.add(new OutboxRelay(name,
+                new OutboxDAOImpl(pool), eventBus, metrics, enabled, batchSize, pollIntervalMillis, retentionHours)));
+        return new ShardOutboxRelays(relays);
+    }
+}
@@ -0,0 +1,204 @@
+package com.jhf.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for sharding coupons and purchases by company (see ShardingConfig).
+ *
+ * The primary database (spring.datasource.*) is always the first shard, named
+ * sharding.primary-name; the shards listed here are added to the ring. Credentials
+ * default to the primary's.
+ *
+ * Example configuration in application.properties:
+ * <pre>
+ * sharding.enabled=true
+ * sharding.shards[0].name=shard-1
+ * sharding.shards[0].url=jdbc:postgresql://shard-1:5432/couponsystem
+ * sharding.shards[0].weight=2
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    /**
+     * Route coupon queries through the hash ring. Requires at least one entry in shards.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Ring points per unit of shard weight. More points spread companies more evenly.
+     * Default: 160
+     */
+    private int virtualNodes = 160;
+
+    /**
+     * Ring name of the primary database. Renaming it moves companies between shards.
+     */
+    private String primaryName = "primary";
+
+    /**
+     * Relative share of companies kept on the primary database.
+     */
+    private int primaryWeight = 1;
+
+    /**
+     * Threads querying the additional shards in parallel (cross-company reads and coupon-ID lookups).
+     * Default: 0 (2 per additional shard)
+     */
+    private int fanOutThreads = 0;
+
+    /**
+     * Coupon IDs whose shard is remembered, so only their first lookup by ID probes every shard.
+     * Default: 100000
+     */
+    private long locationCacheSize = 100_000;
+
+    /**
+     * Additional shard databases.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public String getPrimaryName() {
+        return primaryName;
+    }
+
+    public void setPrimaryName(String primaryName) {
+        this.primaryName = primaryName;
+    }
+
+    public int getPrimaryWeight() {
+        return primaryWeight;
+    }
+
+    public void setPrimaryWeight(int primaryWeight) {
+        this.primaryWeight = primaryWeight;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public void setFanOutThreads(int fanOutThreads) {
+        this.fanOutThreads = fanOutThreads;
+    }
+
+    public long getLocationCacheSize() {
+        return locationCacheSize;
+    }
+
+    public void setLocationCacheSize(long locationCacheSize) {
+        this.locationCacheSize = locationCacheSize;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * One additional shard database.
+     */
+    public static class Shard {
+
+        /**
+         * Ring name. Companies follow the name, so keep it stable when the URL changes.
+         */
+        private String name;
+
+        private String url;
+
+        /**
+         * Default: the primary's username
+         */
+        private String username;
+
+        /**
+         * Default: the primary's password
+         */
+        private String password;
+
+        /**
+         * Relative share of companies.
+         */
+        private int weight = 1;
+
+        /**
+         * Maximum connections in the shard's pool.
+         */
+        private int maximumPoolSize = 20;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
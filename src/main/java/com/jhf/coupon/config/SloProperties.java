@@ -0,0 +1,114 @@
+package com.jhf.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for per-route latency SLOs.
+ *
+ * A route is "METHOD /route/template", exactly as Spring MVC matched it. A request meets
+ * the SLO when it completes within the threshold without a 5xx; the objective is the
+ * fraction of requests that must meet it (0.99 = "p99 under threshold"). Error-budget
+ * burn rates are published for every window (see SloTracker).
+ *
+ * Example configuration in application.properties:
+ * <pre>
+ * slo.windows=5m,1h,6h
+ * slo.routes[0].route=POST /api/v1/customer/coupons/{couponId}/purchase
+ * slo.routes[0].threshold=150ms
+ * slo.routes[0].objective=0.99
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "slo")
+public class SloProperties {
+
+    /**
+     * Burn-rate windows, whole minutes each.
+     * Default: 5m and 1h (fast-burn pair), 30m and 6h (slow-burn pair)
+     */
+    private List<Duration> windows = new ArrayList<>(List.of(
+            Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofMinutes(30), Duration.ofHours(6)));
+
+    /**
+     * Routes with a latency SLO. Routes not listed still get latency histograms.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    // Getters and Setters
+
+    public List<Duration> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<Duration> windows) {
+        this.windows = windows;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Latency SLO of one route.
+     */
+    public static class Route {
+
+        /**
+         * HTTP method and route template, e.g. "POST /api/v1/auth/login".
+         */
+        private String route;
+
+        /**
+         * Latency a request must not exceed to count as good.
+         */
+        private Duration threshold;
+
+        /**
+         * Fraction of requests that must be good.
+         * Default: 0.99
+         */
+        private double objective = 0.99;
+
+        public Route() {
+        }
+
+        public Route(String route, Duration threshold, double objective) {
+            this.route = route;
+            this.threshold = threshold;
+            this.objective = objective;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public double getObjective() {
+            return objective;
+        }
+
+        public void setObjective(double objective) {
+            this.objective = objective;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.jhf.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the startup warm-up (see StartupWarmup).
+ *
+ * The warm-up runs once after startup and keeps the "warmup" readiness indicator DOWN
+ * until it has finished, so no traffic is routed to a cold instance.
+ *
+ * Example configuration in application.properties:
+ * <pre>
+ * warmup.enabled=true
+ * warmup.pool-connections=20
+ * warmup.top-coupons=200
+ * warmup.iterations=2000
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+
+    /**
+     * Run the warm-up. When disabled the readiness indicator is UP immediately.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Connections opened in every pool (primary and replica) before the instance is ready.
+     * Default: 10 (the primary pool's minimum-idle)
+     */
+    private int poolConnections = 10;
+
+    /**
+     * Number of most-purchased coupons loaded and serialized.
+     * Default: 100
+     */
+    private int topCoupons = 100;
+
+    /**
+     * Synthetic iterations of the JWT and JSON paths, enough for the JIT to compile them.
+     * Default: 2000
+     */
+    private int iterations = 2000;
+
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPoolConnections() {
+        return poolConnections;
+    }
+
+    public void setPoolConnections(int poolConnections) {
+        this.poolConnections = poolConnections;
+    }
+
+    public int getTopCoupons() {
+        return topCoupons;
+    }
+
+    public void setTopCoupons(int topCoupons) {
+        this.topCoupons = topCoupons;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+}
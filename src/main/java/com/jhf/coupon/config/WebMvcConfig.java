@@ -0,0 +1,24 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.api.filter.EndpointMetricsInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC customization: registers the per-route latency metrics interceptor on the API.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final EndpointMetricsInterceptor endpointMetricsInterceptor;
+
+    public WebMvcConfig(EndpointMetricsInterceptor endpointMetricsInterceptor) {
+        this.endpointMetricsInterceptor = endpointMetricsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointMetricsInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,189 @@
+package com.jhf.coupon.security;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.config.AdmissionControlProperties;
+import com.jhf.coupon.sql.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Admission control: sheds low-priority requests with 503 while the connection pool is
+ * saturated, instead of letting every request thread block in getConnection() for up to
+ * the Hikari connection-timeout.
+ *
+ * Each API route has a priority:
+ * - HIGH: login, token refresh, coupon purchase - always admitted
+ * - NORMAL: everything else under /api/ - shed when too many threads wait for a connection
+ * - LOW: public catalog, available coupons, listings, analytics - shed first, on pool
+ *   utilization or any queueing
+ *
+ * Pool load is read from the Hikari pool MXBean on every request (plain counter reads).
+ * With a read replica configured, each request is judged against the pool that serves it:
+ * the LOW catalog and listing reads against the replica (their DAO methods are
+ * {@code @ReadOnlyQuery}), everything else against the primary. A user who wrote within the
+ * read-your-writes window reads from the primary, but is still judged by the replica here.
+ *
+ * Shed responses carry Retry-After and are counted per route pattern
+ * (coupon_system_requests_shed_total).
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    private static final class RouteRule {
+        private final String method;
+        private final String pattern;
+        private final Priority priority;
+        private final boolean replicaRead;
+        private final String label;
+
+        private RouteRule(String method, String pattern, Priority priority) {
+            this(method, pattern, priority, false);
+        }
+
+        private RouteRule(String method, String pattern, Priority priority, boolean replicaRead) {
+            this.method = method;
+            this.pattern = pattern;
+            this.priority = priority;
+            this.replicaRead = replicaRead;
+            this.label = method == null ? pattern : method + " " + pattern;
+        }
+
+        private boolean matches(String requestMethod, String path) {
+            return (method == null || method.equals(requestMethod)) && PATH_MATCHER.match(pattern, path);
+        }
+    }
+
+    // First match wins; requests outside /api/ (actuator, docs, static) are never shed
+    private static final List<RouteRule> RULES = List.of(
+            new RouteRule("POST", "/api/v1/auth/login", Priority.HIGH),
+            new RouteRule("POST", "/api/v1/auth/refresh", Priority.HIGH),
+            new RouteRule("POST", "/api/v1/customer/coupons/*/purchase", Priority.HIGH),
+            new RouteRule("POST", "/api/v1/customer/cart/checkout", Priority.HIGH),
+            new RouteRule("GET", "/api/v1/public/**", Priority.LOW, true),
+            new RouteRule("GET", "/api/v1/customer/coupons/available", Priority.LOW, true),
+            new RouteRule("GET", "/api/v1/company/analytics/**", Priority.LOW, true),
+            new RouteRule("GET", "/api/v1/admin/companies", Priority.LOW, true),
+            new RouteRule("GET", "/api/v1/admin/customers", Priority.LOW, true),
+            new RouteRule(null, "/api/**", Priority.NORMAL)
+    );
+
+    private final AdmissionControlProperties properties;
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final PrometheusMetrics metrics;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControlProperties properties, DataSource dataSource,
+                                  PrometheusMetrics metrics) {
+        this(properties, resolvePrimary(dataSource),
+                dataSource instanceof ReadWriteRoutingDataSource routing ? routing.getReplica() : null, metrics);
+    }
+
+    /**
+     * @param primary Pool of the primary database, or null to never shed
+     * @param replica Pool of the read replica, or null when reads use the primary
+     */
+    AdmissionControlFilter(AdmissionControlProperties properties, HikariDataSource primary,
+                           HikariDataSource replica, PrometheusMetrics metrics) {
+        this.properties = properties;
+        this.primary = primary;
+        this.replica = replica;
+        this.metrics = metrics;
+        if (primary == null) {
+            logger.warn("Admission control found no Hikari pool; requests will not be shed");
+        }
+    }
+
+    private static HikariDataSource resolvePrimary(DataSource dataSource) {
+        if (dataSource instanceof ReadWriteRoutingDataSource routing) {
+            return routing.getPrimary();
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not unwrap DataSource for admission control", e);
+        }
+        return null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RouteRule rule = classify(request.getMethod(), request.getRequestURI());
+        if (rule == null || rule.priority == Priority.HIGH || admits(rule)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        metrics.recordRequestShed(rule.label, rule.priority.name().toLowerCase());
+        int retryAfter = properties.getRetryAfterSeconds();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.addHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType("application/json");
+        response.getWriter().write(String.format(
+                "{\"error\":\"Service Unavailable\",\"message\":\"Server is busy. Try again in %d seconds.\"}",
+                retryAfter
+        ));
+        logger.debug("Shed {} request {} {}", rule.priority, request.getMethod(), request.getRequestURI());
+    }
+
+    private static RouteRule classify(String method, String path) {
+        for (RouteRule rule : RULES) {
+            if (rule.matches(method, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    static Priority priorityOf(String method, String path) {
+        RouteRule rule = classify(method, path);
+        return rule == null ? null : rule.priority;
+    }
+
+    private boolean admits(RouteRule rule) {
+        HikariDataSource pool = rule.replicaRead && replica != null ? replica : primary;
+        HikariPoolMXBean bean = pool == null ? null : pool.getHikariPoolMXBean();
+        if (bean == null) {
+            return true;
+        }
+        int pending = bean.getThreadsAwaitingConnection();
+
+        if (rule.priority == Priority.LOW) {
+            double utilization = (double) bean.getActiveConnections() / pool.getMaximumPoolSize();
+            return pending <= properties.getLowPriorityMaxPending()
+                    && utilization < properties.getLowPriorityMaxUtilization();
+        }
+        return pending <= properties.getNormalPriorityMaxPending();
+    }
+}
@@ -39,7 +39,7 @@ public class JwtTokenProvider {
      * @param userId     User ID
      * @return JWT access token
      */
-    public String generateAccessToken(String email, ClientType clientType, int userId) {
+    public String generateAccessToken(String email, ClientType clientType, long userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
 
@@ -143,13 +143,13 @@ public class JwtTokenProvider {
      * @param token JWT token
      * @return User ID
      */
-    public Integer getUserIdFromToken(String token) {
+    public Long getUserIdFromToken(String token) {
         SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         Claims claims = Jwts.parser()
                 .verifyWith(key)
                 .build()
                 .parseSignedClaims(token)
                 .getPayload();
-        return claims.get("userId", Integer.class);
+        return claims.get("userId", Long.class);
     }
 }
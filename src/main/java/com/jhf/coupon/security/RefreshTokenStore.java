@@ -3,6 +3,7 @@ package com.jhf.coupon.security;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -83,11 +84,20 @@ public class RefreshTokenStore {
     }
 
     /**
-     * Clean up expired tokens (should be called periodically)
+     * Clean up expired tokens (called periodically by RefreshTokenCleanupJob)
+     *
+     * @return Number of tokens removed
      */
-    public void cleanupExpiredTokens() {
+    public int cleanupExpiredTokens() {
         Instant now = Instant.now();
-        activeTokens.entrySet().removeIf(entry -> entry.getValue().expiresAt.isBefore(now));
+        int removed = 0;
+        for (Iterator<TokenMetadata> iterator = activeTokens.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().expiresAt.isBefore(now)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.jhf.coupon.security;
 
 import com.jhf.coupon.config.CorsProperties;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,13 +30,16 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final RateLimitingFilter rateLimitingFilter;
+    private final AdmissionControlFilter admissionControlFilter;
     private final CorsProperties corsProperties;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
                          RateLimitingFilter rateLimitingFilter,
+                         AdmissionControlFilter admissionControlFilter,
                          CorsProperties corsProperties) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.rateLimitingFilter = rateLimitingFilter;
+        this.admissionControlFilter = admissionControlFilter;
         this.corsProperties = corsProperties;
     }
 
@@ -54,11 +58,16 @@ public class SecurityConfig {
 
                 // Configure authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatch of a streamed response: the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints - no authentication required
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/v1/public/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Health and probes on the management port (base path /metrics)
+                        .requestMatchers("/metrics/health", "/metrics/health/liveness", "/metrics/health/readiness").permitAll()
                         .requestMatchers("/", "/index.html", "/css/**", "/js/**", "/images/**").permitAll()
 
                         // Admin endpoints - require ADMIN role
@@ -74,6 +83,9 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
 
+                // Shed low-priority requests first while the DB pool is saturated
+                .addFilterBefore(admissionControlFilter, UsernamePasswordAuthenticationFilter.class)
+
                 // Add rate limiting filter BEFORE JWT authentication
                 // This ensures rate limits are checked before expensive authentication operations
                 .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
@@ -9,6 +9,7 @@ import com.jhf.coupon.backend.exceptions.ClientTypeNotFoundException;
 import com.jhf.coupon.backend.exceptions.InvalidLoginCredentialsException;
 import com.jhf.coupon.backend.login.ClientType;
 import com.jhf.coupon.backend.login.LoginManager;
+import com.jhf.coupon.backend.login.PrincipalCache;
 import com.jhf.coupon.security.JwtTokenProvider;
 import com.jhf.coupon.security.RefreshTokenStore;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
@@ -32,6 +33,7 @@ public class AuthenticationService {
     private final RefreshTokenStore refreshTokenStore;
     private final CompaniesDAO companiesDAO;
     private final CustomerDAO customerDAO;
+    private final PrincipalCache principalCache;
 
     @Value("${admin.email}")
     private String adminEmail;
@@ -43,12 +45,14 @@ public class AuthenticationService {
                                  JwtTokenProvider jwtTokenProvider,
                                  RefreshTokenStore refreshTokenStore,
                                  CompaniesDAO companiesDAO,
-                                 CustomerDAO customerDAO) {
+                                 CustomerDAO customerDAO,
+                                 PrincipalCache principalCache) {
         this.loginManager = loginManager;
         this.jwtTokenProvider = jwtTokenProvider;
         this.refreshTokenStore = refreshTokenStore;
         this.companiesDAO = companiesDAO;
         this.customerDAO = customerDAO;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -57,7 +61,7 @@ public class AuthenticationService {
      * Flow:
      * 1. Parse clientType string to ClientType enum
      * 2. Call LoginManager.login() (handles account lockout)
-     * 3. Get user details (ID, name) based on clientType
+     * 3. Get user details (ID, name) based on clientType and cache the principal
      * 4. Generate access and refresh tokens
      * 5. Return LoginResponse with tokens and user info
      *
@@ -84,7 +88,7 @@ public class AuthenticationService {
 
         // 3. Get user details and generate tokens based on client type
         LoginResponse.UserInfo userInfo;
-        int userId;
+        long userId;
         String accessToken;
         String refreshToken;
 
@@ -106,6 +110,7 @@ public class AuthenticationService {
                 // Get company details by email
                 Company company = companiesDAO.getCompanyByEmail(loginRequest.getEmail());
                 userId = company.getId();
+                principalCache.putCompany(company);
                 userInfo = new LoginResponse.UserInfo(
                         userId,
                         company.getEmail(),
@@ -121,6 +126,7 @@ public class AuthenticationService {
                 // Get customer details by email
                 Customer customer = customerDAO.getCustomerByEmail(loginRequest.getEmail());
                 userId = customer.getId();
+                principalCache.putCustomer(customer);
                 String fullName = customer.getFirstName() + " " + customer.getLastName();
                 userInfo = new LoginResponse.UserInfo(
                         userId,
@@ -178,7 +184,7 @@ public class AuthenticationService {
 
         // 5. Generate new tokens based on client type
         LoginResponse.UserInfo userInfo;
-        int userId;
+        long userId;
         String newAccessToken;
         String newRefreshToken;
 
@@ -198,6 +204,7 @@ public class AuthenticationService {
             case COMPANY:
                 Company company = companiesDAO.getCompanyByEmail(metadata.email);
                 userId = company.getId();
+                principalCache.putCompany(company);
                 userInfo = new LoginResponse.UserInfo(
                         userId,
                         company.getEmail(),
@@ -211,6 +218,7 @@ public class AuthenticationService {
             case CUSTOMER:
                 Customer customer = customerDAO.getCustomerByEmail(metadata.email);
                 userId = customer.getId();
+                principalCache.putCustomer(customer);
                 String fullName = customer.getFirstName() + " " + customer.getLastName();
                 userInfo = new LoginResponse.UserInfo(
                         userId,
@@ -0,0 +1,13 @@
+package com.jhf.coupon.sql.dao;
+
+import java.io.IOException;
+
+/**
+ * Receives rows one at a time while a query is still open, so a caller can write each row
+ * out (e.g. to an HTTP response) without collecting the whole table in a list.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+
+	void handle(T row) throws IOException;
+}
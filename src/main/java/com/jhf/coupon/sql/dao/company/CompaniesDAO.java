@@ -2,8 +2,12 @@ package com.jhf.coupon.sql.dao.company;
 
 import com.jhf.coupon.backend.beans.AccountLockoutStatus;
 import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
+import com.jhf.coupon.sql.dao.RowHandler;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 public interface CompaniesDAO {
@@ -14,15 +18,23 @@ public interface CompaniesDAO {
 
 	boolean isCompanyNameExists(String companyName) throws SQLException;
 
+	/**
+	 * Inserts a company with a new ID from the IdGenerator, set on the company before the insert.
+	 */
 	void addCompany(Company company) throws SQLException;
 
 	void updateCompany(Company company) throws SQLException;
 
-	void deleteCompany(int companyID) throws SQLException;
+	void deleteCompany(long companyID) throws SQLException;
 
 	ArrayList<Company> getAllCompanies() throws SQLException;
 
-	Company getCompany(int companyID) throws SQLException;
+	/**
+	 * Streams every company to the handler while the query is open, one row in memory at a time.
+	 */
+	void forEachCompany(RowHandler<Company> handler) throws SQLException, IOException;
+
+	Company getCompany(long companyID) throws SQLException;
 
 	Company getCompanyByEmail(String email) throws SQLException;
 
@@ -70,4 +82,51 @@ public interface CompaniesDAO {
 	 * @throws SQLException if database error occurs
 	 */
 	void unlockAccount(String email) throws SQLException;
+
+	/**
+	 * Unlocks every account whose lockout ended before the given time, in one statement
+	 * (uses idx_companies_account_locked). Permanent lockouts (no LOCKED_UNTIL) are left alone.
+	 *
+	 * @param now Current time
+	 * @return Number of accounts unlocked
+	 */
+	int unlockExpiredAccounts(LocalDateTime now) throws SQLException;
+
+	/**
+	 * Counts accounts that are locked at the given time, permanent lockouts included
+	 * (uses idx_companies_account_locked).
+	 *
+	 * @param now Current time
+	 * @return Number of locked accounts
+	 */
+	int countLockedAccounts(LocalDateTime now) throws SQLException;
+
+	/**
+	 * Authenticates a company and records the outcome against the lockout columns.
+	 * Reads the password hash and lockout state in a single row read, then writes the
+	 * outcome back with at most one UPDATE (failed attempts are returned via RETURNING).
+	 * An expired lockout is cleared as part of the same write.
+	 *
+	 * @param email Company email address
+	 * @param password Plaintext password to verify
+	 * @param maxAttempts Maximum allowed attempts before lockout
+	 * @param lockoutDurationMinutes Duration of lockout in minutes (0 = permanent)
+	 * @return LoginAttemptResult with the outcome and the resulting lockout status
+	 * @throws SQLException if database error occurs
+	 */
+	LoginAttemptResult authenticateAndTrack(String email, String password, int maxAttempts, int lockoutDurationMinutes)
+			throws SQLException;
+
+	/**
+	 * Replaces the stored password hash only if it still equals the expected hash.
+	 * Used to upgrade hashes created with an older cost factor without overwriting
+	 * a password that was changed concurrently.
+	 *
+	 * @param companyId Company ID
+	 * @param expectedHash Hash the caller verified against
+	 * @param newHash Replacement hash
+	 * @return true if the hash was replaced
+	 * @throws SQLException if database error occurs
+	 */
+	boolean updatePasswordHash(long companyId, String expectedHash, String newHash) throws SQLException;
 }
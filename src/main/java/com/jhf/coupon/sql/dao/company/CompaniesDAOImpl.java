@@ -2,20 +2,36 @@ package com.jhf.coupon.sql.dao.company;
 
 import com.jhf.coupon.backend.beans.AccountLockoutStatus;
 import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
 import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import com.jhf.coupon.sql.routing.ReadOnlyQuery;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 @Repository
+@Profile("!memory")
 public class CompaniesDAOImpl implements CompaniesDAO {
+	// Lockout columns returned by the failed-attempt UPDATE
+	private static final String[] LOCKOUT_COLUMNS =
+			{"failed_login_attempts", "account_locked", "locked_until", "last_failed_login"};
+
+	private static final int STREAM_FETCH_SIZE = 500;
+
 	private final DataSource dataSource;
+	private final IdGenerator idGenerator;
 
-	public CompaniesDAOImpl(DataSource dataSource) {
+	public CompaniesDAOImpl(DataSource dataSource, IdGenerator idGenerator) {
 		this.dataSource = dataSource;
+		this.idGenerator = idGenerator;
 	}
 
 	public boolean isCompanyExists(String companyEmail, String companyPassword) throws SQLException {
@@ -50,7 +66,7 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 	}
 
 	public boolean isCompanyNameExists(String companyName) throws SQLException {
-		String sqlQuery = "SELECT * FROM companies WHERE name = ?";
+		String sqlQuery = "SELECT 1 FROM companies WHERE name = ? LIMIT 1";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
 			preparedStatement.setString(1, companyName);
@@ -61,14 +77,16 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 	}
 
 	public void addCompany(@NotNull Company company) throws SQLException {
-		String sqlQuery = "INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)";
+		String sqlQuery = "INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)";
+		// Hash password with bcrypt before storing
+		String hashedPassword = PasswordHasher.hashPassword(company.getPassword());
+		company.setId(idGenerator.nextId());
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setString(1, company.getName());
-			preparedStatement.setString(2, company.getEmail());
-			// Hash password with bcrypt before storing
-			String hashedPassword = PasswordHasher.hashPassword(company.getPassword());
-			preparedStatement.setString(3, hashedPassword);
+			preparedStatement.setLong(1, company.getId());
+			preparedStatement.setString(2, company.getName());
+			preparedStatement.setString(3, company.getEmail());
+			preparedStatement.setString(4, hashedPassword);
 			preparedStatement.execute();
 		}
 	}
@@ -82,20 +100,21 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 			// Hash password with bcrypt before storing
 			String hashedPassword = PasswordHasher.hashPassword(company.getPassword());
 			preparedStatement.setString(3, hashedPassword);
-			preparedStatement.setInt(4, company.getId());
+			preparedStatement.setLong(4, company.getId());
 			preparedStatement.executeUpdate();
 		}
 	}
 
-	public void deleteCompany(int companyID) throws SQLException {
+	public void deleteCompany(long companyID) throws SQLException {
 		String sqlQuery = "DELETE FROM companies WHERE id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, companyID);
+			preparedStatement.setLong(1, companyID);
 			preparedStatement.executeUpdate();
 		}
 	}
 
+	@ReadOnlyQuery
 	public ArrayList<Company> getAllCompanies() throws SQLException {
 		ArrayList<Company> list = new ArrayList<>();
 		String sqlQuery = "SELECT * FROM companies";
@@ -109,11 +128,32 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 		return list;
 	}
 
-	public Company getCompany(int companyID) throws SQLException {
+	@ReadOnlyQuery
+	public void forEachCompany(RowHandler<Company> handler) throws SQLException, IOException {
+		String sqlQuery = "SELECT * FROM companies";
+		try (Connection connection = dataSource.getConnection()) {
+			// PostgreSQL only honours the fetch size (streams through a cursor) outside autocommit
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.setFetchSize(STREAM_FETCH_SIZE);
+				try (ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+					while (resultSet.next()) {
+						handler.handle(mapResultSetToCompany(resultSet));
+					}
+				}
+				connection.commit();
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	public Company getCompany(long companyID) throws SQLException {
 		String sqlQuery = "SELECT * FROM companies WHERE id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, companyID);
+			preparedStatement.setLong(1, companyID);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				if (resultSet.next()) {
 					return mapResultSetToCompany(resultSet);
@@ -150,7 +190,7 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 	 */
 	private Company mapResultSetToCompany(ResultSet resultSet) throws SQLException {
 		return new Company(
-				resultSet.getInt("id"),
+				resultSet.getLong("id"),
 				resultSet.getString("name"),
 				resultSet.getString("email"),
 				resultSet.getString("password"));
@@ -170,20 +210,7 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				if (resultSet.next()) {
-					AccountLockoutStatus status = new AccountLockoutStatus();
-					status.setAccountLocked(resultSet.getBoolean("account_locked"));
-					status.setFailedLoginAttempts(resultSet.getInt("failed_login_attempts"));
-
-					// Handle TIMESTAMP to LocalDateTime conversion
-					Timestamp lockedUntilTs = resultSet.getTimestamp("locked_until");
-					status.setLockedUntil(lockedUntilTs != null ?
-							lockedUntilTs.toLocalDateTime() : null);
-
-					Timestamp lastFailedTs = resultSet.getTimestamp("last_failed_login");
-					status.setLastFailedLogin(lastFailedTs != null ?
-							lastFailedTs.toLocalDateTime() : null);
-
-					return status;
+					return mapResultSetToLockoutStatus(resultSet);
 				}
 				return null; // Company not found
 			}
@@ -240,9 +267,182 @@ public class CompaniesDAOImpl implements CompaniesDAO {
 		}
 	}
 
+	@Override
+	public int unlockExpiredAccounts(LocalDateTime now) throws SQLException {
+		String sqlQuery = "UPDATE companies SET " +
+				"failed_login_attempts = 0, " +
+				"account_locked = FALSE, " +
+				"locked_until = NULL " +
+				"WHERE account_locked = TRUE AND locked_until < ?";
+
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(now));
+			return preparedStatement.executeUpdate();
+		}
+	}
+
+	@Override
+	public int countLockedAccounts(LocalDateTime now) throws SQLException {
+		String sqlQuery = "SELECT COUNT(*) FROM companies " +
+				"WHERE account_locked = TRUE AND (locked_until IS NULL OR locked_until > ?)";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(now));
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getInt(1);
+			}
+		}
+	}
+
 	@Override
 	public void unlockAccount(String email) throws SQLException {
 		// Same implementation as resetFailedLoginAttempts
 		resetFailedLoginAttempts(email);
 	}
+
+	@Override
+	public LoginAttemptResult authenticateAndTrack(String email, String password, int maxAttempts,
+	                                               int lockoutDurationMinutes) throws SQLException {
+		String sqlQuery = "SELECT id, password, account_locked, failed_login_attempts, " +
+				"locked_until, last_failed_login " +
+				"FROM companies WHERE email = ?";
+
+		try (Connection connection = dataSource.getConnection()) {
+			long companyId;
+			String storedPasswordHash;
+			AccountLockoutStatus status;
+
+			// 1. Single row read: password hash and lockout columns together
+			try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+				preparedStatement.setString(1, email);
+				try (ResultSet resultSet = preparedStatement.executeQuery()) {
+					if (!resultSet.next()) {
+						return new LoginAttemptResult(LoginAttemptResult.Outcome.NOT_FOUND, 0, null);
+					}
+					companyId = resultSet.getLong("id");
+					storedPasswordHash = resultSet.getString("password");
+					status = mapResultSetToLockoutStatus(resultSet);
+				}
+			}
+
+			// 2. Locked accounts are rejected without verifying the password or writing anything
+			if (status.isCurrentlyLocked()) {
+				return new LoginAttemptResult(LoginAttemptResult.Outcome.LOCKED, companyId, status);
+			}
+			boolean lockoutExpired = status.isLockoutExpired();
+
+			// 3. Verify password using bcrypt
+			boolean passwordMatches = password != null && !password.isEmpty()
+					&& PasswordHasher.verifyPassword(password, storedPasswordHash);
+
+			if (passwordMatches) {
+				// 4. Reset only when there is something to reset (clean logins do no write). An expired
+				// lockout is left to LockoutExpirySweepJob; the next failure restarts the counter anyway
+				if (!lockoutExpired && status.getFailedLoginAttempts() > 0) {
+					resetFailedLoginAttempts(connection, companyId);
+				}
+				// Hashes below the current cost are handed back so the caller can upgrade them
+				String hashToUpgrade = PasswordHasher.needsRehash(storedPasswordHash) ? storedPasswordHash : null;
+				return new LoginAttemptResult(LoginAttemptResult.Outcome.SUCCESS, companyId,
+						new AccountLockoutStatus(false, 0, null, status.getLastFailedLogin()), hashToUpgrade);
+			}
+
+			// 5. Record the failure (an expired lockout restarts the counter) and read the new state back
+			AccountLockoutStatus updatedStatus = recordFailedLoginAttempt(connection, companyId,
+					lockoutExpired, maxAttempts, lockoutDurationMinutes);
+			return new LoginAttemptResult(LoginAttemptResult.Outcome.FAILURE, companyId, updatedStatus);
+		}
+	}
+
+	@Override
+	public boolean updatePasswordHash(long companyId, String expectedHash, String newHash) throws SQLException {
+		String sqlQuery = "UPDATE companies SET password = ? WHERE id = ? AND password = ?";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setString(1, newHash);
+			preparedStatement.setLong(2, companyId);
+			preparedStatement.setString(3, expectedHash);
+			return preparedStatement.executeUpdate() > 0;
+		}
+	}
+
+	/**
+	 * Increments the failed login counter by primary key and returns the updated lockout columns
+	 * in the same round trip (UPDATE ... RETURNING on PostgreSQL, generated keys on H2).
+	 */
+	private AccountLockoutStatus recordFailedLoginAttempt(Connection connection, long companyId, boolean restartCount,
+	                                                      int maxAttempts, int lockoutDurationMinutes)
+			throws SQLException {
+		// Calculate lockout timestamp in Java for database compatibility (H2 and PostgreSQL)
+		Timestamp lockoutTimestamp = null;
+		if (lockoutDurationMinutes > 0) {
+			long lockoutMillis = System.currentTimeMillis() + (lockoutDurationMinutes * 60L * 1000L);
+			lockoutTimestamp = new Timestamp(lockoutMillis);
+		}
+
+		String newAttempts = "(CASE WHEN ? THEN 1 ELSE failed_login_attempts + 1 END)";
+		String sqlQuery = "UPDATE companies SET " +
+				"failed_login_attempts = " + newAttempts + ", " +
+				"last_failed_login = CURRENT_TIMESTAMP, " +
+				"account_locked = CASE WHEN " + newAttempts + " >= ? THEN TRUE ELSE FALSE END, " +
+				"locked_until = CASE WHEN " + newAttempts + " >= ? THEN CAST(? AS TIMESTAMP) ELSE NULL END " +
+				"WHERE id = ?";
+
+		try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery, LOCKOUT_COLUMNS)) {
+			preparedStatement.setBoolean(1, restartCount);
+			preparedStatement.setBoolean(2, restartCount);
+			preparedStatement.setInt(3, maxAttempts);
+			preparedStatement.setBoolean(4, restartCount);
+			preparedStatement.setInt(5, maxAttempts);
+			preparedStatement.setTimestamp(6, lockoutTimestamp);
+			preparedStatement.setLong(7, companyId);
+			preparedStatement.executeUpdate();
+
+			try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+				if (resultSet.next()) {
+					return mapResultSetToLockoutStatus(resultSet);
+				}
+				return null; // Row deleted concurrently
+			}
+		}
+	}
+
+	private void resetFailedLoginAttempts(Connection connection, long companyId) throws SQLException {
+		String sqlQuery = "UPDATE companies SET " +
+				"failed_login_attempts = 0, " +
+				"account_locked = FALSE, " +
+				"locked_until = NULL " +
+				"WHERE id = ?";
+
+		try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setLong(1, companyId);
+			preparedStatement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Maps the lockout columns of a ResultSet row to an AccountLockoutStatus object.
+	 *
+	 * @param resultSet the ResultSet positioned at a valid row
+	 * @return an AccountLockoutStatus populated from the current ResultSet row
+	 * @throws SQLException if a database access error occurs or column is not found
+	 */
+	private AccountLockoutStatus mapResultSetToLockoutStatus(ResultSet resultSet) throws SQLException {
+		AccountLockoutStatus status = new AccountLockoutStatus();
+		status.setAccountLocked(resultSet.getBoolean("account_locked"));
+		status.setFailedLoginAttempts(resultSet.getInt("failed_login_attempts"));
+
+		// Handle TIMESTAMP to LocalDateTime conversion
+		Timestamp lockedUntilTs = resultSet.getTimestamp("locked_until");
+		status.setLockedUntil(lockedUntilTs != null ?
+				lockedUntilTs.toLocalDateTime() : null);
+
+		Timestamp lastFailedTs = resultSet.getTimestamp("last_failed_login");
+		status.setLastFailedLogin(lastFailedTs != null ?
+				lastFailedTs.toLocalDateTime() : null);
+
+		return status;
+	}
 }
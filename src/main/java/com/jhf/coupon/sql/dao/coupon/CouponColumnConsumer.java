@@ -0,0 +1,14 @@
+package com.jhf.coupon.sql.dao.coupon;
+
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+
+/**
+ * Receives the reporting columns of one coupon row as primitives, so a full-table scan
+ * does not create a Coupon per row.
+ */
+@FunctionalInterface
+public interface CouponColumnConsumer {
+
+	void accept(long companyId, int categoryId, int endDateEpochDay, int amount, double price)
+			throws CategoryNotFoundException;
+}
@@ -1,32 +1,65 @@
 package com.jhf.coupon.sql.dao.coupon;
 
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.events.CouponEventType;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.dao.outbox.OutboxWriter;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import com.jhf.coupon.sql.routing.ReadOnlyQuery;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Repository
+@Profile("!memory")
 public class CouponDAOImpl implements CouponsDAO {
+	private static final int SCAN_FETCH_SIZE = 10_000;
+
+	// Fixed column order so rows are mapped by index (see mapRow) rather than by name
+	static final String COUPON_COLUMNS =
+			"id, company_id, category_id, title, description, start_date, end_date, amount, price, image";
+	private static final String INSERT_QUERY = "INSERT INTO coupons (" + COUPON_COLUMNS + ") " +
+			"VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String JOINED_COUPON_COLUMNS =
+			"c.id, c.company_id, c.category_id, c.title, c.description, c.start_date, c.end_date, c.amount, c.price, c.image";
+
 	private final DataSource dataSource;
+	private final IdGenerator idGenerator;
 
-	public CouponDAOImpl(DataSource dataSource) {
+	public CouponDAOImpl(DataSource dataSource, IdGenerator idGenerator) {
 		this.dataSource = dataSource;
+		this.idGenerator = idGenerator;
 	}
 
 	@Override
 	public boolean couponExists(@NotNull Coupon coupon) throws SQLException {
-		String sqlQuery = "SELECT * FROM coupons WHERE title = ? AND company_id = ?";
+		String sqlQuery = "SELECT 1 FROM coupons WHERE title = ? AND company_id = ? LIMIT 1";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
 			preparedStatement.setString(1, coupon.getTitle());
-			preparedStatement.setInt(2, coupon.getCompanyID());
+			preparedStatement.setLong(2, coupon.getCompanyID());
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				return resultSet.next();
 			}
@@ -34,73 +67,193 @@ public class CouponDAOImpl implements CouponsDAO {
 	}
 
 	public void addCoupon(@NotNull Coupon coupon) throws SQLException {
-		String sqlQuery = "INSERT INTO coupons (company_id, category_id, title, description, " +
-				"start_date, end_date, amount, price, image) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-		try (Connection connection = dataSource.getConnection();
-		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, coupon.getCompanyID());
-			preparedStatement.setInt(2, coupon.getCATEGORY().getId());
-			preparedStatement.setString(3, coupon.getTitle());
-			preparedStatement.setString(4, coupon.getDescription());
-			preparedStatement.setDate(5, coupon.getStartDate());
-			preparedStatement.setDate(6, coupon.getEndDate());
-			preparedStatement.setInt(7, coupon.getAmount());
-			preparedStatement.setDouble(8, coupon.getPrice());
-			preparedStatement.setString(9, coupon.getImage());
-			preparedStatement.execute();
+		coupon.setId(idGenerator.nextId());
+		inTransaction(connection -> {
+			try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY)) {
+				bindInsert(preparedStatement, coupon);
+				preparedStatement.execute();
+			}
+			appendCouponEvent(connection, CouponEventType.COUPON_CREATED, coupon.getId(), coupon.getCompanyID(),
+					coupon.getCATEGORY().getId(), coupon.getPrice(), null);
+		});
+	}
+
+	@Override
+	public void addCoupons(@NotNull List<Coupon> coupons) throws SQLException {
+		if (coupons.isEmpty()) {
+			return;
 		}
+		long[] ids = idGenerator.nextIds(coupons.size());
+		for (int i = 0; i < ids.length; i++) {
+			coupons.get(i).setId(ids[i]);
+		}
+		inTransaction(connection -> {
+			try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY)) {
+				for (Coupon coupon : coupons) {
+					bindInsert(preparedStatement, coupon);
+					preparedStatement.addBatch();
+				}
+				preparedStatement.executeBatch();
+			}
+			Map<Long, String> payloads = new LinkedHashMap<>();
+			for (Coupon coupon : coupons) {
+				payloads.put(coupon.getId(), CouponEventType.payload(coupon.getId(), coupon.getCompanyID(),
+						coupon.getCATEGORY().getId(), coupon.getPrice(), null));
+			}
+			OutboxWriter.appendAll(connection, CouponEventType.AGGREGATE_TYPE, CouponEventType.COUPON_CREATED.name(), payloads);
+		});
+	}
+
+	private static void bindInsert(PreparedStatement preparedStatement, Coupon coupon) throws SQLException {
+		preparedStatement.setLong(1, coupon.getId());
+		preparedStatement.setLong(2, coupon.getCompanyID());
+		preparedStatement.setInt(3, coupon.getCATEGORY().getId());
+		preparedStatement.setString(4, coupon.getTitle());
+		preparedStatement.setString(5, coupon.getDescription());
+		preparedStatement.setDate(6, coupon.getStartDate());
+		preparedStatement.setDate(7, coupon.getEndDate());
+		preparedStatement.setInt(8, coupon.getAmount());
+		preparedStatement.setDouble(9, coupon.getPrice());
+		preparedStatement.setString(10, coupon.getImage());
 	}
 
 	public void updateCoupon(@NotNull Coupon coupon) throws SQLException {
 		String sqlQuery = "UPDATE coupons SET company_id = ?, category_id = ?, title = ?, " +
 				"description = ?, start_date = ?, end_date = ?, amount = ?, price = ?, " +
 				"image = ? WHERE id = ?";
+		inTransaction(connection -> {
+			int rows;
+			try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+				preparedStatement.setLong(1, coupon.getCompanyID());
+				preparedStatement.setInt(2, coupon.getCATEGORY().getId());
+				preparedStatement.setString(3, coupon.getTitle());
+				preparedStatement.setString(4, coupon.getDescription());
+				preparedStatement.setDate(5, coupon.getStartDate());
+				preparedStatement.setDate(6, coupon.getEndDate());
+				preparedStatement.setInt(7, coupon.getAmount());
+				preparedStatement.setDouble(8, coupon.getPrice());
+				preparedStatement.setString(9, coupon.getImage());
+				preparedStatement.setLong(10, coupon.getId());
+				rows = preparedStatement.executeUpdate();
+			}
+			if (rows > 0) {
+				appendCouponEvent(connection, CouponEventType.COUPON_UPDATED, coupon.getId(), coupon.getCompanyID(),
+						coupon.getCATEGORY().getId(), coupon.getPrice(), null);
+			}
+		});
+	}
+
+	public void deleteCoupon(long couponID) throws SQLException {
+		String selectQuery = "SELECT company_id, category_id, price FROM coupons WHERE id = ?";
+		String sqlQuery = "DELETE FROM coupons WHERE id = ?";
+		inTransaction(connection -> {
+			try (PreparedStatement selectStmt = connection.prepareStatement(selectQuery)) {
+				selectStmt.setLong(1, couponID);
+				try (ResultSet resultSet = selectStmt.executeQuery()) {
+					if (!resultSet.next()) {
+						return;
+					}
+					appendCouponEvent(connection, CouponEventType.COUPON_DELETED, couponID,
+							resultSet.getLong("company_id"), resultSet.getInt("category_id"),
+							resultSet.getDouble("price"), null);
+				}
+			}
+			try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+				preparedStatement.setLong(1, couponID);
+				preparedStatement.executeUpdate();
+			}
+		});
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public LinkedHashMap<Long, Integer> getMostPurchasedCoupons(int limit) throws SQLException {
+		LinkedHashMap<Long, Integer> purchases = new LinkedHashMap<>();
+		String sqlQuery = "SELECT coupon_id, COUNT(*) FROM customers_vs_coupons GROUP BY coupon_id " +
+				"ORDER BY COUNT(*) DESC, coupon_id LIMIT ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, coupon.getCompanyID());
-			preparedStatement.setInt(2, coupon.getCATEGORY().getId());
-			preparedStatement.setString(3, coupon.getTitle());
-			preparedStatement.setString(4, coupon.getDescription());
-			preparedStatement.setDate(5, coupon.getStartDate());
-			preparedStatement.setDate(6, coupon.getEndDate());
-			preparedStatement.setInt(7, coupon.getAmount());
-			preparedStatement.setDouble(8, coupon.getPrice());
-			preparedStatement.setString(9, coupon.getImage());
-			preparedStatement.setInt(10, coupon.getId());
-			preparedStatement.executeUpdate();
+			preparedStatement.setInt(1, limit);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					purchases.put(resultSet.getLong(1), resultSet.getInt(2));
+				}
+			}
 		}
+		return purchases;
 	}
 
-	public void deleteCoupon(int couponID) throws SQLException {
-		String sqlQuery = "DELETE FROM coupons WHERE id = ?";
+	// Not read-only: callers delete what they read, and must not see a lagging replica
+	public long getMaxCouponId() throws SQLException {
+		String sqlQuery = "SELECT COALESCE(MAX(id), 0) FROM coupons";
+		try (Connection connection = dataSource.getConnection();
+		     Statement statement = connection.createStatement();
+		     ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+			return resultSet.next() ? resultSet.getLong(1) : 0;
+		}
+	}
+
+	public ArrayList<Long> getExpiredCouponIds(LocalDate before, long fromId, long toId) throws SQLException {
+		ArrayList<Long> ids = new ArrayList<>();
+		String sqlQuery = "SELECT id FROM coupons WHERE end_date < ? AND id BETWEEN ? AND ? ORDER BY id";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, couponID);
-			preparedStatement.executeUpdate();
+			preparedStatement.setDate(1, Date.valueOf(before));
+			preparedStatement.setLong(2, fromId);
+			preparedStatement.setLong(3, toId);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					ids.add(resultSet.getLong(1));
+				}
+			}
 		}
+		return ids;
 	}
 
+	@ReadOnlyQuery
 	public ArrayList<Coupon> getAllCoupons() throws SQLException, CategoryNotFoundException {
 		ArrayList<Coupon> list = new ArrayList<>();
-		String sqlQuery = "SELECT * FROM coupons";
+		String sqlQuery = "SELECT " + COUPON_COLUMNS + " FROM coupons";
 		try (Connection connection = dataSource.getConnection();
 		     Statement statement = connection.createStatement();
 		     ResultSet resultSet = statement.executeQuery(sqlQuery)) {
 			while (resultSet.next()) {
-				list.add(mapResultSetToCoupon(resultSet));
+				list.add(mapRow(resultSet));
 			}
 		}
 		return list;
 	}
 
-	public Coupon getCoupon(int couponID) throws SQLException, CategoryNotFoundException {
-		String sqlQuery = "SELECT * FROM coupons WHERE id = ?";
+	@Override
+	@ReadOnlyQuery
+	public void forEachCoupon(RowHandler<Coupon> handler) throws SQLException, CategoryNotFoundException, IOException {
+		String sqlQuery = "SELECT " + COUPON_COLUMNS + " FROM coupons";
+		try (Connection connection = dataSource.getConnection()) {
+			// PostgreSQL only honours the fetch size (streams through a cursor) outside autocommit
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.setFetchSize(SCAN_FETCH_SIZE);
+				try (ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+					while (resultSet.next()) {
+						handler.handle(mapRow(resultSet));
+					}
+				}
+				connection.commit();
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	public Coupon getCoupon(long couponID) throws SQLException, CategoryNotFoundException {
+		String sqlQuery = "SELECT " + COUPON_COLUMNS + " FROM coupons WHERE id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, couponID);
+			preparedStatement.setLong(1, couponID);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				if (resultSet.next()) {
-					return mapResultSetToCoupon(resultSet);
+					return mapRow(resultSet);
 				} else {
 					throw new CouponNotFoundException(
 							"Could not find Coupon with id: " + couponID);
@@ -110,15 +263,29 @@ public class CouponDAOImpl implements CouponsDAO {
 	}
 
 	@Override
-	public ArrayList<Coupon> getCompanyCoupons(int companyId) throws SQLException, CategoryNotFoundException {
+	public Set<Long> getExistingCouponIds(@NotNull Collection<Long> couponIds) throws SQLException {
+		if (couponIds.isEmpty()) {
+			return new HashSet<>();
+		}
+		String sqlQuery = "SELECT id FROM coupons WHERE id = ANY(?)";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setArray(1, connection.createArrayOf("bigint", couponIds.toArray(Long[]::new)));
+			return queryIds(preparedStatement);
+		}
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public ArrayList<Coupon> getCompanyCoupons(long companyId) throws SQLException, CategoryNotFoundException {
 		ArrayList<Coupon> list = new ArrayList<>();
-		String sqlQuery = "SELECT * FROM coupons WHERE company_id = ?";
+		String sqlQuery = "SELECT " + COUPON_COLUMNS + " FROM coupons WHERE company_id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, companyId);
+			preparedStatement.setLong(1, companyId);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				while (resultSet.next()) {
-					list.add(mapResultSetToCoupon(resultSet));
+					list.add(mapRow(resultSet));
 				}
 			}
 		}
@@ -126,16 +293,29 @@ public class CouponDAOImpl implements CouponsDAO {
 	}
 
 	@Override
+	@ReadOnlyQuery
 	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, @NotNull Category CATEGORY) throws SQLException, CategoryNotFoundException {
+		return getCompanyCoupons(company.getId(), CATEGORY);
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, double maxPrice) throws SQLException, CategoryNotFoundException {
+		return getCompanyCoupons(company.getId(), maxPrice);
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, @NotNull Category CATEGORY) throws SQLException, CategoryNotFoundException {
 		ArrayList<Coupon> list = new ArrayList<>();
-		String sqlQuery = "SELECT * FROM coupons WHERE company_id = ? AND category_id = ?";
+		String sqlQuery = "SELECT " + COUPON_COLUMNS + " FROM coupons WHERE company_id = ? AND category_id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, company.getId());
+			preparedStatement.setLong(1, companyId);
 			preparedStatement.setInt(2, CATEGORY.getId());
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				while (resultSet.next()) {
-					list.add(mapResultSetToCoupon(resultSet));
+					list.add(mapRow(resultSet));
 				}
 			}
 		}
@@ -143,99 +323,409 @@ public class CouponDAOImpl implements CouponsDAO {
 	}
 
 	@Override
-	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, double maxPrice) throws SQLException, CategoryNotFoundException {
+	@ReadOnlyQuery
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, double maxPrice) throws SQLException, CategoryNotFoundException {
 		ArrayList<Coupon> list = new ArrayList<>();
-		String sqlQuery = "SELECT * FROM coupons WHERE company_id = ? AND price BETWEEN 0 AND ?";
+		String sqlQuery = "SELECT " + COUPON_COLUMNS + " FROM coupons WHERE company_id = ? AND price BETWEEN 0 AND ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, company.getId());
+			preparedStatement.setLong(1, companyId);
 			preparedStatement.setDouble(2, maxPrice);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				while (resultSet.next()) {
-					list.add(mapResultSetToCoupon(resultSet));
+					list.add(mapRow(resultSet));
 				}
 			}
 		}
 		return list;
 	}
 
-	public boolean customerCouponPurchaseExists(int customerId, int couponId) throws SQLException {
-		String sqlQuery = "SELECT * FROM customers_vs_coupons WHERE customer_id = ? AND coupon_id = ?";
+	public boolean customerCouponPurchaseExists(long customerId, long couponId) throws SQLException {
+		String sqlQuery = "SELECT 1 FROM customers_vs_coupons WHERE customer_id = ? AND coupon_id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, customerId);
-			preparedStatement.setInt(2, couponId);
+			preparedStatement.setLong(1, customerId);
+			preparedStatement.setLong(2, couponId);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				return resultSet.next();
 			}
 		}
 	}
 
-	public void addCouponPurchase(int customerId, int couponId) throws SQLException {
-		String insertQuery = "INSERT INTO customers_vs_coupons VALUES (?, ?)";
-		String updateQuery = "UPDATE coupons SET amount = amount - 1 WHERE id = ?";
+	public boolean addCouponPurchase(long customerId, long couponId) throws SQLException {
+		String updateQuery = "UPDATE coupons SET amount = amount - 1 WHERE id = ? AND amount > 0";
+		String insertQuery = "INSERT INTO customers_vs_coupons (customer_id, coupon_id, purchased_at) VALUES (?, ?, ?)";
+		String couponQuery = "SELECT company_id, category_id, price FROM coupons WHERE id = ?";
+		LocalDateTime purchasedAt = LocalDateTime.now();
+		boolean[] inStock = new boolean[1];
 
-		try (Connection connection = dataSource.getConnection()) {
-			// Insert purchase record
+		inTransaction(connection -> {
+			// Decrement coupon amount; the row lock serializes concurrent buyers of the same coupon
+			try (PreparedStatement updateStmt = connection.prepareStatement(updateQuery)) {
+				updateStmt.setLong(1, couponId);
+				if (updateStmt.executeUpdate() == 0) {
+					return;
+				}
+			}
+			inStock[0] = true;
+
+			// Insert purchase record (a repeat purchase fails here and rolls the decrement back)
 			try (PreparedStatement insertStmt = connection.prepareStatement(insertQuery)) {
-				insertStmt.setInt(1, customerId);
-				insertStmt.setInt(2, couponId);
+				insertStmt.setLong(1, customerId);
+				insertStmt.setLong(2, couponId);
+				insertStmt.setTimestamp(3, Timestamp.valueOf(purchasedAt));
 				insertStmt.execute();
 			}
 
-			// Decrement coupon amount
+			// Count the sale in the company/category/day rollup and record the event
+			try (PreparedStatement couponStmt = connection.prepareStatement(couponQuery)) {
+				couponStmt.setLong(1, couponId);
+				try (ResultSet resultSet = couponStmt.executeQuery()) {
+					if (resultSet.next()) {
+						long companyId = resultSet.getLong("company_id");
+						int categoryId = resultSet.getInt("category_id");
+						incrementDailySales(connection, companyId, categoryId, purchasedAt.toLocalDate(), 1);
+						appendCouponEvent(connection, CouponEventType.COUPON_PURCHASED, couponId, companyId,
+								categoryId, resultSet.getDouble("price"), customerId);
+					}
+				}
+			}
+		});
+		return inStock[0];
+	}
+
+	@Override
+	public List<CartItemResult> addCouponPurchases(long customerId, @NotNull Collection<Long> couponIds) throws SQLException {
+		// Ascending order is the order the stock decrements lock the coupon rows in
+		Long[] ids = couponIds.stream().distinct().sorted().toArray(Long[]::new);
+		if (ids.length == 0) {
+			return new ArrayList<>();
+		}
+		String ownedQuery = "SELECT coupon_id FROM customers_vs_coupons WHERE customer_id = ? AND coupon_id = ANY(?)";
+		String updateQuery = "UPDATE coupons SET amount = amount - 1 WHERE id = ? AND amount > 0";
+		String existingQuery = "SELECT id FROM coupons WHERE id = ANY(?)";
+		String insertQuery = "INSERT INTO customers_vs_coupons (customer_id, coupon_id, purchased_at) VALUES (?, ?, ?)";
+		String couponQuery = "SELECT id, company_id, category_id, price FROM coupons WHERE id = ANY(?) ORDER BY id";
+		LocalDateTime purchasedAt = LocalDateTime.now();
+		Map<Long, CartItemResult.Status> statuses = new LinkedHashMap<>();
+
+		inTransaction(connection -> {
+			Array idArray = connection.createArrayOf("bigint", ids);
+
+			// One ownership check for the whole cart, before anything is locked or written
+			Set<Long> owned;
+			try (PreparedStatement ownedStmt = connection.prepareStatement(ownedQuery)) {
+				ownedStmt.setLong(1, customerId);
+				ownedStmt.setArray(2, idArray);
+				owned = queryIds(ownedStmt);
+			}
+			if (!owned.isEmpty()) {
+				for (Long id : ids) {
+					statuses.put(id, owned.contains(id) ? CartItemResult.Status.ALREADY_PURCHASED : CartItemResult.Status.NOT_PURCHASED);
+				}
+				return;
+			}
+
+			int[] decremented;
 			try (PreparedStatement updateStmt = connection.prepareStatement(updateQuery)) {
-				updateStmt.setInt(1, couponId);
+				for (Long id : ids) {
+					updateStmt.setLong(1, id);
+					updateStmt.addBatch();
+				}
+				decremented = updateStmt.executeBatch();
+			}
+			// A coupon that was not decremented is missing or sold out: undo the other decrements
+			if (Arrays.stream(decremented).anyMatch(count -> count == 0)) {
+				Set<Long> existing;
+				try (PreparedStatement existingStmt = connection.prepareStatement(existingQuery)) {
+					existingStmt.setArray(1, idArray);
+					existing = queryIds(existingStmt);
+				}
+				connection.rollback();
+				for (int i = 0; i < ids.length; i++) {
+					statuses.put(ids[i], decremented[i] != 0 ? CartItemResult.Status.NOT_PURCHASED
+							: existing.contains(ids[i]) ? CartItemResult.Status.OUT_OF_STOCK : CartItemResult.Status.NOT_FOUND);
+				}
+				return;
+			}
+
+			try (PreparedStatement insertStmt = connection.prepareStatement(insertQuery)) {
+				Timestamp timestamp = Timestamp.valueOf(purchasedAt);
+				for (Long id : ids) {
+					insertStmt.setLong(1, customerId);
+					insertStmt.setLong(2, id);
+					insertStmt.setTimestamp(3, timestamp);
+					insertStmt.addBatch();
+				}
+				insertStmt.executeBatch();
+			}
+
+			// Rollup rows are incremented once per company and category, in key order like the decrements
+			Map<Long, Map<Integer, Integer>> sales = new TreeMap<>();
+			Map<Long, String> payloads = new LinkedHashMap<>();
+			try (PreparedStatement couponStmt = connection.prepareStatement(couponQuery)) {
+				couponStmt.setArray(1, idArray);
+				try (ResultSet resultSet = couponStmt.executeQuery()) {
+					while (resultSet.next()) {
+						long couponId = resultSet.getLong(1);
+						long companyId = resultSet.getLong(2);
+						int categoryId = resultSet.getInt(3);
+						sales.computeIfAbsent(companyId, key -> new TreeMap<>()).merge(categoryId, 1, Integer::sum);
+						payloads.put(couponId, CouponEventType.payload(couponId, companyId, categoryId,
+								resultSet.getDouble(4), customerId));
+					}
+				}
+			}
+			for (Map.Entry<Long, Map<Integer, Integer>> company : sales.entrySet()) {
+				for (Map.Entry<Integer, Integer> category : company.getValue().entrySet()) {
+					incrementDailySales(connection, company.getKey(), category.getKey(), purchasedAt.toLocalDate(),
+							category.getValue());
+				}
+			}
+			OutboxWriter.appendAll(connection, CouponEventType.AGGREGATE_TYPE, CouponEventType.COUPON_PURCHASED.name(), payloads);
+
+			for (Long id : ids) {
+				statuses.put(id, CartItemResult.Status.PURCHASED);
+			}
+		});
+
+		List<CartItemResult> results = new ArrayList<>(statuses.size());
+		statuses.forEach((id, status) -> results.add(new CartItemResult(id, status)));
+		return results;
+	}
+
+	private static Set<Long> queryIds(PreparedStatement preparedStatement) throws SQLException {
+		Set<Long> ids = new HashSet<>();
+		try (ResultSet resultSet = preparedStatement.executeQuery()) {
+			while (resultSet.next()) {
+				ids.add(resultSet.getLong(1));
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Adds purchases to the rollup row, creating it on the first sale of the day.
+	 * If a concurrent purchase creates the row first, the insert is rolled back to a
+	 * savepoint and the increment retried (portable across H2 and PostgreSQL).
+	 */
+	private void incrementDailySales(Connection connection, long companyId, int categoryId, LocalDate saleDate,
+	                                 int purchases) throws SQLException {
+		String updateQuery = "UPDATE coupon_sales_daily SET purchases = purchases + ? " +
+				"WHERE company_id = ? AND sale_date = ? AND category_id = ?";
+		String insertQuery = "INSERT INTO coupon_sales_daily (company_id, sale_date, category_id, purchases) " +
+				"VALUES (?, ?, ?, ?)";
+
+		try (PreparedStatement updateStmt = connection.prepareStatement(updateQuery)) {
+			updateStmt.setInt(1, purchases);
+			updateStmt.setLong(2, companyId);
+			updateStmt.setDate(3, Date.valueOf(saleDate));
+			updateStmt.setInt(4, categoryId);
+			if (updateStmt.executeUpdate() > 0) {
+				return;
+			}
+
+			Savepoint savepoint = connection.setSavepoint();
+			try (PreparedStatement insertStmt = connection.prepareStatement(insertQuery)) {
+				insertStmt.setLong(1, companyId);
+				insertStmt.setDate(2, Date.valueOf(saleDate));
+				insertStmt.setInt(3, categoryId);
+				insertStmt.setInt(4, purchases);
+				insertStmt.execute();
+			} catch (SQLException e) {
+				if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+					throw e;
+				}
+				connection.rollback(savepoint);
 				updateStmt.executeUpdate();
 			}
 		}
 	}
 
 	@Override
+	@ReadOnlyQuery
 	public ArrayList<Coupon> getCustomerCoupons(@NotNull Customer customer) throws SQLException, CategoryNotFoundException {
+		return getCustomerCoupons(customer.getId());
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public ArrayList<Coupon> getCustomerCoupons(long customerId) throws SQLException, CategoryNotFoundException {
 		ArrayList<Coupon> list = new ArrayList<>();
-		String sqlQuery = "SELECT coupon_id FROM customers_vs_coupons WHERE customer_id = ?";
+		String sqlQuery = "SELECT " + JOINED_COUPON_COLUMNS + " FROM coupons c " +
+				"JOIN customers_vs_coupons cvc ON cvc.coupon_id = c.id " +
+				"WHERE cvc.customer_id = ? ORDER BY c.id";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, customer.getId());
+			preparedStatement.setLong(1, customerId);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				while (resultSet.next()) {
-					list.add(getCoupon(resultSet.getInt("coupon_id")));
+					list.add(mapRow(resultSet));
 				}
 			}
 		}
 		return list;
 	}
 
-	public void deleteCouponPurchase(int customerId, int couponId) throws SQLException {
+	public void deleteCouponPurchase(long customerId, long couponId) throws SQLException {
+		String selectQuery = "SELECT cvc.purchased_at, c.company_id, c.category_id FROM customers_vs_coupons cvc " +
+				"JOIN coupons c ON c.id = cvc.coupon_id WHERE cvc.customer_id = ? AND cvc.coupon_id = ?";
 		String sqlQuery = "DELETE FROM customers_vs_coupons WHERE CUSTOMER_ID = ? AND COUPON_ID = ?";
+		String rollupQuery = "UPDATE coupon_sales_daily SET purchases = purchases - 1 " +
+				"WHERE company_id = ? AND sale_date = ? AND category_id = ? AND purchases > 0";
+
+		inTransaction(connection -> {
+			Timestamp purchasedAt = null;
+			long companyId = 0;
+			int categoryId = 0;
+			try (PreparedStatement selectStmt = connection.prepareStatement(selectQuery)) {
+				selectStmt.setLong(1, customerId);
+				selectStmt.setLong(2, couponId);
+				try (ResultSet resultSet = selectStmt.executeQuery()) {
+					if (resultSet.next()) {
+						purchasedAt = resultSet.getTimestamp("purchased_at");
+						companyId = resultSet.getLong("company_id");
+						categoryId = resultSet.getInt("category_id");
+					}
+				}
+			}
+
+			try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+				preparedStatement.setLong(1, customerId);
+				preparedStatement.setLong(2, couponId);
+				preparedStatement.execute();
+			}
+
+			// Purchases made before timestamps were recorded are not in the rollup
+			if (purchasedAt != null) {
+				try (PreparedStatement rollupStmt = connection.prepareStatement(rollupQuery)) {
+					rollupStmt.setLong(1, companyId);
+					rollupStmt.setDate(2, Date.valueOf(purchasedAt.toLocalDateTime().toLocalDate()));
+					rollupStmt.setInt(3, categoryId);
+					rollupStmt.executeUpdate();
+				}
+			}
+		});
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public ArrayList<DailyCategorySales> getCompanyDailySales(long companyId, LocalDate from, LocalDate to)
+			throws SQLException, CategoryNotFoundException {
+		ArrayList<DailyCategorySales> list = new ArrayList<>();
+		String sqlQuery = "SELECT sale_date, category_id, purchases FROM coupon_sales_daily " +
+				"WHERE company_id = ? AND sale_date BETWEEN ? AND ? AND purchases > 0 " +
+				"ORDER BY sale_date, category_id";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, customerId);
-			preparedStatement.setInt(2, couponId);
-			preparedStatement.execute();
+			preparedStatement.setLong(1, companyId);
+			preparedStatement.setDate(2, Date.valueOf(from));
+			preparedStatement.setDate(3, Date.valueOf(to));
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					list.add(new DailyCategorySales(
+							resultSet.getDate("sale_date").toLocalDate(),
+							Category.getCategory(resultSet.getInt("category_id")),
+							resultSet.getInt("purchases")));
+				}
+			}
 		}
+		return list;
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public Map<Category, Integer> getCompanySalesByCategory(long companyId, LocalDate from, LocalDate to)
+			throws SQLException, CategoryNotFoundException {
+		Map<Category, Integer> totals = new EnumMap<>(Category.class);
+		String sqlQuery = "SELECT category_id, SUM(purchases) AS purchases FROM coupon_sales_daily " +
+				"WHERE company_id = ? AND sale_date BETWEEN ? AND ? " +
+				"GROUP BY category_id HAVING SUM(purchases) > 0";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setLong(1, companyId);
+			preparedStatement.setDate(2, Date.valueOf(from));
+			preparedStatement.setDate(3, Date.valueOf(to));
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					totals.put(Category.getCategory(resultSet.getInt("category_id")), resultSet.getInt("purchases"));
+				}
+			}
+		}
+		return totals;
+	}
+
+	@Override
+	@ReadOnlyQuery
+	public void scanCouponColumns(CouponColumnConsumer consumer) throws SQLException, CategoryNotFoundException {
+		String sqlQuery = "SELECT company_id, category_id, end_date, amount, price FROM coupons";
+		try (Connection connection = dataSource.getConnection()) {
+			// PostgreSQL only honours the fetch size (streams through a cursor) outside autocommit
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.setFetchSize(SCAN_FETCH_SIZE);
+				try (ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+					while (resultSet.next()) {
+						consumer.accept(resultSet.getLong(1), resultSet.getInt(2),
+								(int) resultSet.getDate(3).toLocalDate().toEpochDay(),
+								resultSet.getInt(4), resultSet.getDouble(5));
+					}
+				}
+				connection.commit();
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	/**
+	 * Runs the work on one connection in a local transaction. The DAOs take plain connections
+	 * from the DataSource, so this (not a facade's @Transactional) is what makes a mutation,
+	 * its rollups and its outbox event commit or roll back together.
+	 */
+	private void inTransaction(TransactionWork work) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				work.execute(connection);
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface TransactionWork {
+		void execute(Connection connection) throws SQLException;
+	}
+
+	private void appendCouponEvent(Connection connection, CouponEventType type, long couponId, long companyId,
+	                               int categoryId, double price, Long customerId) throws SQLException {
+		OutboxWriter.append(connection, CouponEventType.AGGREGATE_TYPE, couponId, type.name(),
+				CouponEventType.payload(couponId, companyId, categoryId, price, customerId));
 	}
 
 	/**
-	 * Maps a ResultSet row to a Coupon object.
-	 *
-	 * @param resultSet the ResultSet positioned at a valid row
-	 * @return a Coupon object populated from the current ResultSet row
-	 * @throws SQLException if a database access error occurs or column is not found
-	 * @throws CategoryNotFoundException if the category ID is invalid
+	 * Maps the current row of a query that selects COUPON_COLUMNS. Columns are read by index:
+	 * by-name access makes the driver search the column labels for every value.
 	 */
-	private Coupon mapResultSetToCoupon(ResultSet resultSet) throws SQLException, CategoryNotFoundException {
+	static Coupon mapRow(ResultSet resultSet) throws SQLException, CategoryNotFoundException {
 		return new Coupon(
-				resultSet.getInt("id"),
-				resultSet.getInt("company_id"),
-				Category.getCategory(resultSet.getInt("category_id")),
-				resultSet.getString("title"),
-				resultSet.getString("description"),
-				resultSet.getDate("start_date"),
-				resultSet.getDate("end_date"),
-				resultSet.getInt("amount"),
-				resultSet.getDouble("price"),
-				resultSet.getString("image"));
+				resultSet.getLong(1),
+				resultSet.getLong(2),
+				Category.getCategory(resultSet.getInt(3)),
+				resultSet.getString(4),
+				resultSet.getString(5),
+				resultSet.getDate(6),
+				resultSet.getDate(7),
+				resultSet.getInt(8),
+				resultSet.getDouble(9),
+				resultSet.getString(10));
 	}
 }
@@ -1,39 +1,157 @@
 package com.jhf.coupon.sql.dao.coupon;
 
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.sql.dao.RowHandler;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface CouponsDAO {
 
 	boolean couponExists(Coupon coupon) throws SQLException;
 
+	/**
+	 * Inserts a coupon with a new ID from the IdGenerator, set on the coupon before the insert.
+	 */
 	void addCoupon(Coupon coupon) throws SQLException;
 
+	/**
+	 * Inserts coupons in one transaction, as one JDBC batch of rows plus one batch of outbox
+	 * events. Each coupon gets its new ID set.
+	 */
+	void addCoupons(List<Coupon> coupons) throws SQLException;
+
 	void updateCoupon(Coupon coupon) throws SQLException;
 
-	void deleteCoupon(int couponID) throws SQLException;
+	void deleteCoupon(long couponID) throws SQLException;
 
 	ArrayList<Coupon> getAllCoupons() throws SQLException, CategoryNotFoundException;
 
-	Coupon getCoupon(int couponID) throws SQLException, CategoryNotFoundException;
-
-	ArrayList<Coupon> getCompanyCoupons(int companyId) throws SQLException, CategoryNotFoundException;
+	/**
+	 * @return Highest coupon ID, or 0 if there are no coupons
+	 */
+	long getMaxCouponId() throws SQLException;
+
+	/**
+	 * Gets the coupons with the most purchases (index-only scan of idx_customers_vs_coupons_coupon).
+	 *
+	 * @param limit Maximum number of coupons
+	 * @return Coupon ID to number of purchases, most purchased first
+	 */
+	LinkedHashMap<Long, Integer> getMostPurchasedCoupons(int limit) throws SQLException;
+
+	/**
+	 * Gets IDs of coupons that ended before a day, within an ID range (uses idx_coupons_end_date).
+	 *
+	 * @param before Coupons whose end date is before this day
+	 * @param fromId First ID (inclusive)
+	 * @param toId Last ID (inclusive)
+	 * @return Matching IDs in ascending order
+	 */
+	ArrayList<Long> getExpiredCouponIds(LocalDate before, long fromId, long toId) throws SQLException;
+
+	/**
+	 * Streams every coupon to the handler while the query is open, one row in memory at a time.
+	 */
+	void forEachCoupon(RowHandler<Coupon> handler) throws SQLException, CategoryNotFoundException, IOException;
+
+	Coupon getCoupon(long couponID) throws SQLException, CategoryNotFoundException;
+
+	/**
+	 * Checks which of several coupons exist, with one query.
+	 *
+	 * @return The given IDs that have a coupon
+	 */
+	Set<Long> getExistingCouponIds(Collection<Long> couponIds) throws SQLException;
+
+	ArrayList<Coupon> getCompanyCoupons(long companyId) throws SQLException, CategoryNotFoundException;
 
 	ArrayList<Coupon> getCompanyCoupons(Company company, Category CATEGORY) throws SQLException, CategoryNotFoundException;
 
 	ArrayList<Coupon> getCompanyCoupons(Company company, double maxPrice) throws SQLException, CategoryNotFoundException;
 
-	public boolean customerCouponPurchaseExists(int customerId, int couponId) throws SQLException;
-
-	void addCouponPurchase(int customerId, int couponId) throws SQLException;
+	ArrayList<Coupon> getCompanyCoupons(long companyId, Category CATEGORY) throws SQLException, CategoryNotFoundException;
+
+	ArrayList<Coupon> getCompanyCoupons(long companyId, double maxPrice) throws SQLException, CategoryNotFoundException;
+
+	public boolean customerCouponPurchaseExists(long customerId, long couponId) throws SQLException;
+
+	/**
+	 * Records a purchase with its timestamp, decrements the coupon stock and increments the
+	 * coupon_sales_daily rollup, all in one local transaction. The stock is decremented only
+	 * while it is above zero, so concurrent buyers of the last units cannot oversell.
+	 *
+	 * @return false if the coupon was out of stock (nothing is written)
+	 */
+	boolean addCouponPurchase(long customerId, long couponId) throws SQLException;
+
+	/**
+	 * Buys several coupons for one customer in one local transaction: all of them or none.
+	 * Ownership is checked with one query for the whole cart, stock is decremented in ascending
+	 * coupon ID order (so concurrent carts lock shared coupons in the same order and cannot
+	 * deadlock) and the purchases, rollup increments and events are written in batches.
+	 *
+	 * @param couponIds Coupons to buy; duplicates are ignored
+	 * @return One result per distinct coupon, in ascending coupon ID order. Either all are
+	 * PURCHASED or nothing was written and the failed coupons carry the reason.
+	 */
+	List<CartItemResult> addCouponPurchases(long customerId, Collection<Long> couponIds) throws SQLException;
 
 	public ArrayList<Coupon> getCustomerCoupons(Customer customer) throws SQLException, CategoryNotFoundException;
 
-	void deleteCouponPurchase(int customerId, int couponId) throws SQLException;
+	/**
+	 * Gets all coupons purchased by a customer in a single query (join on customers_vs_coupons).
+	 *
+	 * @param customerId Customer ID
+	 * @return Purchased coupons
+	 */
+	ArrayList<Coupon> getCustomerCoupons(long customerId) throws SQLException, CategoryNotFoundException;
+
+	/**
+	 * Deletes a purchase and decrements the rollup for the day it was made.
+	 * Purchases recorded before timestamps existed are not part of the rollup.
+	 */
+	void deleteCouponPurchase(long customerId, long couponId) throws SQLException;
+
+	/**
+	 * Gets coupons sold per day and category for a company, read from the rollup
+	 * (O(days x categories), independent of the number of purchases).
+	 *
+	 * @param companyId Company ID
+	 * @param from First day (inclusive)
+	 * @param to Last day (inclusive)
+	 * @return Rows with at least one purchase, ordered by day then category
+	 */
+	ArrayList<DailyCategorySales> getCompanyDailySales(long companyId, LocalDate from, LocalDate to) throws SQLException, CategoryNotFoundException;
+
+	/**
+	 * Gets total coupons sold per category for a company over a date range, read from the rollup.
+	 *
+	 * @param companyId Company ID
+	 * @param from First day (inclusive)
+	 * @param to Last day (inclusive)
+	 * @return Purchases per category (categories without sales are omitted)
+	 */
+	Map<Category, Integer> getCompanySalesByCategory(long companyId, LocalDate from, LocalDate to) throws SQLException, CategoryNotFoundException;
+
+	/**
+	 * Streams company, category, end date, stock and price of every coupon to the consumer,
+	 * without building Coupon objects. Used to rebuild the reporting snapshot.
+	 *
+	 * @param consumer Called once per row, in no particular order
+	 */
+	void scanCouponColumns(CouponColumnConsumer consumer) throws SQLException, CategoryNotFoundException;
 }
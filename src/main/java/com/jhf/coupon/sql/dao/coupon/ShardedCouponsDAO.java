@@ -0,0 +1,445 @@
+package com.jhf.coupon.sql.dao.coupon;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jhf.coupon.backend.beans.CartItemResult;
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.sharding.ConsistentHashRing;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * CouponsDAO over several databases, each holding the coupons (with their purchases, sales
+ * rollup and outbox events) of the companies the ConsistentHashRing assigns to it.
+ *
+ * <ul>
+ *   <li>Company-scoped calls (add, update, company coupons, sales reports) go to the company's shard.</li>
+ *   <li>Calls by coupon ID go to the coupon's shard. The shard of each coupon added through
+ *       this DAO or found by an earlier lookup is cached; otherwise every shard is probed in
+ *       parallel. Coupon IDs must therefore be unique across shards and never reused (they come
+ *       from the IdGenerator), and a coupon never changes company.</li>
+ *   <li>Cross-company reads (all coupons, a customer's purchases, expired IDs) fan out to every
+ *       shard in parallel and merge the results.</li>
+ *   <li>Streaming scans (forEachCoupon, scanCouponColumns) visit the shards one after another,
+ *       because their handlers are not thread-safe.</li>
+ * </ul>
+ * Shard 0 is the primary database and is always queried on the calling thread, so its DAO keeps
+ * the caller's transaction, replica routing and security context; the other shards run on the
+ * fan-out executor.
+ */
+public class ShardedCouponsDAO implements CouponsDAO, DisposableBean {
+	private final ConsistentHashRing ring;
+	private final List<CouponsDAO> shards;
+	private final ExecutorService fanOut;
+	// Coupon ID -> shard index
+	private final Cache<Long, Integer> couponShards;
+
+	public ShardedCouponsDAO(ConsistentHashRing ring, List<CouponsDAO> shards, ExecutorService fanOut) {
+		this(ring, shards, fanOut, 100_000);
+	}
+
+	/**
+	 * @param ring Ring over the shard names, in the same order as shards
+	 * @param shards One DAO per shard, the primary database's first
+	 * @param fanOut Runs the queries of shards 1..n; shut down with this DAO
+	 * @param locationCacheSize Coupon IDs whose shard is remembered
+	 */
+	public ShardedCouponsDAO(ConsistentHashRing ring, List<CouponsDAO> shards, ExecutorService fanOut,
+	                         long locationCacheSize) {
+		if (ring.size() != shards.size()) {
+			throw new IllegalArgumentException("Ring has " + ring.size() + " shards but " + shards.size() + " DAOs were given");
+		}
+		this.ring = ring;
+		this.shards = List.copyOf(shards);
+		this.fanOut = fanOut;
+		this.couponShards = Caffeine.newBuilder()
+				.maximumSize(locationCacheSize)
+				.build();
+	}
+
+	/**
+	 * @return DAO of the shard holding a company
+	 */
+	public CouponsDAO shardFor(long companyId) {
+		return shards.get(ring.shardFor(companyId));
+	}
+
+	@Override
+	public void destroy() {
+		fanOut.shutdownNow();
+	}
+
+	@Override
+	public boolean couponExists(@NotNull Coupon coupon) throws SQLException {
+		return shardFor(coupon.getCompanyID()).couponExists(coupon);
+	}
+
+	@Override
+	public void addCoupon(@NotNull Coupon coupon) throws SQLException {
+		int shard = ring.shardFor(coupon.getCompanyID());
+		shards.get(shard).addCoupon(coupon);
+		couponShards.put(coupon.getId(), shard);
+	}
+
+	@Override
+	public void addCoupons(@NotNull List<Coupon> coupons) throws SQLException {
+		Map<Integer, List<Coupon>> byShard = new LinkedHashMap<>();
+		for (Coupon coupon : coupons) {
+			byShard.computeIfAbsent(ring.shardFor(coupon.getCompanyID()), shard -> new ArrayList<>()).add(coupon);
+		}
+		for (Map.Entry<Integer, List<Coupon>> shardCoupons : byShard.entrySet()) {
+			shards.get(shardCoupons.getKey()).addCoupons(shardCoupons.getValue());
+			for (Coupon coupon : shardCoupons.getValue()) {
+				couponShards.put(coupon.getId(), shardCoupons.getKey());
+			}
+		}
+	}
+
+	@Override
+	public void updateCoupon(@NotNull Coupon coupon) throws SQLException {
+		shardFor(coupon.getCompanyID()).updateCoupon(coupon);
+	}
+
+	@Override
+	public void deleteCoupon(long couponID) throws SQLException {
+		int shard = locate(couponID);
+		if (shard >= 0) {
+			shards.get(shard).deleteCoupon(couponID);
+			couponShards.invalidate(couponID);
+		}
+	}
+
+	@Override
+	public ArrayList<Coupon> getAllCoupons() throws SQLException, CategoryNotFoundException {
+		ArrayList<Coupon> merged = new ArrayList<>();
+		for (ArrayList<Coupon> coupons : scatter(CouponsDAO::getAllCoupons)) {
+			merged.addAll(coupons);
+		}
+		return merged;
+	}
+
+	@Override
+	public LinkedHashMap<Long, Integer> getMostPurchasedCoupons(int limit) throws SQLException {
+		List<Map.Entry<Long, Integer>> entries = new ArrayList<>();
+		for (LinkedHashMap<Long, Integer> shardTop : scatterSql(shard -> shard.getMostPurchasedCoupons(limit))) {
+			entries.addAll(shardTop.entrySet());
+		}
+		entries.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+				.thenComparing(Map.Entry.comparingByKey()));
+		LinkedHashMap<Long, Integer> top = new LinkedHashMap<>();
+		for (Map.Entry<Long, Integer> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+			top.put(entry.getKey(), entry.getValue());
+		}
+		return top;
+	}
+
+	@Override
+	public long getMaxCouponId() throws SQLException {
+		long max = 0;
+		for (long shardMax : scatterSql(CouponsDAO::getMaxCouponId)) {
+			max = Math.max(max, shardMax);
+		}
+		return max;
+	}
+
+	@Override
+	public ArrayList<Long> getExpiredCouponIds(LocalDate before, long fromId, long toId) throws SQLException {
+		ArrayList<Long> merged = new ArrayList<>();
+		for (ArrayList<Long> ids : scatterSql(shard -> shard.getExpiredCouponIds(before, fromId, toId))) {
+			merged.addAll(ids);
+		}
+		merged.sort(null);
+		return merged;
+	}
+
+	@Override
+	public void forEachCoupon(RowHandler<Coupon> handler) throws SQLException, CategoryNotFoundException, IOException {
+		for (CouponsDAO shard : shards) {
+			shard.forEachCoupon(handler);
+		}
+	}
+
+	@Override
+	public Coupon getCoupon(long couponID) throws SQLException, CategoryNotFoundException {
+		Integer cached = couponShards.getIfPresent(couponID);
+		if (cached != null) {
+			return shards.get(cached).getCoupon(couponID);
+		}
+		List<Coupon> found = scatter(shard -> findCoupon(shard, couponID));
+		int shard = shardOf(couponID, found);
+		if (shard < 0) {
+			throw new CouponNotFoundException("Could not find Coupon with id: " + couponID);
+		}
+		return found.get(shard);
+	}
+
+	@Override
+	public Set<Long> getExistingCouponIds(@NotNull Collection<Long> couponIds) throws SQLException {
+		return new HashSet<>(locateAll(couponIds).keySet());
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(long companyId) throws SQLException, CategoryNotFoundException {
+		return shardFor(companyId).getCompanyCoupons(companyId);
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, @NotNull Category CATEGORY) throws SQLException, CategoryNotFoundException {
+		return shardFor(company.getId()).getCompanyCoupons(company, CATEGORY);
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, double maxPrice) throws SQLException, CategoryNotFoundException {
+		return shardFor(company.getId()).getCompanyCoupons(company, maxPrice);
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, @NotNull Category CATEGORY) throws SQLException, CategoryNotFoundException {
+		return shardFor(companyId).getCompanyCoupons(companyId, CATEGORY);
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, double maxPrice) throws SQLException, CategoryNotFoundException {
+		return shardFor(companyId).getCompanyCoupons(companyId, maxPrice);
+	}
+
+	@Override
+	public boolean customerCouponPurchaseExists(long customerId, long couponId) throws SQLException {
+		int shard = locate(couponId);
+		return shard >= 0 && shards.get(shard).customerCouponPurchaseExists(customerId, couponId);
+	}
+
+	@Override
+	public boolean addCouponPurchase(long customerId, long couponId) throws SQLException {
+		int shard = locate(couponId);
+		return shard >= 0 && shards.get(shard).addCouponPurchase(customerId, couponId);
+	}
+
+	/**
+	 * Checks out the cart on the shard holding its coupons, in one transaction there. The
+	 * coupons' shards are found with one query per shard for those not already cached. A cart
+	 * whose coupons are on different shards (coupons of companies on different shards) is
+	 * rejected before anything is written: its coupons are CROSS_SHARD, as no single
+	 * transaction covers them. Coupons found on no shard are NOT_FOUND, which also fails the
+	 * cart before anything is written.
+	 */
+	@Override
+	public List<CartItemResult> addCouponPurchases(long customerId, @NotNull Collection<Long> couponIds) throws SQLException {
+		TreeSet<Long> ids = new TreeSet<>(couponIds);
+		Map<Long, Integer> located = locateAll(ids);
+		TreeSet<Integer> cartShards = new TreeSet<>(located.values());
+		if (located.size() == ids.size() && cartShards.size() == 1) {
+			return shards.get(cartShards.first()).addCouponPurchases(customerId, ids);
+		}
+
+		List<CartItemResult> results = new ArrayList<>(ids.size());
+		for (long couponId : ids) {
+			results.add(new CartItemResult(couponId, !located.containsKey(couponId) ? CartItemResult.Status.NOT_FOUND
+					: cartShards.size() > 1 ? CartItemResult.Status.CROSS_SHARD : CartItemResult.Status.NOT_PURCHASED));
+		}
+		return results;
+	}
+
+	@Override
+	public ArrayList<Coupon> getCustomerCoupons(@NotNull Customer customer) throws SQLException, CategoryNotFoundException {
+		return getCustomerCoupons(customer.getId());
+	}
+
+	@Override
+	public ArrayList<Coupon> getCustomerCoupons(long customerId) throws SQLException, CategoryNotFoundException {
+		ArrayList<Coupon> merged = new ArrayList<>();
+		for (ArrayList<Coupon> coupons : scatter(shard -> shard.getCustomerCoupons(customerId))) {
+			merged.addAll(coupons);
+		}
+		merged.sort(Comparator.comparingLong(Coupon::getId));
+		return merged;
+	}
+
+	@Override
+	public void deleteCouponPurchase(long customerId, long couponId) throws SQLException {
+		int shard = locate(couponId);
+		if (shard >= 0) {
+			shards.get(shard).deleteCouponPurchase(customerId, couponId);
+		}
+	}
+
+	@Override
+	public ArrayList<DailyCategorySales> getCompanyDailySales(long companyId, LocalDate from, LocalDate to)
+			throws SQLException, CategoryNotFoundException {
+		return shardFor(companyId).getCompanyDailySales(companyId, from, to);
+	}
+
+	@Override
+	public Map<Category, Integer> getCompanySalesByCategory(long companyId, LocalDate from, LocalDate to)
+			throws SQLException, CategoryNotFoundException {
+		return shardFor(companyId).getCompanySalesByCategory(companyId, from, to);
+	}
+
+	@Override
+	public void scanCouponColumns(CouponColumnConsumer consumer) throws SQLException, CategoryNotFoundException {
+		for (CouponsDAO shard : shards) {
+			shard.scanCouponColumns(consumer);
+		}
+	}
+
+	@FunctionalInterface
+	private interface ShardQuery<T> {
+		T query(CouponsDAO shard) throws SQLException, CategoryNotFoundException;
+	}
+
+	@FunctionalInterface
+	private interface ShardSqlQuery<T> {
+		T query(CouponsDAO shard) throws SQLException;
+	}
+
+	private static Coupon findCoupon(CouponsDAO shard, long couponId) throws SQLException, CategoryNotFoundException {
+		try {
+			return shard.getCoupon(couponId);
+		} catch (CouponNotFoundException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return Index of the shard holding a coupon, or -1 if no shard has it
+	 */
+	private int locate(long couponId) throws SQLException {
+		Integer cached = couponShards.getIfPresent(couponId);
+		if (cached != null) {
+			return cached;
+		}
+		try {
+			return shardOf(couponId, scatter(shard -> findCoupon(shard, couponId)));
+		} catch (CategoryNotFoundException e) {
+			throw new SQLException("Coupon " + couponId + " has an unknown category", e);
+		}
+	}
+
+	/**
+	 * Finds the shards of several coupons: cached ones directly, the others with one query on
+	 * every shard for all of them.
+	 *
+	 * @return Shard index by coupon ID, for the coupons that exist
+	 */
+	private Map<Long, Integer> locateAll(Collection<Long> couponIds) throws SQLException {
+		Map<Long, Integer> located = new HashMap<>();
+		List<Long> unknown = new ArrayList<>();
+		for (long couponId : couponIds) {
+			Integer cached = couponShards.getIfPresent(couponId);
+			if (cached != null) {
+				located.put(couponId, cached);
+			} else {
+				unknown.add(couponId);
+			}
+		}
+		if (unknown.isEmpty()) {
+			return located;
+		}
+		List<Set<Long>> found = scatterSql(shard -> shard.getExistingCouponIds(unknown));
+		for (int shard = 0; shard < found.size(); shard++) {
+			for (long couponId : found.get(shard)) {
+				Integer other = located.putIfAbsent(couponId, shard);
+				if (other != null) {
+					throw new IllegalStateException("Coupon ID " + couponId + " exists on shards "
+							+ ring.getShards().get(other) + " and " + ring.getShards().get(shard));
+				}
+				couponShards.put(couponId, shard);
+			}
+		}
+		return located;
+	}
+
+	/**
+	 * Records the shard where a probe of every shard found a coupon.
+	 *
+	 * @param found The coupon as found on each shard, null where it is missing
+	 * @return Index of the shard holding the coupon, or -1 if no shard has it
+	 */
+	private int shardOf(long couponId, List<Coupon> found) {
+		int shard = -1;
+		for (int i = 0; i < found.size(); i++) {
+			if (found.get(i) == null) {
+				continue;
+			}
+			if (shard >= 0) {
+				throw new IllegalStateException("Coupon ID " + couponId + " exists on shards "
+						+ ring.getShards().get(shard) + " and " + ring.getShards().get(i));
+			}
+			shard = i;
+		}
+		if (shard >= 0) {
+			couponShards.put(couponId, shard);
+		}
+		return shard;
+	}
+
+	private <T> List<T> scatterSql(ShardSqlQuery<T> query) throws SQLException {
+		try {
+			return scatter(query::query);
+		} catch (CategoryNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Runs a query on every shard: shards 1..n on the fan-out executor, shard 0 on this thread.
+	 *
+	 * @return One result per shard, in shard order
+	 */
+	private <T> List<T> scatter(ShardQuery<T> query) throws SQLException, CategoryNotFoundException {
+		List<Future<T>> futures = new ArrayList<>(shards.size() - 1);
+		for (CouponsDAO shard : shards.subList(1, shards.size())) {
+			futures.add(fanOut.submit(() -> query.query(shard)));
+		}
+		try {
+			List<T> results = new ArrayList<>(shards.size());
+			results.add(query.query(shards.get(0)));
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for shard results", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException sqlException) {
+				throw sqlException;
+			}
+			if (cause instanceof CategoryNotFoundException categoryNotFound) {
+				throw categoryNotFound;
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new SQLException("Shard query failed", cause);
+		} finally {
+			for (Future<T> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+}
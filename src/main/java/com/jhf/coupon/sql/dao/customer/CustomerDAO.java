@@ -2,8 +2,12 @@ package com.jhf.coupon.sql.dao.customer;
 
 import com.jhf.coupon.backend.beans.AccountLockoutStatus;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
+import com.jhf.coupon.sql.dao.RowHandler;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 public interface CustomerDAO {
@@ -12,15 +16,23 @@ public interface CustomerDAO {
 
 	boolean isCustomerEmailExists(String customerEmail) throws SQLException;
 
+	/**
+	 * Inserts a customer with a new ID from the IdGenerator, set on the customer before the insert.
+	 */
 	void addCustomer(Customer customer) throws SQLException;
 
 	void updateCustomer(Customer customer) throws SQLException;
 
-	void deleteCustomer(int customerID) throws SQLException;
+	void deleteCustomer(long customerID) throws SQLException;
 
 	ArrayList<Customer> getAllCustomers() throws SQLException;
 
-	Customer getCustomer(int customerID) throws SQLException;
+	/**
+	 * Streams every customer to the handler while the query is open, one row in memory at a time.
+	 */
+	void forEachCustomer(RowHandler<Customer> handler) throws SQLException, IOException;
+
+	Customer getCustomer(long customerID) throws SQLException;
 
 	Customer getCustomerByEmail(String email) throws SQLException;
 
@@ -68,4 +80,51 @@ public interface CustomerDAO {
 	 * @throws SQLException if database error occurs
 	 */
 	void unlockAccount(String email) throws SQLException;
+
+	/**
+	 * Unlocks every account whose lockout ended before the given time, in one statement
+	 * (uses idx_customers_account_locked). Permanent lockouts (no LOCKED_UNTIL) are left alone.
+	 *
+	 * @param now Current time
+	 * @return Number of accounts unlocked
+	 */
+	int unlockExpiredAccounts(LocalDateTime now) throws SQLException;
+
+	/**
+	 * Counts accounts that are locked at the given time, permanent lockouts included
+	 * (uses idx_customers_account_locked).
+	 *
+	 * @param now Current time
+	 * @return Number of locked accounts
+	 */
+	int countLockedAccounts(LocalDateTime now) throws SQLException;
+
+	/**
+	 * Authenticates a customer and records the outcome against the lockout columns.
+	 * Reads the password hash and lockout state in a single row read, then writes the
+	 * outcome back with at most one UPDATE (failed attempts are returned via RETURNING).
+	 * An expired lockout is cleared as part of the same write.
+	 *
+	 * @param email Customer email address
+	 * @param password Plaintext password to verify
+	 * @param maxAttempts Maximum allowed attempts before lockout
+	 * @param lockoutDurationMinutes Duration of lockout in minutes (0 = permanent)
+	 * @return LoginAttemptResult with the outcome and the resulting lockout status
+	 * @throws SQLException if database error occurs
+	 */
+	LoginAttemptResult authenticateAndTrack(String email, String password, int maxAttempts, int lockoutDurationMinutes)
+			throws SQLException;
+
+	/**
+	 * Replaces the stored password hash only if it still equals the expected hash.
+	 * Used to upgrade hashes created with an older cost factor without overwriting
+	 * a password that was changed concurrently.
+	 *
+	 * @param customerId Customer ID
+	 * @param expectedHash Hash the caller verified against
+	 * @param newHash Replacement hash
+	 * @return true if the hash was replaced
+	 * @throws SQLException if database error occurs
+	 */
+	boolean updatePasswordHash(long customerId, String expectedHash, String newHash) throws SQLException;
 }
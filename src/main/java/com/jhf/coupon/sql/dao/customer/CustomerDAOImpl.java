@@ -2,20 +2,36 @@ package com.jhf.coupon.sql.dao.customer;
 
 import com.jhf.coupon.backend.beans.AccountLockoutStatus;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
 import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import com.jhf.coupon.sql.routing.ReadOnlyQuery;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 @Repository
+@Profile("!memory")
 public class CustomerDAOImpl implements CustomerDAO {
+	// Lockout columns returned by the failed-attempt UPDATE
+	private static final String[] LOCKOUT_COLUMNS =
+			{"failed_login_attempts", "account_locked", "locked_until", "last_failed_login"};
+
+	private static final int STREAM_FETCH_SIZE = 500;
+
 	private final DataSource dataSource;
+	private final IdGenerator idGenerator;
 
-	public CustomerDAOImpl(DataSource dataSource) {
+	public CustomerDAOImpl(DataSource dataSource, IdGenerator idGenerator) {
 		this.dataSource = dataSource;
+		this.idGenerator = idGenerator;
 	}
 
 	public boolean isCustomerExists(String customerEmail, String customerPassword) throws SQLException {
@@ -50,15 +66,17 @@ public class CustomerDAOImpl implements CustomerDAO {
 	}
 
 	public void addCustomer(@NotNull Customer customer) throws SQLException {
-		String sqlQuery = "INSERT INTO customers (first_name, last_name, email, password) VALUES (?, ?, ?, ?)";
+		String sqlQuery = "INSERT INTO customers (id, first_name, last_name, email, password) VALUES (?, ?, ?, ?, ?)";
+		// Hash password with bcrypt before storing
+		String hashedPassword = PasswordHasher.hashPassword(customer.getPassword());
+		customer.setId(idGenerator.nextId());
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setString(1, customer.getFirstName());
-			preparedStatement.setString(2, customer.getLastName());
-			preparedStatement.setString(3, customer.getEmail());
-			// Hash password with bcrypt before storing
-			String hashedPassword = PasswordHasher.hashPassword(customer.getPassword());
-			preparedStatement.setString(4, hashedPassword);
+			preparedStatement.setLong(1, customer.getId());
+			preparedStatement.setString(2, customer.getFirstName());
+			preparedStatement.setString(3, customer.getLastName());
+			preparedStatement.setString(4, customer.getEmail());
+			preparedStatement.setString(5, hashedPassword);
 			preparedStatement.execute();
 		}
 	}
@@ -73,20 +91,21 @@ public class CustomerDAOImpl implements CustomerDAO {
 			// Hash password with bcrypt before storing
 			String hashedPassword = PasswordHasher.hashPassword(customer.getPassword());
 			preparedStatement.setString(4, hashedPassword);
-			preparedStatement.setInt(5, customer.getId());
+			preparedStatement.setLong(5, customer.getId());
 			preparedStatement.executeUpdate();
 		}
 	}
 
-	public void deleteCustomer(int customerID) throws SQLException {
+	public void deleteCustomer(long customerID) throws SQLException {
 		String sqlQuery = "DELETE FROM customers WHERE id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, customerID);
+			preparedStatement.setLong(1, customerID);
 			preparedStatement.executeUpdate();
 		}
 	}
 
+	@ReadOnlyQuery
 	public ArrayList<Customer> getAllCustomers() throws SQLException {
 		ArrayList<Customer> list = new ArrayList<>();
 		String sqlQuery = "SELECT * FROM customers";
@@ -100,11 +119,32 @@ public class CustomerDAOImpl implements CustomerDAO {
 		return list;
 	}
 
-	public Customer getCustomer(int customerID) throws SQLException {
+	@ReadOnlyQuery
+	public void forEachCustomer(RowHandler<Customer> handler) throws SQLException, IOException {
+		String sqlQuery = "SELECT * FROM customers";
+		try (Connection connection = dataSource.getConnection()) {
+			// PostgreSQL only honours the fetch size (streams through a cursor) outside autocommit
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.setFetchSize(STREAM_FETCH_SIZE);
+				try (ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+					while (resultSet.next()) {
+						handler.handle(mapResultSetToCustomer(resultSet));
+					}
+				}
+				connection.commit();
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	public Customer getCustomer(long customerID) throws SQLException {
 		String sqlQuery = "SELECT * FROM customers WHERE id = ?";
 		try (Connection connection = dataSource.getConnection();
 		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
-			preparedStatement.setInt(1, customerID);
+			preparedStatement.setLong(1, customerID);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				if (resultSet.next()) {
 					return mapResultSetToCustomer(resultSet);
@@ -141,7 +181,7 @@ public class CustomerDAOImpl implements CustomerDAO {
 	 */
 	private Customer mapResultSetToCustomer(ResultSet resultSet) throws SQLException {
 		return new Customer(
-				resultSet.getInt("id"),
+				resultSet.getLong("id"),
 				resultSet.getString("first_name"),
 				resultSet.getString("last_name"),
 				resultSet.getString("email"),
@@ -162,20 +202,7 @@ public class CustomerDAOImpl implements CustomerDAO {
 
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				if (resultSet.next()) {
-					AccountLockoutStatus status = new AccountLockoutStatus();
-					status.setAccountLocked(resultSet.getBoolean("account_locked"));
-					status.setFailedLoginAttempts(resultSet.getInt("failed_login_attempts"));
-
-					// Handle TIMESTAMP to LocalDateTime conversion
-					Timestamp lockedUntilTs = resultSet.getTimestamp("locked_until");
-					status.setLockedUntil(lockedUntilTs != null ?
-							lockedUntilTs.toLocalDateTime() : null);
-
-					Timestamp lastFailedTs = resultSet.getTimestamp("last_failed_login");
-					status.setLastFailedLogin(lastFailedTs != null ?
-							lastFailedTs.toLocalDateTime() : null);
-
-					return status;
+					return mapResultSetToLockoutStatus(resultSet);
 				}
 				return null; // Customer not found
 			}
@@ -232,9 +259,182 @@ public class CustomerDAOImpl implements CustomerDAO {
 		}
 	}
 
+	@Override
+	public int unlockExpiredAccounts(LocalDateTime now) throws SQLException {
+		String sqlQuery = "UPDATE customers SET " +
+				"failed_login_attempts = 0, " +
+				"account_locked = FALSE, " +
+				"locked_until = NULL " +
+				"WHERE account_locked = TRUE AND locked_until < ?";
+
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(now));
+			return preparedStatement.executeUpdate();
+		}
+	}
+
+	@Override
+	public int countLockedAccounts(LocalDateTime now) throws SQLException {
+		String sqlQuery = "SELECT COUNT(*) FROM customers " +
+				"WHERE account_locked = TRUE AND (locked_until IS NULL OR locked_until > ?)";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(now));
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getInt(1);
+			}
+		}
+	}
+
 	@Override
 	public void unlockAccount(String email) throws SQLException {
 		// Same implementation as resetFailedLoginAttempts
 		resetFailedLoginAttempts(email);
 	}
+
+	@Override
+	public LoginAttemptResult authenticateAndTrack(String email, String password, int maxAttempts,
+	                                               int lockoutDurationMinutes) throws SQLException {
+		String sqlQuery = "SELECT id, password, account_locked, failed_login_attempts, " +
+				"locked_until, last_failed_login " +
+				"FROM customers WHERE email = ?";
+
+		try (Connection connection = dataSource.getConnection()) {
+			long customerId;
+			String storedPasswordHash;
+			AccountLockoutStatus status;
+
+			// 1. Single row read: password hash and lockout columns together
+			try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+				preparedStatement.setString(1, email);
+				try (ResultSet resultSet = preparedStatement.executeQuery()) {
+					if (!resultSet.next()) {
+						return new LoginAttemptResult(LoginAttemptResult.Outcome.NOT_FOUND, 0, null);
+					}
+					customerId = resultSet.getLong("id");
+					storedPasswordHash = resultSet.getString("password");
+					status = mapResultSetToLockoutStatus(resultSet);
+				}
+			}
+
+			// 2. Locked accounts are rejected without verifying the password or writing anything
+			if (status.isCurrentlyLocked()) {
+				return new LoginAttemptResult(LoginAttemptResult.Outcome.LOCKED, customerId, status);
+			}
+			boolean lockoutExpired = status.isLockoutExpired();
+
+			// 3. Verify password using bcrypt
+			boolean passwordMatches = password != null && !password.isEmpty()
+					&& PasswordHasher.verifyPassword(password, storedPasswordHash);
+
+			if (passwordMatches) {
+				// 4. Reset only when there is something to reset (clean logins do no write). An expired
+				// lockout is left to LockoutExpirySweepJob; the next failure restarts the counter anyway
+				if (!lockoutExpired && status.getFailedLoginAttempts() > 0) {
+					resetFailedLoginAttempts(connection, customerId);
+				}
+				// Hashes below the current cost are handed back so the caller can upgrade them
+				String hashToUpgrade = PasswordHasher.needsRehash(storedPasswordHash) ? storedPasswordHash : null;
+				return new LoginAttemptResult(LoginAttemptResult.Outcome.SUCCESS, customerId,
+						new AccountLockoutStatus(false, 0, null, status.getLastFailedLogin()), hashToUpgrade);
+			}
+
+			// 5. Record the failure (an expired lockout restarts the counter) and read the new state back
+			AccountLockoutStatus updatedStatus = recordFailedLoginAttempt(connection, customerId,
+					lockoutExpired, maxAttempts, lockoutDurationMinutes);
+			return new LoginAttemptResult(LoginAttemptResult.Outcome.FAILURE, customerId, updatedStatus);
+		}
+	}
+
+	@Override
+	public boolean updatePasswordHash(long customerId, String expectedHash, String newHash) throws SQLException {
+		String sqlQuery = "UPDATE customers SET password = ? WHERE id = ? AND password = ?";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setString(1, newHash);
+			preparedStatement.setLong(2, customerId);
+			preparedStatement.setString(3, expectedHash);
+			return preparedStatement.executeUpdate() > 0;
+		}
+	}
+
+	/**
+	 * Increments the failed login counter by primary key and returns the updated lockout columns
+	 * in the same round trip (UPDATE ... RETURNING on PostgreSQL, generated keys on H2).
+	 */
+	private AccountLockoutStatus recordFailedLoginAttempt(Connection connection, long customerId, boolean restartCount,
+	                                                      int maxAttempts, int lockoutDurationMinutes)
+			throws SQLException {
+		// Calculate lockout timestamp in Java for database compatibility (H2 and PostgreSQL)
+		Timestamp lockoutTimestamp = null;
+		if (lockoutDurationMinutes > 0) {
+			long lockoutMillis = System.currentTimeMillis() + (lockoutDurationMinutes * 60L * 1000L);
+			lockoutTimestamp = new Timestamp(lockoutMillis);
+		}
+
+		String newAttempts = "(CASE WHEN ? THEN 1 ELSE failed_login_attempts + 1 END)";
+		String sqlQuery = "UPDATE customers SET " +
+				"failed_login_attempts = " + newAttempts + ", " +
+				"last_failed_login = CURRENT_TIMESTAMP, " +
+				"account_locked = CASE WHEN " + newAttempts + " >= ? THEN TRUE ELSE FALSE END, " +
+				"locked_until = CASE WHEN " + newAttempts + " >= ? THEN CAST(? AS TIMESTAMP) ELSE NULL END " +
+				"WHERE id = ?";
+
+		try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery, LOCKOUT_COLUMNS)) {
+			preparedStatement.setBoolean(1, restartCount);
+			preparedStatement.setBoolean(2, restartCount);
+			preparedStatement.setInt(3, maxAttempts);
+			preparedStatement.setBoolean(4, restartCount);
+			preparedStatement.setInt(5, maxAttempts);
+			preparedStatement.setTimestamp(6, lockoutTimestamp);
+			preparedStatement.setLong(7, customerId);
+			preparedStatement.executeUpdate();
+
+			try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+				if (resultSet.next()) {
+					return mapResultSetToLockoutStatus(resultSet);
+				}
+				return null; // Row deleted concurrently
+			}
+		}
+	}
+
+	private void resetFailedLoginAttempts(Connection connection, long customerId) throws SQLException {
+		String sqlQuery = "UPDATE customers SET " +
+				"failed_login_attempts = 0, " +
+				"account_locked = FALSE, " +
+				"locked_until = NULL " +
+				"WHERE id = ?";
+
+		try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setLong(1, customerId);
+			preparedStatement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Maps the lockout columns of a ResultSet row to an AccountLockoutStatus object.
+	 *
+	 * @param resultSet the ResultSet positioned at a valid row
+	 * @return an AccountLockoutStatus populated from the current ResultSet row
+	 * @throws SQLException if a database access error occurs or column is not found
+	 */
+	private AccountLockoutStatus mapResultSetToLockoutStatus(ResultSet resultSet) throws SQLException {
+		AccountLockoutStatus status = new AccountLockoutStatus();
+		status.setAccountLocked(resultSet.getBoolean("account_locked"));
+		status.setFailedLoginAttempts(resultSet.getInt("failed_login_attempts"));
+
+		// Handle TIMESTAMP to LocalDateTime conversion
+		Timestamp lockedUntilTs = resultSet.getTimestamp("locked_until");
+		status.setLockedUntil(lockedUntilTs != null ?
+				lockedUntilTs.toLocalDateTime() : null);
+
+		Timestamp lastFailedTs = resultSet.getTimestamp("last_failed_login");
+		status.setLastFailedLogin(lastFailedTs != null ?
+				lastFailedTs.toLocalDateTime() : null);
+
+		return status;
+	}
 }
@@ -0,0 +1,35 @@
+package com.jhf.coupon.sql.dao.job;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Leases on job shards in the job_leases table. A lease is held by one instance until it
+ * expires; the holder can renew it at any time, other instances only once it has expired.
+ * Times come from the callers' clocks, so leases should be long compared to clock skew.
+ */
+public interface JobLeaseDAO {
+
+	/**
+	 * Takes or renews the lease on a job shard.
+	 *
+	 * @param jobName Job name
+	 * @param shard Shard index
+	 * @param owner Instance ID of the caller
+	 * @param now Current time; leases that ended before it are free
+	 * @param leaseUntil End of the new lease
+	 * @return true if the caller now holds the lease
+	 */
+	boolean tryAcquire(String jobName, int shard, String owner, LocalDateTime now, LocalDateTime leaseUntil)
+			throws SQLException;
+
+	/**
+	 * Records that a shard of a job completed.
+	 */
+	void recordSuccess(String jobName, int shard, LocalDateTime finishedAt) throws SQLException;
+
+	/**
+	 * @return When the shard last completed, or null if it never has
+	 */
+	LocalDateTime getLastSuccess(String jobName, int shard) throws SQLException;
+}
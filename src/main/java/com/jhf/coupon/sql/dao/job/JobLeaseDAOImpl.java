@@ -0,0 +1,88 @@
+package com.jhf.coupon.sql.dao.job;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+
+@Repository
+@Profile("!memory")
+public class JobLeaseDAOImpl implements JobLeaseDAO {
+	private final DataSource dataSource;
+
+	public JobLeaseDAOImpl(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	@Override
+	public boolean tryAcquire(String jobName, int shard, String owner, LocalDateTime now, LocalDateTime leaseUntil)
+			throws SQLException {
+		String updateQuery = "UPDATE job_leases SET owner = ?, lease_until = ? " +
+				"WHERE job_name = ? AND shard = ? AND (owner = ? OR lease_until < ?)";
+		String insertQuery = "INSERT INTO job_leases (job_name, shard, owner, lease_until) VALUES (?, ?, ?, ?)";
+		try (Connection connection = dataSource.getConnection()) {
+			try (PreparedStatement preparedStatement = connection.prepareStatement(updateQuery)) {
+				preparedStatement.setString(1, owner);
+				preparedStatement.setTimestamp(2, Timestamp.valueOf(leaseUntil));
+				preparedStatement.setString(3, jobName);
+				preparedStatement.setInt(4, shard);
+				preparedStatement.setString(5, owner);
+				preparedStatement.setTimestamp(6, Timestamp.valueOf(now));
+				if (preparedStatement.executeUpdate() == 1) {
+					return true;
+				}
+			}
+			// No row updated: either the shard has never run, or another instance holds it
+			try (PreparedStatement preparedStatement = connection.prepareStatement(insertQuery)) {
+				preparedStatement.setString(1, jobName);
+				preparedStatement.setInt(2, shard);
+				preparedStatement.setString(3, owner);
+				preparedStatement.setTimestamp(4, Timestamp.valueOf(leaseUntil));
+				preparedStatement.executeUpdate();
+				return true;
+			} catch (SQLException e) {
+				if (isUniqueViolation(e)) {
+					return false;
+				}
+				throw e;
+			}
+		}
+	}
+
+	@Override
+	public void recordSuccess(String jobName, int shard, LocalDateTime finishedAt) throws SQLException {
+		String sqlQuery = "UPDATE job_leases SET last_success_at = ? WHERE job_name = ? AND shard = ?";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(finishedAt));
+			preparedStatement.setString(2, jobName);
+			preparedStatement.setInt(3, shard);
+			preparedStatement.executeUpdate();
+		}
+	}
+
+	@Override
+	public LocalDateTime getLastSuccess(String jobName, int shard) throws SQLException {
+		String sqlQuery = "SELECT last_success_at FROM job_leases WHERE job_name = ? AND shard = ?";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setString(1, jobName);
+			preparedStatement.setInt(2, shard);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				if (!resultSet.next()) {
+					return null;
+				}
+				Timestamp lastSuccess = resultSet.getTimestamp(1);
+				return lastSuccess != null ? lastSuccess.toLocalDateTime() : null;
+			}
+		}
+	}
+
+	// SQLState class 23 is integrity constraint violation in both H2 and PostgreSQL
+	private static boolean isUniqueViolation(SQLException e) {
+		return e instanceof SQLIntegrityConstraintViolationException
+				|| (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+	}
+}
@@ -0,0 +1,58 @@
+package com.jhf.coupon.sql.dao.outbox;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read side of the transactional outbox. Events are written by the mutating DAOs through
+ * OutboxWriter, on the same connection and transaction as the change they describe.
+ */
+public interface OutboxDAO {
+
+	/**
+	 * Reads without claiming: another relay may publish the same events. Relays use
+	 * publishUnpublished.
+	 *
+	 * @param limit Maximum number of events
+	 * @return Oldest unpublished events, ordered by id
+	 */
+	List<OutboxEvent> fetchUnpublished(int limit) throws SQLException;
+
+	/**
+	 * Claims up to limit of the oldest unpublished events, hands them to the publisher in id
+	 * order and marks them published, in one transaction. Claimed rows stay locked until the
+	 * transaction ends and other relays skip them (FOR UPDATE SKIP LOCKED), so relays of several
+	 * instances draining the same outbox publish disjoint batches. If the publisher throws, the
+	 * events stay unpublished.
+	 *
+	 * @param limit Maximum number of events
+	 * @param publisher Receives the claimed events; not called when there are none
+	 * @return Claimed and published events, ordered by id
+	 */
+	List<OutboxEvent> publishUnpublished(int limit, OutboxPublisher publisher) throws SQLException, InterruptedException;
+
+	/**
+	 * Marks events as published.
+	 *
+	 * @param ids Event IDs
+	 * @param publishedAt Publication time
+	 */
+	void markPublished(List<Long> ids, LocalDateTime publishedAt) throws SQLException;
+
+	long countUnpublished() throws SQLException;
+
+	/**
+	 * Deletes published events older than the cutoff.
+	 *
+	 * @return Number of deleted events
+	 */
+	int deletePublishedBefore(LocalDateTime cutoff) throws SQLException;
+
+	@FunctionalInterface
+	interface OutboxPublisher {
+		void publish(List<OutboxEvent> events) throws InterruptedException;
+	}
+}
@@ -0,0 +1,123 @@
+package com.jhf.coupon.sql.dao.outbox;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@Profile("!memory")
+public class OutboxDAOImpl implements OutboxDAO {
+	private final DataSource dataSource;
+
+	public OutboxDAOImpl(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	private static final String UNPUBLISHED_QUERY = "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at " +
+			"FROM outbox_events WHERE published_at IS NULL ORDER BY id LIMIT ?";
+
+	@Override
+	public List<OutboxEvent> fetchUnpublished(int limit) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			return queryEvents(connection, UNPUBLISHED_QUERY, limit);
+		}
+	}
+
+	@Override
+	public List<OutboxEvent> publishUnpublished(int limit, OutboxPublisher publisher)
+			throws SQLException, InterruptedException {
+		try (Connection connection = dataSource.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				List<OutboxEvent> events = queryEvents(connection, UNPUBLISHED_QUERY + " FOR UPDATE SKIP LOCKED", limit);
+				if (!events.isEmpty()) {
+					publisher.publish(events);
+					List<Long> ids = new ArrayList<>(events.size());
+					for (OutboxEvent event : events) {
+						ids.add(event.getId());
+					}
+					markPublished(connection, ids, LocalDateTime.now());
+				}
+				connection.commit();
+				return events;
+			} catch (SQLException | InterruptedException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	private static List<OutboxEvent> queryEvents(Connection connection, String sqlQuery, int limit) throws SQLException {
+		List<OutboxEvent> list = new ArrayList<>();
+		try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setInt(1, limit);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					list.add(new OutboxEvent(
+							resultSet.getLong("id"),
+							resultSet.getString("aggregate_type"),
+							resultSet.getLong("aggregate_id"),
+							resultSet.getString("event_type"),
+							resultSet.getString("payload"),
+							resultSet.getTimestamp("created_at").toLocalDateTime()));
+				}
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void markPublished(List<Long> ids, LocalDateTime publishedAt) throws SQLException {
+		if (ids.isEmpty()) {
+			return;
+		}
+		try (Connection connection = dataSource.getConnection()) {
+			markPublished(connection, ids, publishedAt);
+		}
+	}
+
+	private static void markPublished(Connection connection, List<Long> ids, LocalDateTime publishedAt) throws SQLException {
+		// Explicit IDs rather than an id range: a transaction that allocated a lower id may commit later
+		StringBuilder sqlQuery = new StringBuilder("UPDATE outbox_events SET published_at = ? WHERE id IN (");
+		for (int i = 0; i < ids.size(); i++) {
+			sqlQuery.append(i == 0 ? "?" : ", ?");
+		}
+		sqlQuery.append(')');
+		try (PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery.toString())) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(publishedAt));
+			for (int i = 0; i < ids.size(); i++) {
+				preparedStatement.setLong(i + 2, ids.get(i));
+			}
+			preparedStatement.executeUpdate();
+		}
+	}
+
+	@Override
+	public long countUnpublished() throws SQLException {
+		String sqlQuery = "SELECT COUNT(*) FROM outbox_events WHERE published_at IS NULL";
+		try (Connection connection = dataSource.getConnection();
+		     Statement statement = connection.createStatement();
+		     ResultSet resultSet = statement.executeQuery(sqlQuery)) {
+			return resultSet.next() ? resultSet.getLong(1) : 0L;
+		}
+	}
+
+	@Override
+	public int deletePublishedBefore(LocalDateTime cutoff) throws SQLException {
+		String sqlQuery = "DELETE FROM outbox_events WHERE published_at IS NOT NULL AND published_at < ?";
+		try (Connection connection = dataSource.getConnection();
+		     PreparedStatement preparedStatement = connection.prepareStatement(sqlQuery)) {
+			preparedStatement.setTimestamp(1, Timestamp.valueOf(cutoff));
+			return preparedStatement.executeUpdate();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.jhf.coupon.sql.dao.outbox;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Appends outbox events on the caller's connection, so the event commits or rolls back
+ * together with the change it describes.
+ */
+public final class OutboxWriter {
+
+	private static final String INSERT_QUERY = "INSERT INTO outbox_events " +
+			"(aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+	private OutboxWriter() {
+	}
+
+	public static void append(Connection connection, String aggregateType, long aggregateId,
+	                          String eventType, String payload) throws SQLException {
+		try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY)) {
+			preparedStatement.setString(1, aggregateType);
+			preparedStatement.setLong(2, aggregateId);
+			preparedStatement.setString(3, eventType);
+			preparedStatement.setString(4, payload);
+			preparedStatement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+			preparedStatement.execute();
+		}
+	}
+
+	/**
+	 * Appends one event per aggregate in a single JDBC batch.
+	 *
+	 * @param payloads Payload by aggregate ID, in insertion order
+	 */
+	public static void appendAll(Connection connection, String aggregateType, String eventType,
+	                             Map<Long, String> payloads) throws SQLException {
+		Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+		try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY)) {
+			for (Map.Entry<Long, String> event : payloads.entrySet()) {
+				preparedStatement.setString(1, aggregateType);
+				preparedStatement.setLong(2, event.getKey());
+				preparedStatement.setString(3, eventType);
+				preparedStatement.setString(4, event.getValue());
+				preparedStatement.setTimestamp(5, createdAt);
+				preparedStatement.addBatch();
+			}
+			preparedStatement.executeBatch();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.jhf.coupon.sql.ids;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered 64-bit primary keys for coupons, companies and customers.
+ *
+ * The DAOs take the ID from here before the INSERT, so they need no generated-keys round trip
+ * to learn it, rows can be inserted in JDBC batches, and IDs stay unique across coupon shards.
+ * An ID is laid out as
+ * <pre>
+ *   41 bits  milliseconds since 2025-01-01T00:00Z (until 2094)
+ *    5 bits  node ID, unique per running instance
+ *    7 bits  sequence within the millisecond
+ * </pre>
+ * 53 bits in all, so IDs survive JSON numbers in JavaScript clients. A node issues up to 128 IDs
+ * per millisecond and then waits for the next one. If the clock goes back, IDs continue from the
+ * last millisecond used, so they never repeat or decrease while the instance runs.
+ *
+ * The node ID is ids.node-id when set. Otherwise the instance leases one through NodeIdLease
+ * once the context is up (the schema is initialized by then), so replicas started from the
+ * same configuration do not share a node.
+ */
+@Component
+public class IdGenerator implements SmartInitializingSingleton {
+	static final long EPOCH_MILLIS = 1_735_689_600_000L;
+	static final int NODE_BITS = 5;
+	static final int SEQUENCE_BITS = 7;
+	public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+	private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+	private final IntSupplier nodeId;
+	private final NodeIdLease nodeIdLease;
+	private final LongSupplier clock;
+	private long lastMillis = -1;
+	private int sequence;
+
+	@Autowired
+	public IdGenerator(@Value("${ids.node-id:}") String nodeId, NodeIdLease nodeIdLease) {
+		this(nodeId.isBlank() ? nodeIdLease::getNodeId : fixed(Integer.parseInt(nodeId.trim())),
+				nodeId.isBlank() ? nodeIdLease : null, System::currentTimeMillis);
+	}
+
+	public IdGenerator(int nodeId) {
+		this(nodeId, System::currentTimeMillis);
+	}
+
+	IdGenerator(int nodeId, LongSupplier clock) {
+		this(fixed(nodeId), null, clock);
+	}
+
+	private IdGenerator(IntSupplier nodeId, NodeIdLease nodeIdLease, LongSupplier clock) {
+		this.nodeId = nodeId;
+		this.nodeIdLease = nodeIdLease;
+		this.clock = clock;
+	}
+
+	private static IntSupplier fixed(int nodeId) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("ids.node-id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+		}
+		return () -> nodeId;
+	}
+
+	/**
+	 * Claims the node lease, when no node ID is configured. A failure aborts startup.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (nodeIdLease != null) {
+			try {
+				nodeIdLease.claim();
+			} catch (SQLException e) {
+				throw new IllegalStateException("Could not lease an ID node", e);
+			}
+		}
+	}
+
+	public synchronized long nextId() {
+		long millis = clock.getAsLong() - EPOCH_MILLIS;
+		if (millis > lastMillis) {
+			lastMillis = millis;
+			sequence = 0;
+		} else if (sequence == MAX_SEQUENCE) {
+			while (millis <= lastMillis) {
+				Thread.onSpinWait();
+				millis = clock.getAsLong() - EPOCH_MILLIS;
+			}
+			lastMillis = millis;
+			sequence = 0;
+		} else {
+			sequence++;
+		}
+		return lastMillis << (NODE_BITS + SEQUENCE_BITS) | (long) nodeId.getAsInt() << SEQUENCE_BITS | sequence;
+	}
+
+	/**
+	 * @return count new IDs for a batch insert, ascending
+	 */
+	public synchronized long[] nextIds(int count) {
+		long[] ids = new long[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = nextId();
+		}
+		return ids;
+	}
+
+	/**
+	 * @return When an ID was generated (millisecond precision)
+	 */
+	public static Instant timestampOf(long id) {
+		return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+	}
+
+	/**
+	 * @return Node that generated an ID
+	 */
+	public static int nodeOf(long id) {
+		return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+	}
+}
@@ -0,0 +1,126 @@
+package com.jhf.coupon.sql.ids;
+
+import com.jhf.coupon.backend.periodicJob.JobRunner;
+import com.jhf.coupon.sql.dao.job.JobLeaseDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Claims the IdGenerator node ID of this instance as a lease in job_leases (job "id-node", one
+ * row per node), so instances started from the same configuration get distinct nodes without
+ * an ids.node-id each.
+ *
+ * The claim tries the nodes in order from a hash of the instance ID and takes the first one
+ * that is free or whose lease has expired. The lease is renewed well before it ends. If a
+ * renewal finds that another instance took the node, a new one is claimed. If renewals keep
+ * failing until the lease ends, getNodeId throws instead of handing out a node that another
+ * instance may have claimed in the meantime.
+ */
+@Component
+public class NodeIdLease {
+	private static final Logger logger = LoggerFactory.getLogger(NodeIdLease.class);
+	static final String LEASE_NAME = "id-node";
+
+	private final JobLeaseDAO jobLeaseDAO;
+	private final String owner;
+	private final Duration leaseDuration;
+	private final Supplier<LocalDateTime> clock;
+
+	private volatile int nodeId = -1;
+	private volatile LocalDateTime leaseUntil;
+	// Monotonic end of the lease, measured from before the claim so it never outlasts the row
+	private volatile long validUntilNanos;
+
+	@Autowired
+	public NodeIdLease(JobLeaseDAO jobLeaseDAO, JobRunner jobRunner,
+	                   @Value("${ids.node-lease-minutes:10}") long leaseMinutes) {
+		this(jobLeaseDAO, jobRunner.getInstanceId(), Duration.ofMinutes(leaseMinutes), LocalDateTime::now);
+	}
+
+	NodeIdLease(JobLeaseDAO jobLeaseDAO, String owner, Duration leaseDuration, Supplier<LocalDateTime> clock) {
+		this.jobLeaseDAO = jobLeaseDAO;
+		this.owner = owner;
+		this.leaseDuration = leaseDuration;
+		this.clock = clock;
+	}
+
+	/**
+	 * Claims a free node ID for this instance, or renews the one it holds.
+	 *
+	 * @return The claimed node ID
+	 * @throws IllegalStateException if every node ID is leased to another instance
+	 */
+	public synchronized int claim() throws SQLException {
+		if (nodeId >= 0 && renewHeld()) {
+			return nodeId;
+		}
+		int nodes = IdGenerator.MAX_NODE_ID + 1;
+		int offset = Math.floorMod(owner.hashCode(), nodes);
+		for (int i = 0; i < nodes; i++) {
+			int candidate = (offset + i) % nodes;
+			long startNanos = System.nanoTime();
+			LocalDateTime now = clock.get();
+			LocalDateTime until = now.plus(leaseDuration);
+			if (jobLeaseDAO.tryAcquire(LEASE_NAME, candidate, owner, now, until)) {
+				validUntilNanos = startNanos + leaseDuration.toNanos();
+				leaseUntil = until;
+				nodeId = candidate;
+				logger.info("Claimed ID node {} until {}", candidate, until);
+				return candidate;
+			}
+		}
+		throw new IllegalStateException("All " + nodes + " ID nodes are leased to other instances");
+	}
+
+	/**
+	 * Renews the lease every third of its duration, so two renewals can fail before it ends.
+	 */
+	@Scheduled(fixedDelayString = "#{${ids.node-lease-minutes:10} * 20000}",
+			initialDelayString = "#{${ids.node-lease-minutes:10} * 20000}")
+	public void renew() {
+		if (nodeId < 0) {
+			return;
+		}
+		try {
+			int previous = nodeId;
+			if (claim() != previous) {
+				logger.warn("ID node {} was taken by another instance, now using node {}", previous, nodeId);
+			}
+		} catch (SQLException | RuntimeException e) {
+			logger.error("Could not renew ID node {} leased until {}", nodeId, leaseUntil, e);
+		}
+	}
+
+	/**
+	 * @return The node ID this instance holds
+	 * @throws IllegalStateException if none was claimed or the lease has ended
+	 */
+	public int getNodeId() {
+		int node = nodeId;
+		if (node < 0 || System.nanoTime() - validUntilNanos >= 0) {
+			throw new IllegalStateException("No valid ID node lease (node " + node + ", until " + leaseUntil + ")");
+		}
+		return node;
+	}
+
+	private boolean renewHeld() throws SQLException {
+		long startNanos = System.nanoTime();
+		LocalDateTime now = clock.get();
+		LocalDateTime until = now.plus(leaseDuration);
+		if (jobLeaseDAO.tryAcquire(LEASE_NAME, nodeId, owner, now, until)) {
+			validUntilNanos = startNanos + leaseDuration.toNanos();
+			leaseUntil = until;
+			return true;
+		}
+		return false;
+	}
+}
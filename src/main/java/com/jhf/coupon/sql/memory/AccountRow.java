@@ -0,0 +1,29 @@
+package com.jhf.coupon.sql.memory;
+
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable row of the companies or customers table. Companies keep their name in name and
+ * leave lastName null; customers keep their first name in name. Updates replace the row.
+ */
+@Value
+@With
+class AccountRow {
+	long id;
+	String name;
+	String lastName;
+	String email;
+	/** BCrypt hash */
+	String password;
+	int failedLoginAttempts;
+	boolean accountLocked;
+	LocalDateTime lockedUntil;
+	LocalDateTime lastFailedLogin;
+
+	static AccountRow of(long id, String name, String lastName, String email, String password) {
+		return new AccountRow(id, name, lastName, email, password, 0, false, null, null);
+	}
+}
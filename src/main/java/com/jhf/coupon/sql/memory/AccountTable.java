@@ -0,0 +1,114 @@
+package com.jhf.coupon.sql.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The companies or customers table: rows by ID plus the email and name indexes, and the set
+ * of locked accounts (the in-memory idx_*_account_locked).
+ *
+ * Writes come from MemoryStore under its locks; reads need none, and see every row either
+ * before or after a write.
+ */
+final class AccountTable {
+	private final ConcurrentSkipListMap<Long, AccountRow> rows = new ConcurrentSkipListMap<>();
+	private final MultiIndex<String> byEmail = new MultiIndex<>(new ConcurrentHashMap<>());
+	private final MultiIndex<String> byName = new MultiIndex<>(new ConcurrentHashMap<>());
+	private final Set<Long> locked = ConcurrentHashMap.newKeySet();
+
+	AccountRow get(long id) {
+		return rows.get(id);
+	}
+
+	/**
+	 * @return Row with the lowest ID having the email, or null
+	 */
+	AccountRow firstByEmail(String email) {
+		for (long id : byEmail.get(email)) {
+			AccountRow row = rows.get(id);
+			if (row != null) {
+				return row;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return Every row having the email, in ID order
+	 */
+	List<AccountRow> allByEmail(String email) {
+		List<AccountRow> list = new ArrayList<>(1);
+		for (long id : byEmail.get(email)) {
+			AccountRow row = rows.get(id);
+			if (row != null) {
+				list.add(row);
+			}
+		}
+		return list;
+	}
+
+	boolean nameExists(String name) {
+		return !byName.get(name).isEmpty();
+	}
+
+	/**
+	 * @return IDs of rows with account_locked set, expired lockouts included
+	 */
+	Set<Long> lockedIds() {
+		return locked;
+	}
+
+	/**
+	 * @return Live view of the rows in ID order
+	 */
+	Collection<AccountRow> rows() {
+		return rows.values();
+	}
+
+	int size() {
+		return rows.size();
+	}
+
+	void put(AccountRow row) {
+		AccountRow old = rows.put(row.getId(), row);
+		if (old == null || !Objects.equals(old.getEmail(), row.getEmail())) {
+			if (old != null) {
+				byEmail.remove(old.getEmail(), old.getId());
+			}
+			byEmail.add(row.getEmail(), row.getId());
+		}
+		if (old == null || !Objects.equals(old.getName(), row.getName())) {
+			if (old != null) {
+				byName.remove(old.getName(), old.getId());
+			}
+			byName.add(row.getName(), row.getId());
+		}
+		if (row.isAccountLocked()) {
+			locked.add(row.getId());
+		} else {
+			locked.remove(row.getId());
+		}
+	}
+
+	AccountRow remove(long id) {
+		AccountRow old = rows.remove(id);
+		if (old != null) {
+			byEmail.remove(old.getEmail(), id);
+			byName.remove(old.getName(), id);
+			locked.remove(id);
+		}
+		return old;
+	}
+
+	void clear() {
+		rows.clear();
+		byEmail.clear();
+		byName.clear();
+		locked.clear();
+	}
+}
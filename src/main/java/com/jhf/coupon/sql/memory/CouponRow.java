@@ -0,0 +1,51 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.couponCategory.Category;
+import lombok.Value;
+import lombok.With;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Immutable row of the coupons table. A purchase replaces the row with one holding the
+ * decremented amount. Prices are rounded to cents, as the NUMERIC(10, 2) column stores them.
+ */
+@Value
+@With
+class CouponRow {
+	long id;
+	long companyId;
+	Category category;
+	String title;
+	String description;
+	LocalDate startDate;
+	LocalDate endDate;
+	int amount;
+	double price;
+	String image;
+
+	static CouponRow of(Coupon coupon) {
+		return new CouponRow(coupon.getId(), coupon.getCompanyID(), coupon.getCATEGORY(), coupon.getTitle(),
+				coupon.getDescription(), toLocalDate(coupon.getStartDate()), toLocalDate(coupon.getEndDate()),
+				coupon.getAmount(), toCents(coupon.getPrice()), coupon.getImage());
+	}
+
+	Coupon toCoupon() {
+		return new Coupon(id, companyId, category, title, description,
+				startDate != null ? Date.valueOf(startDate) : null,
+				endDate != null ? Date.valueOf(endDate) : null,
+				amount, price, image);
+	}
+
+	private static double toCents(double price) {
+		return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	private static LocalDate toLocalDate(Date date) {
+		return date != null ? date.toLocalDate() : null;
+	}
+}
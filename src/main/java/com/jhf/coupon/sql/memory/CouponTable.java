@@ -0,0 +1,133 @@
+package com.jhf.coupon.sql.memory;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The coupons table: rows by ID plus the company_id, (company_id, title) and end_date indexes.
+ *
+ * Writes come from MemoryStore under its locks. A purchase only changes the amount, so it
+ * replaces the row without touching the indexes.
+ */
+final class CouponTable {
+	private final ConcurrentSkipListMap<Long, CouponRow> rows = new ConcurrentSkipListMap<>();
+	private final MultiIndex<Long> byCompany = new MultiIndex<>(new ConcurrentHashMap<>());
+	private final MultiIndex<CompanyTitle> byCompanyTitle = new MultiIndex<>(new ConcurrentHashMap<>());
+	private final ConcurrentSkipListMap<LocalDate, Set<Long>> endDates = new ConcurrentSkipListMap<>();
+	private final MultiIndex<LocalDate> byEndDate = new MultiIndex<>(endDates);
+
+	@Value
+	private static class CompanyTitle {
+		long companyId;
+		String title;
+	}
+
+	CouponRow get(long id) {
+		return rows.get(id);
+	}
+
+	boolean exists(long companyId, String title) {
+		return title != null && !byCompanyTitle.get(new CompanyTitle(companyId, title)).isEmpty();
+	}
+
+	/**
+	 * @return IDs of the company's coupons, in ascending order
+	 */
+	Set<Long> idsOfCompany(long companyId) {
+		return byCompany.get(companyId);
+	}
+
+	/**
+	 * @return Rows of the company's coupons, in ID order
+	 */
+	List<CouponRow> ofCompany(long companyId) {
+		List<CouponRow> list = new ArrayList<>();
+		for (long id : byCompany.get(companyId)) {
+			CouponRow row = rows.get(id);
+			if (row != null) {
+				list.add(row);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Range scan of the end_date index.
+	 *
+	 * @return IDs of coupons whose end date is before the day, in no particular order
+	 */
+	List<Long> idsEndingBefore(LocalDate before) {
+		List<Long> ids = new ArrayList<>();
+		for (Set<Long> sameDay : endDates.headMap(before, false).values()) {
+			ids.addAll(sameDay);
+		}
+		return ids;
+	}
+
+	long maxId() {
+		return rows.isEmpty() ? 0 : rows.lastKey();
+	}
+
+	/**
+	 * @return Live view of the rows in ID order
+	 */
+	Collection<CouponRow> rows() {
+		return rows.values();
+	}
+
+	int size() {
+		return rows.size();
+	}
+
+	void put(CouponRow row) {
+		CouponRow old = rows.put(row.getId(), row);
+		long id = row.getId();
+		if (old == null || old.getCompanyId() != row.getCompanyId()) {
+			if (old != null) {
+				byCompany.remove(old.getCompanyId(), id);
+			}
+			byCompany.add(row.getCompanyId(), id);
+		}
+		if (old == null || old.getCompanyId() != row.getCompanyId() || !Objects.equals(old.getTitle(), row.getTitle())) {
+			if (old != null) {
+				byCompanyTitle.remove(titleKey(old), id);
+			}
+			byCompanyTitle.add(titleKey(row), id);
+		}
+		if (old == null || !Objects.equals(old.getEndDate(), row.getEndDate())) {
+			if (old != null) {
+				byEndDate.remove(old.getEndDate(), id);
+			}
+			byEndDate.add(row.getEndDate(), id);
+		}
+	}
+
+	CouponRow remove(long id) {
+		CouponRow old = rows.remove(id);
+		if (old != null) {
+			byCompany.remove(old.getCompanyId(), id);
+			byCompanyTitle.remove(titleKey(old), id);
+			byEndDate.remove(old.getEndDate(), id);
+		}
+		return old;
+	}
+
+	void clear() {
+		rows.clear();
+		byCompany.clear();
+		byCompanyTitle.clear();
+		byEndDate.clear();
+	}
+
+	private static CompanyTitle titleKey(CouponRow row) {
+		return row.getTitle() != null ? new CompanyTitle(row.getCompanyId(), row.getTitle()) : null;
+	}
+}
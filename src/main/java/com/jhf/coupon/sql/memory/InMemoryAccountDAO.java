@@ -0,0 +1,187 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.AccountLockoutStatus;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
+import com.jhf.coupon.backend.security.PasswordHasher;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lookup and account lockout methods shared by the in-memory companies and customers DAOs,
+ * with the semantics of the lockout columns in CompaniesDAOImpl and CustomerDAOImpl.
+ *
+ * Lockout updates run under the row's lock stripe (MemoryStore.shared), so concurrent failed
+ * attempts on one account are all counted. Passwords are verified outside any lock.
+ */
+abstract class InMemoryAccountDAO {
+	protected final MemoryStore store;
+	private final AccountTable table;
+
+	InMemoryAccountDAO(MemoryStore store, AccountTable table) {
+		this.store = store;
+		this.table = table;
+	}
+
+	/**
+	 * Logs and applies a new version of a row of this DAO's table.
+	 */
+	abstract void put(AccountRow row) throws SQLException;
+
+	boolean credentialsMatch(String email, String password) {
+		AccountRow row = table.firstByEmail(email);
+		return row != null && PasswordHasher.verifyPassword(password, row.getPassword());
+	}
+
+	boolean emailExists(String email) {
+		return table.firstByEmail(email) != null;
+	}
+
+	public AccountLockoutStatus getAccountLockoutStatus(String email) throws SQLException {
+		AccountRow row = table.firstByEmail(email);
+		return row != null ? lockoutStatusOf(row) : null;
+	}
+
+	public void incrementFailedLoginAttempts(String email, int maxAttempts, int lockoutDurationMinutes)
+			throws SQLException {
+		for (AccountRow match : table.allByEmail(email)) {
+			store.shared(match.getId(), () -> {
+				AccountRow row = table.get(match.getId());
+				if (row == null) {
+					return null;
+				}
+				LocalDateTime now = LocalDateTime.now();
+				int attempts = row.getFailedLoginAttempts() + 1;
+				boolean lock = attempts >= maxAttempts;
+				LocalDateTime lockedUntil = row.getLockedUntil();
+				if (lock) {
+					lockedUntil = lockoutDurationMinutes > 0 ? now.plusMinutes(lockoutDurationMinutes) : null;
+				}
+				put(row.withFailedLoginAttempts(attempts)
+						.withLastFailedLogin(now)
+						.withAccountLocked(lock)
+						.withLockedUntil(lockedUntil));
+				return null;
+			});
+		}
+	}
+
+	public void resetFailedLoginAttempts(String email) throws SQLException {
+		for (AccountRow match : table.allByEmail(email)) {
+			store.shared(match.getId(), () -> reset(match.getId()));
+		}
+	}
+
+	public void unlockAccount(String email) throws SQLException {
+		// Same implementation as resetFailedLoginAttempts
+		resetFailedLoginAttempts(email);
+	}
+
+	public int unlockExpiredAccounts(LocalDateTime now) throws SQLException {
+		int unlocked = 0;
+		for (long id : List.copyOf(table.lockedIds())) {
+			boolean expired = store.shared(id, () -> {
+				AccountRow row = table.get(id);
+				if (row == null || !row.isAccountLocked() || row.getLockedUntil() == null
+						|| !row.getLockedUntil().isBefore(now)) {
+					return false;
+				}
+				reset(id);
+				return true;
+			});
+			if (expired) {
+				unlocked++;
+			}
+		}
+		return unlocked;
+	}
+
+	public int countLockedAccounts(LocalDateTime now) {
+		int locked = 0;
+		for (long id : table.lockedIds()) {
+			AccountRow row = table.get(id);
+			if (row != null && row.isAccountLocked()
+					&& (row.getLockedUntil() == null || row.getLockedUntil().isAfter(now))) {
+				locked++;
+			}
+		}
+		return locked;
+	}
+
+	public LoginAttemptResult authenticateAndTrack(String email, String password, int maxAttempts,
+	                                               int lockoutDurationMinutes) throws SQLException {
+		AccountRow row = table.firstByEmail(email);
+		if (row == null) {
+			return new LoginAttemptResult(LoginAttemptResult.Outcome.NOT_FOUND, 0, null);
+		}
+		long id = row.getId();
+		AccountLockoutStatus status = lockoutStatusOf(row);
+
+		// Locked accounts are rejected without verifying the password or writing anything
+		if (status.isCurrentlyLocked()) {
+			return new LoginAttemptResult(LoginAttemptResult.Outcome.LOCKED, id, status);
+		}
+		boolean lockoutExpired = status.isLockoutExpired();
+
+		boolean passwordMatches = password != null && !password.isEmpty()
+				&& PasswordHasher.verifyPassword(password, row.getPassword());
+
+		if (passwordMatches) {
+			// An expired lockout is left to LockoutExpirySweepJob, as in the JDBC DAOs
+			if (!lockoutExpired && status.getFailedLoginAttempts() > 0) {
+				store.shared(id, () -> reset(id));
+			}
+			String hashToUpgrade = PasswordHasher.needsRehash(row.getPassword()) ? row.getPassword() : null;
+			return new LoginAttemptResult(LoginAttemptResult.Outcome.SUCCESS, id,
+					new AccountLockoutStatus(false, 0, null, status.getLastFailedLogin()), hashToUpgrade);
+		}
+
+		// Record the failure (an expired lockout restarts the counter)
+		AccountLockoutStatus updatedStatus = store.shared(id, () -> {
+			AccountRow current = table.get(id);
+			if (current == null) {
+				return null; // Row deleted concurrently
+			}
+			LocalDateTime now = LocalDateTime.now();
+			int attempts = lockoutExpired ? 1 : current.getFailedLoginAttempts() + 1;
+			boolean lock = attempts >= maxAttempts;
+			AccountRow updated = current.withFailedLoginAttempts(attempts)
+					.withLastFailedLogin(now)
+					.withAccountLocked(lock)
+					.withLockedUntil(lock && lockoutDurationMinutes > 0 ? now.plusMinutes(lockoutDurationMinutes) : null);
+			put(updated);
+			return lockoutStatusOf(updated);
+		});
+		return new LoginAttemptResult(LoginAttemptResult.Outcome.FAILURE, id, updatedStatus);
+	}
+
+	public boolean updatePasswordHash(long id, String expectedHash, String newHash) throws SQLException {
+		return store.shared(id, () -> {
+			AccountRow row = table.get(id);
+			if (row == null || !Objects.equals(row.getPassword(), expectedHash)) {
+				return false;
+			}
+			put(row.withPassword(newHash));
+			return true;
+		});
+	}
+
+	/**
+	 * Clears the lockout columns of a row; the caller holds the row's stripe. Clean rows are
+	 * not rewritten, so successful logins do not grow the log.
+	 */
+	private Void reset(long id) throws SQLException {
+		AccountRow row = table.get(id);
+		if (row != null && (row.getFailedLoginAttempts() != 0 || row.isAccountLocked() || row.getLockedUntil() != null)) {
+			put(row.withFailedLoginAttempts(0).withAccountLocked(false).withLockedUntil(null));
+		}
+		return null;
+	}
+
+	private static AccountLockoutStatus lockoutStatusOf(AccountRow row) {
+		return new AccountLockoutStatus(row.isAccountLocked(), row.getFailedLoginAttempts(),
+				row.getLockedUntil(), row.getLastFailedLogin());
+	}
+}
@@ -0,0 +1,120 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.dao.company.CompaniesDAO;
+import com.jhf.coupon.sql.dao.company.CompanyNotFoundException;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * CompaniesDAO over the companies table of a MemoryStore. Deleting a company cascades to its
+ * coupons, their purchases and its sales rollup.
+ */
+public class InMemoryCompaniesDAO extends InMemoryAccountDAO implements CompaniesDAO {
+	private final AccountTable companies;
+	private final IdGenerator idGenerator;
+
+	public InMemoryCompaniesDAO(MemoryStore store, IdGenerator idGenerator) {
+		super(store, store.companies());
+		this.companies = store.companies();
+		this.idGenerator = idGenerator;
+	}
+
+	@Override
+	void put(AccountRow row) throws SQLException {
+		store.putCompany(row);
+	}
+
+	@Override
+	public boolean isCompanyExists(String companyEmail, String companyPassword) {
+		return credentialsMatch(companyEmail, companyPassword);
+	}
+
+	@Override
+	public boolean isCompanyEmailExists(String companyEmail) {
+		return emailExists(companyEmail);
+	}
+
+	@Override
+	public boolean isCompanyNameExists(String companyName) {
+		return companies.nameExists(companyName);
+	}
+
+	@Override
+	public void addCompany(@NotNull Company company) throws SQLException {
+		// Hash password with bcrypt before storing (outside the store lock)
+		String hashedPassword = PasswordHasher.hashPassword(company.getPassword());
+		company.setId(idGenerator.nextId());
+		AccountRow row = AccountRow.of(company.getId(), company.getName(), null, company.getEmail(), hashedPassword);
+		store.exclusive(() -> {
+			put(row);
+			return null;
+		});
+	}
+
+	@Override
+	public void updateCompany(@NotNull Company company) throws SQLException {
+		String hashedPassword = PasswordHasher.hashPassword(company.getPassword());
+		store.exclusive(() -> {
+			AccountRow row = companies.get(company.getId());
+			if (row != null) {
+				put(row.withName(company.getName()).withEmail(company.getEmail()).withPassword(hashedPassword));
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public void deleteCompany(long companyID) throws SQLException {
+		store.exclusive(() -> {
+			if (companies.get(companyID) != null) {
+				store.deleteCompany(companyID);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public ArrayList<Company> getAllCompanies() {
+		ArrayList<Company> list = new ArrayList<>(companies.size());
+		for (AccountRow row : companies.rows()) {
+			list.add(toCompany(row));
+		}
+		return list;
+	}
+
+	@Override
+	public void forEachCompany(RowHandler<Company> handler) throws IOException {
+		for (AccountRow row : companies.rows()) {
+			handler.handle(toCompany(row));
+		}
+	}
+
+	@Override
+	public Company getCompany(long companyID) throws SQLException {
+		AccountRow row = companies.get(companyID);
+		if (row == null) {
+			throw new CompanyNotFoundException("Could not find Company with id: " + companyID);
+		}
+		return toCompany(row);
+	}
+
+	@Override
+	public Company getCompanyByEmail(String email) throws SQLException {
+		AccountRow row = companies.firstByEmail(email);
+		if (row == null) {
+			throw new CompanyNotFoundException("Could not find Company with email: " + email);
+		}
+		return toCompany(row);
+	}
+
+	private static Company toCompany(AccountRow row) {
+		return new Company(row.getId(), row.getName(), row.getEmail(), row.getPassword());
+	}
+}
@@ -0,0 +1,384 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.CartItemResult;
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.events.CouponEventType;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.dao.coupon.CouponColumnConsumer;
+import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * CouponsDAO over the coupons, purchases and sales rollup of a MemoryStore, with the results
+ * and errors of CouponDAOImpl: a missing company or customer is a foreign key violation
+ * (SQLState 23503), a repeated purchase a primary key violation (23505). Events go to the
+ * InMemoryOutboxDAO.
+ *
+ * A purchase holds the coupon's lock stripe from the stock check to the rollup update, so
+ * concurrent buyers of the last units cannot oversell, while purchases of other coupons run
+ * in parallel.
+ */
+public class InMemoryCouponsDAO implements CouponsDAO {
+	private final MemoryStore store;
+	private final CouponTable coupons;
+	private final PurchaseTable purchases;
+	private final SalesRollup sales;
+	private final InMemoryOutboxDAO outbox;
+	private final IdGenerator idGenerator;
+
+	public InMemoryCouponsDAO(MemoryStore store, InMemoryOutboxDAO outbox, IdGenerator idGenerator) {
+		this.store = store;
+		this.coupons = store.coupons();
+		this.purchases = store.purchases();
+		this.sales = store.sales();
+		this.outbox = outbox;
+		this.idGenerator = idGenerator;
+	}
+
+	@Override
+	public boolean couponExists(@NotNull Coupon coupon) {
+		return coupons.exists(coupon.getCompanyID(), coupon.getTitle());
+	}
+
+	@Override
+	public void addCoupon(@NotNull Coupon coupon) throws SQLException {
+		coupon.setId(idGenerator.nextId());
+		CouponRow row = CouponRow.of(coupon);
+		store.exclusive(() -> {
+			checkCompanyExists(row.getCompanyId());
+			store.putCoupon(row);
+			appendEvent(CouponEventType.COUPON_CREATED, row, null);
+			return null;
+		});
+	}
+
+	@Override
+	public void addCoupons(@NotNull List<Coupon> coupons) throws SQLException {
+		if (coupons.isEmpty()) {
+			return;
+		}
+		long[] ids = idGenerator.nextIds(coupons.size());
+		List<CouponRow> rows = new ArrayList<>(coupons.size());
+		for (int i = 0; i < ids.length; i++) {
+			coupons.get(i).setId(ids[i]);
+			rows.add(CouponRow.of(coupons.get(i)));
+		}
+		store.exclusive(() -> {
+			for (CouponRow row : rows) {
+				checkCompanyExists(row.getCompanyId());
+			}
+			store.putCoupons(rows);
+			for (CouponRow row : rows) {
+				appendEvent(CouponEventType.COUPON_CREATED, row, null);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public void updateCoupon(@NotNull Coupon coupon) throws SQLException {
+		CouponRow row = CouponRow.of(coupon);
+		store.exclusive(() -> {
+			if (coupons.get(row.getId()) == null) {
+				return null;
+			}
+			checkCompanyExists(row.getCompanyId());
+			store.putCoupon(row);
+			appendEvent(CouponEventType.COUPON_UPDATED, row, null);
+			return null;
+		});
+	}
+
+	@Override
+	public void deleteCoupon(long couponID) throws SQLException {
+		store.exclusive(() -> {
+			CouponRow row = coupons.get(couponID);
+			if (row != null) {
+				store.deleteCoupon(couponID);
+				appendEvent(CouponEventType.COUPON_DELETED, row, null);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public ArrayList<Coupon> getAllCoupons() {
+		ArrayList<Coupon> list = new ArrayList<>(coupons.size());
+		for (CouponRow row : coupons.rows()) {
+			list.add(row.toCoupon());
+		}
+		return list;
+	}
+
+	@Override
+	public long getMaxCouponId() {
+		return coupons.maxId();
+	}
+
+	@Override
+	public LinkedHashMap<Long, Integer> getMostPurchasedCoupons(int limit) {
+		List<long[]> counts = new ArrayList<>();
+		for (Map.Entry<Long, Set<Long>> entry : purchases.customersByCoupon().entrySet()) {
+			int buyers = entry.getValue().size();
+			if (buyers > 0) {
+				counts.add(new long[]{entry.getKey(), buyers});
+			}
+		}
+		counts.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+		LinkedHashMap<Long, Integer> mostPurchased = new LinkedHashMap<>();
+		for (int i = 0; i < Math.min(limit, counts.size()); i++) {
+			mostPurchased.put(counts.get(i)[0], (int) counts.get(i)[1]);
+		}
+		return mostPurchased;
+	}
+
+	@Override
+	public ArrayList<Long> getExpiredCouponIds(LocalDate before, long fromId, long toId) {
+		ArrayList<Long> ids = new ArrayList<>();
+		for (long id : coupons.idsEndingBefore(before)) {
+			if (id >= fromId && id <= toId) {
+				ids.add(id);
+			}
+		}
+		ids.sort(null);
+		return ids;
+	}
+
+	@Override
+	public void forEachCoupon(RowHandler<Coupon> handler) throws IOException {
+		for (CouponRow row : coupons.rows()) {
+			handler.handle(row.toCoupon());
+		}
+	}
+
+	@Override
+	public Coupon getCoupon(long couponID) throws SQLException {
+		CouponRow row = coupons.get(couponID);
+		if (row == null) {
+			throw new CouponNotFoundException("Could not find Coupon with id: " + couponID);
+		}
+		return row.toCoupon();
+	}
+
+	@Override
+	public Set<Long> getExistingCouponIds(@NotNull Collection<Long> couponIds) {
+		Set<Long> existing = new HashSet<>();
+		for (long couponId : couponIds) {
+			if (coupons.get(couponId) != null) {
+				existing.add(couponId);
+			}
+		}
+		return existing;
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(long companyId) {
+		ArrayList<Coupon> list = new ArrayList<>();
+		for (CouponRow row : coupons.ofCompany(companyId)) {
+			list.add(row.toCoupon());
+		}
+		return list;
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, @NotNull Category CATEGORY) {
+		return getCompanyCoupons(company.getId(), CATEGORY);
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(@NotNull Company company, double maxPrice) {
+		return getCompanyCoupons(company.getId(), maxPrice);
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, @NotNull Category CATEGORY) {
+		ArrayList<Coupon> list = new ArrayList<>();
+		for (CouponRow row : coupons.ofCompany(companyId)) {
+			if (row.getCategory() == CATEGORY) {
+				list.add(row.toCoupon());
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public ArrayList<Coupon> getCompanyCoupons(long companyId, double maxPrice) {
+		ArrayList<Coupon> list = new ArrayList<>();
+		for (CouponRow row : coupons.ofCompany(companyId)) {
+			// price BETWEEN 0 AND maxPrice
+			if (row.getPrice() >= 0 && row.getPrice() <= maxPrice) {
+				list.add(row.toCoupon());
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public boolean customerCouponPurchaseExists(long customerId, long couponId) {
+		return purchases.contains(customerId, couponId);
+	}
+
+	@Override
+	public boolean addCouponPurchase(long customerId, long couponId) throws SQLException {
+		LocalDateTime purchasedAt = LocalDateTime.now();
+		return store.shared(couponId, () -> {
+			CouponRow coupon = coupons.get(couponId);
+			if (coupon == null || coupon.getAmount() <= 0) {
+				return false;
+			}
+			if (purchases.contains(customerId, couponId)) {
+				throw new SQLException("Duplicate key (customer_id, coupon_id)=(" + customerId + ", " + couponId
+						+ ") in customers_vs_coupons", "23505");
+			}
+			if (store.customers().get(customerId) == null) {
+				throw new SQLException("Customer " + customerId + " does not exist (fk_customer)", "23503");
+			}
+			store.addPurchase(customerId, couponId, purchasedAt);
+			appendEvent(CouponEventType.COUPON_PURCHASED, coupon, customerId);
+			return true;
+		});
+	}
+
+	/**
+	 * Holds the lock stripes of every coupon in the cart, taken in ascending order, and logs
+	 * the purchases as one record.
+	 */
+	@Override
+	public List<CartItemResult> addCouponPurchases(long customerId, @NotNull Collection<Long> couponIds) throws SQLException {
+		long[] ids = couponIds.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+		if (ids.length == 0) {
+			return new ArrayList<>();
+		}
+		LocalDateTime purchasedAt = LocalDateTime.now();
+		return store.sharedAll(ids, () -> {
+			// Ownership first, as the database checks it before decrementing any stock
+			Map<Long, CartItemResult.Status> failures = new HashMap<>();
+			for (long couponId : ids) {
+				if (purchases.contains(customerId, couponId)) {
+					failures.put(couponId, CartItemResult.Status.ALREADY_PURCHASED);
+				}
+			}
+			List<CouponRow> rows = new ArrayList<>(ids.length);
+			if (failures.isEmpty()) {
+				for (long couponId : ids) {
+					CouponRow coupon = coupons.get(couponId);
+					if (coupon == null) {
+						failures.put(couponId, CartItemResult.Status.NOT_FOUND);
+					} else if (coupon.getAmount() <= 0) {
+						failures.put(couponId, CartItemResult.Status.OUT_OF_STOCK);
+					}
+					rows.add(coupon);
+				}
+			}
+
+			List<CartItemResult> results = new ArrayList<>(ids.length);
+			if (!failures.isEmpty()) {
+				for (long couponId : ids) {
+					results.add(new CartItemResult(couponId, failures.getOrDefault(couponId, CartItemResult.Status.NOT_PURCHASED)));
+				}
+				return results;
+			}
+			if (store.customers().get(customerId) == null) {
+				throw new SQLException("Customer " + customerId + " does not exist (fk_customer)", "23503");
+			}
+			store.addPurchases(customerId, ids, purchasedAt);
+			for (CouponRow row : rows) {
+				appendEvent(CouponEventType.COUPON_PURCHASED, row, customerId);
+				results.add(new CartItemResult(row.getId(), CartItemResult.Status.PURCHASED));
+			}
+			return results;
+		});
+	}
+
+	@Override
+	public ArrayList<Coupon> getCustomerCoupons(@NotNull Customer customer) {
+		return getCustomerCoupons(customer.getId());
+	}
+
+	@Override
+	public ArrayList<Coupon> getCustomerCoupons(long customerId) {
+		ArrayList<Coupon> list = new ArrayList<>();
+		for (long couponId : purchases.ofCustomer(customerId).keySet()) {
+			CouponRow row = coupons.get(couponId);
+			if (row != null) {
+				list.add(row.toCoupon());
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void deleteCouponPurchase(long customerId, long couponId) throws SQLException {
+		store.shared(couponId, () -> {
+			if (purchases.contains(customerId, couponId)) {
+				store.deletePurchase(customerId, couponId);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public ArrayList<DailyCategorySales> getCompanyDailySales(long companyId, LocalDate from, LocalDate to) {
+		ArrayList<DailyCategorySales> list = new ArrayList<>();
+		for (Map.Entry<LocalDate, ConcurrentSkipListMap<Category, Integer>> day : sales.range(companyId, from, to).entrySet()) {
+			for (Map.Entry<Category, Integer> cell : day.getValue().entrySet()) {
+				if (cell.getValue() > 0) {
+					list.add(new DailyCategorySales(day.getKey(), cell.getKey(), cell.getValue()));
+				}
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public Map<Category, Integer> getCompanySalesByCategory(long companyId, LocalDate from, LocalDate to) {
+		Map<Category, Integer> totals = new EnumMap<>(Category.class);
+		for (ConcurrentSkipListMap<Category, Integer> day : sales.range(companyId, from, to).values()) {
+			day.forEach((category, purchases) -> totals.merge(category, purchases, Integer::sum));
+		}
+		totals.values().removeIf(purchases -> purchases <= 0);
+		return totals;
+	}
+
+	@Override
+	public void scanCouponColumns(CouponColumnConsumer consumer) throws CategoryNotFoundException {
+		for (CouponRow row : coupons.rows()) {
+			consumer.accept(row.getCompanyId(), row.getCategory().getId(), (int) row.getEndDate().toEpochDay(),
+					row.getAmount(), row.getPrice());
+		}
+	}
+
+	// Called under the store lock of the change, so a coupon's events are in change order
+	private void appendEvent(CouponEventType type, CouponRow row, Long customerId) {
+		outbox.append(CouponEventType.AGGREGATE_TYPE, row.getId(), type.name(),
+				CouponEventType.payload(row.getId(), row.getCompanyId(), row.getCategory().getId(), row.getPrice(), customerId));
+	}
+
+	private void checkCompanyExists(long companyId) throws SQLException {
+		if (store.companies().get(companyId) == null) {
+			throw new SQLException("Company " + companyId + " does not exist (fk_company)", "23503");
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.dao.RowHandler;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerNotFoundException;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * CustomerDAO over the customers table of a MemoryStore. Deleting a customer deletes their
+ * purchases.
+ */
+public class InMemoryCustomerDAO extends InMemoryAccountDAO implements CustomerDAO {
+	private final AccountTable customers;
+	private final IdGenerator idGenerator;
+
+	public InMemoryCustomerDAO(MemoryStore store, IdGenerator idGenerator) {
+		super(store, store.customers());
+		this.customers = store.customers();
+		this.idGenerator = idGenerator;
+	}
+
+	@Override
+	void put(AccountRow row) throws SQLException {
+		store.putCustomer(row);
+	}
+
+	@Override
+	public boolean isCustomerExists(String customerEmail, String customerPassword) {
+		return credentialsMatch(customerEmail, customerPassword);
+	}
+
+	@Override
+	public boolean isCustomerEmailExists(String customerEmail) {
+		return emailExists(customerEmail);
+	}
+
+	@Override
+	public void addCustomer(@NotNull Customer customer) throws SQLException {
+		// Hash password with bcrypt before storing (outside the store lock)
+		String hashedPassword = PasswordHasher.hashPassword(customer.getPassword());
+		customer.setId(idGenerator.nextId());
+		AccountRow row = AccountRow.of(customer.getId(), customer.getFirstName(), customer.getLastName(),
+				customer.getEmail(), hashedPassword);
+		store.exclusive(() -> {
+			put(row);
+			return null;
+		});
+	}
+
+	@Override
+	public void updateCustomer(@NotNull Customer customer) throws SQLException {
+		String hashedPassword = PasswordHasher.hashPassword(customer.getPassword());
+		store.exclusive(() -> {
+			AccountRow row = customers.get(customer.getId());
+			if (row != null) {
+				put(row.withName(customer.getFirstName()).withLastName(customer.getLastName())
+						.withEmail(customer.getEmail()).withPassword(hashedPassword));
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public void deleteCustomer(long customerID) throws SQLException {
+		store.exclusive(() -> {
+			if (customers.get(customerID) != null) {
+				store.deleteCustomer(customerID);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public ArrayList<Customer> getAllCustomers() {
+		ArrayList<Customer> list = new ArrayList<>(customers.size());
+		for (AccountRow row : customers.rows()) {
+			list.add(toCustomer(row));
+		}
+		return list;
+	}
+
+	@Override
+	public void forEachCustomer(RowHandler<Customer> handler) throws IOException {
+		for (AccountRow row : customers.rows()) {
+			handler.handle(toCustomer(row));
+		}
+	}
+
+	@Override
+	public Customer getCustomer(long customerID) throws SQLException {
+		AccountRow row = customers.get(customerID);
+		if (row == null) {
+			throw new CustomerNotFoundException("Could not find Customer with id: " + customerID);
+		}
+		return toCustomer(row);
+	}
+
+	@Override
+	public Customer getCustomerByEmail(String email) throws SQLException {
+		AccountRow row = customers.firstByEmail(email);
+		if (row == null) {
+			throw new CustomerNotFoundException("Could not find Customer with email: " + email);
+		}
+		return toCustomer(row);
+	}
+
+	private static Customer toCustomer(AccountRow row) {
+		return new Customer(row.getId(), row.getName(), row.getLastName(), row.getEmail(), row.getPassword());
+	}
+}
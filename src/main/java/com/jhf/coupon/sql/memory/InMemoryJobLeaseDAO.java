@@ -0,0 +1,57 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.sql.dao.job.JobLeaseDAO;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Job leases of the in-memory storage engine. The store belongs to one process, so the only
+ * competing owners are JobRunners in the same JVM; the rules are those of job_leases.
+ */
+public class InMemoryJobLeaseDAO implements JobLeaseDAO {
+	private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+	@Value
+	@With
+	private static class Lease {
+		String owner;
+		LocalDateTime leaseUntil;
+		LocalDateTime lastSuccess;
+	}
+
+	@Override
+	public boolean tryAcquire(String jobName, int shard, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+		boolean[] acquired = new boolean[1];
+		leases.compute(key(jobName, shard), (key, lease) -> {
+			if (lease == null) {
+				acquired[0] = true;
+				return new Lease(owner, leaseUntil, null);
+			}
+			if (lease.getOwner().equals(owner) || lease.getLeaseUntil().isBefore(now)) {
+				acquired[0] = true;
+				return lease.withOwner(owner).withLeaseUntil(leaseUntil);
+			}
+			return lease;
+		});
+		return acquired[0];
+	}
+
+	@Override
+	public void recordSuccess(String jobName, int shard, LocalDateTime finishedAt) {
+		leases.computeIfPresent(key(jobName, shard), (key, lease) -> lease.withLastSuccess(finishedAt));
+	}
+
+	@Override
+	public LocalDateTime getLastSuccess(String jobName, int shard) {
+		Lease lease = leases.get(key(jobName, shard));
+		return lease != null ? lease.getLastSuccess() : null;
+	}
+
+	private static String key(String jobName, int shard) {
+		return jobName + '#' + shard;
+	}
+}
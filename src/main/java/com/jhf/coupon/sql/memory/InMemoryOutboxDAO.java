@@ -0,0 +1,88 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.sql.dao.outbox.OutboxDAO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox of the in-memory storage engine. The coupon DAO appends an event while it holds the
+ * store lock of the change, so events of one coupon are in change order; the OutboxRelay reads
+ * them as it reads outbox_events.
+ *
+ * Events are not written to the write-ahead log: subscribers keep in-process state that is
+ * rebuilt on startup, so events still unpublished when the process stops are dropped.
+ */
+public class InMemoryOutboxDAO implements OutboxDAO {
+	private final AtomicLong ids = new AtomicLong();
+	private final ConcurrentSkipListMap<Long, OutboxEvent> unpublished = new ConcurrentSkipListMap<>();
+	private final Map<Long, LocalDateTime> published = new ConcurrentHashMap<>();
+
+	void append(String aggregateType, long aggregateId, String eventType, String payload) {
+		long id = ids.incrementAndGet();
+		unpublished.put(id, new OutboxEvent(id, aggregateType, aggregateId, eventType, payload, LocalDateTime.now()));
+	}
+
+	@Override
+	public List<OutboxEvent> fetchUnpublished(int limit) {
+		List<OutboxEvent> list = new ArrayList<>(Math.min(limit, unpublished.size()));
+		for (OutboxEvent event : unpublished.values()) {
+			if (list.size() == limit) {
+				break;
+			}
+			list.add(event);
+		}
+		return list;
+	}
+
+	/**
+	 * The store serves a single process, so a lock stands in for FOR UPDATE SKIP LOCKED.
+	 */
+	@Override
+	public synchronized List<OutboxEvent> publishUnpublished(int limit, OutboxPublisher publisher)
+			throws InterruptedException {
+		List<OutboxEvent> events = fetchUnpublished(limit);
+		if (!events.isEmpty()) {
+			publisher.publish(events);
+			LocalDateTime publishedAt = LocalDateTime.now();
+			for (OutboxEvent event : events) {
+				unpublished.remove(event.getId());
+				published.put(event.getId(), publishedAt);
+			}
+		}
+		return events;
+	}
+
+	@Override
+	public void markPublished(List<Long> ids, LocalDateTime publishedAt) {
+		for (long id : ids) {
+			if (unpublished.remove(id) != null) {
+				published.put(id, publishedAt);
+			}
+		}
+	}
+
+	@Override
+	public long countUnpublished() {
+		return unpublished.size();
+	}
+
+	@Override
+	public int deletePublishedBefore(LocalDateTime cutoff) {
+		int deleted = 0;
+		for (Iterator<LocalDateTime> it = published.values().iterator(); it.hasNext(); ) {
+			if (it.next().isBefore(cutoff)) {
+				it.remove();
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+}
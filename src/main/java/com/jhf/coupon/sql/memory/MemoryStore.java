@@ -0,0 +1,577 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Embedded storage engine behind the in-memory DAOs (Spring profile "memory"): the companies,
+ * customers, coupons and customers_vs_coupons tables and the coupon_sales_daily rollup, held
+ * in concurrent maps with the same secondary indexes as the PostgreSQL schema.
+ *
+ * Concurrency: structural changes (inserting, updating or deleting companies, customers and
+ * coupons, with their cascades) run under the write lock of a global read-write lock. Purchases
+ * and lockout updates run under the read lock plus one of LOCK_STRIPES striped locks chosen by
+ * the row they change, so purchases of different coupons proceed in parallel while purchases
+ * of the same coupon are serialized like the row lock of the UPDATE ... amount > 0 they
+ * replace. Reads take no lock.
+ *
+ * Durability: every change is appended to the WriteAheadLog before it is applied, while its
+ * locks are held, so the log order is a valid order of the changes. snapshot() rotates the log
+ * under the write lock, copies the (immutable) rows, writes them to snapshot-N.bin outside the
+ * lock and deletes the segments and snapshots it replaces. open() loads the newest snapshot and
+ * replays the segments written after it.
+ */
+public final class MemoryStore implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(MemoryStore.class);
+
+	static final int LOCK_STRIPES = 64;
+
+	private static final int SNAPSHOT_MAGIC = 0x43534D53;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+	private static final String SNAPSHOT_SUFFIX = ".bin";
+
+	// Write-ahead log record types
+	private static final byte PUT_COMPANY = 1;
+	private static final byte PUT_CUSTOMER = 2;
+	private static final byte PUT_COUPON = 3;
+	private static final byte DELETE_COMPANY = 4;
+	private static final byte DELETE_CUSTOMER = 5;
+	private static final byte DELETE_COUPON = 6;
+	private static final byte PURCHASE = 7;
+	private static final byte DELETE_PURCHASE = 8;
+	private static final byte PURCHASES = 9;
+
+	private final Path directory;
+	private final AccountTable companies = new AccountTable();
+	private final AccountTable customers = new AccountTable();
+	private final CouponTable coupons = new CouponTable();
+	private final PurchaseTable purchases = new PurchaseTable();
+	private final SalesRollup sales = new SalesRollup();
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+	private final Object snapshotMonitor = new Object();
+	private WriteAheadLog wal;
+
+	@FunctionalInterface
+	public interface StoreAction<T> {
+		T run() throws SQLException;
+	}
+
+	@Value
+	private static class Purchase {
+		long customerId;
+		long couponId;
+		LocalDateTime purchasedAt;
+	}
+
+	@Value
+	private static class SalesCell {
+		long companyId;
+		LocalDate saleDate;
+		Category category;
+		int purchases;
+	}
+
+	private MemoryStore(Path directory) {
+		this.directory = directory;
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Opens the store in a directory, recovering the state left by the previous run.
+	 *
+	 * @param directory Directory for the log segments and snapshots (created if missing)
+	 * @param fsync Force every log append to disk before the change is applied
+	 */
+	public static MemoryStore open(Path directory, boolean fsync) throws IOException {
+		Files.createDirectories(directory);
+		MemoryStore store = new MemoryStore(directory);
+		long start = System.nanoTime();
+
+		long snapshot = latestSnapshot(directory);
+		if (snapshot > 0) {
+			store.loadSnapshot(snapshotPath(directory, snapshot));
+		}
+		int records = 0;
+		long lastSegment = 0;
+		for (long segment : WriteAheadLog.segments(directory)) {
+			if (segment >= snapshot) {
+				records += WriteAheadLog.replay(WriteAheadLog.segmentPath(directory, segment), store::apply);
+			}
+			lastSegment = segment;
+		}
+		// Appends go to a fresh segment, never after a tail written by an earlier run
+		store.wal = new WriteAheadLog(directory, Math.max(Math.max(snapshot, lastSegment + 1), 1), fsync);
+		logger.info("Memory store opened in {}ms: snapshot {}, {} log records replayed, {} companies, {} customers, {} coupons",
+				(System.nanoTime() - start) / 1_000_000, snapshot, records,
+				store.companies.size(), store.customers.size(), store.coupons.size());
+		return store;
+	}
+
+	AccountTable companies() {
+		return companies;
+	}
+
+	AccountTable customers() {
+		return customers;
+	}
+
+	CouponTable coupons() {
+		return coupons;
+	}
+
+	PurchaseTable purchases() {
+		return purchases;
+	}
+
+	SalesRollup sales() {
+		return sales;
+	}
+
+	// Locking
+
+	/**
+	 * Runs a structural change under the write lock.
+	 */
+	<T> T exclusive(StoreAction<T> action) throws SQLException {
+		lock.writeLock().lock();
+		try {
+			return action.run();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs a change to one row under the read lock and the row's lock stripe. Changes with the
+	 * same key are serialized; changes with other keys and reads run concurrently.
+	 */
+	<T> T shared(long key, StoreAction<T> action) throws SQLException {
+		ReentrantLock stripe = stripes[stripeOf(key)];
+		lock.readLock().lock();
+		try {
+			stripe.lock();
+			try {
+				return action.run();
+			} finally {
+				stripe.unlock();
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs a change to several rows under the read lock and their lock stripes, taken in
+	 * ascending stripe order so that two such changes sharing stripes cannot deadlock.
+	 */
+	<T> T sharedAll(long[] keys, StoreAction<T> action) throws SQLException {
+		int[] order = Arrays.stream(keys).mapToInt(MemoryStore::stripeOf).distinct().sorted().toArray();
+		lock.readLock().lock();
+		int locked = 0;
+		try {
+			for (int stripe : order) {
+				stripes[stripe].lock();
+				locked++;
+			}
+			return action.run();
+		} finally {
+			for (int i = locked - 1; i >= 0; i--) {
+				stripes[order[i]].unlock();
+			}
+			lock.readLock().unlock();
+		}
+	}
+
+	// Fibonacci hashing: generated IDs share their low (sequence) bits, so take the top bits
+	static int stripeOf(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - Integer.numberOfTrailingZeros(LOCK_STRIPES)));
+	}
+
+	// Changes: the caller holds the locks (see exclusive and shared). Each is logged, then applied
+
+	void putCompany(AccountRow row) throws SQLException {
+		log(PUT_COMPANY, out -> RowCodec.writeAccount(out, row));
+		companies.put(row);
+	}
+
+	void putCustomer(AccountRow row) throws SQLException {
+		log(PUT_CUSTOMER, out -> RowCodec.writeAccount(out, row));
+		customers.put(row);
+	}
+
+	void putCoupon(CouponRow row) throws SQLException {
+		log(PUT_COUPON, out -> RowCodec.writeCoupon(out, row));
+		coupons.put(row);
+	}
+
+	/**
+	 * Inserts coupons with one log append.
+	 */
+	void putCoupons(List<CouponRow> rows) throws SQLException {
+		List<byte[]> records = new ArrayList<>(rows.size());
+		for (CouponRow row : rows) {
+			records.add(encode(PUT_COUPON, out -> RowCodec.writeCoupon(out, row)));
+		}
+		try {
+			wal.appendAll(records);
+		} catch (IOException e) {
+			throw logFailure(e);
+		}
+		for (CouponRow row : rows) {
+			coupons.put(row);
+		}
+	}
+
+	/**
+	 * Deletes a company with its coupons, their purchases and its sales rollup (ON DELETE CASCADE).
+	 */
+	void deleteCompany(long companyId) throws SQLException {
+		log(DELETE_COMPANY, out -> out.writeLong(companyId));
+		applyDeleteCompany(companyId);
+	}
+
+	/**
+	 * Deletes a customer with their purchases.
+	 */
+	void deleteCustomer(long customerId) throws SQLException {
+		log(DELETE_CUSTOMER, out -> out.writeLong(customerId));
+		applyDeleteCustomer(customerId);
+	}
+
+	/**
+	 * Deletes a coupon with its purchases. The purchases stay counted in the sales rollup.
+	 */
+	void deleteCoupon(long couponId) throws SQLException {
+		log(DELETE_COUPON, out -> out.writeLong(couponId));
+		applyDeleteCoupon(couponId);
+	}
+
+	/**
+	 * Records a purchase: decrements the coupon's amount and counts the sale in the rollup.
+	 * The caller has checked that the coupon is in stock and not yet owned by the customer.
+	 */
+	void addPurchase(long customerId, long couponId, LocalDateTime purchasedAt) throws SQLException {
+		log(PURCHASE, out -> {
+			out.writeLong(customerId);
+			out.writeLong(couponId);
+			RowCodec.writeDateTime(out, purchasedAt);
+		});
+		applyPurchase(customerId, couponId, purchasedAt);
+	}
+
+	/**
+	 * Records several purchases of one customer as one log record, so recovery replays all of
+	 * them or none. The caller has checked every coupon as for addPurchase.
+	 */
+	void addPurchases(long customerId, long[] couponIds, LocalDateTime purchasedAt) throws SQLException {
+		log(PURCHASES, out -> {
+			out.writeLong(customerId);
+			out.writeInt(couponIds.length);
+			for (long couponId : couponIds) {
+				out.writeLong(couponId);
+			}
+			RowCodec.writeDateTime(out, purchasedAt);
+		});
+		applyPurchases(customerId, couponIds, purchasedAt);
+	}
+
+	/**
+	 * Deletes a purchase and removes it from the rollup. The amount is not restored, as in
+	 * the database.
+	 */
+	void deletePurchase(long customerId, long couponId) throws SQLException {
+		log(DELETE_PURCHASE, out -> {
+			out.writeLong(customerId);
+			out.writeLong(couponId);
+		});
+		applyDeletePurchase(customerId, couponId);
+	}
+
+	private void applyDeleteCompany(long companyId) {
+		companies.remove(companyId);
+		for (long couponId : List.copyOf(coupons.idsOfCompany(companyId))) {
+			applyDeleteCoupon(couponId);
+		}
+		sales.removeCompany(companyId);
+	}
+
+	private void applyDeleteCustomer(long customerId) {
+		customers.remove(customerId);
+		purchases.removeCustomer(customerId);
+	}
+
+	private void applyDeleteCoupon(long couponId) {
+		coupons.remove(couponId);
+		purchases.removeCoupon(couponId);
+	}
+
+	private void applyPurchase(long customerId, long couponId, LocalDateTime purchasedAt) {
+		CouponRow coupon = coupons.get(couponId);
+		coupons.put(coupon.withAmount(coupon.getAmount() - 1));
+		purchases.add(customerId, couponId, purchasedAt);
+		sales.add(coupon.getCompanyId(), purchasedAt.toLocalDate(), coupon.getCategory(), 1);
+	}
+
+	private void applyPurchases(long customerId, long[] couponIds, LocalDateTime purchasedAt) {
+		for (long couponId : couponIds) {
+			applyPurchase(customerId, couponId, purchasedAt);
+		}
+	}
+
+	private void applyDeletePurchase(long customerId, long couponId) {
+		LocalDateTime purchasedAt = purchases.remove(customerId, couponId);
+		CouponRow coupon = coupons.get(couponId);
+		if (purchasedAt != null && coupon != null) {
+			sales.decrement(coupon.getCompanyId(), purchasedAt.toLocalDate(), coupon.getCategory());
+		}
+	}
+
+	/**
+	 * Applies one logged change during recovery.
+	 */
+	private void apply(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+			case PUT_COMPANY -> companies.put(RowCodec.readAccount(in));
+			case PUT_CUSTOMER -> customers.put(RowCodec.readAccount(in));
+			case PUT_COUPON -> coupons.put(RowCodec.readCoupon(in));
+			case DELETE_COMPANY -> applyDeleteCompany(in.readLong());
+			case DELETE_CUSTOMER -> applyDeleteCustomer(in.readLong());
+			case DELETE_COUPON -> applyDeleteCoupon(in.readLong());
+			case PURCHASE -> applyPurchase(in.readLong(), in.readLong(), RowCodec.readDateTime(in));
+			case DELETE_PURCHASE -> applyDeletePurchase(in.readLong(), in.readLong());
+			case PURCHASES -> {
+				long customerId = in.readLong();
+				long[] couponIds = new long[in.readInt()];
+				for (int i = 0; i < couponIds.length; i++) {
+					couponIds[i] = in.readLong();
+				}
+				applyPurchases(customerId, couponIds, RowCodec.readDateTime(in));
+			}
+			default -> throw new IOException("Unknown log record type " + type);
+		}
+	}
+
+	@FunctionalInterface
+	private interface RecordWriter {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	private void log(byte type, RecordWriter writer) throws SQLException {
+		try {
+			wal.append(encode(type, writer));
+		} catch (IOException e) {
+			throw logFailure(e);
+		}
+	}
+
+	private static byte[] encode(byte type, RecordWriter writer) throws SQLException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(type);
+			writer.write(out);
+		} catch (IOException e) {
+			throw logFailure(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	// SQLState 58030 (io_error), as PostgreSQL reports a failed write
+	private static SQLException logFailure(IOException e) {
+		return new SQLException("Could not append to the write-ahead log", "58030", e);
+	}
+
+	// Snapshots
+
+	/**
+	 * Writes a snapshot of the whole store and deletes the log segments it covers. Changes
+	 * are blocked only while the log is rotated and the rows are copied.
+	 *
+	 * @return Number of rows written
+	 */
+	public int snapshot() throws IOException {
+		synchronized (snapshotMonitor) {
+			long segment;
+			List<AccountRow> companyRows;
+			List<AccountRow> customerRows;
+			List<CouponRow> couponRows;
+			List<Purchase> purchaseRows = new ArrayList<>();
+			List<SalesCell> salesCells = new ArrayList<>();
+			lock.writeLock().lock();
+			try {
+				segment = wal.rotate();
+				companyRows = new ArrayList<>(companies.rows());
+				customerRows = new ArrayList<>(customers.rows());
+				couponRows = new ArrayList<>(coupons.rows());
+				purchases.forEach((customerId, couponId, purchasedAt) ->
+						purchaseRows.add(new Purchase(customerId, couponId, purchasedAt)));
+				sales.forEach((companyId, saleDate, category, count) ->
+						salesCells.add(new SalesCell(companyId, saleDate, category, count)));
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+			Path target = snapshotPath(directory, segment);
+			Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+			CRC32 crc = new CRC32();
+			try (OutputStream file = Files.newOutputStream(temporary);
+			     DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(SNAPSHOT_VERSION);
+				out.writeInt(companyRows.size());
+				for (AccountRow row : companyRows) {
+					RowCodec.writeAccount(out, row);
+				}
+				out.writeInt(customerRows.size());
+				for (AccountRow row : customerRows) {
+					RowCodec.writeAccount(out, row);
+				}
+				out.writeInt(couponRows.size());
+				for (CouponRow row : couponRows) {
+					RowCodec.writeCoupon(out, row);
+				}
+				out.writeInt(purchaseRows.size());
+				for (Purchase purchase : purchaseRows) {
+					out.writeLong(purchase.getCustomerId());
+					out.writeLong(purchase.getCouponId());
+					RowCodec.writeDateTime(out, purchase.getPurchasedAt());
+				}
+				out.writeInt(salesCells.size());
+				for (SalesCell cell : salesCells) {
+					out.writeLong(cell.getCompanyId());
+					RowCodec.writeDate(out, cell.getSaleDate());
+					out.writeInt(cell.getCategory().getId());
+					out.writeInt(cell.getPurchases());
+				}
+				out.flush();
+				// The checksum covers everything before it
+				new DataOutputStream(file).writeInt((int) crc.getValue());
+			}
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			syncDirectory();
+
+			wal.deleteSegmentsBefore(segment);
+			for (long older : snapshots(directory)) {
+				if (older < segment) {
+					Files.deleteIfExists(snapshotPath(directory, older));
+				}
+			}
+			int rows = companyRows.size() + customerRows.size() + couponRows.size() + purchaseRows.size()
+					+ salesCells.size();
+			logger.info("Memory store snapshot {} written: {} rows", segment, rows);
+			return rows;
+		}
+	}
+
+	private void loadSnapshot(Path file) throws IOException {
+		CRC32 crc = new CRC32();
+		try (BufferedInputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+			DataInputStream in = new DataInputStream(new CheckedInputStream(stream, crc));
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+				throw new IOException("Not a memory store snapshot: " + file);
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				companies.put(RowCodec.readAccount(in));
+			}
+			count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				customers.put(RowCodec.readAccount(in));
+			}
+			count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				coupons.put(RowCodec.readCoupon(in));
+			}
+			count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				purchases.add(in.readLong(), in.readLong(), RowCodec.readDateTime(in));
+			}
+			count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				sales.add(in.readLong(), RowCodec.readDate(in), RowCodec.readCategory(in), in.readInt());
+			}
+			int expected = (int) crc.getValue();
+			if (new DataInputStream(stream).readInt() != expected) {
+				throw new IOException("Checksum mismatch in snapshot " + file);
+			}
+		}
+	}
+
+	private void syncDirectory() {
+		// Makes the rename durable; not supported on every platform, where the rename is still atomic
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			logger.debug("Could not fsync directory {}", directory, e);
+		}
+	}
+
+	/**
+	 * @return Number of the newest snapshot (the first log segment it does not cover), or 0 if none
+	 */
+	private static long latestSnapshot(Path directory) throws IOException {
+		List<Long> numbers = snapshots(directory);
+		return numbers.isEmpty() ? 0 : numbers.get(numbers.size() - 1);
+	}
+
+	private static List<Long> snapshots(Path directory) throws IOException {
+		List<Long> numbers = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.map(file -> file.getFileName().toString())
+					.filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+					.forEach(name -> numbers.add(Long.parseLong(
+							name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()))));
+		}
+		numbers.sort(null);
+		return numbers;
+	}
+
+	private static Path snapshotPath(Path directory, long segment) {
+		return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+	}
+
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try {
+			wal.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+}
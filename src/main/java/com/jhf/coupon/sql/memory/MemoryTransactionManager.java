@@ -0,0 +1,31 @@
+package com.jhf.coupon.sql.memory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Transaction manager for the facades' @Transactional methods when the DAOs are in memory.
+ * Each DAO call is atomic on its own (see MemoryStore), as each JDBC DAO call commits its own
+ * connection, so there is no resource to bind; this only keeps @Transactional from opening a
+ * database connection.
+ */
+public class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+	@Override
+	protected Object doGetTransaction() {
+		return new Object();
+	}
+
+	@Override
+	protected void doBegin(Object transaction, TransactionDefinition definition) {
+	}
+
+	@Override
+	protected void doCommit(DefaultTransactionStatus status) {
+	}
+
+	@Override
+	protected void doRollback(DefaultTransactionStatus status) {
+	}
+}
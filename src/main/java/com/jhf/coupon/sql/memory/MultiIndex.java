@@ -0,0 +1,53 @@
+package com.jhf.coupon.sql.memory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary index from a column value to the IDs of the rows holding it, like a non-unique
+ * B-tree index. IDs under a key are kept in ascending order. Null keys are not indexed, since
+ * "column = ?" never matches NULL.
+ *
+ * @param <K> Indexed column type
+ */
+final class MultiIndex<K> {
+	private final ConcurrentMap<K, Set<Long>> entries;
+
+	/**
+	 * @param entries Backing map; a ConcurrentSkipListMap makes the index usable for range scans
+	 */
+	MultiIndex(ConcurrentMap<K, Set<Long>> entries) {
+		this.entries = entries;
+	}
+
+	void add(K key, long id) {
+		if (key != null) {
+			entries.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+		}
+	}
+
+	void remove(K key, long id) {
+		if (key != null) {
+			entries.computeIfPresent(key, (k, ids) -> {
+				ids.remove(id);
+				return ids.isEmpty() ? null : ids;
+			});
+		}
+	}
+
+	/**
+	 * @return IDs under the key, in ascending order (empty if none)
+	 */
+	Set<Long> get(K key) {
+		if (key == null) {
+			return Set.of();
+		}
+		Set<Long> ids = entries.get(key);
+		return ids != null ? ids : Set.of();
+	}
+
+	void clear() {
+		entries.clear();
+	}
+}
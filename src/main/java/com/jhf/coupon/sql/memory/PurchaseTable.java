@@ -0,0 +1,119 @@
+package com.jhf.coupon.sql.memory;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The customers_vs_coupons table, held twice: purchase time by coupon ID per customer (the
+ * primary key), and customers per coupon (idx_customers_vs_coupons_coupon).
+ *
+ * Purchases of the same coupon are serialized by MemoryStore's lock stripe for the coupon;
+ * purchases of different coupons by one customer may run concurrently, so each per-key set
+ * is updated inside compute() on its map entry.
+ */
+final class PurchaseTable {
+	private final ConcurrentHashMap<Long, ConcurrentSkipListMap<Long, LocalDateTime>> byCustomer =
+			new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, Set<Long>> byCoupon = new ConcurrentHashMap<>();
+
+	@FunctionalInterface
+	interface PurchaseConsumer {
+		void accept(long customerId, long couponId, LocalDateTime purchasedAt);
+	}
+
+	boolean contains(long customerId, long couponId) {
+		Map<Long, LocalDateTime> coupons = byCustomer.get(customerId);
+		return coupons != null && coupons.containsKey(couponId);
+	}
+
+	/**
+	 * @return Purchase time by coupon ID, in coupon ID order (empty if none)
+	 */
+	NavigableMap<Long, LocalDateTime> ofCustomer(long customerId) {
+		NavigableMap<Long, LocalDateTime> coupons = byCustomer.get(customerId);
+		return coupons != null ? coupons : new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * @return Live view of the buyers per coupon ID
+	 */
+	Map<Long, Set<Long>> customersByCoupon() {
+		return byCoupon;
+	}
+
+	void add(long customerId, long couponId, LocalDateTime purchasedAt) {
+		byCustomer.compute(customerId, (id, coupons) -> {
+			ConcurrentSkipListMap<Long, LocalDateTime> map = coupons != null ? coupons : new ConcurrentSkipListMap<>();
+			map.put(couponId, purchasedAt);
+			return map;
+		});
+		byCoupon.compute(couponId, (id, customers) -> {
+			Set<Long> set = customers != null ? customers : new ConcurrentSkipListSet<>();
+			set.add(customerId);
+			return set;
+		});
+	}
+
+	/**
+	 * @return Purchase time of the removed purchase, or null if there was none
+	 */
+	LocalDateTime remove(long customerId, long couponId) {
+		LocalDateTime[] purchasedAt = new LocalDateTime[1];
+		byCustomer.computeIfPresent(customerId, (id, coupons) -> {
+			purchasedAt[0] = coupons.remove(couponId);
+			return coupons.isEmpty() ? null : coupons;
+		});
+		byCoupon.computeIfPresent(couponId, (id, customers) -> {
+			customers.remove(customerId);
+			return customers.isEmpty() ? null : customers;
+		});
+		return purchasedAt[0];
+	}
+
+	void removeCustomer(long customerId) {
+		Map<Long, LocalDateTime> coupons = byCustomer.remove(customerId);
+		if (coupons != null) {
+			for (long couponId : coupons.keySet()) {
+				byCoupon.computeIfPresent(couponId, (id, customers) -> {
+					customers.remove(customerId);
+					return customers.isEmpty() ? null : customers;
+				});
+			}
+		}
+	}
+
+	void removeCoupon(long couponId) {
+		Set<Long> customers = byCoupon.remove(couponId);
+		if (customers != null) {
+			for (long customerId : customers) {
+				byCustomer.computeIfPresent(customerId, (id, coupons) -> {
+					coupons.remove(couponId);
+					return coupons.isEmpty() ? null : coupons;
+				});
+			}
+		}
+	}
+
+	void forEach(PurchaseConsumer consumer) {
+		byCustomer.forEach((customerId, coupons) ->
+				coupons.forEach((couponId, purchasedAt) -> consumer.accept(customerId, couponId, purchasedAt)));
+	}
+
+	int size() {
+		int size = 0;
+		for (Map<Long, LocalDateTime> coupons : byCustomer.values()) {
+			size += coupons.size();
+		}
+		return size;
+	}
+
+	void clear() {
+		byCustomer.clear();
+		byCoupon.clear();
+	}
+}
@@ -0,0 +1,111 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of rows and column values, shared by the write-ahead log and snapshots.
+ * Nullable values carry a presence marker; strings are length-prefixed UTF-8.
+ */
+final class RowCodec {
+	private static final long NULL_DATE = Long.MIN_VALUE;
+
+	private RowCodec() {
+	}
+
+	static void writeAccount(DataOutput out, AccountRow row) throws IOException {
+		out.writeLong(row.getId());
+		writeString(out, row.getName());
+		writeString(out, row.getLastName());
+		writeString(out, row.getEmail());
+		writeString(out, row.getPassword());
+		out.writeInt(row.getFailedLoginAttempts());
+		out.writeBoolean(row.isAccountLocked());
+		writeDateTime(out, row.getLockedUntil());
+		writeDateTime(out, row.getLastFailedLogin());
+	}
+
+	static AccountRow readAccount(DataInput in) throws IOException {
+		return new AccountRow(in.readLong(), readString(in), readString(in), readString(in), readString(in),
+				in.readInt(), in.readBoolean(), readDateTime(in), readDateTime(in));
+	}
+
+	static void writeCoupon(DataOutput out, CouponRow row) throws IOException {
+		out.writeLong(row.getId());
+		out.writeLong(row.getCompanyId());
+		out.writeInt(row.getCategory().getId());
+		writeString(out, row.getTitle());
+		writeString(out, row.getDescription());
+		writeDate(out, row.getStartDate());
+		writeDate(out, row.getEndDate());
+		out.writeInt(row.getAmount());
+		out.writeDouble(row.getPrice());
+		writeString(out, row.getImage());
+	}
+
+	static CouponRow readCoupon(DataInput in) throws IOException {
+		return new CouponRow(in.readLong(), in.readLong(), readCategory(in), readString(in), readString(in),
+				readDate(in), readDate(in), in.readInt(), in.readDouble(), readString(in));
+	}
+
+	static Category readCategory(DataInput in) throws IOException {
+		int categoryId = in.readInt();
+		try {
+			return Category.getCategory(categoryId);
+		} catch (CategoryNotFoundException e) {
+			throw new IOException("Unknown category " + categoryId + " in stored row", e);
+		}
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInput in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeDate(DataOutput out, LocalDate value) throws IOException {
+		out.writeLong(value != null ? value.toEpochDay() : NULL_DATE);
+	}
+
+	static LocalDate readDate(DataInput in) throws IOException {
+		long epochDay = in.readLong();
+		return epochDay != NULL_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+	}
+
+	static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+			out.writeInt(value.getNano());
+		}
+	}
+
+	static LocalDateTime readDateTime(DataInput in) throws IOException {
+		if (!in.readBoolean()) {
+			return null;
+		}
+		return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+	}
+}
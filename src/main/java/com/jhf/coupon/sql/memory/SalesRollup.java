@@ -0,0 +1,61 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+
+import java.time.LocalDate;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The coupon_sales_daily rollup: purchases per company, day and category. Cells are updated
+ * with atomic merges, so purchases of different coupons of one company may run concurrently.
+ * A cell that drops to zero is removed.
+ */
+final class SalesRollup {
+	private final ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDate, ConcurrentSkipListMap<Category, Integer>>> companies =
+			new ConcurrentHashMap<>();
+
+	@FunctionalInterface
+	interface CellConsumer {
+		void accept(long companyId, LocalDate saleDate, Category category, int purchases);
+	}
+
+	void add(long companyId, LocalDate saleDate, Category category, int purchases) {
+		companies.computeIfAbsent(companyId, id -> new ConcurrentSkipListMap<>())
+				.computeIfAbsent(saleDate, day -> new ConcurrentSkipListMap<>())
+				.merge(category, purchases, Integer::sum);
+	}
+
+	void decrement(long companyId, LocalDate saleDate, Category category) {
+		NavigableMap<LocalDate, ConcurrentSkipListMap<Category, Integer>> days = companies.get(companyId);
+		ConcurrentSkipListMap<Category, Integer> cells = days != null ? days.get(saleDate) : null;
+		if (cells != null) {
+			cells.computeIfPresent(category, (c, purchases) -> purchases > 1 ? purchases - 1 : null);
+		}
+	}
+
+	/**
+	 * @return Cells by day then category (ordinal order matches category ID order), from and to inclusive
+	 */
+	NavigableMap<LocalDate, ConcurrentSkipListMap<Category, Integer>> range(long companyId, LocalDate from, LocalDate to) {
+		ConcurrentSkipListMap<LocalDate, ConcurrentSkipListMap<Category, Integer>> days = companies.get(companyId);
+		if (days == null || from.isAfter(to)) {
+			return new ConcurrentSkipListMap<>();
+		}
+		return days.subMap(from, true, to, true);
+	}
+
+	void removeCompany(long companyId) {
+		companies.remove(companyId);
+	}
+
+	void forEach(CellConsumer consumer) {
+		companies.forEach((companyId, days) -> days.forEach((saleDate, cells) ->
+				cells.forEach((category, purchases) -> consumer.accept(companyId, saleDate, category, purchases))));
+	}
+
+	void clear() {
+		companies.clear();
+	}
+}
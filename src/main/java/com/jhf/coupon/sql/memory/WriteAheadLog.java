@@ -0,0 +1,216 @@
+package com.jhf.coupon.sql.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of MemoryStore changes, split into numbered segment files (wal-N.log).
+ *
+ * Each record is framed as [length][CRC32][payload]. Appends go straight to the file channel,
+ * so a record survives a crash of the process as soon as append() returns; with fsync it also
+ * survives a crash of the machine. A snapshot rotates the log to a new segment, and segments
+ * older than the newest snapshot are deleted.
+ *
+ * On replay, a record that is cut short or fails its checksum (a write torn by a crash) ends
+ * the segment: the file is truncated there, so later appends and replays start from a clean
+ * tail.
+ */
+final class WriteAheadLog implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+	private static final String SEGMENT_PREFIX = "wal-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final int HEADER_BYTES = 2 * Integer.BYTES;
+	static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+	private final Path directory;
+	private final boolean fsync;
+	private FileChannel channel;
+	private long segment;
+
+	@FunctionalInterface
+	interface RecordHandler {
+		void apply(DataInputStream record) throws IOException;
+	}
+
+	/**
+	 * Opens segment for appending, creating it if needed.
+	 */
+	WriteAheadLog(Path directory, long segment, boolean fsync) throws IOException {
+		this.directory = directory;
+		this.fsync = fsync;
+		this.segment = segment;
+		this.channel = open(segmentPath(directory, segment));
+	}
+
+	synchronized void append(byte[] record) throws IOException {
+		write(frame(record));
+	}
+
+	/**
+	 * Appends records with one write (and one fsync).
+	 */
+	synchronized void appendAll(List<byte[]> records) throws IOException {
+		int size = 0;
+		for (byte[] record : records) {
+			size += HEADER_BYTES + record.length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		for (byte[] record : records) {
+			buffer.put(frame(record));
+		}
+		buffer.flip();
+		write(buffer);
+	}
+
+	/**
+	 * Closes the current segment and starts the next one.
+	 *
+	 * @return Number of the new segment
+	 */
+	synchronized long rotate() throws IOException {
+		channel.force(false);
+		channel.close();
+		segment++;
+		channel = open(segmentPath(directory, segment));
+		return segment;
+	}
+
+	synchronized long getSegment() {
+		return segment;
+	}
+
+	/**
+	 * Deletes segments numbered below the given one (their changes are in a snapshot).
+	 */
+	void deleteSegmentsBefore(long first) throws IOException {
+		for (long number : segments(directory)) {
+			if (number < first) {
+				Files.deleteIfExists(segmentPath(directory, number));
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			channel.force(false);
+			channel.close();
+		}
+	}
+
+	/**
+	 * @return Numbers of the segment files in the directory, ascending
+	 */
+	static List<Long> segments(Path directory) throws IOException {
+		List<Long> numbers = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.map(file -> file.getFileName().toString())
+					.filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+					.forEach(name -> numbers.add(Long.parseLong(
+							name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+		}
+		numbers.sort(null);
+		return numbers;
+	}
+
+	static Path segmentPath(Path directory, long segment) {
+		return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+	}
+
+	/**
+	 * Passes every intact record of a segment to the handler, in order.
+	 *
+	 * @return Number of records replayed
+	 */
+	static int replay(Path file, RecordHandler handler) throws IOException {
+		int records = 0;
+		long validBytes = 0;
+		boolean torn = false;
+		try (InputStream stream = new BufferedInputStream(Files.newInputStream(file));
+		     DataInputStream in = new DataInputStream(stream)) {
+			while (true) {
+				int length;
+				try {
+					length = in.readInt();
+				} catch (EOFException e) {
+					break;
+				}
+				byte[] payload;
+				try {
+					int checksum = in.readInt();
+					if (length <= 0 || length > MAX_RECORD_BYTES) {
+						torn = true;
+						break;
+					}
+					payload = in.readNBytes(length);
+					if (payload.length < length || checksum != checksum(payload)) {
+						torn = true;
+						break;
+					}
+				} catch (EOFException e) {
+					torn = true;
+					break;
+				}
+				handler.apply(new DataInputStream(new ByteArrayInputStream(payload)));
+				validBytes += HEADER_BYTES + length;
+				records++;
+			}
+		}
+		if (torn || validBytes < Files.size(file)) {
+			logger.warn("Truncating torn tail of {} at byte {} after {} records", file.getFileName(), validBytes, records);
+			try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				truncate.truncate(validBytes);
+				truncate.force(false);
+			}
+		}
+		return records;
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		if (fsync) {
+			channel.force(false);
+		}
+	}
+
+	private static ByteBuffer frame(byte[] record) {
+		if (record.length == 0 || record.length > MAX_RECORD_BYTES) {
+			throw new IllegalArgumentException("Record size out of range: " + record.length);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + record.length);
+		buffer.putInt(record.length);
+		buffer.putInt(checksum(record));
+		buffer.put(record);
+		buffer.flip();
+		return buffer;
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	private static FileChannel open(Path file) throws IOException {
+		return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+}
@@ -0,0 +1,9 @@
+package com.jhf.coupon.sql.routing;
+
+/**
+ * Connection pools behind ReadWriteRoutingDataSource.
+ */
+public enum DataSourceRoute {
+	PRIMARY,
+	REPLICA
+}
@@ -0,0 +1,33 @@
+package com.jhf.coupon.sql.routing;
+
+/**
+ * Route chosen for the current thread by ReplicaRoutingInterceptor and read by
+ * ReadWriteRoutingDataSource when a connection is requested. No route means PRIMARY.
+ */
+public final class DataSourceRouteContext {
+	private static final ThreadLocal<DataSourceRoute> CURRENT = new ThreadLocal<>();
+
+	private DataSourceRouteContext() {
+	}
+
+	public static DataSourceRoute current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Sets the route and returns the previous one, to be passed to restore().
+	 */
+	public static DataSourceRoute enter(DataSourceRoute route) {
+		DataSourceRoute previous = CURRENT.get();
+		CURRENT.set(route);
+		return previous;
+	}
+
+	public static void restore(DataSourceRoute previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.jhf.coupon.sql.routing;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a DAO method that only reads and tolerates replica lag, so its connection may come
+ * from the read replica pool. Equivalent to {@code @Transactional(readOnly = true)} for
+ * routing, without opening a transaction.
+ *
+ * The replica is not used when the call is nested in a write (the outer method's route
+ * wins) or when the current user wrote recently (see ReadYourWritesTracker).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnlyQuery {
+}
@@ -0,0 +1,59 @@
+package com.jhf.coupon.sql.routing;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource over a primary and a read replica pool. Connections come from the replica only
+ * while DataSourceRouteContext says REPLICA (set by ReplicaRoutingInterceptor); everything
+ * else, including schema initialization and unannotated DAO methods, uses the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+	private final HikariDataSource primary;
+	private final HikariDataSource replica;
+	private final PrometheusMetrics metrics;
+
+	public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, PrometheusMetrics metrics) {
+		this.primary = primary;
+		this.replica = replica;
+		this.metrics = metrics;
+		setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		metrics.registerConnectionPool("primary", primary);
+		metrics.registerConnectionPool("replica", replica);
+	}
+
+	/**
+	 * @return Primary and replica pools, for load monitoring
+	 */
+	public List<HikariDataSource> getPools() {
+		return List.of(primary, replica);
+	}
+
+	public HikariDataSource getPrimary() {
+		return primary;
+	}
+
+	public HikariDataSource getReplica() {
+		return replica;
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		DataSourceRoute route = DataSourceRouteContext.current() == DataSourceRoute.REPLICA
+				? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+		metrics.recordDataSourceRoute(route.name().toLowerCase());
+		return route;
+	}
+
+	@Override
+	public void destroy() {
+		replica.close();
+		primary.close();
+	}
+}
@@ -0,0 +1,47 @@
+package com.jhf.coupon.sql.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users wrote to the primary recently, so their reads skip the replica until
+ * it has had time to catch up. Without this a customer could buy a coupon and not see it in
+ * their own coupon list on the next request.
+ *
+ * Entries expire sticky-seconds after the latest write; the cache is size-bounded.
+ */
+public class ReadYourWritesTracker {
+	private final Cache<String, Boolean> recentWriters;
+
+	public ReadYourWritesTracker(Duration stickiness, long maxTracked) {
+		this(stickiness, maxTracked, Ticker.systemTicker());
+	}
+
+	ReadYourWritesTracker(Duration stickiness, long maxTracked, Ticker ticker) {
+		this.recentWriters = Caffeine.newBuilder()
+				.expireAfterWrite(stickiness)
+				.maximumSize(maxTracked)
+				.ticker(ticker)
+				.build();
+	}
+
+	/**
+	 * @param principal Authenticated user name, or null for anonymous/background work
+	 */
+	public void markWritten(String principal) {
+		if (principal != null) {
+			recentWriters.put(principal, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * @param principal Authenticated user name, or null
+	 * @return true if the user's reads must go to the primary
+	 */
+	public boolean isSticky(String principal) {
+		return principal != null && recentWriters.getIfPresent(principal) != null;
+	}
+}
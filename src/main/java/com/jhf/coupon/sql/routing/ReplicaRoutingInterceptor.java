@@ -0,0 +1,97 @@
+package com.jhf.coupon.sql.routing;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+
+/**
+ * Chooses the connection pool for a call from its annotations:
+ * <ul>
+ *   <li>{@code @ReadOnlyQuery} or {@code @Transactional(readOnly = true)}: replica, unless
+ *       the current user wrote within the stickiness window.</li>
+ *   <li>{@code @Transactional} (read-write): primary for the whole call, including nested
+ *       read-only queries; on success the current user becomes sticky.</li>
+ * </ul>
+ * The outermost annotated call decides; a nested write inside a read-only call still goes to
+ * the primary. Unannotated code always uses the primary.
+ */
+public class ReplicaRoutingInterceptor implements MethodInterceptor {
+	private final ReadYourWritesTracker tracker;
+	private final PrometheusMetrics metrics;
+
+	public ReplicaRoutingInterceptor(ReadYourWritesTracker tracker, PrometheusMetrics metrics) {
+		this.tracker = tracker;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+		DataSourceRoute requested = requestedRoute(invocation.getMethod(), targetClass);
+		DataSourceRoute previous = DataSourceRouteContext.current();
+		if (requested == null || (previous != null && requested != DataSourceRoute.PRIMARY)) {
+			return invocation.proceed();
+		}
+
+		DataSourceRoute route = requested;
+		String principal = currentPrincipal();
+		if (route == DataSourceRoute.REPLICA && tracker.isSticky(principal)) {
+			route = DataSourceRoute.PRIMARY;
+			metrics.recordStickyPrimaryRead();
+		}
+
+		DataSourceRouteContext.enter(route);
+		try {
+			Object result = invocation.proceed();
+			if (requested == DataSourceRoute.PRIMARY) {
+				tracker.markWritten(principal);
+			}
+			return result;
+		} finally {
+			DataSourceRouteContext.restore(previous);
+		}
+	}
+
+	static DataSourceRoute requestedRoute(Method method, Class<?> targetClass) {
+		Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+		if (AnnotatedElementUtils.hasAnnotation(specificMethod, ReadOnlyQuery.class)) {
+			return DataSourceRoute.REPLICA;
+		}
+		Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Transactional.class);
+		if (transactional == null && targetClass != null) {
+			transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+		}
+		if (transactional == null) {
+			return null;
+		}
+		return transactional.readOnly() ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+	}
+
+	private static String currentPrincipal() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+
+	/**
+	 * Matches the methods this interceptor routes, so other beans are not proxied.
+	 */
+	public static class RoutedMethodPointcut extends StaticMethodMatcherPointcut {
+		@Override
+		public boolean matches(Method method, Class<?> targetClass) {
+			return requestedRoute(method, targetClass) != null;
+		}
+	}
+}
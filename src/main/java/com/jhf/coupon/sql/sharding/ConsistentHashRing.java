@@ -0,0 +1,108 @@
+package com.jhf.coupon.sql.sharding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps company IDs to shards on a consistent-hash ring.
+ *
+ * Every shard owns weight * virtualNodes points on a 64-bit ring, placed by hashing
+ * "name#i", so a shard keeps its points however the shard list is ordered. A company
+ * belongs to the shard owning the first point at or after the hash of its ID. Adding a
+ * shard therefore only moves companies to the new shard (about 1/N of them), and removing
+ * one only moves that shard's companies.
+ */
+public final class ConsistentHashRing {
+	private final List<String> shards;
+	private final long[] points;
+	private final int[] owners;
+
+	/**
+	 * @param shards Shard names, in the order shardFor() indexes them
+	 * @param weights Relative weight of each shard (number of virtual nodes multiplier)
+	 * @param virtualNodes Virtual nodes per unit of weight
+	 */
+	public ConsistentHashRing(List<String> shards, List<Integer> weights, int virtualNodes) {
+		if (shards.isEmpty() || shards.size() != weights.size()) {
+			throw new IllegalArgumentException("Need one weight per shard and at least one shard");
+		}
+		if (virtualNodes < 1) {
+			throw new IllegalArgumentException("virtualNodes must be at least 1: " + virtualNodes);
+		}
+		Set<String> names = new HashSet<>(shards);
+		if (names.size() != shards.size()) {
+			throw new IllegalArgumentException("Duplicate shard name in " + shards);
+		}
+
+		List<long[]> entries = new ArrayList<>();
+		for (int shard = 0; shard < shards.size(); shard++) {
+			int weight = weights.get(shard);
+			if (weight < 1) {
+				throw new IllegalArgumentException("Weight of shard " + shards.get(shard) + " must be at least 1");
+			}
+			for (int i = 0; i < weight * virtualNodes; i++) {
+				entries.add(new long[]{pointHash(shards.get(shard) + "#" + i), shard});
+			}
+		}
+		// Ties (practically impossible with 64-bit points) go to the lower shard index
+		entries.sort((a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+		this.shards = List.copyOf(shards);
+		this.points = new long[entries.size()];
+		this.owners = new int[entries.size()];
+		for (int i = 0; i < entries.size(); i++) {
+			points[i] = entries.get(i)[0];
+			owners[i] = (int) entries.get(i)[1];
+		}
+	}
+
+	/**
+	 * @return Index (into getShards()) of the shard holding a company
+	 */
+	public int shardFor(long companyId) {
+		long hash = keyHash(companyId);
+		int low = 0;
+		int high = points.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (Long.compareUnsigned(points[mid], hash) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return owners[low == points.length ? 0 : low];
+	}
+
+	public List<String> getShards() {
+		return shards;
+	}
+
+	public int size() {
+		return shards.size();
+	}
+
+	// SplitMix64 finalizer: consecutive IDs land far apart on the ring
+	static long keyHash(long companyId) {
+		long z = companyId + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static long pointHash(String node) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(node.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(Arrays.copyOf(digest, Long.BYTES)).getLong();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 not available", e);
+		}
+	}
+}
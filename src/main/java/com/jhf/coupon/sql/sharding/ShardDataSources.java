@@ -0,0 +1,32 @@
+package com.jhf.coupon.sql.sharding;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pools of the additional coupon shards, by shard name. The primary database's pool
+ * is not included: it stays Boot's (or ReadReplicaConfig's) DataSource.
+ */
+public class ShardDataSources implements AutoCloseable {
+	private final Map<String, HikariDataSource> pools;
+
+	public ShardDataSources(Map<String, HikariDataSource> pools, PrometheusMetrics metrics) {
+		this.pools = new LinkedHashMap<>(pools);
+		pools.forEach((name, pool) -> metrics.registerConnectionPool("shard-" + name, pool));
+	}
+
+	/**
+	 * @return Pools in configuration order
+	 */
+	public Map<String, HikariDataSource> getPools() {
+		return pools;
+	}
+
+	@Override
+	public void close() {
+		pools.values().forEach(HikariDataSource::close);
+	}
+}
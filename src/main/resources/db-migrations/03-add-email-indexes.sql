@@ -0,0 +1,13 @@
+--
+-- Email Lookup Indexes Migration (PostgreSQL)
+-- Date: 2026-10-18
+-- Purpose: Index the login lookup column on companies and customers
+--
+
+-- Used in: CompaniesDAO.authenticateAndTrack(), getCompanyByEmail(), isCompanyEmailExists()
+-- Query: SELECT id, password, account_locked, ... FROM companies WHERE email = ?
+CREATE INDEX IF NOT EXISTS idx_companies_email ON companies(email);
+
+-- Used in: CustomerDAO.authenticateAndTrack(), getCustomerByEmail(), isCustomerEmailExists()
+-- Query: SELECT id, password, account_locked, ... FROM customers WHERE email = ?
+CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
@@ -0,0 +1,21 @@
+--
+-- Purchase Analytics Migration (PostgreSQL)
+-- Date: 2026-10-18
+-- Purpose: Timestamp coupon purchases and keep a per-company, per-category, per-day rollup
+--
+
+-- Purchases made before this migration have no known time and stay NULL (not counted in rollups)
+ALTER TABLE customers_vs_coupons ADD COLUMN IF NOT EXISTS purchased_at TIMESTAMP NULL;
+
+-- Maintained incrementally by CouponsDAO.addCouponPurchase() / deleteCouponPurchase()
+-- Read by: CouponsDAO.getCompanyDailySales(), getCompanySalesByCategory()
+-- Query: SELECT ... FROM coupon_sales_daily WHERE company_id = ? AND sale_date BETWEEN ? AND ?
+CREATE TABLE IF NOT EXISTS coupon_sales_daily (
+  company_id INT NOT NULL,
+  sale_date DATE NOT NULL,
+  category_id INT NOT NULL,
+  purchases INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (company_id, sale_date, category_id),
+  CONSTRAINT fk_sales_company FOREIGN KEY (company_id) REFERENCES companies(id) ON DELETE CASCADE,
+  CONSTRAINT fk_sales_category FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
@@ -0,0 +1,22 @@
+--
+-- Transactional Outbox Migration (PostgreSQL)
+-- Date: 2026-10-18
+-- Purpose: Record coupon lifecycle events in the same transaction as the change,
+--          for asynchronous delivery by OutboxRelay
+--
+
+-- Written by: CouponsDAO.addCoupon(), updateCoupon(), deleteCoupon(), addCouponPurchase()
+-- Drained by: OutboxDAO.fetchUnpublished() / markPublished()
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGSERIAL PRIMARY KEY,
+  aggregate_type VARCHAR(32) NOT NULL,
+  aggregate_id INT NOT NULL,
+  event_type VARCHAR(48) NOT NULL,
+  payload VARCHAR(1024),
+  created_at TIMESTAMP NOT NULL,
+  published_at TIMESTAMP NULL
+);
+
+-- Query: SELECT ... FROM outbox_events WHERE published_at IS NULL ORDER BY id LIMIT ?
+-- Partial index stays small: published rows are pruned after outbox.retention-hours
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished ON outbox_events(id) WHERE published_at IS NULL;
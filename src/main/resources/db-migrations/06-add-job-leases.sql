@@ -0,0 +1,16 @@
+--
+-- Job Leases Migration (PostgreSQL)
+-- Date: 2026-10-18
+-- Purpose: Coordinate periodic jobs across instances; one row per job shard, held by one instance at a time
+--
+
+-- Written by: JobLeaseDAO.tryAcquire() (UPDATE of an expired or own lease, else INSERT), recordSuccess()
+-- Rows are few (jobs x shards) and never deleted
+CREATE TABLE IF NOT EXISTS job_leases (
+  job_name VARCHAR(64) NOT NULL,
+  shard INT NOT NULL,
+  owner VARCHAR(128) NOT NULL,
+  lease_until TIMESTAMP NOT NULL,
+  last_success_at TIMESTAMP NULL,
+  PRIMARY KEY (job_name, shard)
+);
@@ -0,0 +1,24 @@
+--
+-- 64-bit IDs Migration (PostgreSQL)
+-- Date: 2026-10-19
+-- Purpose: Widen company, customer and coupon IDs (and the columns referencing them) to BIGINT
+--          for the time-ordered IDs the application now assigns itself (IdGenerator)
+--
+
+-- Written by: CompaniesDAO.addCompany(), CustomerDAO.addCustomer(), CouponsDAO.addCoupon() / addCoupons(),
+--             which insert the ID instead of reading it back from the sequence.
+-- Existing rows keep their IDs: generated IDs are already above 10^14 and grow with time, far past any SERIAL value.
+-- The sequences stay as column defaults for rows inserted by hand (and the dataset loader).
+-- Each ALTER ... TYPE rewrites the table and its indexes under an exclusive lock: run in a maintenance window.
+ALTER TABLE companies ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE companies_id_seq AS BIGINT;
+ALTER TABLE customers ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE customers_id_seq AS BIGINT;
+ALTER TABLE coupons ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE coupons_id_seq AS BIGINT;
+
+ALTER TABLE coupons ALTER COLUMN company_id TYPE BIGINT;
+ALTER TABLE customers_vs_coupons ALTER COLUMN customer_id TYPE BIGINT;
+ALTER TABLE customers_vs_coupons ALTER COLUMN coupon_id TYPE BIGINT;
+ALTER TABLE coupon_sales_daily ALTER COLUMN company_id TYPE BIGINT;
+ALTER TABLE outbox_events ALTER COLUMN aggregate_id TYPE BIGINT;
@@ -20,7 +20,7 @@ ON CONFLICT (id) DO NOTHING;
 
 -- Table: companies
 CREATE TABLE IF NOT EXISTS companies (
-  id SERIAL PRIMARY KEY,
+  id BIGSERIAL PRIMARY KEY,
   name VARCHAR(48),
   email VARCHAR(48),
   password VARCHAR(60),
@@ -32,7 +32,7 @@ CREATE TABLE IF NOT EXISTS companies (
 
 -- Table: customers
 CREATE TABLE IF NOT EXISTS customers (
-  id SERIAL PRIMARY KEY,
+  id BIGSERIAL PRIMARY KEY,
   first_name VARCHAR(48),
   last_name VARCHAR(48),
   email VARCHAR(48),
@@ -45,8 +45,8 @@ CREATE TABLE IF NOT EXISTS customers (
 
 -- Table: coupons
 CREATE TABLE IF NOT EXISTS coupons (
-  id SERIAL PRIMARY KEY,
-  company_id INT,
+  id BIGSERIAL PRIMARY KEY,
+  company_id BIGINT,
   category_id INT,
   title VARCHAR(48),
   description VARCHAR(255),
@@ -61,15 +61,49 @@ CREATE TABLE IF NOT EXISTS coupons (
 
 -- Table: customers_vs_coupons (junction table)
 CREATE TABLE IF NOT EXISTS customers_vs_coupons (
-  customer_id INT NOT NULL,
-  coupon_id INT NOT NULL,
+  customer_id BIGINT NOT NULL,
+  coupon_id BIGINT NOT NULL,
+  purchased_at TIMESTAMP NULL,
   PRIMARY KEY (customer_id, coupon_id),
   CONSTRAINT fk_customer FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE,
   CONSTRAINT fk_coupon FOREIGN KEY (coupon_id) REFERENCES coupons(id) ON DELETE CASCADE
 );
 
+-- Table: coupon_sales_daily (purchase rollup per company, category and day, maintained by CouponDAO)
+CREATE TABLE IF NOT EXISTS coupon_sales_daily (
+  company_id BIGINT NOT NULL,
+  sale_date DATE NOT NULL,
+  category_id INT NOT NULL,
+  purchases INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (company_id, sale_date, category_id),
+  CONSTRAINT fk_sales_company FOREIGN KEY (company_id) REFERENCES companies(id) ON DELETE CASCADE,
+  CONSTRAINT fk_sales_category FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+-- Table: outbox_events (coupon lifecycle events, written in the mutation's transaction, drained by OutboxRelay)
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGSERIAL PRIMARY KEY,
+  aggregate_type VARCHAR(32) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  event_type VARCHAR(48) NOT NULL,
+  payload VARCHAR(1024),
+  created_at TIMESTAMP NOT NULL,
+  published_at TIMESTAMP NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_leases (
+  job_name VARCHAR(64) NOT NULL,
+  shard INT NOT NULL,
+  owner VARCHAR(128) NOT NULL,
+  lease_until TIMESTAMP NOT NULL,
+  last_success_at TIMESTAMP NULL,
+  PRIMARY KEY (job_name, shard)
+);
+
 -- Indexes for performance
 CREATE INDEX IF NOT EXISTS idx_companies_name ON companies(name);
+CREATE INDEX IF NOT EXISTS idx_companies_email ON companies(email);
+CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
 CREATE INDEX IF NOT EXISTS idx_companies_account_locked ON companies(account_locked, locked_until);
 CREATE INDEX IF NOT EXISTS idx_customers_account_locked ON customers(account_locked, locked_until);
 CREATE INDEX IF NOT EXISTS idx_coupons_end_date ON coupons(end_date);
@@ -77,3 +111,4 @@ CREATE INDEX IF NOT EXISTS idx_coupons_company_category ON coupons(company_id, c
 CREATE INDEX IF NOT EXISTS idx_coupons_company_price ON coupons(company_id, price);
 CREATE INDEX IF NOT EXISTS idx_coupons_title_company ON coupons(company_id, title);
 CREATE INDEX IF NOT EXISTS idx_customers_vs_coupons_coupon ON customers_vs_coupons(coupon_id);
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished ON outbox_events(id) WHERE published_at IS NULL;
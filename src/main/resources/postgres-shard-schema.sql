@@ -0,0 +1,72 @@
+-- PostgreSQL Schema for an additional coupon shard (sharding.shards[n], see ShardingConfig)
+-- Date: 2026-10-19
+--
+-- A shard holds the coupons of the companies the hash ring assigns to it, with their purchases,
+-- sales rollup and outbox. Companies and customers stay on the primary database, so there are
+-- no foreign keys to them here.
+--
+-- Coupon IDs must be unique across all shards (the first lookup of a coupon ID probes
+-- every shard). The
+-- application assigns them (IdGenerator, a distinct node per instance); the column default
+-- only serves rows inserted by hand.
+
+CREATE TABLE IF NOT EXISTS categories (
+  id INT PRIMARY KEY,
+  name VARCHAR(48)
+);
+
+INSERT INTO categories (id, name) VALUES
+(10, 'SKYING'),
+(20, 'SKY_DIVING'),
+(30, 'FANCY_RESTAURANT'),
+(40, 'ALL_INCLUSIVE_VACATION')
+ON CONFLICT (id) DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS coupons (
+  id BIGSERIAL PRIMARY KEY,
+  company_id BIGINT,
+  category_id INT,
+  title VARCHAR(48),
+  description VARCHAR(255),
+  start_date DATE,
+  end_date DATE,
+  amount INT,
+  price NUMERIC(10, 2),
+  image VARCHAR(255),
+  CONSTRAINT fk_category FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS customers_vs_coupons (
+  customer_id BIGINT NOT NULL,
+  coupon_id BIGINT NOT NULL,
+  purchased_at TIMESTAMP NULL,
+  PRIMARY KEY (customer_id, coupon_id),
+  CONSTRAINT fk_coupon FOREIGN KEY (coupon_id) REFERENCES coupons(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS coupon_sales_daily (
+  company_id BIGINT NOT NULL,
+  sale_date DATE NOT NULL,
+  category_id INT NOT NULL,
+  purchases INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (company_id, sale_date, category_id),
+  CONSTRAINT fk_sales_category FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+-- Drained by the shard's own OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGSERIAL PRIMARY KEY,
+  aggregate_type VARCHAR(32) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  event_type VARCHAR(48) NOT NULL,
+  payload VARCHAR(1024),
+  created_at TIMESTAMP NOT NULL,
+  published_at TIMESTAMP NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_coupons_end_date ON coupons(end_date);
+CREATE INDEX IF NOT EXISTS idx_coupons_company_category ON coupons(company_id, category_id);
+CREATE INDEX IF NOT EXISTS idx_coupons_company_price ON coupons(company_id, price);
+CREATE INDEX IF NOT EXISTS idx_coupons_title_company ON coupons(company_id, title);
+CREATE INDEX IF NOT EXISTS idx_customers_vs_coupons_coupon ON customers_vs_coupons(coupon_id);
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished ON outbox_events(id) WHERE published_at IS NULL;
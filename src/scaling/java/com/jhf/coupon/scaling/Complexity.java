@@ -0,0 +1,51 @@
+package com.jhf.coupon.scaling;
+
+/**
+ * How a DAO method's cost may grow with the table size n.
+ *
+ * Growth is measured as the exponent k of a power-law fit, cost ~ n^k, so a full scan shows up
+ * as k ≈ 1 whatever the constant factor. B-tree lookups are log n, which over 10³..10⁶ rows
+ * is k ≈ 0.1. The limit sits halfway between the two: cache effects and a noisy machine move
+ * a flat curve by a few tenths, but never make a scan look flat.
+ */
+enum Complexity {
+    /**
+     * Index lookups and single-row writes: the call time must stay nearly flat.
+     */
+    LOGARITHMIC("O(log n)", 0.5),
+
+    /**
+     * Scans and lists: the time per returned row must stay nearly flat, so the call time
+     * grows with the result but not with the rows the query had to skip.
+     */
+    LINEAR_IN_RESULT("O(result)", 0.5),
+
+    /**
+     * Aggregates over a whole table that return a bounded result, such as a top-N: the call
+     * time may grow with the table, but not faster, e.g. by sorting or joining row by row.
+     */
+    LINEAR("O(n)", 1.5);
+
+    private final String notation;
+    private final double maxExponent;
+
+    Complexity(String notation, double maxExponent) {
+        this.notation = notation;
+        this.maxExponent = maxExponent;
+    }
+
+    String getNotation() {
+        return notation;
+    }
+
+    double getMaxExponent() {
+        return maxExponent;
+    }
+
+    /**
+     * The cost the budget applies to: the call time, or the call time per returned row.
+     */
+    double cost(double nanosPerCall, double rowsPerCall) {
+        return this == LINEAR_IN_RESULT ? nanosPerCall / Math.max(1, rowsPerCall) : nanosPerCall;
+    }
+}
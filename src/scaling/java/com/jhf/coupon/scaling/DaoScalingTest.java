@@ -0,0 +1,402 @@
+package com.jhf.coupon.scaling;
+
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.sql.dao.company.CompaniesDAO;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.jhf.coupon.scaling.Complexity.LINEAR;
+import static com.jhf.coupon.scaling.Complexity.LINEAR_IN_RESULT;
+import static com.jhf.coupon.scaling.Complexity.LOGARITHMIC;
+import static com.jhf.coupon.scaling.ScalingDataset.LOCKED_ACCOUNTS;
+import static com.jhf.coupon.scaling.ScalingDataset.PASSWORD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times every CouponsDAO, CustomerDAO and CompaniesDAO method against 10³..10⁶ generated rows
+ * and fails any method whose cost grows faster than its declared Complexity, e.g. a lookup that
+ * turned into a full scan because its index is missing.
+ *
+ * Runs against its own H2 database, with the production indexes from schema.sql, and BCrypt at
+ * cost 4 so password checks don't drown the query time. Sizes can be changed with
+ * -Dscaling.sizes=1000,10000,100000; a report is written to target/scaling/dao-scaling.txt.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:scaling;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "password.bcrypt.strength=4",
+        "reporting.snapshot.refresh-ms=3600000"
+})
+class DaoScalingTest {
+    private static final Path REPORT = Path.of("target", "scaling", "dao-scaling.txt");
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int LOCKOUT_MINUTES = 30;
+    private static final int EXPIRY_RANGE = 1000;
+    private static final int CART_SIZE = 10;
+    private static final int TOP_COUPONS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CouponsDAO couponsDAO;
+
+    @Autowired
+    private CustomerDAO customerDAO;
+
+    @Autowired
+    private CompaniesDAO companiesDAO;
+
+    private ScalingDataset dataset;
+
+    static int[] sizes() {
+        return Arrays.stream(System.getProperty("scaling.sizes", "1000,10000,100000,1000000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .sorted()
+                .toArray();
+    }
+
+    @Test
+    void testEveryDaoMethodHasABudget() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> dao : List.of(CouponsDAO.class, CustomerDAO.class, CompaniesDAO.class)) {
+            for (Method method : dao.getMethods()) {
+                declared.add(signature(dao, method));
+            }
+        }
+        Set<String> budgeted = probes().stream()
+                .flatMap(probe -> probe.getMethods().stream())
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(declared, budgeted, "every DAO method needs exactly one scaling budget");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> testEveryDaoMethodScalesWithinBudget() throws Exception {
+        int[] sizes = sizes();
+        assertTrue(sizes.length >= 2, "need at least two sizes to fit a growth curve");
+        dataset = new ScalingDataset(jdbcTemplate);
+        dataset.clear();
+        List<ScalingProbe> probes = probes();
+        for (int size : sizes) {
+            dataset.growTo(size);
+            System.gc();
+            for (ScalingProbe probe : probes) {
+                probe.warmUp(size);
+                probe.measure(size);
+            }
+        }
+        dataset.clear();
+        report(probes);
+
+        return probes.stream().map(probe -> DynamicTest.dynamicTest(probe.getName(),
+                () -> assertTrue(probe.isWithinBudget(), probe.summary())));
+    }
+
+    private List<ScalingProbe> probes() {
+        AtomicInteger probeIds = new AtomicInteger();
+        return List.of(
+                // CouponsDAO
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(couponsDAO.couponExists(
+                        dataset.coupon(pick(1, size, call)))),
+                        "CouponsDAO.couponExists(Coupon)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    Coupon coupon = dataset.coupon(pick(1, size, call));
+                    coupon.setTitle("Probe " + probeIds.incrementAndGet());
+                    couponsDAO.addCoupon(coupon);
+                    couponsDAO.deleteCoupon(coupon.getId());
+                    return 1;
+                }, "CouponsDAO.addCoupon(Coupon)", "CouponsDAO.deleteCoupon(long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    List<Coupon> coupons = new ArrayList<>();
+                    for (int i = 0; i < CART_SIZE; i++) {
+                        Coupon coupon = dataset.coupon(pick(1, size, call + i));
+                        coupon.setTitle("Probe " + probeIds.incrementAndGet());
+                        coupons.add(coupon);
+                    }
+                    couponsDAO.addCoupons(coupons);
+                    for (Coupon coupon : coupons) {
+                        couponsDAO.deleteCoupon(coupon.getId());
+                    }
+                    return coupons.size();
+                }, "CouponsDAO.addCoupons(List)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    couponsDAO.updateCoupon(dataset.coupon(pick(1, size, call)));
+                    return 1;
+                }, "CouponsDAO.updateCoupon(Coupon)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getAllCoupons().size(),
+                        "CouponsDAO.getAllCoupons()"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> couponsDAO.getMaxCouponId(),
+                        "CouponsDAO.getMaxCouponId()"),
+                new ScalingProbe(LINEAR, (size, call) -> couponsDAO.getMostPurchasedCoupons(TOP_COUPONS).size(),
+                        "CouponsDAO.getMostPurchasedCoupons(int)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> {
+                    long from = pick(1, Math.max(1, size - EXPIRY_RANGE), call);
+                    return couponsDAO.getExpiredCouponIds(dataset.getToday(), from, from + EXPIRY_RANGE - 1).size();
+                }, "CouponsDAO.getExpiredCouponIds(LocalDate,long,long)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> {
+                    AtomicInteger rows = new AtomicInteger();
+                    couponsDAO.forEachCoupon(coupon -> rows.incrementAndGet());
+                    return rows.get();
+                }, "CouponsDAO.forEachCoupon(RowHandler)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(couponsDAO.getCoupon(pick(1, size, call))),
+                        "CouponsDAO.getCoupon(long)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getExistingCouponIds(
+                        cart(pick(1, size, call), size)).size(),
+                        "CouponsDAO.getExistingCouponIds(Collection)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanyCoupons(
+                        company(size, call)).size(),
+                        "CouponsDAO.getCompanyCoupons(long)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanyCoupons(
+                        companyBean(company(size, call)), category(call)).size(),
+                        "CouponsDAO.getCompanyCoupons(Company,Category)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanyCoupons(
+                        companyBean(company(size, call)), 50.0).size(),
+                        "CouponsDAO.getCompanyCoupons(Company,double)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanyCoupons(
+                        company(size, call), category(call)).size(),
+                        "CouponsDAO.getCompanyCoupons(long,Category)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanyCoupons(
+                        company(size, call), 50.0).size(),
+                        "CouponsDAO.getCompanyCoupons(long,double)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    long customerId = pick(1, size, call);
+                    return bool(couponsDAO.customerCouponPurchaseExists(customerId, customerId));
+                }, "CouponsDAO.customerCouponPurchaseExists(long,long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    long customerId = pick(1, size, call);
+                    long couponId = customerId % size + 1;
+                    couponsDAO.addCouponPurchase(customerId, couponId);
+                    couponsDAO.deleteCouponPurchase(customerId, couponId);
+                    return 1;
+                }, "CouponsDAO.addCouponPurchase(long,long)", "CouponsDAO.deleteCouponPurchase(long,long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    long customerId = pick(1, size, call);
+                    List<Long> couponIds = cart(customerId % size + 1, size);
+                    couponsDAO.addCouponPurchases(customerId, couponIds);
+                    for (long couponId : couponIds) {
+                        couponsDAO.deleteCouponPurchase(customerId, couponId);
+                    }
+                    return couponIds.size();
+                }, "CouponsDAO.addCouponPurchases(long,Collection)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCustomerCoupons(
+                        customerBean(pick(1, size, call))).size(),
+                        "CouponsDAO.getCustomerCoupons(Customer)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCustomerCoupons(
+                        pick(1, size, call)).size(),
+                        "CouponsDAO.getCustomerCoupons(long)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanyDailySales(
+                        company(size, call), dataset.getToday().minusDays(30), dataset.getToday()).size(),
+                        "CouponsDAO.getCompanyDailySales(long,LocalDate,LocalDate)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> couponsDAO.getCompanySalesByCategory(
+                        company(size, call), dataset.getToday().minusDays(30), dataset.getToday()).size(),
+                        "CouponsDAO.getCompanySalesByCategory(long,LocalDate,LocalDate)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> {
+                    AtomicInteger rows = new AtomicInteger();
+                    couponsDAO.scanCouponColumns((companyId, categoryId, endDate, amount, price) ->
+                            rows.incrementAndGet());
+                    return rows.get();
+                }, "CouponsDAO.scanCouponColumns(CouponColumnConsumer)"),
+
+                // CustomerDAO
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(customerDAO.isCustomerExists(
+                        ScalingDataset.customerEmail(customer(size, call)), PASSWORD)),
+                        "CustomerDAO.isCustomerExists(String,String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(customerDAO.isCustomerEmailExists(
+                        ScalingDataset.customerEmail(customer(size, call)))),
+                        "CustomerDAO.isCustomerEmailExists(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    String email = "probe" + probeIds.incrementAndGet() + "@scale.test";
+                    customerDAO.addCustomer(new Customer(0, "Probe", "Customer", email, PASSWORD));
+                    customerDAO.deleteCustomer(customerDAO.getCustomerByEmail(email).getId());
+                    return 1;
+                }, "CustomerDAO.addCustomer(Customer)", "CustomerDAO.deleteCustomer(long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    customerDAO.updateCustomer(customerBean(customer(size, call)));
+                    return 1;
+                }, "CustomerDAO.updateCustomer(Customer)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> customerDAO.getAllCustomers().size(),
+                        "CustomerDAO.getAllCustomers()"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> {
+                    AtomicInteger rows = new AtomicInteger();
+                    customerDAO.forEachCustomer(customer -> rows.incrementAndGet());
+                    return rows.get();
+                }, "CustomerDAO.forEachCustomer(RowHandler)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(customerDAO.getCustomer(customer(size, call))),
+                        "CustomerDAO.getCustomer(long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(customerDAO.getCustomerByEmail(
+                        ScalingDataset.customerEmail(customer(size, call)))),
+                        "CustomerDAO.getCustomerByEmail(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(customerDAO.getAccountLockoutStatus(
+                        ScalingDataset.customerEmail(customer(size, call)))),
+                        "CustomerDAO.getAccountLockoutStatus(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    String email = ScalingDataset.customerEmail(customer(size, call));
+                    customerDAO.incrementFailedLoginAttempts(email, MAX_ATTEMPTS, LOCKOUT_MINUTES);
+                    customerDAO.resetFailedLoginAttempts(email);
+                    return 1;
+                }, "CustomerDAO.incrementFailedLoginAttempts(String,int,int)",
+                        "CustomerDAO.resetFailedLoginAttempts(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    customerDAO.unlockAccount(ScalingDataset.customerEmail(customer(size, call)));
+                    return 1;
+                }, "CustomerDAO.unlockAccount(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> customerDAO.unlockExpiredAccounts(LocalDateTime.now()),
+                        "CustomerDAO.unlockExpiredAccounts(LocalDateTime)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> customerDAO.countLockedAccounts(LocalDateTime.now()),
+                        "CustomerDAO.countLockedAccounts(LocalDateTime)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(customerDAO.authenticateAndTrack(
+                        ScalingDataset.customerEmail(customer(size, call)), PASSWORD, MAX_ATTEMPTS, LOCKOUT_MINUTES)),
+                        "CustomerDAO.authenticateAndTrack(String,String,int,int)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(customerDAO.updatePasswordHash(
+                        customer(size, call), dataset.getPasswordHash(), dataset.getPasswordHash())),
+                        "CustomerDAO.updatePasswordHash(long,String,String)"),
+
+                // CompaniesDAO
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(companiesDAO.isCompanyExists(
+                        ScalingDataset.companyEmail(company(size, call)), PASSWORD)),
+                        "CompaniesDAO.isCompanyExists(String,String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(companiesDAO.isCompanyEmailExists(
+                        ScalingDataset.companyEmail(company(size, call)))),
+                        "CompaniesDAO.isCompanyEmailExists(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(companiesDAO.isCompanyNameExists(
+                        ScalingDataset.companyName(company(size, call)))),
+                        "CompaniesDAO.isCompanyNameExists(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    int probeId = probeIds.incrementAndGet();
+                    String email = "probe" + probeId + "@scale.test";
+                    companiesDAO.addCompany(new Company(0, "Probe " + probeId, email, PASSWORD));
+                    companiesDAO.deleteCompany(companiesDAO.getCompanyByEmail(email).getId());
+                    return 1;
+                }, "CompaniesDAO.addCompany(Company)", "CompaniesDAO.deleteCompany(long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    companiesDAO.updateCompany(companyBean(company(size, call)));
+                    return 1;
+                }, "CompaniesDAO.updateCompany(Company)"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> companiesDAO.getAllCompanies().size(),
+                        "CompaniesDAO.getAllCompanies()"),
+                new ScalingProbe(LINEAR_IN_RESULT, (size, call) -> {
+                    AtomicInteger rows = new AtomicInteger();
+                    companiesDAO.forEachCompany(company -> rows.incrementAndGet());
+                    return rows.get();
+                }, "CompaniesDAO.forEachCompany(RowHandler)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(companiesDAO.getCompany(company(size, call))),
+                        "CompaniesDAO.getCompany(long)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(companiesDAO.getCompanyByEmail(
+                        ScalingDataset.companyEmail(company(size, call)))),
+                        "CompaniesDAO.getCompanyByEmail(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(companiesDAO.getAccountLockoutStatus(
+                        ScalingDataset.companyEmail(company(size, call)))),
+                        "CompaniesDAO.getAccountLockoutStatus(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    String email = ScalingDataset.companyEmail(company(size, call));
+                    companiesDAO.incrementFailedLoginAttempts(email, MAX_ATTEMPTS, LOCKOUT_MINUTES);
+                    companiesDAO.resetFailedLoginAttempts(email);
+                    return 1;
+                }, "CompaniesDAO.incrementFailedLoginAttempts(String,int,int)",
+                        "CompaniesDAO.resetFailedLoginAttempts(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> {
+                    companiesDAO.unlockAccount(ScalingDataset.companyEmail(company(size, call)));
+                    return 1;
+                }, "CompaniesDAO.unlockAccount(String)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> companiesDAO.unlockExpiredAccounts(LocalDateTime.now()),
+                        "CompaniesDAO.unlockExpiredAccounts(LocalDateTime)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> companiesDAO.countLockedAccounts(LocalDateTime.now()),
+                        "CompaniesDAO.countLockedAccounts(LocalDateTime)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> present(companiesDAO.authenticateAndTrack(
+                        ScalingDataset.companyEmail(company(size, call)), PASSWORD, MAX_ATTEMPTS, LOCKOUT_MINUTES)),
+                        "CompaniesDAO.authenticateAndTrack(String,String,int,int)"),
+                new ScalingProbe(LOGARITHMIC, (size, call) -> bool(companiesDAO.updatePasswordHash(
+                        company(size, call), dataset.getPasswordHash(), dataset.getPasswordHash())),
+                        "CompaniesDAO.updatePasswordHash(long,String,String)")
+        );
+    }
+
+    /**
+     * Spreads calls over lo..hi so consecutive calls read different rows.
+     */
+    private static long pick(long lo, long hi, int call) {
+        return lo + call * 7919L % (hi - lo + 1);
+    }
+
+    /**
+     * An unlocked customer id.
+     */
+    private static long customer(int size, int call) {
+        return pick(LOCKED_ACCOUNTS + 1, size, call);
+    }
+
+    /**
+     * An unlocked company id.
+     */
+    private static long company(int size, int call) {
+        return pick(LOCKED_ACCOUNTS + 1, ScalingDataset.companyCount(size), call);
+    }
+
+    /**
+     * CART_SIZE consecutive coupon ids from the first one, wrapping around at size. Customer k
+     * owns coupon k, so a cart starting after it is unowned whenever CART_SIZE < size.
+     */
+    private static List<Long> cart(long first, int size) {
+        List<Long> couponIds = new ArrayList<>();
+        for (int i = 0; i < CART_SIZE; i++) {
+            couponIds.add((first - 1 + i) % size + 1);
+        }
+        return couponIds;
+    }
+
+    private static Category category(int call) {
+        Category[] categories = Category.values();
+        return categories[call % categories.length];
+    }
+
+    private Company companyBean(long id) {
+        return new Company(id, ScalingDataset.companyName(id), ScalingDataset.companyEmail(id), PASSWORD);
+    }
+
+    private Customer customerBean(long id) {
+        return new Customer(id, "Scale", "Customer " + id, ScalingDataset.customerEmail(id), PASSWORD);
+    }
+
+    private static int bool(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    private static int present(Object value) {
+        return value == null ? 0 : 1;
+    }
+
+    private static String signature(Class<?> dao, Method method) {
+        return dao.getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static void report(List<ScalingProbe> probes) throws IOException {
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, probes.stream().map(ScalingProbe::summary).toList());
+    }
+}
@@ -0,0 +1,143 @@
+package com.jhf.coupon.scaling;
+
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Bulk-generated companies, customers, coupons and purchases, grown in place from one size to
+ * the next with INSERT ... SELECT over H2's SYSTEM_RANGE.
+ *
+ * At size n there are n customers and n coupons, and customer k owns coupon k. Companies own
+ * COUPONS_PER_COMPANY coupons each, so per-company results stay the same size while the tables
+ * grow. Every tenth coupon is expired, and the first LOCKED_ACCOUNTS companies and customers
+ * are locked until tomorrow. Rows are derived from their id, see coupon(long).
+ */
+final class ScalingDataset {
+    static final int COUPONS_PER_COMPANY = 100;
+    static final int LOCKED_ACCOUNTS = 5;
+    static final String PASSWORD = "password123";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String passwordHash;
+    private final LocalDate today = LocalDate.now();
+    private int size;
+
+    ScalingDataset(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHash = PasswordHasher.hashPassword(PASSWORD);
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    String getPasswordHash() {
+        return passwordHash;
+    }
+
+    LocalDate getToday() {
+        return today;
+    }
+
+    static int companyCount(int size) {
+        return (size + COUPONS_PER_COMPANY - 1) / COUPONS_PER_COMPANY;
+    }
+
+    static long companyOf(long couponId) {
+        return (couponId - 1) / COUPONS_PER_COMPANY + 1;
+    }
+
+    static String companyName(long id) {
+        return "Company " + id;
+    }
+
+    static String companyEmail(long id) {
+        return "company" + id + "@scale.test";
+    }
+
+    static String customerEmail(long id) {
+        return "customer" + id + "@scale.test";
+    }
+
+    static String couponTitle(long id) {
+        return "Coupon " + id;
+    }
+
+    void clear() {
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupon_sales_daily");
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+        size = 0;
+    }
+
+    /**
+     * Adds the rows for ids size + 1..newSize, then moves the identity columns past them so
+     * DAO inserts don't collide with generated ids.
+     */
+    void growTo(int newSize) {
+        if (newSize <= size) {
+            return;
+        }
+        int firstCompany = companyCount(size) + 1;
+        int lastCompany = companyCount(newSize);
+        int first = size + 1;
+
+        jdbcTemplate.update("INSERT INTO companies (id, name, email, password) "
+                        + "SELECT X, 'Company ' || X, 'company' || X || '@scale.test', ? FROM SYSTEM_RANGE(?, ?)",
+                passwordHash, firstCompany, lastCompany);
+        jdbcTemplate.update("INSERT INTO customers (id, first_name, last_name, email, password) "
+                        + "SELECT X, 'Scale', 'Customer ' || X, 'customer' || X || '@scale.test', ? "
+                        + "FROM SYSTEM_RANGE(?, ?)",
+                passwordHash, first, newSize);
+        jdbcTemplate.update("INSERT INTO coupons (id, company_id, category_id, title, description, start_date, "
+                        + "end_date, amount, price, image) "
+                        + "SELECT X, (X - 1) / ? + 1, (MOD(X, 4) + 1) * 10, 'Coupon ' || X, 'Scaling coupon ' || X, "
+                        + "?, CASE WHEN MOD(X, 10) = 0 THEN ? ELSE ? END, 1000, MOD(X, 100) + 0.99, 'image.jpg' "
+                        + "FROM SYSTEM_RANGE(?, ?)",
+                COUPONS_PER_COMPANY, Date.valueOf(startDate()), Date.valueOf(today.minusDays(1)),
+                Date.valueOf(today.plusDays(30)), first, newSize);
+        jdbcTemplate.update("INSERT INTO customers_vs_coupons (customer_id, coupon_id, purchased_at) "
+                        + "SELECT X, X, ? FROM SYSTEM_RANGE(?, ?)",
+                Timestamp.valueOf(today.atStartOfDay()), first, newSize);
+        jdbcTemplate.update("INSERT INTO coupon_sales_daily (company_id, sale_date, category_id, purchases) "
+                        + "SELECT r.X, ?, c.id, ? FROM SYSTEM_RANGE(?, ?) r CROSS JOIN categories c",
+                Date.valueOf(today), COUPONS_PER_COMPANY / 4, firstCompany, lastCompany);
+        if (size == 0) {
+            Timestamp lockedUntil = Timestamp.valueOf(LocalDateTime.now().plusDays(1));
+            for (String table : new String[]{"companies", "customers"}) {
+                jdbcTemplate.update("UPDATE " + table + " SET account_locked = TRUE, failed_login_attempts = 5, "
+                        + "locked_until = ? WHERE id <= ?", lockedUntil, LOCKED_ACCOUNTS);
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE companies ALTER COLUMN id RESTART WITH " + (lastCompany + 1));
+        jdbcTemplate.execute("ALTER TABLE customers ALTER COLUMN id RESTART WITH " + (newSize + 1));
+        jdbcTemplate.execute("ALTER TABLE coupons ALTER COLUMN id RESTART WITH " + (newSize + 1));
+        jdbcTemplate.execute("ANALYZE");
+        size = newSize;
+    }
+
+    /**
+     * The coupon row growTo wrote for the id.
+     */
+    Coupon coupon(long id) throws CategoryNotFoundException {
+        LocalDate endDate = id % 10 == 0 ? today.minusDays(1) : today.plusDays(30);
+        return new Coupon(id, companyOf(id), Category.getCategory((int) (id % 4 + 1) * 10), couponTitle(id),
+                "Scaling coupon " + id, Date.valueOf(startDate()), Date.valueOf(endDate), 1000, id % 100 + 0.99,
+                "image.jpg");
+    }
+
+    private LocalDate startDate() {
+        return today.minusDays(30);
+    }
+}
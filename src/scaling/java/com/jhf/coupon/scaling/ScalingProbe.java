@@ -0,0 +1,132 @@
+package com.jhf.coupon.scaling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times one DAO call (or a self-restoring pair such as add + delete) at each data size and fits
+ * the growth exponent its Complexity budget is checked against.
+ */
+final class ScalingProbe {
+    private static final long MIN_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long WARMUP_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MAX_PROBE_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final int MAX_BATCH = 1000;
+    private static final int WARMUP_SAMPLES = 3;
+    private static final int MIN_SAMPLES = 3;
+    private static final int MAX_SAMPLES = 11;
+
+    /**
+     * One call against a table of the given size, returning the number of rows it produced.
+     * The call index varies the target row so repeated calls don't hit one cached row.
+     */
+    @FunctionalInterface
+    interface Operation {
+        long run(int size, int call) throws Exception;
+    }
+
+    private final Complexity complexity;
+    private final Operation operation;
+    private final List<String> methods;
+    private final Map<Integer, Double> costs = new TreeMap<>();
+    private int calls;
+
+    /**
+     * @param methods The DAO methods the operation exercises, e.g. "CouponsDAO.getCoupon(long)"
+     */
+    ScalingProbe(Complexity complexity, Operation operation, String... methods) {
+        this.complexity = complexity;
+        this.operation = operation;
+        this.methods = List.of(methods);
+    }
+
+    List<String> getMethods() {
+        return methods;
+    }
+
+    String getName() {
+        return String.join(" + ", methods);
+    }
+
+    Complexity getComplexity() {
+        return complexity;
+    }
+
+    /**
+     * Runs the operation for a while without recording anything, so every size is measured
+     * with warm JIT, connection pool and index pages. Otherwise the smallest size looks slowest
+     * and the first probe after a bulk insert pays for its cleanup.
+     */
+    void warmUp(int size) throws Exception {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < WARMUP_NANOS) {
+            runBatch(size, 1);
+        }
+    }
+
+    /**
+     * Records the median cost at this size. Calls are batched until a batch takes at least a
+     * few milliseconds, and sampling stops early once a few seconds are spent, so full scans of the
+     * largest tables still finish.
+     */
+    void measure(int size) throws Exception {
+        int batch = 1;
+        while (batch < MAX_BATCH && runBatch(size, batch)[0] < MIN_SAMPLE_NANOS) {
+            batch *= 2;
+        }
+        for (int i = 0; i < WARMUP_SAMPLES; i++) {
+            runBatch(size, batch);
+        }
+        List<Double> samples = new ArrayList<>();
+        long start = System.nanoTime();
+        while (samples.size() < MAX_SAMPLES
+                && (samples.size() < MIN_SAMPLES || System.nanoTime() - start < MAX_PROBE_NANOS)) {
+            long[] sample = runBatch(size, batch);
+            samples.add(complexity.cost(sample[0] / (double) batch, sample[1] / (double) batch));
+        }
+        double[] sorted = samples.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        costs.put(size, sorted[sorted.length / 2]);
+    }
+
+    private long[] runBatch(int size, int batch) throws Exception {
+        long rows = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < batch; i++) {
+            rows += operation.run(size, calls++);
+        }
+        return new long[]{System.nanoTime() - start, rows};
+    }
+
+    /**
+     * The least-squares slope of log(cost) over log(size).
+     */
+    double growthExponent() {
+        double[] x = costs.keySet().stream().mapToDouble(Math::log).toArray();
+        double[] y = costs.values().stream().mapToDouble(Math::log).toArray();
+        double meanX = Arrays.stream(x).average().orElse(0);
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    boolean isWithinBudget() {
+        return growthExponent() <= complexity.getMaxExponent();
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder(String.format("%-9s k=%5.2f (max %.2f)  %s:",
+                complexity.getNotation(), growthExponent(), complexity.getMaxExponent(), getName()));
+        String unit = complexity == Complexity.LINEAR_IN_RESULT ? "µs/row" : "µs";
+        costs.forEach((size, cost) -> summary.append(String.format("  n=%d %.2f%s", size, cost / 1000, unit)));
+        return summary.toString();
+    }
+}
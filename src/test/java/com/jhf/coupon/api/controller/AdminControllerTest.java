@@ -3,8 +3,11 @@ package com.jhf.coupon.api.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jhf.coupon.api.dto.CompanyRequest;
 import com.jhf.coupon.api.dto.CustomerRequest;
+import com.jhf.coupon.backend.beans.CategoryStock;
 import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.CompanyCouponValue;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.exceptions.company.CantDeleteCompanyHasCoupons;
 import com.jhf.coupon.backend.exceptions.company.CantUpdateCompanyException;
@@ -13,8 +16,10 @@ import com.jhf.coupon.backend.exceptions.customer.CantDeleteCustomerHasCoupons;
 import com.jhf.coupon.backend.exceptions.customer.CantUpdateCustomerException;
 import com.jhf.coupon.backend.exceptions.customer.CustomerAlreadyExistsException;
 import com.jhf.coupon.backend.facade.AdminFacade;
+import com.jhf.coupon.backend.reporting.CouponSnapshotService;
 import com.jhf.coupon.backend.validation.ValidationException;
 import com.jhf.coupon.security.JwtTokenProvider;
+import com.jhf.coupon.sql.dao.RowHandler;
 import com.jhf.coupon.sql.dao.company.CompanyNotFoundException;
 import com.jhf.coupon.sql.dao.customer.CustomerNotFoundException;
 import org.junit.jupiter.api.Test;
@@ -24,10 +29,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -53,12 +62,15 @@ class AdminControllerTest {
     @MockitoBean
     private JwtTokenProvider tokenProvider;
 
+    @MockitoBean
+    private CouponSnapshotService couponSnapshotService;
+
     private String getAdminToken() {
         String token = "admin.token";
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
         return token;
     }
 
@@ -139,7 +151,7 @@ class AdminControllerTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
 
         CompanyRequest request = new CompanyRequest("Test Company", "company@test.com", "SecurePass123!");
 
@@ -488,4 +500,149 @@ class AdminControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.status").value(500));
     }
+
+    // ========== Streaming Tests ==========
+
+    @Test
+    void testStreamAllCompanies_NdjsonAccept_WritesOneCompanyPerLine() throws Exception {
+        // Arrange
+        String token = getAdminToken();
+
+        doAnswer(invocation -> {
+            RowHandler<Company> handler = invocation.getArgument(0);
+            handler.handle(new Company(1, "Company A", "a@company.com", "hash"));
+            handler.handle(new Company(2, "Company B", "b@company.com", "hash"));
+            return null;
+        }).when(adminFacade).streamCompanies(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/admin/companies")
+                        .accept("application/x-ndjson")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Company A\""));
+        assertTrue(lines[1].contains("\"name\":\"Company B\""));
+        verify(adminFacade, never()).getCompanies();
+    }
+
+    @Test
+    void testStreamAllCustomers_NdjsonAccept_StreamsFromFacade() throws Exception {
+        // Arrange
+        String token = getAdminToken();
+
+        doAnswer(invocation -> {
+            RowHandler<Customer> handler = invocation.getArgument(0);
+            handler.handle(new Customer(1, "John", "Doe", "john@mail.com", "hash"));
+            return null;
+        }).when(adminFacade).streamCustomers(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/admin/customers")
+                        .accept("application/x-ndjson")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"email\":\"john@mail.com\"")));
+        verify(adminFacade, never()).getAllCustomers();
+    }
+
+    // ========== Report Tests ==========
+
+    @Test
+    void testGetStockByCategory_ReturnsCategories() throws Exception {
+        // Arrange
+        String token = getAdminToken();
+
+        when(couponSnapshotService.getStockByCategory()).thenReturn(List.of(
+                new CategoryStock(Category.SKYING, 2, 30, 1500.0),
+                new CategoryStock(Category.SKY_DIVING, 0, 0, 0.0)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/admin/reports/stock-by-category")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].category").value("SKYING"))
+                .andExpect(jsonPath("$[0].stock").value(30))
+                .andExpect(jsonPath("$[0].value").value(1500.0));
+    }
+
+    @Test
+    void testGetValueByCompany_ReturnsCompanies() throws Exception {
+        // Arrange
+        String token = getAdminToken();
+
+        when(couponSnapshotService.getValueByCompany()).thenReturn(List.of(
+                new CompanyCouponValue(4, 3, 12, 240.0)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/admin/reports/value-by-company")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].companyId").value(4))
+                .andExpect(jsonPath("$[0].coupons").value(3))
+                .andExpect(jsonPath("$[0].value").value(240.0));
+    }
+
+    @Test
+    void testGetExpiringCoupons_DefaultsToSevenDays() throws Exception {
+        // Arrange
+        String token = getAdminToken();
+
+        when(couponSnapshotService.getExpiringWithin(7)).thenReturn(List.of(
+                new CategoryStock(Category.FANCY_RESTAURANT, 1, 5, 100.0)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/admin/reports/expiring")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category").value("FANCY_RESTAURANT"));
+
+        verify(couponSnapshotService).getExpiringWithin(7);
+    }
+
+    @Test
+    void testGetExpiringCoupons_InvalidDays_Returns400() throws Exception {
+        // Arrange
+        String token = getAdminToken();
+
+        when(couponSnapshotService.getExpiringWithin(1000))
+                .thenThrow(new ValidationException("Invalid days: must be between 0 and 365"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/admin/reports/expiring")
+                        .param("days", "1000")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetReports_WithCompanyToken_Returns403() throws Exception {
+        // Arrange
+        String token = "company.token";
+        when(tokenProvider.validateToken(token)).thenReturn(true);
+        when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
+        when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/admin/reports/value-by-company")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(couponSnapshotService);
+    }
 }
@@ -1,30 +1,36 @@
 package com.jhf.coupon.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhf.coupon.api.dto.CouponBatchRequest;
 import com.jhf.coupon.api.dto.CouponRequest;
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.exceptions.coupon.CantUpdateCouponException;
 import com.jhf.coupon.backend.exceptions.coupon.CouponAlreadyExistsForCompanyException;
 import com.jhf.coupon.backend.facade.CompanyFacade;
+import com.jhf.coupon.backend.validation.ValidationException;
 import com.jhf.coupon.security.JwtTokenProvider;
-import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.sql.Date;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,9 +52,6 @@ class CompanyControllerTest {
     @MockitoBean
     private CompanyFacade companyFacade;
 
-    @MockitoBean
-    private CompaniesDAO companiesDAO;
-
     @MockitoBean
     private JwtTokenProvider tokenProvider;
 
@@ -57,7 +60,7 @@ class CompanyControllerTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
         return token;
     }
 
@@ -82,6 +85,71 @@ class CompanyControllerTest {
         verify(companyFacade).addCoupon(any(Coupon.class));
     }
 
+    @Test
+    void testAddCoupons_ValidBatch_Returns201WithIds() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+        CouponBatchRequest request = new CouponBatchRequest(List.of(
+                new CouponRequest("SKYING", "Ski Trip", "Weekend skiing",
+                        LocalDate.now(), LocalDate.now().plusDays(30), 50, 99.99, "ski.jpg"),
+                new CouponRequest("FANCY_RESTAURANT", "Dinner", "Dinner for two",
+                        LocalDate.now(), LocalDate.now().plusDays(30), 20, 49.99, "dinner.jpg")));
+
+        doAnswer(invocation -> {
+            List<Coupon> coupons = invocation.getArgument(0);
+            for (int i = 0; i < coupons.size(); i++) {
+                coupons.get(i).setId(9_007_000_000_000_001L + i);
+            }
+            return null;
+        }).when(companyFacade).addCoupons(anyList());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/company/coupons/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(9_007_000_000_000_001L))
+                .andExpect(jsonPath("$[1].id").value(9_007_000_000_000_002L))
+                .andExpect(jsonPath("$[1].title").value("Dinner"))
+                .andExpect(jsonPath("$[1].companyID").value(10));
+    }
+
+    @Test
+    void testAddCoupons_EmptyBatch_Returns400() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/company/coupons/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CouponBatchRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(companyFacade, never()).addCoupons(anyList());
+    }
+
+    @Test
+    void testAddCoupons_InvalidCouponInBatch_Returns400() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+        CouponBatchRequest request = new CouponBatchRequest(List.of(
+                new CouponRequest("SKYING", "Ski Trip", "Weekend skiing",
+                        LocalDate.now(), LocalDate.now().plusDays(30), 50, 99.99, "ski.jpg"),
+                new CouponRequest("", "", "", null, null, 0, -1.0, "")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/company/coupons/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(companyFacade, never()).addCoupons(anyList());
+    }
+
     @Test
     void testAddCoupon_CouponAlreadyExists_Returns409() throws Exception {
         // Arrange
@@ -138,7 +206,7 @@ class CompanyControllerTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         CouponRequest request = new CouponRequest("SKYING", "Ski Trip", "Weekend skiing",
                 LocalDate.now(), LocalDate.now().plusDays(30), 50, 99.99, "ski.jpg");
@@ -209,13 +277,11 @@ class CompanyControllerTest {
     void testGetCompanyCoupons_ReturnsListOfCoupons() throws Exception {
         // Arrange
         String token = getCompanyToken();
-        Company company = new Company(10, "Test Company", "company@test.com", "hashed");
         ArrayList<Coupon> coupons = new ArrayList<>();
         coupons.add(new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
                 Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 99.99, "ski.jpg"));
 
-        when(companiesDAO.getCompany(10)).thenReturn(company);
-        when(companyFacade.getCompanyCoupons(company)).thenReturn(coupons);
+        when(companyFacade.getCompanyCoupons(10)).thenReturn(coupons);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/company/coupons")
@@ -230,13 +296,11 @@ class CompanyControllerTest {
     void testGetCouponsByCategory_ValidCategory_ReturnsCoupons() throws Exception {
         // Arrange
         String token = getCompanyToken();
-        Company company = new Company(10, "Test Company", "company@test.com", "hashed");
         ArrayList<Coupon> coupons = new ArrayList<>();
         coupons.add(new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
                 Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 99.99, "ski.jpg"));
 
-        when(companiesDAO.getCompany(10)).thenReturn(company);
-        when(companyFacade.getCompanyCoupons(company, Category.SKYING)).thenReturn(coupons);
+        when(companyFacade.getCompanyCoupons(10, Category.SKYING)).thenReturn(coupons);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/company/coupons/category/10")
@@ -250,13 +314,11 @@ class CompanyControllerTest {
     void testGetCouponsByMaxPrice_ValidPrice_ReturnsCoupons() throws Exception {
         // Arrange
         String token = getCompanyToken();
-        Company company = new Company(10, "Test Company", "company@test.com", "hashed");
         ArrayList<Coupon> coupons = new ArrayList<>();
         coupons.add(new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
                 Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 50.00, "ski.jpg"));
 
-        when(companiesDAO.getCompany(10)).thenReturn(company);
-        when(companyFacade.getCompanyCoupons(company, 100.00)).thenReturn(coupons);
+        when(companyFacade.getCompanyCoupons(10, 100.00)).thenReturn(coupons);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/company/coupons/price/100.00")
@@ -269,10 +331,9 @@ class CompanyControllerTest {
     void testGetCompanyDetails_ReturnsCompanyInfo() throws Exception {
         // Arrange
         String token = getCompanyToken();
-        Company company = new Company(10, "Test Company", "company@test.com", "hashed");
+        Company company = new Company(10, "Test Company", "company@test.com", null);
 
-        when(companiesDAO.getCompany(10)).thenReturn(company);
-        when(companyFacade.getCompanyDetails(company)).thenReturn(company);
+        when(companyFacade.getCompanyDetails(10)).thenReturn(company);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/company/details")
@@ -288,7 +349,7 @@ class CompanyControllerTest {
         // Arrange
         String token = getCompanyToken();
 
-        when(companiesDAO.getCompany(10)).thenThrow(new SQLException("Database error"));
+        when(companyFacade.getCompanyCoupons(10)).thenThrow(new SQLException("Database error"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/company/coupons")
@@ -296,4 +357,122 @@ class CompanyControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.status").value(500));
     }
+
+    @Test
+    void testGetDailySales_WithRange_ReturnsRollupRows() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 31);
+        ArrayList<DailyCategorySales> sales = new ArrayList<>();
+        sales.add(new DailyCategorySales(LocalDate.of(2026, 1, 5), Category.SKYING, 3));
+
+        when(companyFacade.getCompanyDailySales(10, from, to)).thenReturn(sales);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/company/analytics/sales/daily")
+                        .param("from", "2026-01-01")
+                        .param("to", "2026-01-31")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2026-01-05"))
+                .andExpect(jsonPath("$[0].category").value("SKYING"))
+                .andExpect(jsonPath("$[0].purchases").value(3));
+    }
+
+    @Test
+    void testGetDailySales_WithoutRange_DefaultsToLast30Days() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+        LocalDate today = LocalDate.now();
+
+        when(companyFacade.getCompanyDailySales(10, today.minusDays(29), today)).thenReturn(new ArrayList<>());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/company/analytics/sales/daily")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+
+        verify(companyFacade).getCompanyDailySales(10, today.minusDays(29), today);
+    }
+
+    @Test
+    void testGetSalesByCategory_ReturnsTotals() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 3, 31);
+
+        when(companyFacade.getCompanySalesByCategory(10, from, to))
+                .thenReturn(Map.of(Category.SKYING, 12, Category.SKY_DIVING, 4));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/company/analytics/sales/categories")
+                        .param("from", "2026-01-01")
+                        .param("to", "2026-03-31")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.SKYING").value(12))
+                .andExpect(jsonPath("$.SKY_DIVING").value(4));
+    }
+
+    @Test
+    void testGetSalesByCategory_InvalidRange_Returns400() throws Exception {
+        // Arrange
+        String token = getCompanyToken();
+        LocalDate from = LocalDate.of(2026, 2, 1);
+        LocalDate to = LocalDate.of(2026, 1, 1);
+
+        when(companyFacade.getCompanySalesByCategory(10, from, to))
+                .thenThrow(new ValidationException("Invalid sales range: from date must not be after to date"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/company/analytics/sales/categories")
+                        .param("from", "2026-02-01")
+                        .param("to", "2026-01-01")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUploadImage_Returns201WithHashAndUrl() throws Exception {
+        String token = getCompanyToken();
+        String hash = "ab".repeat(32);
+        MockMultipartFile file = new MockMultipartFile("file", "coupon.png", "image/png", new byte[]{1, 2, 3});
+        when(companyFacade.uploadImage(any(byte[].class))).thenReturn(hash);
+
+        mockMvc.perform(multipart("/api/v1/company/images").file(file)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.hash").value(hash))
+                .andExpect(jsonPath("$.url").value("/api/v1/public/images/" + hash));
+
+        verify(companyFacade).uploadImage(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    void testUploadImage_InvalidImage_Returns400() throws Exception {
+        String token = getCompanyToken();
+        MockMultipartFile file = new MockMultipartFile("file", "coupon.txt", "text/plain", "hello".getBytes());
+        when(companyFacade.uploadImage(any(byte[].class)))
+                .thenThrow(new ValidationException("Invalid image: only PNG, JPEG and GIF are supported"));
+
+        mockMvc.perform(multipart("/api/v1/company/images").file(file)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAddCoupon_WithImageStoreReference_Returns201() throws Exception {
+        String token = getCompanyToken();
+        CouponRequest request = new CouponRequest("SKYING", "Ski Trip", "Weekend skiing",
+                LocalDate.now(), LocalDate.now().plusDays(30), 50, 99.99, "/api/v1/public/images/" + "ab".repeat(32));
+
+        mockMvc.perform(post("/api/v1/company/coupons")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
 }
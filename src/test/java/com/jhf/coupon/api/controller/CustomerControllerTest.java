@@ -1,5 +1,6 @@
 package com.jhf.coupon.api.controller;
 
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
 import com.jhf.coupon.backend.couponCategory.Category;
@@ -10,11 +11,11 @@ import com.jhf.coupon.backend.facade.CustomerFacade;
 import com.jhf.coupon.security.JwtTokenProvider;
 import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
-import com.jhf.coupon.sql.dao.customer.CustomerDAO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -22,8 +23,10 @@ import java.sql.Date;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,9 +45,6 @@ class CustomerControllerTest {
     @MockitoBean
     private CustomerFacade customerFacade;
 
-    @MockitoBean
-    private CustomerDAO customerDAO;
-
     @MockitoBean
     private CouponsDAO couponsDAO;
 
@@ -56,7 +56,7 @@ class CustomerControllerTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("customer@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100L);
         return token;
     }
 
@@ -64,13 +64,8 @@ class CustomerControllerTest {
     void testPurchaseCoupon_Success_Returns200() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
-        Coupon coupon = new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
-                Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 99.99, "ski.jpg");
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(couponsDAO.getCoupon(1)).thenReturn(coupon);
-        doNothing().when(customerFacade).purchaseCoupon(coupon, customer);
+        doNothing().when(customerFacade).purchaseCoupon(100, 1);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/customer/coupons/1/purchase")
@@ -78,21 +73,16 @@ class CustomerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Coupon purchased successfully"));
 
-        verify(customerFacade).purchaseCoupon(coupon, customer);
+        verify(customerFacade).purchaseCoupon(100, 1);
     }
 
     @Test
     void testPurchaseCoupon_AlreadyPurchased_Returns409() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
-        Coupon coupon = new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
-                Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 99.99, "ski.jpg");
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(couponsDAO.getCoupon(1)).thenReturn(coupon);
         doThrow(new CustomerAlreadyPurchasedCouponException("Already purchased"))
-                .when(customerFacade).purchaseCoupon(coupon, customer);
+                .when(customerFacade).purchaseCoupon(100, 1);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/customer/coupons/1/purchase")
@@ -105,14 +95,9 @@ class CustomerControllerTest {
     void testPurchaseCoupon_OutOfStock_Returns409() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
-        Coupon coupon = new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
-                Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 0, 99.99, "ski.jpg");
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(couponsDAO.getCoupon(1)).thenReturn(coupon);
         doThrow(new CouponNotInStockException("Coupon out of stock"))
-                .when(customerFacade).purchaseCoupon(coupon, customer);
+                .when(customerFacade).purchaseCoupon(100, 1);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/customer/coupons/1/purchase")
@@ -125,10 +110,9 @@ class CustomerControllerTest {
     void testPurchaseCoupon_CouponNotFound_Returns404() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(couponsDAO.getCoupon(999)).thenThrow(new CouponNotFoundException("Coupon not found"));
+        doThrow(new CouponNotFoundException("Coupon not found"))
+                .when(customerFacade).purchaseCoupon(100, 999);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/customer/coupons/999/purchase")
@@ -151,7 +135,7 @@ class CustomerControllerTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/customer/coupons/1/purchase")
@@ -163,13 +147,11 @@ class CustomerControllerTest {
     void testGetCustomerCoupons_ReturnsListOfCoupons() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
         ArrayList<Coupon> coupons = new ArrayList<>();
         coupons.add(new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
                 Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 99.99, "ski.jpg"));
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(customerFacade.getCustomerCoupons(customer)).thenReturn(coupons);
+        when(customerFacade.getCustomerCoupons(100)).thenReturn(coupons);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/customer/coupons")
@@ -184,13 +166,11 @@ class CustomerControllerTest {
     void testGetCouponsByCategory_ValidCategory_ReturnsCoupons() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
         ArrayList<Coupon> coupons = new ArrayList<>();
         coupons.add(new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
                 Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 99.99, "ski.jpg"));
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(customerFacade.getCustomerCoupons(customer, Category.SKYING)).thenReturn(coupons);
+        when(customerFacade.getCustomerCoupons(100, Category.SKYING)).thenReturn(coupons);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/customer/coupons/category/10")
@@ -204,13 +184,11 @@ class CustomerControllerTest {
     void testGetCouponsByMaxPrice_ValidPrice_ReturnsCoupons() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
         ArrayList<Coupon> coupons = new ArrayList<>();
         coupons.add(new Coupon(1, 10, Category.SKYING, "Ski Trip", "Skiing",
                 Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 50, 50.00, "ski.jpg"));
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(customerFacade.getCustomerCoupons(customer, 100.00)).thenReturn(coupons);
+        when(customerFacade.getCustomerCoupons(100, 100.00)).thenReturn(coupons);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/customer/coupons/price/100.00")
@@ -223,10 +201,9 @@ class CustomerControllerTest {
     void testGetCustomerDetails_ReturnsCustomerInfo() throws Exception {
         // Arrange
         String token = getCustomerToken();
-        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
+        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", null);
 
-        when(customerDAO.getCustomer(100)).thenReturn(customer);
-        when(customerFacade.getCustomerDetails(customer)).thenReturn(customer);
+        when(customerFacade.getCustomerDetails(100)).thenReturn(customer);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/customer/details")
@@ -238,12 +215,88 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.email").value("customer@test.com"));
     }
 
+    @Test
+    void testCheckoutCart_AllPurchased_Returns200() throws Exception {
+        // Arrange
+        String token = getCustomerToken();
+
+        when(customerFacade.checkoutCart(100, List.of(1L, 2L))).thenReturn(List.of(
+                new CartItemResult(1, CartItemResult.Status.PURCHASED),
+                new CartItemResult(2, CartItemResult.Status.PURCHASED)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customer/cart/checkout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"couponIds\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.purchased").value(true))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[1].status").value("PURCHASED"));
+    }
+
+    @Test
+    void testCheckoutCart_ItemFailed_Returns409WithReasons() throws Exception {
+        // Arrange
+        String token = getCustomerToken();
+
+        when(customerFacade.checkoutCart(100, List.of(1L, 2L))).thenReturn(List.of(
+                new CartItemResult(1, CartItemResult.Status.NOT_PURCHASED),
+                new CartItemResult(2, CartItemResult.Status.OUT_OF_STOCK)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customer/cart/checkout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"couponIds\":[1,2]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.purchased").value(false))
+                .andExpect(jsonPath("$.items[0].status").value("NOT_PURCHASED"))
+                .andExpect(jsonPath("$.items[1].couponId").value(2))
+                .andExpect(jsonPath("$.items[1].status").value("OUT_OF_STOCK"));
+    }
+
+    @Test
+    void testCheckoutCart_SpanningShards_Returns409CrossShard() throws Exception {
+        // Arrange
+        String token = getCustomerToken();
+
+        when(customerFacade.checkoutCart(100, List.of(1L, 2L))).thenReturn(List.of(
+                new CartItemResult(1, CartItemResult.Status.CROSS_SHARD),
+                new CartItemResult(2, CartItemResult.Status.CROSS_SHARD)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customer/cart/checkout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"couponIds\":[1,2]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.purchased").value(false))
+                .andExpect(jsonPath("$.items[0].status").value("CROSS_SHARD"))
+                .andExpect(jsonPath("$.items[1].status").value("CROSS_SHARD"));
+    }
+
+    @Test
+    void testCheckoutCart_EmptyCart_Returns400() throws Exception {
+        // Arrange
+        String token = getCustomerToken();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customer/cart/checkout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"couponIds\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerFacade, never()).checkoutCart(anyLong(), any());
+    }
+
     @Test
     void testCustomerEndpoints_DatabaseError_Returns500() throws Exception {
         // Arrange
         String token = getCustomerToken();
 
-        when(customerDAO.getCustomer(100)).thenThrow(new SQLException("Database error"));
+        when(customerFacade.getCustomerCoupons(100)).thenThrow(new SQLException("Database error"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/customer/coupons")
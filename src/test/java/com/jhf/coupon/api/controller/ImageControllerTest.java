@@ -0,0 +1,99 @@
+package com.jhf.coupon.api.controller;
+
+import com.jhf.coupon.backend.images.ImageStore;
+import com.jhf.coupon.backend.images.ImageTestData;
+import com.jhf.coupon.backend.images.ThumbnailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.awt.Color;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for ImageController - image bodies, cache headers and conditional requests
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImageControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Test
+    void testGetImage_ReturnsBytesWithImmutableCaching() throws Exception {
+        byte[] png = ImageTestData.png(30, 20, Color.RED);
+        String hash = imageStore.store(png);
+
+        mockMvc.perform(get("/api/v1/public/images/" + hash))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(png))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, ImageController.IMMUTABLE_CACHE_CONTROL))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""));
+    }
+
+    @Test
+    void testGetImage_MatchingETag_Returns304() throws Exception {
+        String hash = imageStore.store(ImageTestData.png(31, 20, Color.RED));
+
+        mockMvc.perform(get("/api/v1/public/images/" + hash)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testGetImage_UnknownHash_Returns404() throws Exception {
+        mockMvc.perform(get("/api/v1/public/images/" + "c".repeat(64)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+
+        mockMvc.perform(get("/api/v1/public/images/not-a-hash"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetThumbnail_GeneratedThumbnailIsImmutable() throws Exception {
+        String hash = imageStore.store(ImageTestData.jpeg(640, 320, Color.BLUE));
+        thumbnailService.generate(hash);
+
+        mockMvc.perform(get("/api/v1/public/images/" + hash + "/w/160"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, ImageController.IMMUTABLE_CACHE_CONTROL))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "-w160\""));
+    }
+
+    @Test
+    void testGetThumbnail_NotGeneratedServesOriginalBriefly() throws Exception {
+        // Random content: the store outlives the test run, and a thumbnail from an earlier run would be served
+        byte[] jpeg = ImageTestData.jpeg(641, 320, new Color(ThreadLocalRandom.current().nextInt(0x1000000)));
+        String hash = imageStore.store(jpeg);
+
+        mockMvc.perform(get("/api/v1/public/images/" + hash + "/w/480"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(jpeg))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, ImageController.PENDING_CACHE_CONTROL));
+    }
+
+    @Test
+    void testGetThumbnail_UnconfiguredWidth_Returns404() throws Exception {
+        String hash = imageStore.store(ImageTestData.jpeg(100, 50, Color.GREEN));
+
+        mockMvc.perform(get("/api/v1/public/images/" + hash + "/w/999"))
+                .andExpect(status().isNotFound());
+    }
+}
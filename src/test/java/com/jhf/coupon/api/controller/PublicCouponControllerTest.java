@@ -4,6 +4,7 @@ import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
+import com.jhf.coupon.sql.dao.RowHandler;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +12,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.sql.Date;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -62,6 +69,36 @@ class PublicCouponControllerTest {
                 .andExpect(jsonPath("$[1].category").value("SKYING"));
     }
 
+    @Test
+    void testStreamAllCoupons_NdjsonAccept_WritesOneCouponPerLine() throws Exception {
+        // Arrange
+        Coupon coupon1 = new Coupon(1, 10, Category.FANCY_RESTAURANT, "Pizza Deal", "50% off pizza",
+                Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 100, 15.99, "pizza.jpg");
+        Coupon coupon2 = new Coupon(2, 10, Category.SKYING, "Ski Trip", "Weekend skiing",
+                Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(15)), 50, 25.00, "ski.jpg");
+        doAnswer(invocation -> {
+            RowHandler<Coupon> handler = invocation.getArgument(0);
+            handler.handle(coupon1);
+            handler.handle(coupon2);
+            return null;
+        }).when(couponsDAO).forEachCoupon(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/public/coupons").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"title\":\"Pizza Deal\""));
+        assertTrue(lines[1].contains("\"category\":\"SKYING\""));
+    }
+
     @Test
     void testGetAllCoupons_EmptyList_ReturnsEmptyArray() throws Exception {
         // Arrange
@@ -123,7 +160,7 @@ class PublicCouponControllerTest {
     @Test
     void testGetCouponById_DatabaseError_Returns500() throws Exception {
         // Arrange
-        when(couponsDAO.getCoupon(anyInt())).thenThrow(new SQLException("Database connection error"));
+        when(couponsDAO.getCoupon(anyLong())).thenThrow(new SQLException("Database connection error"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/public/coupons/1"))
@@ -0,0 +1,137 @@
+package com.jhf.coupon.api.filter;
+
+import com.jhf.coupon.backend.facade.CustomerFacade;
+import com.jhf.coupon.security.JwtTokenProvider;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for EndpointMetricsInterceptor - per-route latency histograms and SLO accounting.
+ * The purchase route has a 150ms SLO in the test application.properties.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointMetricsInterceptorTest {
+
+    private static final String PURCHASE_ROUTE = "POST /api/v1/customer/coupons/{couponId}/purchase";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private CustomerFacade customerFacade;
+
+    @MockitoBean
+    private CouponsDAO couponsDAO;
+
+    @MockitoBean
+    private JwtTokenProvider tokenProvider;
+
+    private String getCustomerToken() {
+        String token = "customer.token";
+        when(tokenProvider.validateToken(token)).thenReturn(true);
+        when(tokenProvider.getEmailFromToken(token)).thenReturn("customer@test.com");
+        when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100L);
+        return token;
+    }
+
+    private long count(String route, String clientType, String status) {
+        Timer timer = meterRegistry.find("coupon_system_http_request_duration")
+                .tag("route", route)
+                .tag("client_type", clientType)
+                .tag("status", status)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double burnRate(String route, String window) {
+        return meterRegistry.get("coupon_system_slo_burn_rate")
+                .tag("route", route)
+                .tag("window", window)
+                .gauge()
+                .value();
+    }
+
+    @Test
+    void testPurchase_RecordedUnderRouteTemplateAndClientType() throws Exception {
+        String token = getCustomerToken();
+        long before = count(PURCHASE_ROUTE, "customer", "2xx");
+
+        mockMvc.perform(post("/api/v1/customer/coupons/42/purchase")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertThat(count(PURCHASE_ROUTE, "customer", "2xx")).isEqualTo(before + 1);
+        assertThat(meterRegistry.find("coupon_system_http_request_duration")
+                .tag("route", "POST /api/v1/customer/coupons/42/purchase").timer()).isNull();
+    }
+
+    @Test
+    void testPurchase_HistogramHasBucketAtSloThreshold() throws Exception {
+        String token = getCustomerToken();
+
+        mockMvc.perform(post("/api/v1/customer/coupons/1/purchase")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get("coupon_system_http_request_duration")
+                .tag("route", PURCHASE_ROUTE)
+                .tag("status", "2xx")
+                .timer();
+        CountAtBucket[] buckets = timer.takeSnapshot().histogramCounts();
+        assertThat(Arrays.stream(buckets).mapToDouble(CountAtBucket::bucket)).contains(150_000_000.0);
+    }
+
+    @Test
+    void testPurchase_ServerError_BurnsErrorBudget() throws Exception {
+        String token = getCustomerToken();
+        doThrow(new SQLException("Database down")).when(customerFacade).purchaseCoupon(100, 7);
+
+        mockMvc.perform(post("/api/v1/customer/coupons/7/purchase")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().is5xxServerError());
+
+        assertThat(count(PURCHASE_ROUTE, "customer", "5xx")).isGreaterThanOrEqualTo(1);
+        assertThat(burnRate(PURCHASE_ROUTE, "5m")).isGreaterThan(0);
+    }
+
+    @Test
+    void testPublicRoute_WithoutToken_TaggedAnonymous() throws Exception {
+        when(couponsDAO.getAllCoupons()).thenReturn(new ArrayList<>());
+        long before = count("GET /api/v1/public/coupons", "anonymous", "2xx");
+
+        mockMvc.perform(get("/api/v1/public/coupons"))
+                .andExpect(status().isOk());
+
+        assertThat(count("GET /api/v1/public/coupons", "anonymous", "2xx")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void testBurnRateGauges_OnePerDefaultWindow() {
+        assertThat(meterRegistry.find("coupon_system_slo_burn_rate").tag("route", PURCHASE_ROUTE).gauges())
+                .extracting(gauge -> gauge.getId().getTag("window"))
+                .containsExactlyInAnyOrder("5m", "1h", "30m", "6h");
+    }
+}
@@ -53,6 +53,15 @@ class RequestResponseLoggingFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void testDoFilterInternal_NdjsonRequest_PassesResponseThroughUnbuffered() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/public/coupons");
+        request.addHeader("Accept", "application/x-ndjson");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, filterChain);
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     void testDoFilterInternal_ImagesResource_SkipsLogging() throws Exception {
         MockHttpServletRequest request = new MockHttpServletRequest();
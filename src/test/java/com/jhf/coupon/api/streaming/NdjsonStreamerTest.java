@@ -0,0 +1,57 @@
+package com.jhf.coupon.api.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NdjsonStreamer - line framing and failures mid-stream.
+ */
+class NdjsonStreamerTest {
+
+    private final NdjsonStreamer streamer = new NdjsonStreamer(new ObjectMapper());
+
+    private String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testStream_WritesOneObjectPerLine() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = streamer.<Map<String, Integer>>stream(handler -> {
+            for (int i = 1; i <= 3; i++) {
+                handler.handle(Map.of("id", i));
+            }
+        });
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n", write(response));
+    }
+
+    @Test
+    void testStream_NoRows_WritesNothing() throws Exception {
+        assertEquals("", write(streamer.stream(handler -> { })));
+    }
+
+    @Test
+    void testStream_QueryFails_ThrowsIOException() {
+        ResponseEntity<StreamingResponseBody> response = streamer.<Map<String, Integer>>stream(handler -> {
+            handler.handle(Map.of("id", 1));
+            throw new SQLException("Connection lost");
+        });
+
+        IOException exception = assertThrows(IOException.class, () -> write(response));
+        assertInstanceOf(SQLException.class, exception.getCause());
+    }
+}
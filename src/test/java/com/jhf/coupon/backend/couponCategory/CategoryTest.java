@@ -51,4 +51,18 @@ class CategoryTest {
         // Test with zero ID
         assertThrows(CategoryNotFoundException.class, () -> Category.getCategory(0));
     }
+
+    @Test
+    void testGetCategory_RoundTripsEveryCategory() throws CategoryNotFoundException {
+        for (Category category : Category.values()) {
+            assertSame(category, Category.getCategory(category.getId()));
+        }
+    }
+
+    @Test
+    void testGetCategory_WithIdBetweenCategories_ThrowsException() {
+        // Ids inside the lookup table that do not belong to a category
+        assertThrows(CategoryNotFoundException.class, () -> Category.getCategory(15));
+        assertThrows(CategoryNotFoundException.class, () -> Category.getCategory(41));
+    }
 }
@@ -0,0 +1,51 @@
+package com.jhf.coupon.backend.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for PostgresCopyWriter - COPY text format encoding of values.
+ */
+class PostgresCopyWriterTest {
+
+    private static String encode(Object value) {
+        StringBuilder out = new StringBuilder();
+        PostgresCopyWriter.appendValue(out, value);
+        return out.toString();
+    }
+
+    @Test
+    void testAppendValue_Null_IsBackslashN() {
+        assertEquals("\\N", encode(null));
+    }
+
+    @Test
+    void testAppendValue_Boolean_IsTOrF() {
+        assertEquals("t", encode(true));
+        assertEquals("f", encode(false));
+    }
+
+    @Test
+    void testAppendValue_EscapesDelimitersAndBackslash() {
+        assertEquals("a\\tb\\nc\\rd\\\\e", encode("a\tb\nc\rd\\e"));
+    }
+
+    @Test
+    void testAppendValue_NumbersAndDates_UseToString() {
+        assertEquals("42", encode(42));
+        assertEquals("149.99", encode(149.99));
+        assertEquals("2026-01-15", encode(Date.valueOf(LocalDate.of(2026, 1, 15))));
+        assertEquals("2026-01-15 10:30:00.0", encode(Timestamp.valueOf(LocalDateTime.of(2026, 1, 15, 10, 30))));
+    }
+
+    @Test
+    void testAppendValue_PlainText_Unchanged() {
+        assertEquals("Sky Adventures 1", encode("Sky Adventures 1"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.jhf.coupon.backend.dataset;
+
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.config.DatasetProperties;
+import com.jhf.coupon.sql.dao.company.CompaniesDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SyntheticDatasetGenerator against H2 (multi-row INSERT path). The generator is a
+ * "dataset" profile bean, so the tests build it over the context's DataSource.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SyntheticDatasetGeneratorTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private CompaniesDAO companiesDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticDatasetGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new SyntheticDatasetGenerator(dataSource);
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanDatabase() {
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupon_sales_daily");
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+    }
+
+    private static DatasetProperties smallDataset() {
+        DatasetProperties spec = new DatasetProperties();
+        spec.setSeed(7);
+        spec.setReferenceDate(LocalDate.of(2026, 6, 1));
+        spec.setCompanies(5);
+        spec.setCouponsPerCompany(40);
+        spec.setCustomers(300);
+        spec.setPurchases(2_000);
+        spec.setHistoryDays(30);
+        spec.setWriters(3);
+        spec.setBatchRows(64);
+        spec.setTruncate(true);
+        return spec;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private List<String> purchases() {
+        return jdbcTemplate.queryForList("SELECT customer_id || ':' || coupon_id || ':' || purchased_at "
+                + "FROM customers_vs_coupons ORDER BY customer_id, coupon_id", String.class);
+    }
+
+    @Test
+    void testGenerate_WritesRequestedVolumes() throws Exception {
+        DatasetSummary summary = generator.generate(smallDataset());
+
+        assertEquals(5, count("companies"));
+        assertEquals(300, count("customers"));
+        assertEquals(200, count("coupons"));
+        assertEquals(2_000, count("customers_vs_coupons"));
+        assertEquals(200, summary.getCoupons());
+        assertEquals(count("coupon_sales_daily"), summary.getDailySalesRows());
+    }
+
+    @Test
+    void testGenerate_SpreadsPurchasesEvenlyOverCustomers() throws Exception {
+        generator.generate(smallDataset());
+
+        // 2000 / 300 = 6 each, the first 2000 % 300 = 200 customers get a 7th
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customers_vs_coupons WHERE customer_id = 1", Integer.class));
+        assertEquals(6, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customers_vs_coupons WHERE customer_id = 300", Integer.class));
+    }
+
+    @Test
+    void testGenerate_RollupMatchesPurchases() throws Exception {
+        generator.generate(smallDataset());
+
+        assertEquals(2_000, jdbcTemplate.queryForObject(
+                "SELECT SUM(purchases) FROM coupon_sales_daily", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers_vs_coupons p "
+                + "WHERE p.purchased_at < ? OR p.purchased_at >= ?", Integer.class,
+                LocalDate.of(2026, 5, 3).atStartOfDay(), LocalDate.of(2026, 6, 2).atStartOfDay()));
+    }
+
+    @Test
+    void testGenerate_PopularityIsSkewed() throws Exception {
+        generator.generate(smallDataset());
+
+        List<Integer> sales = jdbcTemplate.queryForList("SELECT COUNT(*) FROM customers_vs_coupons "
+                + "GROUP BY coupon_id ORDER BY COUNT(*) DESC", Integer.class);
+        int best = sales.get(0);
+        int median = sales.get(sales.size() / 2);
+        assertTrue(best > 5 * median, "best seller " + best + " vs median " + median);
+    }
+
+    @Test
+    void testGenerate_SameSeedSameRows_WhateverTheWriterCount() throws Exception {
+        DatasetProperties spec = smallDataset();
+        generator.generate(spec);
+        List<String> first = purchases();
+        String firstCustomers = jdbcTemplate.queryForObject(
+                "SELECT LISTAGG(email, ',') WITHIN GROUP (ORDER BY id) FROM customers", String.class);
+
+        spec.setWriters(1);
+        spec.setBatchRows(1000);
+        generator.generate(spec);
+
+        assertEquals(first, purchases());
+        assertEquals(firstCustomers, jdbcTemplate.queryForObject(
+                "SELECT LISTAGG(email, ',') WITHIN GROUP (ORDER BY id) FROM customers", String.class));
+    }
+
+    @Test
+    void testGenerate_DifferentSeed_DifferentPurchases() throws Exception {
+        DatasetProperties spec = smallDataset();
+        generator.generate(spec);
+        List<String> first = purchases();
+
+        spec.setSeed(8);
+        generator.generate(spec);
+
+        assertNotEquals(first, purchases());
+    }
+
+    @Test
+    void testGenerate_PasswordsVerifyAndIdentityContinues() throws Exception {
+        generator.generate(smallDataset());
+
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM customers WHERE id = 1", String.class);
+        assertTrue(PasswordHasher.verifyPassword("password123", hash));
+
+        // Rows inserted without an ID still take the column default past the dataset's IDs
+        jdbcTemplate.update("INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+                "Manual Insert", "manual@dataset.test", hash);
+        assertEquals(6, companiesDAO.getCompanyByEmail("manual@dataset.test").getId());
+
+        Company company = new Company(0, "After Dataset", "after@dataset.test", "password123");
+        companiesDAO.addCompany(company);
+        assertEquals(company.getId(), companiesDAO.getCompanyByEmail("after@dataset.test").getId());
+        assertTrue(company.getId() > 6);
+    }
+
+    @Test
+    void testGenerate_NonEmptyWithoutTruncate_Refuses() throws Exception {
+        generator.generate(smallDataset());
+        DatasetProperties spec = smallDataset();
+        spec.setTruncate(false);
+
+        assertThrows(IllegalStateException.class, () -> generator.generate(spec));
+        assertEquals(5, count("companies"));
+    }
+
+    @Test
+    void testGenerate_MorePurchasesPerCustomerThanCoupons_Throws() {
+        DatasetProperties spec = smallDataset();
+        spec.setCustomers(1);
+        spec.setPurchases(201);
+
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(spec));
+    }
+
+    @Test
+    void testGenerator_OutsideDatasetProfile_IsNotABean() {
+        assertEquals(0, context.getBeanNamesForType(SyntheticDatasetGenerator.class).length);
+    }
+}
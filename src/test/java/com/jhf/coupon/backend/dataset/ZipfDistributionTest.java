@@ -0,0 +1,82 @@
+package com.jhf.coupon.backend.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ZipfDistribution - probabilities, sampling and argument checks.
+ */
+class ZipfDistributionTest {
+
+    @Test
+    void testProbability_ExponentOne_FollowsHarmonicRatios() {
+        ZipfDistribution distribution = new ZipfDistribution(100, 1.0);
+
+        assertEquals(2.0, distribution.probability(0) / distribution.probability(1), 1e-9);
+        assertEquals(10.0, distribution.probability(0) / distribution.probability(9), 1e-9);
+    }
+
+    @Test
+    void testProbability_SumsToOne() {
+        ZipfDistribution distribution = new ZipfDistribution(1000, 1.2);
+
+        double total = 0;
+        for (int rank = 0; rank < distribution.size(); rank++) {
+            total += distribution.probability(rank);
+        }
+
+        assertEquals(1.0, total, 1e-9);
+    }
+
+    @Test
+    void testProbability_ExponentZero_IsUniform() {
+        ZipfDistribution distribution = new ZipfDistribution(4, 0);
+
+        for (int rank = 0; rank < 4; rank++) {
+            assertEquals(0.25, distribution.probability(rank), 1e-9);
+        }
+    }
+
+    @Test
+    void testSample_FrequenciesMatchProbabilities() {
+        ZipfDistribution distribution = new ZipfDistribution(50, 1.0);
+        SplittableRandom random = new SplittableRandom(7);
+        int samples = 200_000;
+        int[] counts = new int[distribution.size()];
+
+        for (int i = 0; i < samples; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        for (int rank : new int[]{0, 1, 9, 49}) {
+            assertEquals(distribution.probability(rank), counts[rank] / (double) samples, 0.01, "rank " + rank);
+        }
+    }
+
+    @Test
+    void testSample_SameSeedGivesSameSequence() {
+        ZipfDistribution distribution = new ZipfDistribution(1000, 1.0);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(distribution.sample(first), distribution.sample(second));
+        }
+    }
+
+    @Test
+    void testSample_SingleItem_AlwaysRankZero() {
+        ZipfDistribution distribution = new ZipfDistribution(1, 1.0);
+
+        assertEquals(0, distribution.sample(new SplittableRandom(1)));
+    }
+
+    @Test
+    void testConstructor_InvalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(10, -0.5));
+    }
+}
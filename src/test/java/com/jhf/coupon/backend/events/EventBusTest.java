@@ -0,0 +1,129 @@
+package com.jhf.coupon.backend.events;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for EventBus - fan-out, ordering, failure isolation and backpressure
+ */
+class EventBusTest {
+
+    private SimpleMeterRegistry registry;
+    private EventBus eventBus;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        eventBus = new EventBus(new PrometheusMetrics(registry), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.shutdown();
+    }
+
+    private static OutboxEvent event(long id) {
+        return new OutboxEvent(id, "coupon", 1, "COUPON_CREATED", "{}", LocalDateTime.now());
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testPublish_DeliversToEverySubscriberInOrder() throws Exception {
+        List<Long> first = new CopyOnWriteArrayList<>();
+        List<Long> second = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(10);
+        eventBus.subscribe("first", e -> {
+            first.add(e.getId());
+            done.countDown();
+        });
+        eventBus.subscribe("second", e -> {
+            second.add(e.getId());
+            done.countDown();
+        });
+
+        for (long id = 1; id <= 5; id++) {
+            eventBus.publish(event(id));
+        }
+        await(done);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), first);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), second);
+    }
+
+    @Test
+    void testFailingSubscriber_DoesNotStopDelivery() throws Exception {
+        CountDownLatch done = new CountDownLatch(2);
+        eventBus.subscribe("flaky", e -> {
+            done.countDown();
+            if (e.getId() == 1) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        eventBus.publish(event(1));
+        eventBus.publish(event(2));
+        await(done);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.find("coupon_system_event_deliveries_total").tag("outcome", "delivered").counter() == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1.0, registry.get("coupon_system_event_deliveries_total")
+                .tags("subscriber", "flaky", "outcome", "failed").counter().count());
+        assertEquals(1.0, registry.get("coupon_system_event_deliveries_total")
+                .tags("subscriber", "flaky", "outcome", "delivered").counter().count());
+    }
+
+    @Test
+    void testPublish_BlocksWhileSubscriberQueueIsFull() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        eventBus.subscribe("slow", e -> {
+            started.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // One event held by the worker, two fill the queue (capacity 2)
+        eventBus.publish(event(1));
+        await(started);
+        eventBus.publish(event(2));
+        eventBus.publish(event(3));
+        assertEquals(2, eventBus.pendingCount());
+        assertEquals(2.0, registry.get("coupon_system_event_queue_depth").tag("subscriber", "slow").gauge().value());
+
+        Thread publisher = new Thread(() -> {
+            try {
+                eventBus.publish(event(4));
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        publisher.start();
+        publisher.join(200);
+        assertTrue(publisher.isAlive());
+
+        gate.countDown();
+        publisher.join(5000);
+        assertFalse(publisher.isAlive());
+    }
+}
@@ -0,0 +1,143 @@
+package com.jhf.coupon.backend.events;
+
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.outbox.OutboxDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OutboxRelay - coupon mutations flow from the outbox to event bus subscribers
+ * and the coupon business metrics. The relay thread is disabled in tests; passes are driven
+ * with relayOnce().
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxRelayTest {
+
+    @Autowired
+    private CouponsDAO couponsDAO;
+
+    @Autowired
+    private OutboxDAO outboxDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry registry;
+    private EventBus eventBus;
+    private OutboxRelay relay;
+    private final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+            1, "John", "Doe", "john@customer.com", hashedPassword);
+
+        registry = new SimpleMeterRegistry();
+        PrometheusMetrics metrics = new PrometheusMetrics(registry);
+        eventBus = new EventBus(metrics, 16);
+        eventBus.subscribe("recorder", received::add);
+        new CouponMetricsProjection(eventBus, metrics).subscribe();
+        relay = new OutboxRelay(outboxDAO, eventBus, metrics, false, 2, 10, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.shutdown();
+        // The fixed IDs seeded here must not reach test classes that share the database
+        cleanDatabase();
+    }
+
+    private void cleanDatabase() {
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupon_sales_daily");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((received.size() < count || eventBus.pendingCount() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private Coupon addCoupon(String title, Category category) throws Exception {
+        Coupon coupon = new Coupon(0, 1, category, title, "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 20.0, "image.jpg");
+        couponsDAO.addCoupon(coupon);
+        return coupon;
+    }
+
+    @Test
+    void testRelayOnce_PublishesInBatchesAndMarksPublished() throws Exception {
+        Coupon ski = addCoupon("Ski", Category.SKYING);
+        addCoupon("Dive", Category.SKY_DIVING);
+        couponsDAO.addCouponPurchase(1, ski.getId());
+
+        assertEquals(2, relay.relayOnce());
+        assertEquals(1.0, registry.get("coupon_system_outbox_pending").gauge().value());
+        assertEquals(1, relay.relayOnce());
+        assertEquals(0, relay.relayOnce());
+        awaitReceived(3);
+
+        assertEquals(List.of("COUPON_CREATED", "COUPON_CREATED", "COUPON_PURCHASED"),
+            received.stream().map(OutboxEvent::getEventType).toList());
+        assertEquals(0, outboxDAO.countUnpublished());
+        assertEquals(0.0, registry.get("coupon_system_outbox_pending").gauge().value());
+        assertEquals(2.0, registry.get("coupon_system_outbox_published_total")
+            .tag("event_type", "COUPON_CREATED").counter().count());
+        assertEquals(3, registry.get("coupon_system_outbox_lag").timer().count());
+    }
+
+    @Test
+    void testRelayOnce_FeedsCouponBusinessMetrics() throws Exception {
+        Coupon ski = addCoupon("Ski", Category.SKYING);
+        couponsDAO.addCouponPurchase(1, ski.getId());
+
+        relay.relayOnce();
+        awaitReceived(2);
+
+        assertEquals(1.0, registry.get("coupon_system_coupons_created_total")
+            .tag("category", "SKYING").counter().count());
+        assertEquals(1.0, registry.get("coupon_system_coupon_purchases_total")
+            .tag("category", "SKYING").counter().count());
+    }
+
+    @Test
+    void testPruneOnce_KeepsRecentlyPublishedEvents() throws Exception {
+        addCoupon("Ski", Category.SKYING);
+        relay.relayOnce();
+        jdbcTemplate.update("UPDATE outbox_events SET published_at = DATEADD('DAY', -2, published_at)");
+        addCoupon("Dive", Category.SKY_DIVING);
+        relay.relayOnce();
+
+        assertEquals(1, relay.pruneOnce());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+    }
+}
@@ -2,10 +2,15 @@ package com.jhf.coupon.backend.facade;
 
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.coupon.CantUpdateCouponException;
 import com.jhf.coupon.backend.exceptions.coupon.CouponAlreadyExistsForCompanyException;
+import com.jhf.coupon.backend.images.ImageRefs;
+import com.jhf.coupon.backend.images.ImageTestData;
 import com.jhf.coupon.backend.validation.ValidationException;
+import com.jhf.coupon.sql.dao.company.CompanyNotFoundException;
 import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +19,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.awt.Color;
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,6 +37,9 @@ class CompanyFacadeTest {
     @Autowired
     private AdminFacade adminFacade;
 
+    @Autowired
+    private CustomerFacade customerFacade;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -139,6 +151,36 @@ class CompanyFacadeTest {
         assertTrue(exception.getMessage().contains("exists"));
     }
 
+    @Test
+    void testAddCoupons_AssignsIdsInOrder() throws Exception {
+        LocalDate today = LocalDate.now();
+        Coupon first = new Coupon(0, testCompany.getId(), Category.SKYING, "Batch One", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 10, 99.99, "image.jpg");
+        Coupon second = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Batch Two", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 5, 19.99, "image.jpg");
+
+        companyFacade.addCoupons(List.of(first, second));
+
+        assertTrue(first.getId() > 0);
+        assertTrue(first.getId() < second.getId());
+        assertEquals("Batch Two", companyFacade.getCompanyCoupons(testCompany).stream()
+                .filter(c -> c.getId() == second.getId()).findFirst().orElseThrow().getTitle());
+    }
+
+    @Test
+    void testAddCoupons_DuplicateTitleInBatch_AddsNothing() {
+        LocalDate today = LocalDate.now();
+        Coupon first = new Coupon(0, testCompany.getId(), Category.SKYING, "Batch Coupon", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 10, 99.99, "image.jpg");
+        Coupon repeated = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Batch Coupon", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 5, 19.99, "image.jpg");
+
+        assertThrows(CouponAlreadyExistsForCompanyException.class,
+                () -> companyFacade.addCoupons(List.of(first, repeated)));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons", Integer.class));
+    }
+
     // ========== Iteration 5: Update & Delete Coupon Tests ==========
 
     @Test
@@ -482,4 +524,132 @@ class CompanyFacadeTest {
             companyFacade.addCoupon(coupon2)
         );
     }
+
+    // ========== ID-based variants used by the authenticated controller endpoints ==========
+
+    @Test
+    void testGetCompanyCouponsById_AllAndFiltered() throws Exception {
+        companyFacade.addCoupon(new Coupon(0, testCompany.getId(), Category.SKYING, "Ski Trip", "Mountain skiing",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 5, 199.99, "ski.jpg"));
+        companyFacade.addCoupon(new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Restaurant", "Fine dining",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 10, 99.99, "restaurant.jpg"));
+
+        ArrayList<Coupon> all = companyFacade.getCompanyCoupons(testCompany.getId());
+        ArrayList<Coupon> byCategory = companyFacade.getCompanyCoupons(testCompany.getId(), Category.SKYING);
+        ArrayList<Coupon> byPrice = companyFacade.getCompanyCoupons(testCompany.getId(), 100.00);
+
+        assertEquals(2, all.size());
+        assertEquals(1, byCategory.size());
+        assertEquals("Ski Trip", byCategory.get(0).getTitle());
+        assertEquals(1, byPrice.size());
+        assertEquals("Restaurant", byPrice.get(0).getTitle());
+    }
+
+    @Test
+    void testGetCompanyDetailsById_ReturnsCompanyWithoutPassword() throws Exception {
+        Company result = companyFacade.getCompanyDetails(testCompany.getId());
+
+        assertEquals(testCompany.getId(), result.getId());
+        assertEquals("TestCompany", result.getName());
+        assertEquals("test@mail.com", result.getEmail());
+        assertNull(result.getPassword());
+    }
+
+    @Test
+    void testGetCompanyDetailsById_AfterAdminUpdate_ReturnsUpdatedCompany() throws Exception {
+        companyFacade.getCompanyDetails(testCompany.getId());
+
+        adminFacade.updateCompany(new Company(testCompany.getId(), "TestCompany", "updated@mail.com", "password123"));
+
+        assertEquals("updated@mail.com", companyFacade.getCompanyDetails(testCompany.getId()).getEmail());
+    }
+
+    @Test
+    void testGetCompanyDetailsById_AfterAdminDelete_ThrowsNotFound() throws Exception {
+        companyFacade.getCompanyDetails(testCompany.getId());
+
+        adminFacade.deleteCompany(testCompany.getId());
+
+        assertThrows(CompanyNotFoundException.class,
+                () -> companyFacade.getCompanyDetails(testCompany.getId()));
+    }
+
+    // ========== Sales Analytics ==========
+
+    @Test
+    void testGetCompanySales_AfterPurchases_ReturnsRollup() throws Exception {
+        LocalDate today = LocalDate.now();
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.SKYING, "Analytics Coupon", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 10, 50.0, "image.jpg");
+        companyFacade.addCoupon(coupon);
+        long couponId = companyFacade.getCompanyCoupons(testCompany.getId()).get(0).getId();
+        adminFacade.addCustomer(new Customer(0, "Ann", "Buyer", "ann@buyer.com", "password"));
+        adminFacade.addCustomer(new Customer(0, "Bob", "Buyer", "bob@buyer.com", "password"));
+        for (Customer customer : adminFacade.getAllCustomers()) {
+            customerFacade.purchaseCoupon(customer.getId(), couponId);
+        }
+
+        ArrayList<DailyCategorySales> daily = companyFacade.getCompanyDailySales(testCompany.getId(), today, today);
+        Map<Category, Integer> byCategory = companyFacade.getCompanySalesByCategory(testCompany.getId(),
+                today.minusDays(6), today);
+
+        assertEquals(1, daily.size());
+        assertEquals(new DailyCategorySales(today, Category.SKYING, 2), daily.get(0));
+        assertEquals(Map.of(Category.SKYING, 2), byCategory);
+    }
+
+    @Test
+    void testGetCompanySales_FromAfterTo_ThrowsValidationException() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(ValidationException.class,
+                () -> companyFacade.getCompanyDailySales(testCompany.getId(), today, today.minusDays(1)));
+    }
+
+    @Test
+    void testGetCompanySales_MissingDate_ThrowsValidationException() {
+        assertThrows(ValidationException.class,
+                () -> companyFacade.getCompanySalesByCategory(testCompany.getId(), null, LocalDate.now()));
+    }
+
+    @Test
+    void testGetCompanySales_RangeTooLong_ThrowsValidationException() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(ValidationException.class,
+                () -> companyFacade.getCompanySalesByCategory(testCompany.getId(),
+                        today.minusDays(CompanyFacade.MAX_SALES_RANGE_DAYS), today));
+    }
+
+    // ========== Coupon Image Tests ==========
+
+    @Test
+    void testUploadImage_AddCouponStoresContentHash() throws Exception {
+        String hash = companyFacade.uploadImage(ImageTestData.png(40, 20, Color.ORANGE));
+        LocalDate today = LocalDate.now();
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.SKYING, "Image Coupon", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 10, 99.99, ImageRefs.URL_PREFIX + hash);
+
+        companyFacade.addCoupon(coupon);
+
+        Coupon stored = companyFacade.getCompanyCoupons(testCompany.getId()).get(0);
+        assertEquals(hash, stored.getImage());
+        assertEquals(ImageRefs.URL_PREFIX + hash, stored.getImageUrl());
+    }
+
+    @Test
+    void testAddCoupon_WithUnknownImageHash_ThrowsValidationException() {
+        LocalDate today = LocalDate.now();
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.SKYING, "Image Coupon", "Description",
+                Date.valueOf(today), Date.valueOf(today.plusDays(30)), 10, 99.99, "d".repeat(64));
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> companyFacade.addCoupon(coupon));
+
+        assertTrue(exception.getMessage().contains("image store"));
+    }
+
+    @Test
+    void testUploadImage_NotAnImage_ThrowsValidationException() {
+        assertThrows(ValidationException.class, () -> companyFacade.uploadImage("not an image".getBytes()));
+    }
 }
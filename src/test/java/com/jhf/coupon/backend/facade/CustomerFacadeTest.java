@@ -1,5 +1,6 @@
 package com.jhf.coupon.backend.facade;
 
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
@@ -7,6 +8,7 @@ import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.exceptions.coupon.CouponNotInStockException;
 import com.jhf.coupon.backend.exceptions.coupon.CustomerAlreadyPurchasedCouponException;
 import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
+import com.jhf.coupon.sql.dao.customer.CustomerNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -386,4 +389,158 @@ class CustomerFacadeTest {
 
         assertEquals(initialAmount - 1, updatedCoupon.getAmount());
     }
+
+    // ID-based variants used by the authenticated controller endpoints
+
+    @Test
+    void testPurchaseCouponById_Success() throws Exception {
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Pizza Coupon", "Delicious pizza",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 10, 99.99, "pizza.jpg");
+        companyFacade.addCoupon(coupon);
+        Coupon addedCoupon = companyFacade.getCompanyCoupons(testCompany.getId()).get(0);
+
+        customerFacade.purchaseCoupon(testCustomer.getId(), addedCoupon.getId());
+
+        ArrayList<Coupon> customerCoupons = customerFacade.getCustomerCoupons(testCustomer.getId());
+        assertEquals(1, customerCoupons.size());
+        assertEquals(addedCoupon.getId(), customerCoupons.get(0).getId());
+        assertEquals("Pizza Coupon", customerCoupons.get(0).getTitle());
+    }
+
+    @Test
+    void testPurchaseCouponById_WhenAlreadyPurchased_ThrowsException() throws Exception {
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Pizza Coupon", "Delicious pizza",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 10, 99.99, "pizza.jpg");
+        companyFacade.addCoupon(coupon);
+        Coupon addedCoupon = companyFacade.getCompanyCoupons(testCompany.getId()).get(0);
+
+        customerFacade.purchaseCoupon(testCustomer.getId(), addedCoupon.getId());
+
+        assertThrows(CustomerAlreadyPurchasedCouponException.class,
+                () -> customerFacade.purchaseCoupon(testCustomer.getId(), addedCoupon.getId()));
+    }
+
+    @Test
+    void testPurchaseCouponById_WhenCouponNotExists_ThrowsException() {
+        CouponNotFoundException exception = assertThrows(CouponNotFoundException.class,
+                () -> customerFacade.purchaseCoupon(testCustomer.getId(), 999));
+
+        assertTrue(exception.getMessage().contains("999"));
+    }
+
+    @Test
+    void testPurchaseCouponById_WhenOutOfStock_ThrowsException() throws Exception {
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Pizza Coupon", "Delicious pizza",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 1, 99.99, "pizza.jpg");
+        companyFacade.addCoupon(coupon);
+        Coupon addedCoupon = companyFacade.getCompanyCoupons(testCompany.getId()).get(0);
+        jdbcTemplate.update("UPDATE coupons SET amount = 0 WHERE id = ?", addedCoupon.getId());
+
+        assertThrows(CouponNotInStockException.class,
+                () -> customerFacade.purchaseCoupon(testCustomer.getId(), addedCoupon.getId()));
+    }
+
+    @Test
+    void testPurchaseCouponById_WhenCustomerDeleted_ThrowsCustomerNotFound() throws Exception {
+        Coupon coupon = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Pizza Coupon", "Delicious pizza",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 10, 99.99, "pizza.jpg");
+        companyFacade.addCoupon(coupon);
+        adminFacade.deleteCustomer(testCustomer.getId());
+
+        assertThrows(CustomerNotFoundException.class,
+                () -> customerFacade.purchaseCoupon(testCustomer.getId(), coupon.getId()));
+        assertEquals(10, companyFacade.getCompanyCoupons(testCompany.getId()).get(0).getAmount());
+    }
+
+    @Test
+    void testCheckoutCart_WhenCustomerDeleted_ThrowsCustomerNotFound() throws Exception {
+        Coupon ski = new Coupon(0, testCompany.getId(), Category.SKYING, "Ski Trip", "Mountain skiing",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 5, 199.99, "ski.jpg");
+        companyFacade.addCoupon(ski);
+        adminFacade.deleteCustomer(testCustomer.getId());
+
+        assertThrows(CustomerNotFoundException.class,
+                () -> customerFacade.checkoutCart(testCustomer.getId(), List.of(ski.getId())));
+    }
+
+    @Test
+    void testCheckoutCart_BuysEveryCoupon() throws Exception {
+        Coupon ski = new Coupon(0, testCompany.getId(), Category.SKYING, "Ski Trip", "Mountain skiing",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 5, 199.99, "ski.jpg");
+        Coupon dinner = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Restaurant", "Fine dining",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 5, 49.99, "food.jpg");
+        companyFacade.addCoupon(ski);
+        companyFacade.addCoupon(dinner);
+
+        List<CartItemResult> results = customerFacade.checkoutCart(testCustomer.getId(), List.of(ski.getId(), dinner.getId()));
+
+        assertTrue(results.stream().allMatch(CartItemResult::isPurchased));
+        assertEquals(2, customerFacade.getCustomerCoupons(testCustomer.getId()).size());
+    }
+
+    @Test
+    void testCheckoutCart_WhenOneOutOfStock_BuysNothing() throws Exception {
+        Coupon ski = new Coupon(0, testCompany.getId(), Category.SKYING, "Ski Trip", "Mountain skiing",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 5, 199.99, "ski.jpg");
+        Coupon dinner = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Restaurant", "Fine dining",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 1, 49.99, "food.jpg");
+        companyFacade.addCoupon(ski);
+        companyFacade.addCoupon(dinner);
+        jdbcTemplate.update("UPDATE coupons SET amount = 0 WHERE id = ?", dinner.getId());
+
+        List<CartItemResult> results = customerFacade.checkoutCart(testCustomer.getId(), List.of(ski.getId(), dinner.getId()));
+
+        assertFalse(results.stream().anyMatch(CartItemResult::isPurchased));
+        assertTrue(customerFacade.getCustomerCoupons(testCustomer.getId()).isEmpty());
+    }
+
+    @Test
+    void testGetCustomerCouponsById_FilteredByCategoryAndMaxPrice() throws Exception {
+        Coupon coupon1 = new Coupon(0, testCompany.getId(), Category.SKYING, "Ski Trip", "Mountain skiing",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 5, 199.99, "ski.jpg");
+        Coupon coupon2 = new Coupon(0, testCompany.getId(), Category.FANCY_RESTAURANT, "Restaurant", "Fine dining",
+                Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now().plusDays(365)), 10, 99.99, "restaurant.jpg");
+        companyFacade.addCoupon(coupon1);
+        companyFacade.addCoupon(coupon2);
+        for (Coupon coupon : companyFacade.getCompanyCoupons(testCompany.getId())) {
+            customerFacade.purchaseCoupon(testCustomer.getId(), coupon.getId());
+        }
+
+        ArrayList<Coupon> byCategory = customerFacade.getCustomerCoupons(testCustomer.getId(), Category.SKYING);
+        ArrayList<Coupon> byPrice = customerFacade.getCustomerCoupons(testCustomer.getId(), 100.00);
+
+        assertEquals(1, byCategory.size());
+        assertEquals("Ski Trip", byCategory.get(0).getTitle());
+        assertEquals(1, byPrice.size());
+        assertEquals("Restaurant", byPrice.get(0).getTitle());
+    }
+
+    @Test
+    void testGetCustomerDetailsById_ReturnsCustomerWithoutPassword() throws Exception {
+        Customer result = customerFacade.getCustomerDetails(testCustomer.getId());
+
+        assertEquals(testCustomer.getId(), result.getId());
+        assertEquals("John", result.getFirstName());
+        assertEquals("john@mail.com", result.getEmail());
+        assertNull(result.getPassword());
+    }
+
+    @Test
+    void testGetCustomerDetailsById_AfterAdminUpdate_ReturnsUpdatedCustomer() throws Exception {
+        customerFacade.getCustomerDetails(testCustomer.getId());
+
+        adminFacade.updateCustomer(new Customer(testCustomer.getId(), "Johnny", "Doe", "john@mail.com", "password123"));
+
+        assertEquals("Johnny", customerFacade.getCustomerDetails(testCustomer.getId()).getFirstName());
+    }
+
+    @Test
+    void testGetCustomerDetailsById_AfterAdminDelete_ThrowsNotFound() throws Exception {
+        customerFacade.getCustomerDetails(testCustomer.getId());
+
+        adminFacade.deleteCustomer(testCustomer.getId());
+
+        assertThrows(CustomerNotFoundException.class,
+                () -> customerFacade.getCustomerDetails(testCustomer.getId()));
+    }
 }
@@ -0,0 +1,36 @@
+package com.jhf.coupon.backend.images;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ImageRefs - content hash references vs legacy image URLs.
+ */
+class ImageRefsTest {
+
+    private static final String HASH = "0123456789abcdef".repeat(4);
+
+    @Test
+    void testHashOf_AcceptsBareHashAndImageUrl() {
+        assertThat(ImageRefs.hashOf(HASH)).isEqualTo(HASH);
+        assertThat(ImageRefs.hashOf("/api/v1/public/images/" + HASH)).isEqualTo(HASH);
+    }
+
+    @Test
+    void testHashOf_LegacyValuesAreNotReferences() {
+        assertThat(ImageRefs.hashOf(null)).isNull();
+        assertThat(ImageRefs.hashOf("image.jpg")).isNull();
+        assertThat(ImageRefs.hashOf(HASH.toUpperCase())).isNull();
+        assertThat(ImageRefs.hashOf("/api/v1/public/images/" + HASH + "/w/160")).isNull();
+    }
+
+    @Test
+    void testUrls() {
+        assertThat(ImageRefs.urlOf(HASH)).isEqualTo("/api/v1/public/images/" + HASH);
+        assertThat(ImageRefs.urlOf("https://cdn.example.com/a.png")).isEqualTo("https://cdn.example.com/a.png");
+        assertThat(ImageRefs.urlOf(null)).isNull();
+        assertThat(ImageRefs.thumbnailUrlOf(HASH, 160)).isEqualTo("/api/v1/public/images/" + HASH + "/w/160");
+        assertThat(ImageRefs.thumbnailUrlOf("a.png", 160)).isNull();
+    }
+}
@@ -0,0 +1,112 @@
+package com.jhf.coupon.backend.images;
+
+import com.jhf.coupon.backend.exceptions.ImageNotFoundException;
+import com.jhf.coupon.backend.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Color;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ImageStore - content addressing, validation and lookups.
+ */
+class ImageStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private ImageStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new ImageStore(dir.toString(), 64 * 1024, 1_000_000);
+    }
+
+    @Test
+    @DisplayName("Images are stored under their SHA-256 in a directory named after its first two characters")
+    void testStoresByContentHash() throws Exception {
+        byte[] png = ImageTestData.png(20, 10, Color.RED);
+
+        String hash = store.store(png);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+        assertThat(hash).isEqualTo(expected);
+        Path file = dir.resolve(hash.substring(0, 2)).resolve(hash);
+        assertThat(Files.readAllBytes(file)).isEqualTo(png);
+        assertThat(store.contains(hash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Storing the same bytes twice returns the same hash and leaves one file")
+    void testStoreIsIdempotent() throws Exception {
+        byte[] jpeg = ImageTestData.jpeg(20, 10, Color.BLUE);
+
+        String first = store.store(jpeg);
+        String second = store.store(jpeg);
+
+        assertThat(second).isEqualTo(first);
+        try (var files = Files.list(dir.resolve(first.substring(0, 2)))) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Stored originals report their sniffed format and size")
+    void testGetOriginal() throws Exception {
+        byte[] jpeg = ImageTestData.jpeg(20, 10, Color.GREEN);
+        String hash = store.store(jpeg);
+
+        StoredImage image = store.getOriginal(hash);
+
+        assertThat(image.getFormat()).isEqualTo(ImageFormat.JPEG);
+        assertThat(image.getSize()).isEqualTo(jpeg.length);
+        assertThat(image.isImmutable()).isTrue();
+        assertThat(store.getThumbnail(hash, 160)).isNull();
+    }
+
+    @Test
+    @DisplayName("Unknown and malformed hashes are not found")
+    void testGetOriginalNotFound() {
+        assertThatThrownBy(() -> store.getOriginal("a".repeat(64))).isInstanceOf(ImageNotFoundException.class);
+        assertThatThrownBy(() -> store.getOriginal("../../etc/passwd")).isInstanceOf(ImageNotFoundException.class);
+        assertThat(store.contains("../../etc/passwd")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Empty, oversized and non-image content is rejected")
+    void testRejectsInvalidContent() {
+        assertThatThrownBy(() -> store.store(new byte[0])).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> store.store(new byte[64 * 1024 + 1])).isInstanceOf(ValidationException.class)
+                .hasMessageContaining("cannot exceed");
+        assertThatThrownBy(() -> store.store("<svg xmlns='http://www.w3.org/2000/svg'/>".getBytes()))
+                .isInstanceOf(ValidationException.class).hasMessageContaining("PNG, JPEG and GIF");
+    }
+
+    @Test
+    @DisplayName("Images whose header claims too many pixels are rejected without decoding")
+    void testRejectsTooManyPixels() throws Exception {
+        byte[] png = ImageTestData.png(1001, 1000, Color.RED);
+
+        assertThatThrownBy(() -> store.store(png)).isInstanceOf(ValidationException.class)
+                .hasMessageContaining("pixels");
+    }
+
+    @Test
+    @DisplayName("Truncated image content is rejected")
+    void testRejectsTruncatedImage() throws Exception {
+        byte[] png = ImageTestData.png(20, 10, Color.RED);
+        byte[] truncated = Arrays.copyOf(png, 12);
+
+        assertThatThrownBy(() -> store.store(truncated)).isInstanceOf(ValidationException.class);
+    }
+}
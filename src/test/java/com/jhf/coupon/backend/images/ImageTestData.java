@@ -0,0 +1,36 @@
+package com.jhf.coupon.backend.images;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Small generated images for image store tests.
+ */
+public final class ImageTestData {
+
+    private ImageTestData() {
+    }
+
+    public static byte[] png(int width, int height, Color color) throws IOException {
+        return encode(width, height, color, BufferedImage.TYPE_INT_ARGB, "png");
+    }
+
+    public static byte[] jpeg(int width, int height, Color color) throws IOException {
+        return encode(width, height, color, BufferedImage.TYPE_INT_RGB, "jpg");
+    }
+
+    private static byte[] encode(int width, int height, Color color, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
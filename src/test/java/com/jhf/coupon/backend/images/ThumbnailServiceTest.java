@@ -0,0 +1,107 @@
+package com.jhf.coupon.backend.images;
+
+import com.jhf.coupon.backend.exceptions.ImageNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ThumbnailService - scaling, output format and fallback to the original.
+ */
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ImageStore store;
+    private ThumbnailService thumbnails;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new ImageStore(dir.toString(), 1024 * 1024, 10_000_000);
+        thumbnails = new ThumbnailService(store, new int[]{480, 160}, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnails.stop();
+    }
+
+    @Test
+    @DisplayName("Opaque images are scaled to each width as JPEG, keeping the aspect ratio")
+    void testGeneratesJpegThumbnails() throws Exception {
+        String hash = store.store(ImageTestData.jpeg(800, 400, Color.RED));
+
+        thumbnails.generate(hash);
+
+        StoredImage small = store.getThumbnail(hash, 160);
+        StoredImage large = store.getThumbnail(hash, 480);
+        assertThat(small.getFormat()).isEqualTo(ImageFormat.JPEG);
+        BufferedImage decoded = ImageIO.read(small.getPath().toFile());
+        assertThat(decoded.getWidth()).isEqualTo(160);
+        assertThat(decoded.getHeight()).isEqualTo(80);
+        assertThat(ImageIO.read(large.getPath().toFile()).getWidth()).isEqualTo(480);
+    }
+
+    @Test
+    @DisplayName("Images with transparency get PNG thumbnails")
+    void testGeneratesPngForAlpha() throws Exception {
+        String hash = store.store(ImageTestData.png(600, 600, new Color(0, 0, 255, 128)));
+
+        thumbnails.generate(hash);
+
+        assertThat(store.getThumbnail(hash, 160).getFormat()).isEqualTo(ImageFormat.PNG);
+    }
+
+    @Test
+    @DisplayName("Images narrower than a thumbnail width are stored as-is, not upscaled")
+    void testDoesNotUpscale() throws Exception {
+        byte[] original = ImageTestData.jpeg(200, 100, Color.GREEN);
+        String hash = store.store(original);
+
+        thumbnails.generate(hash);
+
+        assertThat(Files.readAllBytes(store.getThumbnail(hash, 480).getPath())).isEqualTo(original);
+        assertThat(ImageIO.read(store.getThumbnail(hash, 160).getPath().toFile()).getWidth()).isEqualTo(160);
+    }
+
+    @Test
+    @DisplayName("A missing thumbnail falls back to the original, not immutable, and is generated in the background")
+    void testFallsBackAndSchedules() throws Exception {
+        String hash = store.store(ImageTestData.jpeg(800, 400, Color.BLUE));
+
+        StoredImage fallback = thumbnails.getThumbnail(hash, 160);
+
+        assertThat(fallback.isImmutable()).isFalse();
+        assertThat(fallback.getPath()).isEqualTo(store.getOriginal(hash).getPath());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getThumbnail(hash, 160) == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        StoredImage generated = thumbnails.getThumbnail(hash, 160);
+        assertThat(generated.isImmutable()).isTrue();
+        assertThat(generated.getPath()).isNotEqualTo(fallback.getPath());
+    }
+
+    @Test
+    @DisplayName("Unconfigured widths and unknown images are not found")
+    void testUnknownWidthOrImage() throws Exception {
+        String hash = store.store(ImageTestData.jpeg(100, 100, Color.RED));
+
+        assertThatThrownBy(() -> thumbnails.getThumbnail(hash, 300)).isInstanceOf(ImageNotFoundException.class);
+        assertThatThrownBy(() -> thumbnails.getThumbnail("b".repeat(64), 160)).isInstanceOf(ImageNotFoundException.class);
+        assertThat(thumbnails.getWidths()).containsExactly(160, 480);
+    }
+}
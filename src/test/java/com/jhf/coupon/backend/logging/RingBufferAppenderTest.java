@@ -0,0 +1,231 @@
+package com.jhf.coupon.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for RingBufferAppender - delivery order, overflow policy and counters.
+ */
+class RingBufferAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private RecordingAppender target;
+    private RingBufferAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        logger = context.getLogger("ring-buffer-test");
+        target = new RecordingAppender();
+        target.setContext(context);
+        target.start();
+
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("TEST");
+        appender.addAppender(target);
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release();
+        appender.stop();
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(RingBufferAppenderTest.class.getName(), logger, level, message, null, null);
+    }
+
+    private void awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (target.events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Events are delivered to the attached appender in order")
+    void testDeliversInOrder() throws Exception {
+        appender.start();
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(Level.INFO, "event " + i));
+        }
+        awaitDelivered(100);
+
+        assertThat(target.events).hasSize(100);
+        assertThat(target.events.get(0).getFormattedMessage()).isEqualTo("event 0");
+        assertThat(target.events.get(99).getFormattedMessage()).isEqualTo("event 99");
+        assertThat(appender.getDroppedCount(Level.INFO)).isZero();
+    }
+
+    @Test
+    @DisplayName("Events from concurrent producers are all delivered")
+    void testConcurrentProducers() throws Exception {
+        appender.setBufferSize(64);
+        appender.setBlockingLevel("INFO");
+        appender.setDiscardingThreshold(0);
+        appender.start();
+
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    appender.doAppend(event(Level.INFO, "concurrent"));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        awaitDelivered(4000);
+
+        assertThat(target.events).hasSize(4000);
+        assertThat(appender.getDroppedCount(Level.INFO)).isZero();
+    }
+
+    @Test
+    @DisplayName("DEBUG is dropped first once free slots fall below the discarding threshold")
+    void testDropsDebugBelowThreshold() {
+        appender.setBufferSize(8);
+        appender.setDiscardingThreshold(4);
+        target.hold();
+        appender.start();
+
+        // First event is taken by the drain thread and held; the next fill the buffer
+        appender.doAppend(event(Level.INFO, "held"));
+        target.awaitHeld();
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend(event(Level.INFO, "fill " + i));
+        }
+
+        appender.doAppend(event(Level.DEBUG, "debug"));
+        appender.doAppend(event(Level.TRACE, "trace"));
+        appender.doAppend(event(Level.INFO, "info"));
+
+        assertThat(appender.getDroppedCount(Level.DEBUG)).isEqualTo(1);
+        assertThat(appender.getDroppedCount(Level.TRACE)).isEqualTo(1);
+        assertThat(appender.getDroppedCount(Level.INFO)).isZero();
+        assertThat(appender.getQueuedCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("When full, levels below blockingLevel are dropped and WARN blocks until a slot frees up")
+    void testFullBufferDropsInfoAndBlocksWarn() throws Exception {
+        appender.setBufferSize(4);
+        appender.setDiscardingThreshold(0);
+        target.hold();
+        appender.start();
+
+        appender.doAppend(event(Level.INFO, "held"));
+        target.awaitHeld();
+        for (int i = 0; i < 4; i++) {
+            appender.doAppend(event(Level.INFO, "fill " + i));
+        }
+
+        appender.doAppend(event(Level.INFO, "dropped"));
+        assertThat(appender.getDroppedCount(Level.INFO)).isEqualTo(1);
+
+        Thread warnProducer = new Thread(() -> appender.doAppend(event(Level.WARN, "blocked")));
+        warnProducer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.getBlockedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(appender.getBlockedCount()).isEqualTo(1);
+        assertThat(warnProducer.isAlive()).isTrue();
+
+        target.release();
+        warnProducer.join(5000);
+        awaitDelivered(6);
+
+        assertThat(warnProducer.isAlive()).isFalse();
+        assertThat(target.events).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("held", "fill 0", "fill 1", "fill 2", "fill 3", "blocked");
+        assertThat(appender.getDroppedCount(Level.WARN)).isZero();
+    }
+
+    @Test
+    @DisplayName("Stop flushes events still in the buffer")
+    void testStopFlushesBuffer() {
+        appender.start();
+        for (int i = 0; i < 50; i++) {
+            appender.doAppend(event(Level.INFO, "event " + i));
+        }
+
+        appender.stop();
+
+        assertThat(target.events).hasSize(50);
+        assertThat(target.isStarted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A buffer size that is not a power of two is rejected")
+    void testRejectsInvalidBufferSize() {
+        appender.setBufferSize(1000);
+        appender.start();
+
+        assertThat(appender.isStarted()).isFalse();
+    }
+
+    /**
+     * Records delivered events; can hold the drain thread on the first event to fill the buffer.
+     */
+    private static class RecordingAppender extends AppenderBase<ILoggingEvent> {
+        final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch held = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void awaitHeld() {
+            try {
+                held.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void release() {
+            CountDownLatch current = gate;
+            if (current != null) {
+                current.countDown();
+            }
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+            CountDownLatch current = gate;
+            if (current != null) {
+                held.countDown();
+                try {
+                    current.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.jhf.coupon.backend.logging;
 
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -371,4 +373,60 @@ class StructuredLoggerTest {
 
         assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
     }
+
+    @Test
+    @DisplayName("Fields should be attached to the event, not the MDC")
+    void testFieldsTravelWithEvent() {
+        ch.qos.logback.classic.Logger logbackLogger =
+                (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("structured-logger-fields");
+        // Other test contexts may raise the root level; pin this logger to INFO
+        logbackLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logbackLogger.addAppender(appender);
+        try {
+            StructuredLogger.setRequestId("req-1");
+            StructuredLogger.info(logbackLogger, "Purchase")
+                    .field("customer_id", 7)
+                    .field("coupon", "SKI")
+                    .log();
+
+            assertThat(appender.list).hasSize(1);
+            ILoggingEvent event = appender.list.get(0);
+            assertThat(event.getMarkerList()).hasSize(1);
+            assertThat(event.getMarkerList().get(0).toString())
+                    .contains("customer_id=7")
+                    .contains("coupon=SKI");
+            assertThat(event.getMDCPropertyMap()).containsEntry("request_id", "req-1")
+                    .doesNotContainKey("customer_id");
+
+            // Request context set by the caller survives the log call
+            assertThat(MDC.get("request_id")).isEqualTo("req-1");
+        } finally {
+            logbackLogger.detachAppender(appender);
+            logbackLogger.setLevel(null);
+        }
+    }
+
+    @Test
+    @DisplayName("Disabled levels should return a shared no-op entry")
+    void testDisabledLevelIsNoOp() {
+        ch.qos.logback.classic.Logger logbackLogger =
+                (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("structured-logger-disabled");
+        logbackLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logbackLogger.addAppender(appender);
+        try {
+            StructuredLogger first = StructuredLogger.debug(logbackLogger, "Skipped");
+            StructuredLogger second = StructuredLogger.trace(logbackLogger, "Skipped");
+
+            assertThat(first).isSameAs(second);
+            first.field("key", "value").log();
+            assertThat(appender.list).isEmpty();
+        } finally {
+            logbackLogger.detachAppender(appender);
+            logbackLogger.setLevel(null);
+        }
+    }
 }
@@ -8,14 +8,19 @@ import com.jhf.coupon.backend.facade.AdminFacade;
 import com.jhf.coupon.backend.facade.ClientFacade;
 import com.jhf.coupon.backend.facade.CompanyFacade;
 import com.jhf.coupon.backend.facade.CustomerFacade;
+import com.jhf.coupon.backend.security.AdminLockoutTracker;
 import com.jhf.coupon.backend.security.LockoutConfig;
+import com.jhf.coupon.backend.security.PasswordHasher;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
 import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,6 +42,12 @@ class LoginManagerTest {
     @Autowired
     private LockoutConfig lockoutConfig;
 
+    @Autowired
+    private AdminLockoutTracker adminLockoutTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private Company testCompany;
     private Customer testCustomer;
 
@@ -48,10 +59,8 @@ class LoginManagerTest {
         jdbcTemplate.execute("DELETE FROM companies");
         jdbcTemplate.execute("DELETE FROM customers");
 
-        // Clear admin lockout state using reflection (in-memory state persists across tests)
-        java.lang.reflect.Field field = loginManager.getClass().getDeclaredField("adminFailedAttempts");
-        field.setAccessible(true);
-        ((java.util.concurrent.ConcurrentHashMap<?, ?>) field.get(loginManager)).clear();
+        // Clear admin lockout state (in-memory state persists across tests)
+        adminLockoutTracker.clear();
 
         // Create test company with PLAIN password (DAO will hash it)
         testCompany = new Company();
@@ -492,6 +501,26 @@ class LoginManagerTest {
         );
     }
 
+    @Test
+    void testLogin_Company_LockingFailureRecordsLockoutMetric() throws Exception {
+        double before = lockoutCount("company");
+
+        for (int i = 0; i < lockoutConfig.getMaxAttempts(); i++) {
+            assertThrows(InvalidLoginCredentialsException.class, () ->
+                loginManager.login("company@test.com", "wrongpassword", ClientType.COMPANY)
+            );
+        }
+
+        assertEquals(before + 1, lockoutCount("company"));
+    }
+
+    private double lockoutCount(String clientType) {
+        Counter counter = meterRegistry.find("coupon_system_account_lockouts_total")
+            .tag("client_type", clientType)
+            .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
     @Test
     void testUnlockCustomerAccount_Success() throws Exception {
         // Lock the account first
@@ -554,10 +583,14 @@ class LoginManagerTest {
             "company@test.com"
         );
 
-        // Now login should auto-unlock and succeed with correct password
+        // Now login should ignore the expired lockout and succeed with correct password
         ClientFacade result = loginManager.login("company@test.com", "password123", ClientType.COMPANY);
         assertNotNull(result);
         assertInstanceOf(CompanyFacade.class, result);
+
+        // The unlock itself is left to LockoutExpirySweepJob, login does not write it
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+            "SELECT ACCOUNT_LOCKED FROM companies WHERE EMAIL = ?", Boolean.class, "company@test.com"));
     }
 
     @Test
@@ -580,10 +613,14 @@ class LoginManagerTest {
             "customer@test.com"
         );
 
-        // Now login should auto-unlock and succeed with correct password
+        // Now login should ignore the expired lockout and succeed with correct password
         ClientFacade result = loginManager.login("customer@test.com", "password123", ClientType.CUSTOMER);
         assertNotNull(result);
         assertInstanceOf(CustomerFacade.class, result);
+
+        // The unlock itself is left to LockoutExpirySweepJob, login does not write it
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+            "SELECT ACCOUNT_LOCKED FROM customers WHERE EMAIL = ?", Boolean.class, "customer@test.com"));
     }
 
     @Test
@@ -618,15 +655,67 @@ class LoginManagerTest {
     }
 
     @Test
-    void testLogin_Admin_TriggersLambda_OnFirstFailure() throws Exception {
-        // Clear fails again to be absolutely sure
-        java.lang.reflect.Field field = loginManager.getClass().getDeclaredField("adminFailedAttempts");
-        field.setAccessible(true);
-        ((java.util.concurrent.ConcurrentHashMap<?, ?>) field.get(loginManager)).clear();
+    void testLogin_Admin_WithNonAdminEmail_IsNeverTracked() {
+        for (int i = 0; i < lockoutConfig.getMaxAttempts() + 1; i++) {
+            int attempt = i;
+            assertThrows(InvalidLoginCredentialsException.class, () ->
+                loginManager.login("stuffed-" + attempt + "@admin.com", "wrong", ClientType.ADMIN)
+            );
+        }
 
-        // This should trigger: k -> new AtomicInteger(0)
-        assertThrows(InvalidLoginCredentialsException.class, () ->
-            loginManager.login("new-admin@admin.com", "wrong", ClientType.ADMIN)
+        assertEquals(0, adminLockoutTracker.trackedCount());
+    }
+
+    @Test
+    void testLogin_Admin_Locked_ReportsLockExpiry() throws Exception {
+        for (int i = 0; i < lockoutConfig.getMaxAttempts(); i++) {
+            assertThrows(InvalidLoginCredentialsException.class, () ->
+                loginManager.login("admin@admin.com", "wrongpassword", ClientType.ADMIN)
+            );
+        }
+
+        // Correct password is rejected while locked, and the lock decays instead of being permanent
+        AccountLockedException ex = assertThrows(AccountLockedException.class, () ->
+            loginManager.login("admin@admin.com", "admin", ClientType.ADMIN)
         );
+        assertNotNull(ex.getLockedUntil());
+        assertTrue(ex.getLockedUntil().isAfter(java.time.LocalDateTime.now()));
+    }
+
+    @Test
+    void testLogin_Customer_WithLowerCostHash_UpgradesHashInBackground() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update("UPDATE customers SET password = ? WHERE email = ?", weakHash, testCustomer.getEmail());
+
+        ClientFacade facade = loginManager.login(testCustomer.getEmail(), "password123", ClientType.CUSTOMER);
+        assertInstanceOf(CustomerFacade.class, facade);
+
+        String storedHash = awaitPasswordChange("customers", testCustomer.getEmail(), weakHash);
+        assertNotEquals(weakHash, storedHash, "Hash below current cost should be upgraded after login");
+        assertFalse(PasswordHasher.needsRehash(storedHash));
+        assertTrue(PasswordHasher.verifyPassword("password123", storedHash));
+    }
+
+    @Test
+    void testLogin_Company_WithLowerCostHash_UpgradesHashInBackground() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update("UPDATE companies SET password = ? WHERE email = ?", weakHash, testCompany.getEmail());
+
+        ClientFacade facade = loginManager.login(testCompany.getEmail(), "password123", ClientType.COMPANY);
+        assertInstanceOf(CompanyFacade.class, facade);
+
+        String storedHash = awaitPasswordChange("companies", testCompany.getEmail(), weakHash);
+        assertNotEquals(weakHash, storedHash, "Hash below current cost should be upgraded after login");
+        assertTrue(PasswordHasher.verifyPassword("password123", storedHash));
+    }
+
+    private String awaitPasswordChange(String table, String email, String originalHash) throws InterruptedException {
+        String sql = "SELECT password FROM " + table + " WHERE email = ?";
+        String storedHash = originalHash;
+        for (int i = 0; i < 50 && originalHash.equals(storedHash); i++) {
+            Thread.sleep(100);
+            storedHash = jdbcTemplate.queryForObject(sql, String.class, email);
+        }
+        return storedHash;
     }
 }
@@ -0,0 +1,124 @@
+package com.jhf.coupon.backend.login;
+
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PrincipalCache - load-on-miss, password stripping and invalidation
+ */
+class PrincipalCacheTest {
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(60, 100);
+    }
+
+    @Test
+    void testGetCustomer_LoadsOnceAndCaches() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        PrincipalCache.Loader<Customer> loader = id -> {
+            loads.incrementAndGet();
+            return new Customer(id, "John", "Doe", "john@mail.com", "hashed");
+        };
+
+        Customer first = principalCache.getCustomer(1, loader);
+        Customer second = principalCache.getCustomer(1, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        assertNull(first.getPassword(), "Cached principal should not hold the password hash");
+    }
+
+    @Test
+    void testGetCompany_LoadsOnceAndCaches() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        PrincipalCache.Loader<Company> loader = id -> {
+            loads.incrementAndGet();
+            return new Company(id, "Acme", "acme@mail.com", "hashed");
+        };
+
+        principalCache.getCompany(1, loader);
+        Company cached = principalCache.getCompany(1, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals("Acme", cached.getName());
+        assertNull(cached.getPassword());
+    }
+
+    @Test
+    void testPutCustomer_ServedWithoutLoader() throws Exception {
+        principalCache.putCustomer(new Customer(7, "Jane", "Smith", "jane@mail.com", "hashed"));
+
+        Customer cached = principalCache.getCustomer(7, id -> fail("Loader should not be called"));
+
+        assertEquals("Jane", cached.getFirstName());
+        assertNull(cached.getPassword());
+    }
+
+    @Test
+    void testReturnedPrincipal_MutationDoesNotAffectCache() throws Exception {
+        principalCache.putCompany(new Company(3, "Acme", "acme@mail.com", "hashed"));
+
+        principalCache.getCompany(3, id -> null).setName("Changed");
+
+        assertEquals("Acme", principalCache.getCompany(3, id -> null).getName());
+    }
+
+    @Test
+    void testInvalidateCustomer_ReloadsOnNextGet() throws Exception {
+        principalCache.putCustomer(new Customer(1, "John", "Doe", "john@mail.com", "hashed"));
+
+        principalCache.invalidateCustomer(1);
+        Customer reloaded = principalCache.getCustomer(1,
+                id -> new Customer(id, "Johnny", "Doe", "john@mail.com", "hashed"));
+
+        assertEquals("Johnny", reloaded.getFirstName());
+    }
+
+    @Test
+    void testInvalidateCompany_ReloadsOnNextGet() throws Exception {
+        principalCache.putCompany(new Company(1, "Acme", "acme@mail.com", "hashed"));
+
+        principalCache.invalidateCompany(1);
+        Company reloaded = principalCache.getCompany(1,
+                id -> new Company(id, "Acme", "new@mail.com", "hashed"));
+
+        assertEquals("new@mail.com", reloaded.getEmail());
+    }
+
+    @Test
+    void testInvalidateAll_ClearsBothCaches() throws Exception {
+        principalCache.putCustomer(new Customer(1, "John", "Doe", "john@mail.com", "hashed"));
+        principalCache.putCompany(new Company(1, "Acme", "acme@mail.com", "hashed"));
+
+        principalCache.invalidateAll();
+
+        assertThrows(SQLException.class, () -> principalCache.getCustomer(1, id -> {
+            throw new SQLException("not found");
+        }));
+        assertThrows(SQLException.class, () -> principalCache.getCompany(1, id -> {
+            throw new SQLException("not found");
+        }));
+    }
+
+    @Test
+    void testLoaderException_IsNotCached() throws Exception {
+        assertThrows(SQLException.class, () -> principalCache.getCustomer(5, id -> {
+            throw new SQLException("database down");
+        }));
+
+        Customer loaded = principalCache.getCustomer(5,
+                id -> new Customer(id, "John", "Doe", "john@mail.com", "hashed"));
+
+        assertEquals(5, loaded.getId());
+    }
+}
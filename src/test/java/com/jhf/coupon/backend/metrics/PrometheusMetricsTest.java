@@ -1,11 +1,17 @@
 package com.jhf.coupon.backend.metrics;
 
+import com.jhf.coupon.backend.logging.RingBufferAppender;
+import com.zaxxer.hikari.HikariDataSource;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -136,6 +142,21 @@ class PrometheusMetricsTest {
         assertThat(gauge).isNotNull();
     }
 
+    @Test
+    @DisplayName("Set locked accounts should overwrite the gauge with the counted value")
+    void testSetLockedAccounts() {
+        metrics.recordAccountLockout("company");
+        metrics.recordAccountLockout("company");
+
+        metrics.setLockedAccounts("company", 7);
+
+        Gauge gauge = meterRegistry.find("coupon_system_locked_accounts_current")
+                .tag("client_type", "company")
+                .gauge();
+        assertThat(gauge).isNotNull();
+        assertThat(gauge.value()).isEqualTo(7.0);
+    }
+
     @Test
     @DisplayName("Record coupon purchase should increment counter and record price distribution")
     void testRecordCouponPurchase() {
@@ -269,7 +290,7 @@ class PrometheusMetricsTest {
 
         assertThat(timer).isNotNull();
         assertThat(timer.count()).isEqualTo(1);
-        assertThat(timer.totalTime(java.util.concurrent.TimeUnit.MILLISECONDS)).isGreaterThan(0);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThan(0);
     }
 
     @Test
@@ -394,4 +415,271 @@ class PrometheusMetricsTest {
         assertThat(companyCounter).isNotNull();
         assertThat(errorCounter).isNotNull();
     }
+
+    @Test
+    @DisplayName("Record password verification should record timer tagged by cost")
+    void testRecordPasswordVerification() {
+        metrics.recordPasswordVerification(12, 250_000_000L);
+        metrics.recordPasswordVerification(12, 150_000_000L);
+
+        Timer timer = meterRegistry.find("coupon_system_password_verify_duration")
+                .tag("cost", "12")
+                .timer();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(400.0);
+    }
+
+    @Test
+    @DisplayName("Record password rehash should increment counter by outcome")
+    void testRecordPasswordRehash() {
+        metrics.recordPasswordRehash("customer", "upgraded");
+        metrics.recordPasswordRehash("customer", "upgraded");
+        metrics.recordPasswordRehash("company", "dropped");
+
+        Counter upgraded = meterRegistry.find("coupon_system_password_rehashes_total")
+                .tag("client_type", "customer")
+                .tag("outcome", "upgraded")
+                .counter();
+        Counter dropped = meterRegistry.find("coupon_system_password_rehashes_total")
+                .tag("client_type", "company")
+                .tag("outcome", "dropped")
+                .counter();
+
+        assertThat(upgraded).isNotNull();
+        assertThat(upgraded.count()).isEqualTo(2.0);
+        assertThat(dropped).isNotNull();
+        assertThat(dropped.count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Set bcrypt strength should update gauge")
+    void testSetBcryptStrength() {
+        metrics.setBcryptStrength(13);
+
+        Gauge gauge = meterRegistry.find("coupon_system_bcrypt_cost").gauge();
+
+        assertThat(gauge).isNotNull();
+        assertThat(gauge.value()).isEqualTo(13.0);
+    }
+
+    @Test
+    void testRegisterAdminLockoutGauges() {
+        metrics.registerAdminLockoutGauges(() -> 2, () -> 1);
+
+        Gauge tracked = meterRegistry.find("coupon_system_admin_lockout_tracked").gauge();
+        Gauge locked = meterRegistry.find("coupon_system_admin_lockout_locked").gauge();
+
+        assertThat(tracked).isNotNull();
+        assertThat(tracked.value()).isEqualTo(2.0);
+        assertThat(locked).isNotNull();
+        assertThat(locked.value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecordAdminLoginRejected() {
+        metrics.recordAdminLoginRejected("not_admin_email");
+        metrics.recordAdminLoginRejected("not_admin_email");
+        metrics.recordAdminLoginRejected("locked");
+
+        Counter notAdmin = meterRegistry.find("coupon_system_admin_login_rejections_total")
+                .tag("reason", "not_admin_email")
+                .counter();
+        Counter locked = meterRegistry.find("coupon_system_admin_login_rejections_total")
+                .tag("reason", "locked")
+                .counter();
+
+        assertThat(notAdmin).isNotNull();
+        assertThat(notAdmin.count()).isEqualTo(2.0);
+        assertThat(locked).isNotNull();
+        assertThat(locked.count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRegisterRingBufferAppender() {
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setName("ASYNC_FILE");
+
+        metrics.registerRingBufferAppender(appender);
+
+        FunctionCounter debugDropped = meterRegistry.find("coupon_system_log_events_dropped_total")
+                .tag("appender", "ASYNC_FILE")
+                .tag("level", "DEBUG")
+                .functionCounter();
+        FunctionCounter blocked = meterRegistry.find("coupon_system_log_events_blocked_total")
+                .tag("appender", "ASYNC_FILE")
+                .functionCounter();
+        Gauge queued = meterRegistry.find("coupon_system_log_buffer_queued")
+                .tag("appender", "ASYNC_FILE")
+                .gauge();
+
+        assertThat(debugDropped).isNotNull();
+        assertThat(debugDropped.count()).isZero();
+        assertThat(blocked).isNotNull();
+        assertThat(queued).isNotNull();
+    }
+
+    @Test
+    void testRecordOutboxPublished() {
+        metrics.recordOutboxPublished("COUPON_CREATED", 120);
+        metrics.recordOutboxPublished("COUPON_CREATED", 80);
+        metrics.setOutboxPending(7);
+
+        Counter published = meterRegistry.find("coupon_system_outbox_published_total")
+                .tag("event_type", "COUPON_CREATED")
+                .counter();
+        Timer lag = meterRegistry.find("coupon_system_outbox_lag").timer();
+        Gauge pending = meterRegistry.find("coupon_system_outbox_pending").gauge();
+
+        assertThat(published).isNotNull();
+        assertThat(published.count()).isEqualTo(2.0);
+        assertThat(lag).isNotNull();
+        assertThat(lag.count()).isEqualTo(2);
+        assertThat(lag.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(200.0);
+        assertThat(pending).isNotNull();
+        assertThat(pending.value()).isEqualTo(7.0);
+    }
+
+    @Test
+    void testSetOutboxPending_SumsShardOutboxes() {
+        metrics.setOutboxPending(7);
+        metrics.setOutboxPending("shard-1", 3);
+        metrics.setOutboxPending("shard-1", 2);
+
+        Gauge pending = meterRegistry.find("coupon_system_outbox_pending").gauge();
+
+        assertThat(pending).isNotNull();
+        assertThat(pending.value()).isEqualTo(9.0);
+    }
+
+    @Test
+    void testEventDeliveryMetrics() {
+        metrics.registerEventQueue("coupon-metrics", () -> 3);
+        metrics.recordEventDelivery("coupon-metrics", "delivered");
+
+        Gauge depth = meterRegistry.find("coupon_system_event_queue_depth")
+                .tag("subscriber", "coupon-metrics")
+                .gauge();
+        Counter delivered = meterRegistry.find("coupon_system_event_deliveries_total")
+                .tag("subscriber", "coupon-metrics")
+                .tag("outcome", "delivered")
+                .counter();
+
+        assertThat(depth).isNotNull();
+        assertThat(depth.value()).isEqualTo(3.0);
+        assertThat(delivered).isNotNull();
+        assertThat(delivered.count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testDataSourceRoutingMetrics() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(4);
+
+        metrics.registerConnectionPool("replica", pool);
+        metrics.recordDataSourceRoute("replica");
+        metrics.recordStickyPrimaryRead();
+
+        Gauge utilization = meterRegistry.find("coupon_system_db_pool_utilization")
+                .tag("pool", "replica")
+                .gauge();
+        Counter routed = meterRegistry.find("coupon_system_datasource_connections_total")
+                .tag("pool", "replica")
+                .counter();
+        Counter sticky = meterRegistry.find("coupon_system_datasource_sticky_reads_total").counter();
+
+        assertThat(utilization).isNotNull();
+        // Pool not started yet
+        assertThat(utilization.value()).isZero();
+        assertThat(routed).isNotNull();
+        assertThat(routed.count()).isEqualTo(1.0);
+        assertThat(sticky).isNotNull();
+        assertThat(sticky.count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecordRequestShed() {
+        metrics.recordRequestShed("GET /api/v1/public/**", "low");
+        metrics.recordRequestShed("GET /api/v1/public/**", "low");
+
+        Counter shed = meterRegistry.find("coupon_system_requests_shed_total")
+                .tag("route", "GET /api/v1/public/**")
+                .tag("priority", "low")
+                .counter();
+
+        assertThat(shed).isNotNull();
+        assertThat(shed.count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testRecordHttpRequest_TaggedByRouteClientTypeAndStatusClass() {
+        metrics.recordHttpRequest("GET /api/v1/public/coupons/{id}", "anonymous", 200,
+                TimeUnit.MILLISECONDS.toNanos(12), null);
+
+        Timer timer = meterRegistry.find("coupon_system_http_request_duration")
+                .tag("route", "GET /api/v1/public/coupons/{id}")
+                .tag("client_type", "anonymous")
+                .tag("status", "2xx")
+                .timer();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(12.0);
+    }
+
+    @Test
+    void testRecordHttpRequest_StatusCodesOfOneClassShareATimer() {
+        String route = "POST /api/v1/company/coupons";
+        metrics.recordHttpRequest(route, "company", 200, TimeUnit.MILLISECONDS.toNanos(5), null);
+        metrics.recordHttpRequest(route, "company", 201, TimeUnit.MILLISECONDS.toNanos(5), null);
+        metrics.recordHttpRequest(route, "company", 404, TimeUnit.MILLISECONDS.toNanos(5), null);
+        metrics.recordHttpRequest(route, "company", 409, TimeUnit.MILLISECONDS.toNanos(5), null);
+
+        assertThat(meterRegistry.find("coupon_system_http_request_duration").tag("route", route).timers())
+                .hasSize(2);
+        assertThat(meterRegistry.get("coupon_system_http_request_duration")
+                .tag("route", route).tag("status", "2xx").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("coupon_system_http_request_duration")
+                .tag("route", route).tag("status", "4xx").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testStatusClass() {
+        assertThat(PrometheusMetrics.statusClass(204)).isEqualTo("2xx");
+        assertThat(PrometheusMetrics.statusClass(503)).isEqualTo("5xx");
+        assertThat(PrometheusMetrics.statusClass(0)).isEqualTo("unknown");
+        assertThat(PrometheusMetrics.statusClass(600)).isEqualTo("unknown");
+    }
+
+    @Test
+    void testRecordHttpRequest_SloThresholdCountsRequestsWithin() {
+        String route = "POST /api/v1/customer/coupons/{couponId}/purchase";
+        metrics.recordHttpRequest(route, "customer", 200, TimeUnit.MILLISECONDS.toNanos(100),
+                Duration.ofMillis(150));
+        metrics.recordHttpRequest(route, "customer", 200, TimeUnit.MILLISECONDS.toNanos(400),
+                Duration.ofMillis(150));
+
+        Timer timer = meterRegistry.get("coupon_system_http_request_duration").tag("route", route).timer();
+        double within = Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .filter(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 150.0)
+                .findFirst()
+                .orElseThrow()
+                .count();
+
+        assertThat(within).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRegisterSloBurnRate() {
+        metrics.registerSloBurnRate("POST /api/v1/auth/login", "5m", () -> 3.5);
+
+        Gauge gauge = meterRegistry.find("coupon_system_slo_burn_rate")
+                .tag("route", "POST /api/v1/auth/login")
+                .tag("window", "5m")
+                .gauge();
+
+        assertThat(gauge).isNotNull();
+        assertThat(gauge.value()).isEqualTo(3.5);
+    }
 }
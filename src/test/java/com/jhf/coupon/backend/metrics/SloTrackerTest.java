@@ -0,0 +1,159 @@
+package com.jhf.coupon.backend.metrics;
+
+import com.jhf.coupon.config.SloProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.data.Offset.offset;
+
+/**
+ * Tests for SloTracker - good/bad classification and windowed burn rates.
+ */
+class SloTrackerTest {
+
+    private static final String ROUTE = "POST /api/v1/customer/coupons/{couponId}/purchase";
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(400);
+
+    private MeterRegistry meterRegistry;
+    private PrometheusMetrics metrics;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new PrometheusMetrics(meterRegistry);
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(10));
+    }
+
+    private SloTracker tracker(double objective) {
+        SloProperties properties = new SloProperties();
+        properties.setWindows(List.of(Duration.ofMinutes(5), Duration.ofHours(1)));
+        properties.setRoutes(List.of(new SloProperties.Route(ROUTE, Duration.ofMillis(150), objective)));
+        return new SloTracker(properties, metrics, clock::get);
+    }
+
+    private double burnRate(String window) {
+        return meterRegistry.get("coupon_system_slo_burn_rate")
+                .tag("route", ROUTE)
+                .tag("window", window)
+                .gauge()
+                .value();
+    }
+
+    private void advanceMinutes(long minutes) {
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+
+    @Test
+    void testNoRequests_BurnRateIsZero() {
+        tracker(0.99);
+
+        assertThat(burnRate("5m")).isZero();
+        assertThat(burnRate("1h")).isZero();
+    }
+
+    @Test
+    void testBudgetSpentExactly_BurnRateIsOne() {
+        SloTracker tracker = tracker(0.99);
+
+        for (int i = 0; i < 99; i++) {
+            tracker.record(ROUTE, 200, FAST);
+        }
+        tracker.record(ROUTE, 200, SLOW);
+
+        assertThat(burnRate("5m")).isCloseTo(1.0, offset(1e-9));
+    }
+
+    @Test
+    void testServerErrorsAreBad_ClientErrorsAreGood() {
+        SloTracker tracker = tracker(0.9);
+
+        tracker.record(ROUTE, 500, FAST);
+        tracker.record(ROUTE, 404, FAST);
+        tracker.record(ROUTE, 409, FAST);
+        tracker.record(ROUTE, 200, FAST);
+
+        // 1 bad of 4 = 25% against a 10% budget
+        assertThat(burnRate("5m")).isCloseTo(2.5, offset(1e-9));
+    }
+
+    @Test
+    void testThresholdIsInclusive() {
+        SloTracker tracker = tracker(0.99);
+
+        tracker.record(ROUTE, 200, TimeUnit.MILLISECONDS.toNanos(150));
+
+        assertThat(burnRate("5m")).isZero();
+    }
+
+    @Test
+    void testOldRequestsLeaveTheShortWindowFirst() {
+        SloTracker tracker = tracker(0.99);
+        tracker.record(ROUTE, 200, SLOW);
+
+        advanceMinutes(5);
+        tracker.record(ROUTE, 200, FAST);
+
+        assertThat(burnRate("5m")).isZero();
+        assertThat(burnRate("1h")).isCloseTo(50.0, offset(1e-9));
+
+        advanceMinutes(60);
+
+        assertThat(burnRate("1h")).isZero();
+    }
+
+    @Test
+    void testBucketReusedAfterWrapAround_StartsFromZero() {
+        SloTracker tracker = tracker(0.99);
+        tracker.record(ROUTE, 200, SLOW);
+
+        // Same ring slot, one full rotation later
+        advanceMinutes(60);
+        tracker.record(ROUTE, 200, FAST);
+
+        assertThat(burnRate("1h")).isZero();
+    }
+
+    @Test
+    void testUnknownRoute_IgnoredAndHasNoThreshold() {
+        SloTracker tracker = tracker(0.99);
+
+        tracker.record("GET /api/v1/public/coupons", 500, SLOW);
+
+        assertThat(tracker.getThreshold("GET /api/v1/public/coupons")).isNull();
+        assertThat(tracker.getThreshold(ROUTE)).isEqualTo(Duration.ofMillis(150));
+        assertThat(burnRate("5m")).isZero();
+    }
+
+    @Test
+    void testWindowLabels() {
+        assertThat(SloTracker.windowLabel(Duration.ofMinutes(5))).isEqualTo("5m");
+        assertThat(SloTracker.windowLabel(Duration.ofMinutes(90))).isEqualTo("90m");
+        assertThat(SloTracker.windowLabel(Duration.ofHours(6))).isEqualTo("6h");
+    }
+
+    @Test
+    void testInvalidConfiguration_Throws() {
+        SloProperties properties = new SloProperties();
+        properties.setWindows(List.of(Duration.ofSeconds(90)));
+        assertThatThrownBy(() -> new SloTracker(properties, metrics, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> tracker(1.0)).isInstanceOf(IllegalArgumentException.class);
+
+        SloProperties noThreshold = new SloProperties();
+        noThreshold.setRoutes(List.of(new SloProperties.Route(ROUTE, null, 0.99)));
+        assertThatThrownBy(() -> new SloTracker(noThreshold, metrics, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
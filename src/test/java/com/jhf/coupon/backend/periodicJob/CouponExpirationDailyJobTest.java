@@ -1,6 +1,5 @@
 package com.jhf.coupon.backend.periodicJob;
 
-import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
 import com.jhf.coupon.backend.security.PasswordHasher;
 import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.lang.reflect.Method;
 import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -151,36 +153,64 @@ class CouponExpirationDailyJobTest {
     @Test
     void testExecuteJob_HandlesSQLException_LogsErrorAndContinues() throws Exception {
         // Setup: Make couponsDAO throw SQLException
-        doThrow(new SQLException("Database error")).when(couponsDAO).getAllCoupons();
+        doThrow(new SQLException("Database error")).when(couponsDAO).getExpiredCouponIds(any(), anyLong(), anyLong());
 
         // Execute: Job should handle exception gracefully
         assertDoesNotThrow(() -> job.executeJob());
 
         // Verify: Exception was caught and logged (job didn't crash)
-        verify(couponsDAO).getAllCoupons();
+        verify(couponsDAO, atLeastOnce()).getExpiredCouponIds(any(), anyLong(), anyLong());
     }
 
     @Test
-    void testExecuteJob_HandlesCategoryNotFoundException_LogsErrorAndContinues() throws Exception {
-        // Setup: Make couponsDAO throw CategoryNotFoundException
-        doThrow(new CategoryNotFoundException("Category not found")).when(couponsDAO).getAllCoupons();
+    void testExecuteJob_HandlesDeleteFailure_LogsErrorAndContinues() throws Exception {
+        // Setup: an expired coupon whose deletion fails
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, 1, 10, "Expired Coupon", "Test", Date.valueOf(LocalDate.now().minusDays(10)),
+            Date.valueOf(LocalDate.now().minusDays(1)), 10, 50.0, "");
+        doThrow(new SQLException("Database error")).when(couponsDAO).deleteCoupon(1);
 
         // Execute: Job should handle exception gracefully
         assertDoesNotThrow(() -> job.executeJob());
 
         // Verify: Exception was caught and logged (job didn't crash)
-        verify(couponsDAO).getAllCoupons();
+        verify(couponsDAO).deleteCoupon(1);
     }
 
     @Test
     void testExecuteJob_HandlesGenericException_LogsErrorAndContinues() throws Exception {
         // Setup: Make couponsDAO throw a generic RuntimeException
-        doThrow(new RuntimeException("Unexpected error")).when(couponsDAO).getAllCoupons();
+        doThrow(new RuntimeException("Unexpected error")).when(couponsDAO).getExpiredCouponIds(any(), anyLong(), anyLong());
 
         // Execute: Job should handle exception gracefully
         assertDoesNotThrow(() -> job.executeJob());
 
         // Verify: Exception was caught and logged (job didn't crash)
-        verify(couponsDAO).getAllCoupons();
+        verify(couponsDAO, atLeastOnce()).getExpiredCouponIds(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testExecuteJob_DeletesExpiredCouponsInEveryShard() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        Date tenDaysAgo = Date.valueOf(LocalDate.now().minusDays(10));
+        Date yesterday = Date.valueOf(LocalDate.now().minusDays(1));
+        for (int id = 1; id <= 40; id++) {
+            jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, 1, 10, "Expired " + id, "Test", tenDaysAgo, yesterday, 10, 50.0, "");
+        }
+
+        job.executeJob();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons", Integer.class));
+        for (int shard = 0; shard < job.getShards(); shard++) {
+            assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT last_success_at FROM job_leases WHERE job_name = ? AND shard = ?",
+                Timestamp.class, job.getName(), shard));
+        }
     }
 }
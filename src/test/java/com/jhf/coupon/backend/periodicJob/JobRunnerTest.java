@@ -0,0 +1,180 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.sql.dao.job.JobLeaseDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JobRunnerTest {
+
+    private JobLeaseDAO jobLeaseDAO;
+    private SimpleMeterRegistry registry;
+    private JobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseDAO = mock(JobLeaseDAO.class);
+        registry = new SimpleMeterRegistry();
+        runner = new JobRunner(jobLeaseDAO, new PrometheusMetrics(registry), "instance-a");
+    }
+
+    @Test
+    void testRun_RunsOnlyLeasedShards() throws Exception {
+        when(jobLeaseDAO.tryAcquire(eq("test-job"), anyInt(), eq("instance-a"), any(), any()))
+                .thenAnswer(invocation -> (int) invocation.getArgument(1) % 2 == 0);
+        RecordingJob job = new RecordingJob(4, false);
+
+        int rows = runner.run(job);
+
+        assertEquals(List.of(0, 2), job.shardsRun.stream().sorted().toList());
+        assertEquals(20, rows);
+        verify(jobLeaseDAO).recordSuccess(eq("test-job"), eq(0), any());
+        verify(jobLeaseDAO).recordSuccess(eq("test-job"), eq(2), any());
+        verify(jobLeaseDAO, never()).recordSuccess(eq("test-job"), eq(1), any());
+        assertEquals(20.0, registry.get("coupon_system_job_rows_processed_total").tag("job", "test-job").counter().count());
+        assertEquals(2, registry.get("coupon_system_job_duration").tags("job", "test-job", "outcome", "success").timer().count());
+        assertTrue(registry.get("coupon_system_job_last_success_seconds").tag("job", "test-job").gauge().value() > 0);
+    }
+
+    @Test
+    void testRun_LocalJobSkipsLeases() throws Exception {
+        RecordingJob job = new RecordingJob(1, true);
+
+        assertEquals(10, runner.run(job));
+
+        assertEquals(List.of(0), job.shardsRun);
+        verifyNoInteractions(jobLeaseDAO);
+    }
+
+    @Test
+    void testRun_FailingShardIsRecordedAndOthersStillRun() throws Exception {
+        when(jobLeaseDAO.tryAcquire(any(), anyInt(), any(), any(), any())).thenReturn(true);
+        RecordingJob job = new RecordingJob(3, false);
+        job.failingShard = 1;
+
+        int rows = runner.run(job);
+
+        assertEquals(20, rows);
+        assertEquals(3, job.shardsRun.size());
+        verify(jobLeaseDAO, never()).recordSuccess(eq("test-job"), eq(1), any());
+        assertEquals(1.0, registry.get("coupon_system_job_runs_total")
+                .tags("job", "test-job", "outcome", "failure").counter().count());
+    }
+
+    @Test
+    void testRun_LeaseErrorSkipsShard() throws Exception {
+        when(jobLeaseDAO.tryAcquire(any(), anyInt(), any(), any(), any())).thenThrow(new SQLException("down"));
+        RecordingJob job = new RecordingJob(2, false);
+
+        assertEquals(0, runner.run(job));
+
+        assertTrue(job.shardsRun.isEmpty());
+    }
+
+    @Test
+    void testRun_BeforeRunCalledOnceAndFailureAbortsRun() throws Exception {
+        when(jobLeaseDAO.tryAcquire(any(), anyInt(), any(), any(), any())).thenReturn(true);
+        RecordingJob job = new RecordingJob(3, false);
+
+        runner.run(job);
+        assertEquals(1, job.beforeRunCalls);
+
+        job.failBeforeRun = true;
+        job.shardsRun.clear();
+        assertEquals(0, runner.run(job));
+
+        assertTrue(job.shardsRun.isEmpty());
+        assertEquals(1.0, registry.get("coupon_system_job_runs_total")
+                .tags("job", "test-job", "outcome", "failure").counter().count());
+    }
+
+    @Test
+    void testRun_OverlappingRunIsSkipped() throws Exception {
+        RecordingJob job = new RecordingJob(1, true);
+        job.gate = new CountDownLatch(1);
+        Thread first = new Thread(() -> runner.run(job));
+        first.start();
+        assertTrue(job.started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, runner.run(job));
+        job.gate.countDown();
+        first.join(5000);
+
+        assertEquals(1, job.shardsRun.size());
+        assertEquals(1.0, registry.get("coupon_system_job_runs_total")
+                .tags("job", "test-job", "outcome", "skipped").counter().count());
+    }
+
+    @Test
+    void testDefaultInstanceId_IsHostAndPid() {
+        JobRunner defaultRunner = new JobRunner(jobLeaseDAO, new PrometheusMetrics(registry), "");
+
+        assertTrue(defaultRunner.getInstanceId().endsWith(":" + ProcessHandle.current().pid()));
+    }
+
+    /**
+     * Processes 10 rows per shard and records which shards ran.
+     */
+    private static class RecordingJob implements PeriodicJob {
+        final List<Integer> shardsRun = new CopyOnWriteArrayList<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        final int shards;
+        final boolean local;
+        volatile int failingShard = -1;
+        volatile boolean failBeforeRun;
+        volatile int beforeRunCalls;
+        volatile CountDownLatch gate;
+
+        RecordingJob(int shards, boolean local) {
+            this.shards = shards;
+            this.local = local;
+        }
+
+        @Override
+        public String getName() {
+            return "test-job";
+        }
+
+        @Override
+        public int getShards() {
+            return shards;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return local;
+        }
+
+        @Override
+        public void beforeRun() throws Exception {
+            beforeRunCalls++;
+            if (failBeforeRun) {
+                throw new SQLException("bounds unavailable");
+            }
+        }
+
+        @Override
+        public int run(JobShard shard) throws Exception {
+            shardsRun.add(shard.getIndex());
+            started.countDown();
+            if (gate != null) {
+                gate.await(5, TimeUnit.SECONDS);
+            }
+            if (shard.getIndex() == failingShard) {
+                throw new SQLException("shard failed");
+            }
+            return 10;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobShardTest {
+
+    @Test
+    void testIdRanges_CoverAllIdsWithoutOverlap() {
+        long maxId = 1001;
+        int count = 4;
+        long next = 1;
+        for (int i = 0; i < count; i++) {
+            JobShard shard = new JobShard(i, count);
+            assertEquals(next, shard.firstId(maxId), "shard " + i + " starts where the previous one ended");
+            next = shard.lastId(maxId) == Long.MAX_VALUE ? -1 : shard.lastId(maxId) + 1;
+        }
+        assertEquals(-1, next, "last shard is open-ended");
+        assertEquals(251, new JobShard(0, count).lastId(maxId));
+    }
+
+    @Test
+    void testIdRanges_SingleShardCoversEverything() {
+        JobShard shard = new JobShard(0, 1);
+
+        assertEquals(1, shard.firstId(500));
+        assertEquals(Long.MAX_VALUE, shard.lastId(500));
+    }
+
+    @Test
+    void testIdRanges_MoreShardsThanIds() {
+        // With 2 ids and 4 shards, shards 0 and 1 take one id each, shard 2 is empty
+        assertEquals(1, new JobShard(0, 4).lastId(2));
+        assertEquals(2, new JobShard(1, 4).firstId(2));
+        JobShard empty = new JobShard(2, 4);
+        assertTrue(empty.lastId(2) < empty.firstId(2));
+    }
+
+    @Test
+    void testIdRanges_EmptyTable() {
+        assertEquals(1, new JobShard(0, 2).firstId(0));
+        assertTrue(new JobShard(0, 2).lastId(0) < 1);
+        assertEquals(Long.MAX_VALUE, new JobShard(1, 2).lastId(0));
+    }
+
+    @Test
+    void testIdRanges_TimeOrderedIds() {
+        long maxId = 1L << 52;
+
+        assertEquals(1L << 51, new JobShard(0, 2).lastId(maxId));
+        assertEquals((1L << 51) + 1, new JobShard(1, 2).firstId(maxId));
+    }
+}
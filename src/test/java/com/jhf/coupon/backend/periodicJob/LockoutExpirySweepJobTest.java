@@ -0,0 +1,79 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.backend.security.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LockoutExpirySweepJobTest {
+
+    @Autowired
+    private LockoutExpirySweepJob job;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+    }
+
+    @Test
+    void testExecuteJob_UnlocksExpiredCompaniesAndCustomers() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime active = LocalDateTime.now().plusMinutes(30);
+        jdbcTemplate.update("INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)",
+            "Expired", "expired@company.com", hashedPassword, 5, true, expired);
+        jdbcTemplate.update("INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)",
+            "Active", "active@company.com", hashedPassword, 5, true, active);
+        jdbcTemplate.update("INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            "Ex", "Pired", "expired@customer.com", hashedPassword, 5, true, expired);
+
+        job.executeJob();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM companies WHERE ACCOUNT_LOCKED = TRUE", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM customers WHERE ACCOUNT_LOCKED = TRUE", Integer.class));
+        assertEquals(0, job.run(new JobShard(0, 1)), "nothing left to unlock");
+    }
+
+    @Test
+    void testExecuteJob_ReconcilesLockedAccountsGauge() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        String insert = "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, "Expired", "expired@company.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update(insert, "Active", "active@company.com", hashedPassword, 5, true, LocalDateTime.now().plusMinutes(30));
+        jdbcTemplate.update(insert, "Permanent", "permanent@company.com", hashedPassword, 5, true, null);
+
+        job.executeJob();
+
+        assertEquals(2.0, lockedAccountsGauge("company"));
+        assertEquals(0.0, lockedAccountsGauge("customer"));
+    }
+
+    private double lockedAccountsGauge(String clientType) {
+        return meterRegistry.get("coupon_system_locked_accounts_current").tag("client_type", clientType).gauge().value();
+    }
+
+    @Test
+    void testLease_IsLongerThanInterval() {
+        assertTrue(job.getLease().toMillis() > 3_600_000L);
+        assertFalse(job.isLocal());
+    }
+}
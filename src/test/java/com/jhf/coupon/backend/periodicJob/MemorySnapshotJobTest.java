@@ -0,0 +1,43 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.sql.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MemorySnapshotJobTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRun_WritesSnapshot() throws Exception {
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            MemorySnapshotJob job = new MemorySnapshotJob(store, mock(JobRunner.class));
+
+            assertEquals(0, job.run(new JobShard(0, 1)));
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertTrue(files.anyMatch(file -> file.getFileName().toString().startsWith("snapshot-")));
+            }
+        }
+    }
+
+    @Test
+    void testExecuteJob_RunsThroughJobRunnerAsLocalJob() {
+        JobRunner jobRunner = mock(JobRunner.class);
+        MemorySnapshotJob job = new MemorySnapshotJob(mock(MemoryStore.class), jobRunner);
+
+        job.executeJob();
+
+        verify(jobRunner).run(job);
+        assertTrue(job.isLocal());
+        assertEquals("memory-snapshot", job.getName());
+    }
+}
@@ -0,0 +1,33 @@
+package com.jhf.coupon.backend.periodicJob;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.security.RefreshTokenStore;
+import com.jhf.coupon.sql.dao.job.JobLeaseDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RefreshTokenCleanupJobTest {
+
+    @Test
+    void testExecuteJob_RemovesExpiredTokensWithoutLeases() {
+        RefreshTokenStore store = new RefreshTokenStore();
+        store.storeToken("expired", "user@test.com", "customer", Instant.now().minusSeconds(60));
+        store.storeToken("valid", "user@test.com", "customer", Instant.now().plusSeconds(3600));
+        JobLeaseDAO jobLeaseDAO = mock(JobLeaseDAO.class);
+        JobRunner runner = new JobRunner(jobLeaseDAO, new PrometheusMetrics(new SimpleMeterRegistry()), "instance-a");
+        RefreshTokenCleanupJob job = new RefreshTokenCleanupJob(store, runner);
+
+        job.executeJob();
+
+        assertNull(store.getMetadata("expired"));
+        assertNotNull(store.getMetadata("valid"));
+        assertTrue(job.isLocal());
+        verifyNoInteractions(jobLeaseDAO);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jhf.coupon.backend.reporting;
+
+import com.jhf.coupon.backend.beans.CategoryStock;
+import com.jhf.coupon.backend.beans.CompanyCouponValue;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.exceptions.CategoryNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CouponColumnSnapshot - building the columns and the group-by aggregations.
+ */
+class CouponColumnSnapshotTest {
+
+    private static final int DAY = 20_000;
+
+    private CouponColumnSnapshot sample() throws CategoryNotFoundException {
+        CouponColumnSnapshot.Builder builder = CouponColumnSnapshot.builder();
+        builder.accept(7, Category.SKYING.getId(), DAY, 10, 5.0);
+        builder.accept(3, Category.SKYING.getId(), DAY + 3, 2, 100.0);
+        builder.accept(7, Category.FANCY_RESTAURANT.getId(), DAY + 30, 1, 40.0);
+        return builder.build();
+    }
+
+    @Test
+    void testStockByCategory_SumsEveryCategory() throws Exception {
+        List<CategoryStock> result = sample().stockByCategory();
+
+        assertEquals(Category.values().length, result.size());
+        assertEquals(new CategoryStock(Category.SKYING, 2, 12, 250.0), result.get(0));
+        assertEquals(new CategoryStock(Category.SKY_DIVING, 0, 0, 0.0), result.get(1));
+        assertEquals(new CategoryStock(Category.FANCY_RESTAURANT, 1, 1, 40.0), result.get(2));
+    }
+
+    @Test
+    void testStockByCategory_FiltersOnEndDate() throws Exception {
+        List<CategoryStock> result = sample().stockByCategory(DAY + 1, DAY + 30);
+
+        assertEquals(new CategoryStock(Category.SKYING, 1, 2, 200.0), result.get(0));
+        assertEquals(new CategoryStock(Category.FANCY_RESTAURANT, 1, 1, 40.0), result.get(2));
+    }
+
+    @Test
+    void testValueByCompany_GroupsByAscendingCompanyId() throws Exception {
+        CouponColumnSnapshot snapshot = sample();
+
+        assertEquals(2, snapshot.companyCount());
+        assertEquals(List.of(
+                new CompanyCouponValue(3, 1, 2, 200.0),
+                new CompanyCouponValue(7, 2, 11, 90.0)), snapshot.valueByCompany());
+    }
+
+    @Test
+    void testEmptySnapshot_ReturnsZeroTotals() {
+        CouponColumnSnapshot snapshot = CouponColumnSnapshot.builder().build();
+
+        assertEquals(0, snapshot.size());
+        assertTrue(snapshot.valueByCompany().isEmpty());
+        assertTrue(snapshot.stockByCategory().stream().allMatch(stock -> stock.getCoupons() == 0));
+    }
+
+    @Test
+    void testUnknownCategory_Throws() {
+        CouponColumnSnapshot.Builder builder = CouponColumnSnapshot.builder();
+
+        assertThrows(CategoryNotFoundException.class, () -> builder.accept(1, 99, DAY, 1, 1.0));
+    }
+
+    @Test
+    void testMillionsOfRows_AggregatesCorrectly() throws Exception {
+        int rows = 2_000_000;
+        int companies = 5_000;
+        Category[] categories = Category.values();
+        CouponColumnSnapshot.Builder builder = CouponColumnSnapshot.builder();
+        for (int i = 0; i < rows; i++) {
+            builder.accept(i % companies + 1, categories[i % categories.length].getId(), DAY + i % 100, 1, 2.0);
+        }
+        CouponColumnSnapshot snapshot = builder.build();
+
+        List<CompanyCouponValue> byCompany = snapshot.valueByCompany();
+        assertEquals(companies, byCompany.size());
+        assertEquals(new CompanyCouponValue(1, rows / companies, rows / companies, 2.0 * rows / companies), byCompany.get(0));
+
+        long stock = snapshot.stockByCategory().stream().mapToLong(CategoryStock::getStock).sum();
+        assertEquals(rows, stock);
+        long expiring = snapshot.stockByCategory(DAY, DAY + 9).stream().mapToLong(CategoryStock::getStock).sum();
+        assertEquals(rows / 10, expiring);
+    }
+}
@@ -0,0 +1,87 @@
+package com.jhf.coupon.backend.reporting;
+
+import com.jhf.coupon.backend.beans.CategoryStock;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.validation.ValidationException;
+import com.jhf.coupon.sql.dao.coupon.CouponColumnConsumer;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CouponSnapshotService - lazy build, refresh and report parameters.
+ */
+class CouponSnapshotServiceTest {
+
+    private CouponsDAO couponsDAO;
+    private CouponSnapshotService service;
+    private int rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        couponsDAO = mock(CouponsDAO.class);
+        service = new CouponSnapshotService(couponsDAO);
+        rows = 1;
+        doAnswer(invocation -> {
+            CouponColumnConsumer consumer = invocation.getArgument(0);
+            int today = (int) LocalDate.now().toEpochDay();
+            for (int i = 0; i < rows; i++) {
+                consumer.accept(1, Category.SKYING.getId(), today + i * 10, 5, 2.0);
+            }
+            return null;
+        }).when(couponsDAO).scanCouponColumns(any());
+    }
+
+    @Test
+    void testFirstReport_BuildsSnapshotOnce() throws Exception {
+        service.getStockByCategory();
+        service.getValueByCompany();
+
+        verify(couponsDAO, times(1)).scanCouponColumns(any());
+    }
+
+    @Test
+    void testRefresh_PublishesNewSnapshot() throws Exception {
+        assertEquals(1, service.getSnapshot().size());
+
+        rows = 3;
+        service.refresh();
+
+        assertEquals(3, service.getSnapshot().size());
+        assertEquals(15, service.getStockByCategory().get(0).getStock());
+    }
+
+    @Test
+    void testRefresh_Failure_KeepsPreviousSnapshot() throws Exception {
+        CouponColumnSnapshot first = service.getSnapshot();
+        doThrow(new SQLException("Database error")).when(couponsDAO).scanCouponColumns(any());
+
+        service.refresh();
+
+        assertSame(first, service.getSnapshot());
+    }
+
+    @Test
+    void testGetExpiringWithin_CountsFromToday() throws Exception {
+        rows = 3;
+
+        List<CategoryStock> result = service.getExpiringWithin(10);
+
+        assertEquals(2, result.get(0).getCoupons());
+        assertEquals(1, service.getExpiringWithin(0).get(0).getCoupons());
+    }
+
+    @Test
+    void testGetExpiringWithin_InvalidDays_Throws() {
+        assertThrows(ValidationException.class, () -> service.getExpiringWithin(-1));
+        assertThrows(ValidationException.class, () -> service.getExpiringWithin(CouponSnapshotService.MAX_EXPIRING_DAYS + 1));
+    }
+}
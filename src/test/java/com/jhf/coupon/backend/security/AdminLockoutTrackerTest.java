@@ -0,0 +1,127 @@
+package com.jhf.coupon.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AdminLockoutTracker - sliding window, lock decay and bounds
+ */
+class AdminLockoutTrackerTest {
+
+    private static final String ADMIN = "admin@admin.com";
+
+    private final AtomicLong nanos = new AtomicLong(1_000L);
+    private LockoutConfig lockoutConfig;
+    private AdminLockoutTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        lockoutConfig = new LockoutConfig();
+        ReflectionTestUtils.setField(lockoutConfig, "maxAttempts", 3);
+        ReflectionTestUtils.setField(lockoutConfig, "lockoutDurationMinutes", 30);
+        ReflectionTestUtils.setField(lockoutConfig, "adminLockoutEnabled", true);
+        tracker = new AdminLockoutTracker(lockoutConfig, ADMIN, 15, 16, nanos::get);
+    }
+
+    private void advanceMinutes(long minutes) {
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+
+    @Test
+    void testIsAdminEmail_OnlyMatchesConfiguredEmail() {
+        assertTrue(tracker.isAdminEmail(ADMIN));
+        assertFalse(tracker.isAdminEmail("other@admin.com"));
+        assertFalse(tracker.isAdminEmail(null));
+    }
+
+    @Test
+    void testRecordFailure_LocksAtMaxAttempts() {
+        assertEquals(1, tracker.recordFailure(ADMIN));
+        assertEquals(2, tracker.recordFailure(ADMIN));
+        assertFalse(tracker.isLocked(ADMIN));
+
+        assertEquals(3, tracker.recordFailure(ADMIN));
+
+        assertTrue(tracker.isLocked(ADMIN));
+        assertNotNull(tracker.getLockedUntil(ADMIN));
+        assertEquals(1, tracker.lockedCount());
+    }
+
+    @Test
+    void testRecordFailure_FailuresOutsideWindowAreForgotten() {
+        tracker.recordFailure(ADMIN);
+        tracker.recordFailure(ADMIN);
+        advanceMinutes(16);
+
+        assertEquals(1, tracker.recordFailure(ADMIN));
+        assertFalse(tracker.isLocked(ADMIN));
+    }
+
+    @Test
+    void testRecordFailure_WindowSlidesPerFailure() {
+        tracker.recordFailure(ADMIN);
+        advanceMinutes(10);
+        tracker.recordFailure(ADMIN);
+        advanceMinutes(10);
+
+        // First failure slid out, second is still within 15 minutes
+        assertEquals(2, tracker.recordFailure(ADMIN));
+        assertFalse(tracker.isLocked(ADMIN));
+    }
+
+    @Test
+    void testLock_ExpiresAfterLockoutDuration() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure(ADMIN);
+        }
+        advanceMinutes(29);
+        assertTrue(tracker.isLocked(ADMIN));
+
+        advanceMinutes(2);
+
+        assertFalse(tracker.isLocked(ADMIN));
+        assertEquals(0, tracker.trackedCount());
+        assertEquals(1, tracker.recordFailure(ADMIN));
+    }
+
+    @Test
+    void testLock_ZeroDurationLastsUntilCleared() {
+        ReflectionTestUtils.setField(lockoutConfig, "lockoutDurationMinutes", 0);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure(ADMIN);
+        }
+        advanceMinutes(60 * 24 * 365);
+
+        assertTrue(tracker.isLocked(ADMIN));
+        assertNull(tracker.getLockedUntil(ADMIN));
+
+        tracker.clear();
+        assertFalse(tracker.isLocked(ADMIN));
+    }
+
+    @Test
+    void testReset_ForgetsFailures() {
+        tracker.recordFailure(ADMIN);
+        tracker.recordFailure(ADMIN);
+
+        tracker.reset(ADMIN);
+
+        assertEquals(0, tracker.trackedCount());
+        assertEquals(1, tracker.recordFailure(ADMIN));
+    }
+
+    @Test
+    void testTrackedCount_IsBounded() {
+        for (int i = 0; i < 100; i++) {
+            tracker.recordFailure("user" + i + "@admin.com");
+        }
+
+        assertTrue(tracker.trackedCount() <= 16);
+    }
+}
@@ -0,0 +1,116 @@
+package com.jhf.coupon.backend.security;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BcryptCostCalibrator - cost selection against a verification budget
+ */
+class BcryptCostCalibratorTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    /** Simulated hardware: 1ms at cost 4, doubling with every cost step */
+    private static final IntToLongFunction DOUBLING = cost -> (1L << (cost - 4)) * MILLIS;
+
+    @AfterEach
+    void tearDown() {
+        PasswordHasher.setStrength(PasswordHasher.DEFAULT_BCRYPT_STRENGTH);
+        PasswordHasher.setVerificationObserver(null);
+    }
+
+    @Test
+    @DisplayName("Select strength should pick highest cost within budget")
+    void testSelectStrength_PicksHighestCostWithinBudget() {
+        // cost 12 = 256ms, cost 13 = 512ms
+        int strength = BcryptCostCalibrator.selectStrength(300 * MILLIS, 10, 16, DOUBLING);
+
+        assertEquals(12, strength);
+    }
+
+    @Test
+    @DisplayName("Select strength should not exceed max strength")
+    void testSelectStrength_CappedAtMax() {
+        int strength = BcryptCostCalibrator.selectStrength(10_000 * MILLIS, 10, 12, DOUBLING);
+
+        assertEquals(12, strength);
+    }
+
+    @Test
+    @DisplayName("Select strength should keep minimum when minimum exceeds budget")
+    void testSelectStrength_MinimumAboveBudget_ReturnsMinimum() {
+        int strength = BcryptCostCalibrator.selectStrength(10 * MILLIS, 12, 16, DOUBLING);
+
+        assertEquals(12, strength);
+    }
+
+    @Test
+    @DisplayName("Select strength should skip measuring a step that cannot fit")
+    void testSelectStrength_SkipsMeasurementWhenEstimateExceedsBudget() {
+        List<Integer> measured = new ArrayList<>();
+        int strength = BcryptCostCalibrator.selectStrength(300 * MILLIS, 12, 16, cost -> {
+            measured.add(cost);
+            return DOUBLING.applyAsLong(cost);
+        });
+
+        assertEquals(12, strength);
+        assertEquals(List.of(12), measured, "Cost 13 is estimated at 512ms and should not be measured");
+    }
+
+    @Test
+    @DisplayName("Select strength should stop at a step that measures over budget")
+    void testSelectStrength_StopsWhenMeasuredStepExceedsBudget() {
+        // Estimate for cost 11 fits, but the measurement is noisy and exceeds the budget
+        int strength = BcryptCostCalibrator.selectStrength(300 * MILLIS, 10, 16,
+                cost -> cost == 10 ? 100 * MILLIS : 400 * MILLIS);
+
+        assertEquals(10, strength);
+    }
+
+    @Test
+    @DisplayName("Initialize without calibration should apply configured strength and publish gauge")
+    void testInitialize_CalibrationDisabled_UsesConfiguredStrength() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BcryptCostCalibrator calibrator = new BcryptCostCalibrator(new PrometheusMetrics(registry));
+        ReflectionTestUtils.setField(calibrator, "configuredStrength", 5);
+        ReflectionTestUtils.setField(calibrator, "calibrationEnabled", false);
+
+        calibrator.initialize();
+
+        assertEquals(5, PasswordHasher.getStrength());
+        Gauge gauge = registry.find("coupon_system_bcrypt_cost").gauge();
+        assertNotNull(gauge);
+        assertEquals(5.0, gauge.value());
+
+        PasswordHasher.verifyPassword("TestPassword123", PasswordHasher.hashPassword("TestPassword123"));
+        assertNotNull(registry.find("coupon_system_password_verify_duration").tag("cost", "5").timer(),
+                "Verification timings should be recorded");
+    }
+
+    @Test
+    @DisplayName("Initialize with calibration should stay within configured bounds")
+    void testInitialize_CalibrationEnabled_StaysWithinBounds() {
+        BcryptCostCalibrator calibrator = new BcryptCostCalibrator(new PrometheusMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(calibrator, "calibrationEnabled", true);
+        ReflectionTestUtils.setField(calibrator, "verifyBudgetMillis", 50L);
+        ReflectionTestUtils.setField(calibrator, "minStrength", 4);
+        ReflectionTestUtils.setField(calibrator, "maxStrength", 6);
+
+        calibrator.initialize();
+
+        int strength = PasswordHasher.getStrength();
+        assertTrue(strength >= 4 && strength <= 6, "Calibrated strength should be within bounds: " + strength);
+    }
+}
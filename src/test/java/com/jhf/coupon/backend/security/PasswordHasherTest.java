@@ -2,6 +2,7 @@ package com.jhf.coupon.backend.security;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -309,6 +310,69 @@ class PasswordHasherTest {
                 "Password verification should have similar timing for correct/incorrect passwords (timing attack resistance)");
     }
 
+    @Test
+    @DisplayName("Set strength should change cost of new hashes and rehash detection")
+    void testSetStrength_ChangesCostOfNewHashes() {
+        try {
+            PasswordHasher.setStrength(4);
+            String hash = PasswordHasher.hashPassword("TestPassword123");
+
+            assertEquals(4, PasswordHasher.getStrength());
+            assertTrue(hash.startsWith("$2a$04$"), "New hash should use the configured cost");
+            assertFalse(PasswordHasher.needsRehash(hash), "Hash at current cost should not need rehashing");
+
+            PasswordHasher.setStrength(5);
+            assertTrue(PasswordHasher.needsRehash(hash), "Hash below new cost should need rehashing");
+            assertTrue(PasswordHasher.verifyPassword("TestPassword123", hash),
+                    "Hash with older cost should still verify");
+        } finally {
+            PasswordHasher.setStrength(PasswordHasher.DEFAULT_BCRYPT_STRENGTH);
+        }
+    }
+
+    @Test
+    @DisplayName("Set strength should reject out-of-range cost factors")
+    void testSetStrength_OutOfRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordHasher.setStrength(3));
+        assertThrows(IllegalArgumentException.class, () -> PasswordHasher.setStrength(32));
+        assertEquals(PasswordHasher.DEFAULT_BCRYPT_STRENGTH, PasswordHasher.getStrength());
+    }
+
+    @Test
+    @DisplayName("Verification observer should receive cost and duration")
+    void testVerificationObserver_ReceivesCostAndDuration() {
+        String hash = new BCryptPasswordEncoder(4).encode("TestPassword123");
+        int[] observedCost = new int[1];
+        long[] observedNanos = new long[1];
+        try {
+            PasswordHasher.setVerificationObserver((cost, nanos) -> {
+                observedCost[0] = cost;
+                observedNanos[0] = nanos;
+            });
+            PasswordHasher.verifyPassword("TestPassword123", hash);
+        } finally {
+            PasswordHasher.setVerificationObserver(null);
+        }
+
+        assertEquals(4, observedCost[0]);
+        assertTrue(observedNanos[0] > 0, "Duration should be positive");
+    }
+
+    @Test
+    @DisplayName("Extract cost should parse cost factor or return -1")
+    void testExtractCost() {
+        assertEquals(12, PasswordHasher.extractCost("$2a$12$N9qo8uLOickgx2ZMRZoMye1J9VqQQzPr0hJhXxXxXxXxXxXxXxXxXu"));
+        assertEquals(-1, PasswordHasher.extractCost("$2a$XX$N9qo8uLOickgx2ZMRZoMye"));
+        assertEquals(-1, PasswordHasher.extractCost("not-a-valid-hash"));
+        assertEquals(-1, PasswordHasher.extractCost(null));
+    }
+
+    @Test
+    @DisplayName("Measure verification should return a positive duration")
+    void testMeasureVerificationNanos_ReturnsPositive() {
+        assertTrue(PasswordHasher.measureVerificationNanos(4, 3) > 0);
+    }
+
     @Test
     @DisplayName("Constructor should throw AssertionError")
     void testConstructor_ThrowsAssertionError() {
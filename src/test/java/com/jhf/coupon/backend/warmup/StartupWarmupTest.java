@@ -0,0 +1,133 @@
+package com.jhf.coupon.backend.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.backend.reporting.CouponSnapshotService;
+import com.jhf.coupon.config.WarmupProperties;
+import com.jhf.coupon.security.JwtTokenProvider;
+import com.jhf.coupon.sql.dao.coupon.CouponNotFoundException;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StartupWarmupTest {
+
+    private WarmupProperties properties;
+    private DataSource dataSource;
+    private CouponsDAO couponsDAO;
+    private CustomerDAO customerDAO;
+    private CouponSnapshotService snapshotService;
+    private JwtTokenProvider tokenProvider;
+    private SimpleMeterRegistry registry;
+    private StartupWarmup warmup;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new WarmupProperties();
+        properties.setPoolConnections(3);
+        properties.setTopCoupons(2);
+        properties.setIterations(5);
+        dataSource = mock(DataSource.class);
+        couponsDAO = mock(CouponsDAO.class);
+        customerDAO = mock(CustomerDAO.class);
+        snapshotService = mock(CouponSnapshotService.class);
+        tokenProvider = mock(JwtTokenProvider.class);
+        registry = new SimpleMeterRegistry();
+        when(tokenProvider.generateAccessToken(anyString(), any(), anyLong())).thenReturn("token");
+        warmup = new StartupWarmup(properties, dataSource, couponsDAO, customerDAO, snapshotService,
+                tokenProvider, new ObjectMapper(), new PrometheusMetrics(registry));
+    }
+
+    private static Coupon coupon(int id) {
+        return new Coupon(id, 1, Category.SKYING, "Coupon " + id, "Description",
+                Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 9.99, "image.jpg");
+    }
+
+    @Test
+    void testRun_OpensPoolConnectionsAtTheSameTime() throws Exception {
+        List<Connection> open = new ArrayList<>();
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            open.add(connection);
+            return connection;
+        });
+
+        warmup.run();
+
+        assertEquals(3, open.size());
+        for (Connection connection : open) {
+            verify(connection).close();
+        }
+    }
+
+    @Test
+    void testRun_LoadsMostPurchasedCouponsAndExercisesHotPaths() throws Exception {
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        LinkedHashMap<Long, Integer> mostPurchased = new LinkedHashMap<>();
+        mostPurchased.put(7L, 5);
+        mostPurchased.put(3L, 2);
+        when(couponsDAO.getMostPurchasedCoupons(2)).thenReturn(mostPurchased);
+        when(couponsDAO.getCoupon(7)).thenReturn(coupon(7));
+        when(couponsDAO.getCoupon(3)).thenThrow(new CouponNotFoundException("Could not find Coupon with id: 3"));
+
+        warmup.run();
+
+        verify(couponsDAO).getCoupon(7);
+        verify(couponsDAO).getCoupon(3);
+        verify(couponsDAO).customerCouponPurchaseExists(0, 7);
+        verify(customerDAO).getAccountLockoutStatus(anyString());
+        verify(snapshotService).rebuild();
+        verify(tokenProvider, times(5)).validateToken("token");
+        verify(tokenProvider, times(5)).getUserIdFromToken("token");
+        assertTrue(warmup.isComplete());
+        assertEquals(List.of(), warmup.getFailedSteps());
+        assertEquals(1, registry.get("coupon_system_warmup_duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testRun_FailedStepIsSkipped() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(couponsDAO.getMostPurchasedCoupons(anyInt())).thenReturn(new LinkedHashMap<>());
+
+        warmup.run();
+
+        assertTrue(warmup.isComplete());
+        assertEquals(List.of("pool"), warmup.getFailedSteps());
+        verify(snapshotService).rebuild();
+        verify(tokenProvider, times(5)).validateToken("token");
+        assertEquals(1, registry.get("coupon_system_warmup_duration").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void testStart_Disabled_CompleteWithoutWarmingUp() {
+        properties.setEnabled(false);
+
+        warmup.start();
+
+        assertTrue(warmup.isComplete());
+        verifyNoInteractions(dataSource, couponsDAO, snapshotService, tokenProvider);
+        assertNull(registry.find("coupon_system_warmup_duration").timer());
+    }
+
+    @Test
+    void testNotComplete_BeforeRun() {
+        assertFalse(warmup.isComplete());
+        assertEquals(0, warmup.getDurationMillis());
+    }
+}
@@ -0,0 +1,54 @@
+package com.jhf.coupon.backend.warmup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WarmupHealthIndicatorTest {
+
+    private StartupWarmup warmup;
+    private WarmupHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        warmup = mock(StartupWarmup.class);
+        indicator = new WarmupHealthIndicator(warmup);
+    }
+
+    @Test
+    void testHealth_InProgress_Down() {
+        when(warmup.isComplete()).thenReturn(false);
+
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void testHealth_Complete_UpWithDuration() {
+        when(warmup.isComplete()).thenReturn(true);
+        when(warmup.getDurationMillis()).thenReturn(1234L);
+        when(warmup.getFailedSteps()).thenReturn(List.of());
+
+        Health health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(1234L, health.getDetails().get("durationMs"));
+        assertFalse(health.getDetails().containsKey("failedSteps"));
+    }
+
+    @Test
+    void testHealth_CompleteWithFailedSteps_StillUp() {
+        when(warmup.isComplete()).thenReturn(true);
+        when(warmup.getFailedSteps()).thenReturn(List.of("pool"));
+
+        Health health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(List.of("pool"), health.getDetails().get("failedSteps"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.coupon.ShardedCouponsDAO;
+import com.jhf.coupon.sql.memory.InMemoryCouponsDAO;
+import com.jhf.coupon.sql.routing.ReadWriteRoutingDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for AotReplicaGuard - replica, sharding or memory storage configured on an AOT build without it.
+ */
+class AotReplicaGuardTest {
+
+    private static final String REPLICA_URL = "jdbc:postgresql://replica:5432/couponsystem";
+
+    @Test
+    void testAotWithReplicaUrl_WithoutRoutingDataSource_Throws() {
+        DataSource plain = mock(DataSource.class);
+
+        assertThrows(IllegalStateException.class, () -> AotReplicaGuard.check(true, REPLICA_URL, plain));
+    }
+
+    @Test
+    void testAotWithReplicaUrl_WithRoutingDataSource_Passes() {
+        DataSource routing = mock(ReadWriteRoutingDataSource.class);
+
+        assertDoesNotThrow(() -> AotReplicaGuard.check(true, REPLICA_URL, routing));
+    }
+
+    @Test
+    void testAotWithoutReplicaUrl_Passes() {
+        DataSource plain = mock(DataSource.class);
+
+        assertDoesNotThrow(() -> AotReplicaGuard.check(true, "", plain));
+        assertDoesNotThrow(() -> AotReplicaGuard.check(true, null, plain));
+    }
+
+    @Test
+    void testWithoutAot_ReplicaUrlIsLeftToReadReplicaConfig() {
+        DataSource plain = mock(DataSource.class);
+
+        assertDoesNotThrow(() -> AotReplicaGuard.check(false, REPLICA_URL, plain));
+    }
+
+    @Test
+    void testAotWithSharding_WithoutShardedDao_Throws() {
+        CouponsDAO plain = mock(CouponsDAO.class);
+
+        assertThrows(IllegalStateException.class, () -> AotReplicaGuard.checkSharding(true, true, plain));
+    }
+
+    @Test
+    void testAotWithSharding_WithShardedDao_Passes() {
+        CouponsDAO sharded = mock(ShardedCouponsDAO.class);
+
+        assertDoesNotThrow(() -> AotReplicaGuard.checkSharding(true, true, sharded));
+        assertDoesNotThrow(() -> AotReplicaGuard.checkSharding(true, false, mock(CouponsDAO.class)));
+        assertDoesNotThrow(() -> AotReplicaGuard.checkSharding(false, true, mock(CouponsDAO.class)));
+    }
+
+    @Test
+    void testAotWithMemoryProfile_WithoutInMemoryDao_Throws() {
+        CouponsDAO jdbc = mock(CouponsDAO.class);
+
+        assertThrows(IllegalStateException.class, () -> AotReplicaGuard.checkMemoryProfile(true, true, jdbc));
+    }
+
+    @Test
+    void testAotWithMemoryProfile_WithInMemoryDao_Passes() {
+        CouponsDAO inMemory = mock(InMemoryCouponsDAO.class);
+
+        assertDoesNotThrow(() -> AotReplicaGuard.checkMemoryProfile(true, true, inMemory));
+        assertDoesNotThrow(() -> AotReplicaGuard.checkMemoryProfile(true, false, mock(CouponsDAO.class)));
+        assertDoesNotThrow(() -> AotReplicaGuard.checkMemoryProfile(false, true, mock(CouponsDAO.class)));
+    }
+}
@@ -0,0 +1,72 @@
+package com.jhf.coupon.config;
+
+import com.jhf.coupon.sql.dao.company.CompaniesDAO;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import com.jhf.coupon.sql.dao.customer.CustomerDAO;
+import com.jhf.coupon.sql.dao.job.JobLeaseDAO;
+import com.jhf.coupon.sql.dao.outbox.OutboxDAO;
+import com.jhf.coupon.sql.memory.InMemoryCompaniesDAO;
+import com.jhf.coupon.sql.memory.InMemoryCouponsDAO;
+import com.jhf.coupon.sql.memory.InMemoryCustomerDAO;
+import com.jhf.coupon.sql.memory.InMemoryJobLeaseDAO;
+import com.jhf.coupon.sql.memory.InMemoryOutboxDAO;
+import com.jhf.coupon.sql.memory.MemoryTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * The memory profile context, over a store in a fresh directory. The context is closed with the
+ * class, before the directory is deleted.
+ */
+@SpringBootTest
+@ActiveProfiles("memory")
+@DirtiesContext
+class MemoryStorageConfigTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void memoryStorageDirectory(DynamicPropertyRegistry registry) {
+        registry.add("memory-storage.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private CompaniesDAO companiesDAO;
+
+    @Autowired
+    private CustomerDAO customerDAO;
+
+    @Autowired
+    private CouponsDAO couponsDAO;
+
+    @Autowired
+    private OutboxDAO outboxDAO;
+
+    @Autowired
+    private JobLeaseDAO jobLeaseDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testMemoryProfile_ReplacesJdbcDaos() {
+        assertInstanceOf(InMemoryCompaniesDAO.class, companiesDAO);
+        assertInstanceOf(InMemoryCustomerDAO.class, customerDAO);
+        assertInstanceOf(InMemoryCouponsDAO.class, couponsDAO);
+        assertInstanceOf(InMemoryOutboxDAO.class, outboxDAO);
+        assertInstanceOf(InMemoryJobLeaseDAO.class, jobLeaseDAO);
+        assertInstanceOf(MemoryTransactionManager.class, transactionManager);
+    }
+}
@@ -0,0 +1,167 @@
+package com.jhf.coupon.security;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import com.jhf.coupon.config.AdmissionControlProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AdmissionControlFilter - route priorities and shedding on pool saturation.
+ * The Hikari pools are mocked; load is set through their MXBean counters.
+ */
+class AdmissionControlFilterTest {
+
+    private AdmissionControlProperties properties;
+    private HikariDataSource pool;
+    private HikariPoolMXBean poolBean;
+    private SimpleMeterRegistry registry;
+    private AdmissionControlFilter filter;
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        pool = mock(HikariDataSource.class);
+        poolBean = mockPool(pool);
+
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(properties, pool, null, new PrometheusMetrics(registry));
+        filterChain = mock(FilterChain.class);
+    }
+
+    private static HikariPoolMXBean mockPool(HikariDataSource dataSource) {
+        HikariPoolMXBean bean = mock(HikariPoolMXBean.class);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(bean);
+        when(dataSource.getMaximumPoolSize()).thenReturn(20);
+        return bean;
+    }
+
+    private void load(int active, int pending) {
+        load(poolBean, active, pending);
+    }
+
+    private static void load(HikariPoolMXBean bean, int active, int pending) {
+        when(bean.getActiveConnections()).thenReturn(active);
+        when(bean.getThreadsAwaitingConnection()).thenReturn(pending);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, filterChain);
+        return response;
+    }
+
+    @Test
+    void testPriorityOf_ClassifiesRoutes() {
+        assertEquals(AdmissionControlFilter.Priority.HIGH, AdmissionControlFilter.priorityOf("POST", "/api/v1/auth/login"));
+        assertEquals(AdmissionControlFilter.Priority.HIGH, AdmissionControlFilter.priorityOf("POST", "/api/v1/customer/coupons/7/purchase"));
+        assertEquals(AdmissionControlFilter.Priority.HIGH, AdmissionControlFilter.priorityOf("POST", "/api/v1/customer/cart/checkout"));
+        assertEquals(AdmissionControlFilter.Priority.LOW, AdmissionControlFilter.priorityOf("GET", "/api/v1/public/coupons"));
+        assertEquals(AdmissionControlFilter.Priority.LOW, AdmissionControlFilter.priorityOf("GET", "/api/v1/company/analytics/sales/daily"));
+        assertEquals(AdmissionControlFilter.Priority.NORMAL, AdmissionControlFilter.priorityOf("GET", "/api/v1/customer/coupons"));
+        assertEquals(AdmissionControlFilter.Priority.NORMAL, AdmissionControlFilter.priorityOf("DELETE", "/api/v1/admin/companies/3"));
+        assertNull(AdmissionControlFilter.priorityOf("GET", "/actuator/health"));
+    }
+
+    @Test
+    void testIdlePool_AdmitsEverything() throws Exception {
+        load(2, 0);
+
+        assertEquals(200, perform("GET", "/api/v1/public/coupons").getStatus());
+        assertEquals(200, perform("GET", "/api/v1/customer/coupons").getStatus());
+
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void testHighUtilization_ShedsLowPriorityOnly() throws Exception {
+        load(16, 0);
+
+        MockHttpServletResponse shed = perform("GET", "/api/v1/public/coupons");
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("2", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("Service Unavailable"));
+        assertEquals(200, perform("GET", "/api/v1/customer/coupons").getStatus());
+        assertEquals(200, perform("POST", "/api/v1/customer/coupons/1/purchase").getStatus());
+        assertEquals(1.0, registry.get("coupon_system_requests_shed_total")
+                .tags("route", "GET /api/v1/public/**", "priority", "low").counter().count());
+    }
+
+    @Test
+    void testManyWaiters_ShedsNormalButAdmitsPurchasesAndLogins() throws Exception {
+        load(20, 11);
+
+        assertEquals(503, perform("GET", "/api/v1/customer/coupons").getStatus());
+        assertEquals(503, perform("GET", "/api/v1/admin/customers").getStatus());
+        assertEquals(200, perform("POST", "/api/v1/customer/coupons/1/purchase").getStatus());
+        assertEquals(200, perform("POST", "/api/v1/auth/login").getStatus());
+        assertEquals(200, perform("GET", "/actuator/health").getStatus());
+
+        verify(filterChain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    void testManyWaiters_AdmitsCartCheckout() throws Exception {
+        load(20, 11);
+
+        assertEquals(200, perform("POST", "/api/v1/customer/cart/checkout").getStatus());
+        assertEquals(503, perform("GET", "/api/v1/customer/coupons").getStatus());
+
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testDisabled_AdmitsEverything() throws Exception {
+        properties.setEnabled(false);
+        load(20, 50);
+
+        assertEquals(200, perform("GET", "/api/v1/public/coupons").getStatus());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testPoolNotStarted_AdmitsEverything() throws Exception {
+        HikariDataSource idle = mock(HikariDataSource.class);
+        filter = new AdmissionControlFilter(properties, idle, null, new PrometheusMetrics(registry));
+
+        assertEquals(200, perform("GET", "/api/v1/public/coupons").getStatus());
+    }
+
+    @Test
+    void testSaturatedPrimaryWithIdleReplica_AdmitsReplicaReads() throws Exception {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        HikariPoolMXBean replicaBean = mockPool(replica);
+        filter = new AdmissionControlFilter(properties, pool, replica, new PrometheusMetrics(registry));
+        load(20, 11);
+        load(replicaBean, 2, 0);
+
+        assertEquals(200, perform("GET", "/api/v1/public/coupons").getStatus());
+        assertEquals(200, perform("GET", "/api/v1/company/analytics/sales/daily").getStatus());
+        assertEquals(503, perform("GET", "/api/v1/customer/coupons").getStatus());
+        assertEquals(503, perform("PUT", "/api/v1/company/coupons/4").getStatus());
+    }
+
+    @Test
+    void testSaturatedReplicaWithIdlePrimary_ShedsOnlyReplicaReads() throws Exception {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        HikariPoolMXBean replicaBean = mockPool(replica);
+        filter = new AdmissionControlFilter(properties, pool, replica, new PrometheusMetrics(registry));
+        load(2, 0);
+        load(replicaBean, 20, 11);
+
+        assertEquals(503, perform("GET", "/api/v1/public/coupons").getStatus());
+        assertEquals(200, perform("GET", "/api/v1/customer/coupons").getStatus());
+        assertEquals(200, perform("POST", "/api/v1/company/coupons").getStatus());
+    }
+}
@@ -51,7 +51,7 @@ class JwtAuthenticationFilterTest {
         String token = "valid.jwt.token";
         String email = "test@example.com";
         String clientType = "customer";
-        Integer userId = 123;
+        Long userId = 123L;
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(tokenProvider.validateToken(token)).thenReturn(true);
@@ -84,7 +84,7 @@ class JwtAuthenticationFilterTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn(email);
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -102,7 +102,7 @@ class JwtAuthenticationFilterTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn(email);
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -215,7 +215,7 @@ class JwtAuthenticationFilterTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn(email);
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("unknown_type");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -233,7 +233,7 @@ class JwtAuthenticationFilterTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn(email);
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("ADMIN"); // Uppercase
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -245,7 +245,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void testDoFilterInternal_StoresCorrectUserIdInRequest() throws ServletException, IOException {
         String token = "valid.token";
-        Integer expectedUserId = 999;
+        Long expectedUserId = 999L;
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(tokenProvider.validateToken(token)).thenReturn(true);
@@ -267,7 +267,7 @@ class JwtAuthenticationFilterTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("test@example.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn(expectedClientType);
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -282,7 +282,7 @@ class JwtAuthenticationFilterTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("test@example.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         filter.doFilterInternal(request, response, filterChain);
 
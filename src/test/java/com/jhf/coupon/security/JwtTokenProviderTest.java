@@ -212,7 +212,7 @@ class JwtTokenProviderTest {
         int expectedUserId = 456;
         String token = tokenProvider.generateAccessToken("test@example.com", ClientType.ADMIN, expectedUserId);
 
-        Integer actualUserId = tokenProvider.getUserIdFromToken(token);
+        Long actualUserId = tokenProvider.getUserIdFromToken(token);
 
         assertEquals(expectedUserId, actualUserId);
     }
@@ -272,11 +272,19 @@ class JwtTokenProviderTest {
         int maxUserId = Integer.MAX_VALUE;
         String token = tokenProvider.generateAccessToken("test@example.com", ClientType.CUSTOMER, maxUserId);
 
-        Integer extractedUserId = tokenProvider.getUserIdFromToken(token);
+        Long extractedUserId = tokenProvider.getUserIdFromToken(token);
 
         assertEquals(maxUserId, extractedUserId);
     }
 
+    @Test
+    void testGenerateAccessToken_WithGeneratedUserId_KeepsAll64Bits() {
+        long generatedUserId = (1L << 52) + 12345;
+        String token = tokenProvider.generateAccessToken("test@example.com", ClientType.CUSTOMER, generatedUserId);
+
+        assertEquals(generatedUserId, tokenProvider.getUserIdFromToken(token));
+    }
+
     @Test
     void testGenerateAccessToken_MultipleTokens_AreUnique() throws InterruptedException {
         String token1 = tokenProvider.generateAccessToken("test@example.com", ClientType.CUSTOMER, 1);
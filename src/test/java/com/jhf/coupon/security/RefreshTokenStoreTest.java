@@ -228,9 +228,10 @@ class RefreshTokenStoreTest {
         tokenStore.storeToken(validToken2, "user4@test.com", "customer", future);
 
         // Act
-        tokenStore.cleanupExpiredTokens();
+        int removed = tokenStore.cleanupExpiredTokens();
 
         // Assert
+        assertEquals(2, removed);
         assertNull(tokenStore.getMetadata(expiredToken1));
         assertNull(tokenStore.getMetadata(expiredToken2));
         assertNotNull(tokenStore.getMetadata(validToken1));
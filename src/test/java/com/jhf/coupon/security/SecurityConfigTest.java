@@ -68,7 +68,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         mockMvc.perform(get("/api/v1/admin/companies")
                         .header("Authorization", "Bearer " + token))
@@ -81,7 +81,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
 
         mockMvc.perform(get("/api/v1/admin/companies")
                         .header("Authorization", "Bearer " + token))
@@ -94,7 +94,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("customer@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100L);
 
         mockMvc.perform(get("/api/v1/admin/companies")
                         .header("Authorization", "Bearer " + token))
@@ -107,7 +107,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
 
         mockMvc.perform(get("/api/v1/company/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -120,7 +120,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         mockMvc.perform(get("/api/v1/company/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -133,7 +133,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("customer@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100L);
 
         mockMvc.perform(get("/api/v1/company/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -146,7 +146,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("customer@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100L);
 
         mockMvc.perform(get("/api/v1/customer/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -159,7 +159,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         mockMvc.perform(get("/api/v1/customer/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -172,7 +172,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("company@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("company");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(10L);
 
         mockMvc.perform(get("/api/v1/customer/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -238,7 +238,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         mockMvc.perform(post("/api/v1/admin/companies")
                         .header("Authorization", "Bearer " + token)
@@ -253,7 +253,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("admin@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("admin");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(1L);
 
         mockMvc.perform(delete("/api/v1/admin/companies/1")
                         .header("Authorization", "Bearer " + token))
@@ -268,7 +268,7 @@ class SecurityConfigTest {
         when(tokenProvider.validateToken(token)).thenReturn(true);
         when(tokenProvider.getEmailFromToken(token)).thenReturn("customer@test.com");
         when(tokenProvider.getClientTypeFromToken(token)).thenReturn("customer");
-        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100);
+        when(tokenProvider.getUserIdFromToken(token)).thenReturn(100L);
 
         mockMvc.perform(get("/api/v1/customer/coupons")
                         .header("Authorization", "Bearer " + token))
@@ -12,6 +12,7 @@ import com.jhf.coupon.backend.facade.CompanyFacade;
 import com.jhf.coupon.backend.facade.CustomerFacade;
 import com.jhf.coupon.backend.login.ClientType;
 import com.jhf.coupon.backend.login.LoginManager;
+import com.jhf.coupon.backend.login.PrincipalCache;
 import com.jhf.coupon.security.JwtTokenProvider;
 import com.jhf.coupon.security.RefreshTokenStore;
 import com.jhf.coupon.sql.dao.company.CompaniesDAO;
@@ -60,18 +61,22 @@ class AuthenticationServiceTest {
     @Mock
     private CustomerFacade customerFacade;
 
+    private PrincipalCache principalCache;
+
     private AuthenticationService authenticationService;
 
     private final String testAdminEmail = "admin@admin.com";
 
     @BeforeEach
     void setUp() {
+        principalCache = new PrincipalCache(60, 100);
         authenticationService = new AuthenticationService(
                 loginManager,
                 jwtTokenProvider,
                 refreshTokenStore,
                 companiesDAO,
-                customerDAO
+                customerDAO,
+                principalCache
         );
         ReflectionTestUtils.setField(authenticationService, "adminEmail", testAdminEmail);
     }
@@ -172,6 +177,50 @@ class AuthenticationServiceTest {
         verify(jwtTokenProvider).generateRefreshToken("company@test.com");
     }
 
+    @Test
+    void testLoginAsCompany_Success_CachesPrincipalWithoutPassword() throws Exception {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest("company@test.com", "password", "company");
+        Company company = new Company(10, "Test Company", "company@test.com", "hashed");
+
+        when(loginManager.login(anyString(), anyString(), eq(ClientType.COMPANY)))
+                .thenReturn(companyFacade);
+        when(companiesDAO.getCompanyByEmail("company@test.com"))
+                .thenReturn(company);
+
+        // Act
+        authenticationService.login(loginRequest);
+
+        // Assert - cached principal is served without hitting the loader
+        Company cached = principalCache.getCompany(10, id -> {
+            throw new SQLException("Principal should be cached at login");
+        });
+        assertEquals("Test Company", cached.getName());
+        assertNull(cached.getPassword());
+    }
+
+    @Test
+    void testLoginAsCustomer_Success_CachesPrincipalWithoutPassword() throws Exception {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest("customer@test.com", "password", "customer");
+        Customer customer = new Customer(100, "John", "Doe", "customer@test.com", "hashed");
+
+        when(loginManager.login(anyString(), anyString(), eq(ClientType.CUSTOMER)))
+                .thenReturn(customerFacade);
+        when(customerDAO.getCustomerByEmail("customer@test.com"))
+                .thenReturn(customer);
+
+        // Act
+        authenticationService.login(loginRequest);
+
+        // Assert - cached principal is served without hitting the loader
+        Customer cached = principalCache.getCustomer(100, id -> {
+            throw new SQLException("Principal should be cached at login");
+        });
+        assertEquals("John", cached.getFirstName());
+        assertNull(cached.getPassword());
+    }
+
     @Test
     void testLoginAsCompany_InvalidCredentials_ThrowsException() throws Exception {
         // Arrange
@@ -363,7 +412,7 @@ class AuthenticationServiceTest {
                 .thenReturn(customerFacade);
         when(customerDAO.getCustomerByEmail("customer@test.com"))
                 .thenReturn(customer);
-        when(jwtTokenProvider.generateAccessToken(anyString(), any(), anyInt()))
+        when(jwtTokenProvider.generateAccessToken(anyString(), any(), anyLong()))
                 .thenReturn("access.token");
         when(jwtTokenProvider.generateRefreshToken(anyString()))
                 .thenReturn("refresh.token");
@@ -386,7 +435,7 @@ class AuthenticationServiceTest {
                 .thenReturn(companyFacade);
         when(companiesDAO.getCompanyByEmail("company@test.com"))
                 .thenReturn(company);
-        when(jwtTokenProvider.generateAccessToken(anyString(), any(), anyInt()))
+        when(jwtTokenProvider.generateAccessToken(anyString(), any(), anyLong()))
                 .thenReturn("access.token");
         when(jwtTokenProvider.generateRefreshToken(anyString()))
                 .thenReturn("refresh.token");
@@ -596,7 +645,7 @@ class AuthenticationServiceTest {
 
         when(refreshTokenStore.isValid(oldToken)).thenReturn(true);
         when(refreshTokenStore.getMetadata(oldToken)).thenReturn(metadata);
-        when(jwtTokenProvider.generateAccessToken(anyString(), any(), anyInt()))
+        when(jwtTokenProvider.generateAccessToken(anyString(), any(), anyLong()))
                 .thenReturn("new.access");
         when(jwtTokenProvider.generateRefreshToken(anyString()))
                 .thenReturn("new.refresh");
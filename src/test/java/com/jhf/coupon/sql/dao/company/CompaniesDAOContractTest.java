@@ -0,0 +1,353 @@
+package com.jhf.coupon.sql.dao.company;
+
+import com.jhf.coupon.backend.beans.AccountLockoutStatus;
+import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every CompaniesDAO engine must share. Subclasses set companiesDAO to a DAO over an
+ * empty store before each test and seed rows (with their lockout state) the way their engine
+ * stores them.
+ */
+public abstract class CompaniesDAOContractTest {
+
+    protected static final String HASH = PasswordHasher.hashPassword("password123");
+
+    protected CompaniesDAO companiesDAO;
+
+    /**
+     * Stores a company row directly, bypassing the DAO, with IDs ascending in call order.
+     *
+     * @return The row's ID
+     */
+    protected abstract long seedCompany(String name, String email, String hash, int failedLoginAttempts,
+                                        boolean accountLocked, LocalDateTime lockedUntil) throws Exception;
+
+    private long seedCompany(String name, String email, String hash) throws Exception {
+        return seedCompany(name, email, hash, 0, false, null);
+    }
+
+    @Test
+    void testIsCompanyExists_WhenExists_ReturnsTrue() throws Exception {
+        seedCompany("TestCompany", "test@company.com", HASH);
+
+        assertTrue(companiesDAO.isCompanyExists("test@company.com", "password123"));
+    }
+
+    @Test
+    void testIsCompanyExists_WhenNotExists_ReturnsFalse() throws Exception {
+        assertFalse(companiesDAO.isCompanyExists("nonexistent@company.com", "wrongpass"));
+    }
+
+    @Test
+    void testIsCompanyNameExists_WhenExists_ReturnsTrue() throws Exception {
+        seedCompany("ExistingCompany", "test@company.com", HASH);
+
+        assertTrue(companiesDAO.isCompanyNameExists("ExistingCompany"));
+    }
+
+    @Test
+    void testIsCompanyNameExists_WhenNotExists_ReturnsFalse() throws Exception {
+        assertFalse(companiesDAO.isCompanyNameExists("NonexistentCompany"));
+    }
+
+    @Test
+    void testGetCompanyByEmail_WhenNotExists_ThrowsException() throws Exception {
+        CompanyNotFoundException exception = assertThrows(CompanyNotFoundException.class,
+                () -> companiesDAO.getCompanyByEmail("nonexistent@test.com"));
+
+        assertTrue(exception.getMessage().contains("nonexistent@test.com"));
+    }
+
+    @Test
+    void testAddCompany_SetsGeneratedIdAndHashesPassword() throws Exception {
+        Company company = new Company(0, "TestCompany", "test@company.com", "password123");
+
+        companiesDAO.addCompany(company);
+
+        assertTrue(company.getId() > 0);
+        Company stored = companiesDAO.getCompanyByEmail("test@company.com");
+        assertEquals(company.getId(), stored.getId());
+        assertEquals(60, stored.getPassword().length(), "Bcrypt hash should be 60 characters");
+        assertTrue(stored.getPassword().startsWith("$2a$"), "Bcrypt hash should start with $2a$");
+    }
+
+    @Test
+    void testUpdateCompany_Success() throws Exception {
+        long id = seedCompany("OldCompany", "old@company.com", HASH, 2, false, null);
+
+        companiesDAO.updateCompany(new Company(id, "UpdatedCompany", "updated@company.com", "newpassword"));
+
+        Company updated = companiesDAO.getCompany(id);
+        assertEquals("UpdatedCompany", updated.getName());
+        assertEquals("updated@company.com", updated.getEmail());
+        assertTrue(PasswordHasher.verifyPassword("newpassword", updated.getPassword()));
+        assertFalse(companiesDAO.isCompanyEmailExists("old@company.com"));
+        assertEquals(2, companiesDAO.getAccountLockoutStatus("updated@company.com").getFailedLoginAttempts(),
+                "the lockout columns are not part of the update");
+    }
+
+    @Test
+    void testUpdateCompany_WhenNotExists_InsertsNothing() throws Exception {
+        companiesDAO.updateCompany(new Company(999, "Ghost", "ghost@company.com", "password123"));
+
+        assertTrue(companiesDAO.getAllCompanies().isEmpty());
+    }
+
+    @Test
+    void testDeleteCompany_Success() throws Exception {
+        long id = seedCompany("TestCompany", "test@company.com", HASH);
+
+        companiesDAO.deleteCompany(id);
+
+        assertThrows(CompanyNotFoundException.class, () -> companiesDAO.getCompany(id));
+        assertFalse(companiesDAO.isCompanyEmailExists("test@company.com"));
+        assertFalse(companiesDAO.isCompanyNameExists("TestCompany"));
+    }
+
+    @Test
+    void testGetAllCompanies_ReturnsCompanies() throws Exception {
+        seedCompany("Company1", "c1@mail.com", HASH);
+        seedCompany("Company2", "c2@mail.com", HASH);
+
+        var companies = companiesDAO.getAllCompanies();
+
+        assertEquals(2, companies.size());
+        assertEquals("Company1", companies.get(0).getName());
+        assertEquals("Company2", companies.get(1).getName());
+    }
+
+    @Test
+    void testForEachCompany_StreamsEveryRow() throws Exception {
+        seedCompany("Company1", "c1@mail.com", HASH);
+        seedCompany("Company2", "c2@mail.com", HASH);
+
+        List<String> names = new ArrayList<>();
+        companiesDAO.forEachCompany(company -> names.add(company.getName()));
+
+        assertEquals(List.of("Company1", "Company2"), names);
+    }
+
+    @Test
+    void testGetAllCompanies_ReturnsEmptyList() throws Exception {
+        assertEquals(0, companiesDAO.getAllCompanies().size());
+    }
+
+    @Test
+    void testGetCompany_WhenExists_ReturnsCompany() throws Exception {
+        long id = seedCompany("TestCompany", "test@company.com", HASH);
+
+        Company result = companiesDAO.getCompany(id);
+
+        assertEquals(new Company(id, "TestCompany", "test@company.com", HASH), result);
+    }
+
+    @Test
+    void testGetCompany_WhenNotExists_ThrowsException() throws Exception {
+        CompanyNotFoundException exception = assertThrows(CompanyNotFoundException.class,
+                () -> companiesDAO.getCompany(999));
+
+        assertTrue(exception.getMessage().contains("999"));
+    }
+
+    @Test
+    void testIsCompanyEmailExists_WhenNotExists_ReturnsFalse() throws Exception {
+        assertFalse(companiesDAO.isCompanyEmailExists("nonexistent@test.com"));
+    }
+
+    @Test
+    void testGetAccountLockoutStatus_WhenNotExists_ReturnsNull() throws Exception {
+        assertNull(companiesDAO.getAccountLockoutStatus("nobody@mail.com"));
+    }
+
+    @Test
+    void testIncrementFailedLoginAttempts_LocksAtMaxAttempts() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH);
+
+        companiesDAO.incrementFailedLoginAttempts("company@mail.com", 2, 30);
+        AccountLockoutStatus afterFirst = companiesDAO.getAccountLockoutStatus("company@mail.com");
+        companiesDAO.incrementFailedLoginAttempts("company@mail.com", 2, 30);
+        AccountLockoutStatus afterSecond = companiesDAO.getAccountLockoutStatus("company@mail.com");
+
+        assertEquals(1, afterFirst.getFailedLoginAttempts());
+        assertFalse(afterFirst.isAccountLocked());
+        assertNotNull(afterFirst.getLastFailedLogin());
+        assertEquals(2, afterSecond.getFailedLoginAttempts());
+        assertTrue(afterSecond.isCurrentlyLocked());
+        assertTrue(afterSecond.getLockedUntil().isAfter(LocalDateTime.now().plusMinutes(29)));
+    }
+
+    @Test
+    void testIncrementFailedLoginAttempts_WithZeroDuration_LocksPermanently() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH);
+
+        companiesDAO.incrementFailedLoginAttempts("company@mail.com", 1, 0);
+
+        AccountLockoutStatus status = companiesDAO.getAccountLockoutStatus("company@mail.com");
+        assertTrue(status.isAccountLocked());
+        assertNull(status.getLockedUntil());
+    }
+
+    @Test
+    void testUnlockAccount_ClearsLockout() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH, 5, true, null);
+
+        companiesDAO.unlockAccount("company@mail.com");
+
+        AccountLockoutStatus status = companiesDAO.getAccountLockoutStatus("company@mail.com");
+        assertFalse(status.isAccountLocked());
+        assertEquals(0, status.getFailedLoginAttempts());
+        assertEquals(0, companiesDAO.countLockedAccounts(LocalDateTime.now()));
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenNotExists_ReturnsNotFound() throws Exception {
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("nobody@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.NOT_FOUND, result.getOutcome());
+        assertNull(result.getLockoutStatus());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithValidPassword_ReturnsSuccessAndResetsCounter() throws Exception {
+        long id = seedCompany("TestCompany", "company@mail.com", HASH, 2, false, null);
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertEquals(id, result.getUserId());
+        assertEquals(0, companiesDAO.getAccountLockoutStatus("company@mail.com").getFailedLoginAttempts());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithWrongPassword_ReturnsUpdatedStatus() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH, 2, false, null);
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "wrongpass", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.FAILURE, result.getOutcome());
+        AccountLockoutStatus status = result.getLockoutStatus();
+        assertEquals(3, status.getFailedLoginAttempts());
+        assertFalse(status.isAccountLocked());
+        assertNotNull(status.getLastFailedLogin());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_ReachingMaxAttempts_LocksAccount() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH, 2, false, null);
+
+        companiesDAO.authenticateAndTrack("company@mail.com", "wrongpass", 3, 30);
+        AccountLockoutStatus status = companiesDAO.getAccountLockoutStatus("company@mail.com");
+
+        assertTrue(status.isAccountLocked());
+        assertTrue(status.getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLocked_ReturnsLockedWithoutWriting() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH, 5, true, LocalDateTime.now().plusMinutes(30));
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.LOCKED, result.getOutcome());
+        assertEquals(5, companiesDAO.getAccountLockoutStatus("company@mail.com").getFailedLoginAttempts());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLockoutExpired_RestartsCounterOnFailure() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH, 5, true, LocalDateTime.now().minusMinutes(1));
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "wrongpass", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.FAILURE, result.getOutcome());
+        assertEquals(1, result.getLockoutStatus().getFailedLoginAttempts());
+        assertFalse(result.getLockoutStatus().isAccountLocked());
+        assertNull(result.getLockoutStatus().getLockedUntil());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLockoutExpired_SucceedsWithoutUnlockWrite() throws Exception {
+        seedCompany("TestCompany", "company@mail.com", HASH, 5, true, LocalDateTime.now().minusMinutes(1));
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertTrue(companiesDAO.getAccountLockoutStatus("company@mail.com").isAccountLocked(),
+                "expired lockouts are cleared by the sweep job, not by login");
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithLowerCostHash_ReturnsHashToUpgrade() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        seedCompany("Acme", "acme@mail.com", weakHash);
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("acme@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertEquals(weakHash, result.getPasswordHashToUpgrade());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithCurrentCostHash_ReturnsNoHashToUpgrade() throws Exception {
+        seedCompany("Acme", "acme@mail.com", HASH);
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("acme@mail.com", "password123", 5, 30);
+
+        assertNull(result.getPasswordHashToUpgrade());
+    }
+
+    @Test
+    void testUpdatePasswordHash_WhenHashMatches_ReplacesHash() throws Exception {
+        String oldHash = new BCryptPasswordEncoder(4).encode("password123");
+        long id = seedCompany("Acme", "acme@mail.com", oldHash);
+
+        assertTrue(companiesDAO.updatePasswordHash(id, oldHash, HASH));
+
+        assertEquals(HASH, companiesDAO.getCompany(id).getPassword());
+    }
+
+    @Test
+    void testUpdatePasswordHash_WhenHashChanged_DoesNotOverwrite() throws Exception {
+        long id = seedCompany("Acme", "acme@mail.com", HASH);
+
+        boolean updated = companiesDAO.updatePasswordHash(id,
+                "$2a$04$staleHashThatNoLongerMatchesTheStoredValue1234567", "$2a$04$replacement");
+
+        assertFalse(updated);
+        assertEquals(HASH, companiesDAO.getCompany(id).getPassword());
+    }
+
+    @Test
+    void testUnlockExpiredAccounts_UnlocksOnlyExpiredTimedLockouts() throws Exception {
+        seedCompany("Expired", "expired@mail.com", HASH, 5, true, LocalDateTime.now().minusMinutes(1));
+        seedCompany("Active", "active@mail.com", HASH, 5, true, LocalDateTime.now().plusMinutes(30));
+        seedCompany("Permanent", "permanent@mail.com", HASH, 5, true, null);
+
+        int unlocked = companiesDAO.unlockExpiredAccounts(LocalDateTime.now());
+
+        assertEquals(1, unlocked);
+        assertFalse(companiesDAO.getAccountLockoutStatus("expired@mail.com").isAccountLocked());
+        assertEquals(0, companiesDAO.getAccountLockoutStatus("expired@mail.com").getFailedLoginAttempts());
+        assertTrue(companiesDAO.getAccountLockoutStatus("active@mail.com").isAccountLocked());
+        assertTrue(companiesDAO.getAccountLockoutStatus("permanent@mail.com").isAccountLocked());
+    }
+
+    @Test
+    void testCountLockedAccounts_CountsActiveAndPermanentLockouts() throws Exception {
+        seedCompany("Expired", "expired@mail.com", HASH, 5, true, LocalDateTime.now().minusMinutes(1));
+        seedCompany("Active", "active@mail.com", HASH, 5, true, LocalDateTime.now().plusMinutes(30));
+        seedCompany("Permanent", "permanent@mail.com", HASH, 5, true, null);
+        seedCompany("Open", "open@mail.com", HASH, 0, false, null);
+
+        assertEquals(2, companiesDAO.countLockedAccounts(LocalDateTime.now()));
+    }
+}
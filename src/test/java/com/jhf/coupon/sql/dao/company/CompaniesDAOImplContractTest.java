@@ -0,0 +1,40 @@
+package com.jhf.coupon.sql.dao.company;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * CompaniesDAOContractTest against the JDBC engine. Rows are seeded with SQL.
+ */
+@SpringBootTest
+class CompaniesDAOImplContractTest extends CompaniesDAOContractTest {
+
+    @Autowired
+    private CompaniesDAO jdbcCompaniesDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM companies");
+        companiesDAO = jdbcCompaniesDAO;
+    }
+
+    @Override
+    protected long seedCompany(String name, String email, String hash, int failedLoginAttempts,
+                               boolean accountLocked, LocalDateTime lockedUntil) {
+        long id = nextId++;
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", id, name, email, hash, failedLoginAttempts, accountLocked,
+                lockedUntil != null ? Timestamp.valueOf(lockedUntil) : null);
+        return id;
+    }
+}
@@ -1,14 +1,21 @@
 package com.jhf.coupon.sql.dao.company;
 
+import com.jhf.coupon.backend.beans.AccountLockoutStatus;
 import com.jhf.coupon.backend.beans.Company;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
 import com.jhf.coupon.backend.security.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -81,6 +88,17 @@ class CompaniesDAOImplTest {
         assertTrue(exception.getMessage().contains("nonexistent@test.com"));
     }
 
+    @Test
+    void testAddCompany_SetsGeneratedId() throws Exception {
+        Company company = new Company(0, "TestCompany", "test@company.com", "password123");
+
+        companiesDAO.addCompany(company);
+
+        assertTrue(company.getId() > 0);
+        assertEquals(company.getId(), jdbcTemplate.queryForObject(
+                "SELECT ID FROM companies WHERE EMAIL = ?", Long.class, "test@company.com"));
+    }
+
     @Test
     void testAddCompany_Success() throws Exception {
         // Create a new company
@@ -116,9 +134,9 @@ class CompaniesDAOImplTest {
                 "OldCompany", "old@company.com", hashedPassword);
 
         // Get the ID of the inserted company
-        Integer companyId = jdbcTemplate.queryForObject(
+        Long companyId = jdbcTemplate.queryForObject(
                 "SELECT ID FROM companies WHERE EMAIL = ?",
-                Integer.class,
+                Long.class,
                 "old@company.com"
         );
 
@@ -155,9 +173,9 @@ class CompaniesDAOImplTest {
                 "TestCompany", "test@company.com", hashedPassword);
 
         // Get the ID of the inserted company
-        Integer companyId = jdbcTemplate.queryForObject(
+        Long companyId = jdbcTemplate.queryForObject(
                 "SELECT ID FROM companies WHERE EMAIL = ?",
-                Integer.class,
+                Long.class,
                 "test@company.com"
         );
 
@@ -192,6 +210,20 @@ class CompaniesDAOImplTest {
         assertEquals("Company2", companies.get(1).getName());
     }
 
+    @Test
+    void testForEachCompany_StreamsEveryRow() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password1");
+        jdbcTemplate.update("INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+                "Company1", "c1@mail.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+                "Company2", "c2@mail.com", hashedPassword);
+
+        List<String> names = new ArrayList<>();
+        companiesDAO.forEachCompany(company -> names.add(company.getName()));
+
+        assertEquals(List.of("Company1", "Company2"), names);
+    }
+
     @Test
     void testGetAllCompanies_ReturnsEmptyList() throws Exception {
         // Don't insert any data
@@ -209,9 +241,9 @@ class CompaniesDAOImplTest {
                 "TestCompany", "test@company.com", hashedPassword);
 
         // Get the ID of the inserted company
-        Integer companyId = jdbcTemplate.queryForObject(
+        Long companyId = jdbcTemplate.queryForObject(
                 "SELECT ID FROM companies WHERE EMAIL = ?",
-                Integer.class,
+                Long.class,
                 "test@company.com"
         );
 
@@ -242,4 +274,205 @@ class CompaniesDAOImplTest {
         boolean result = companiesDAO.isCompanyEmailExists("nonexistent@test.com");
         assertFalse(result);
     }
+
+    @Test
+    void testAuthenticateAndTrack_WhenNotExists_ReturnsNotFound() throws Exception {
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("nobody@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.NOT_FOUND, result.getOutcome());
+        assertNull(result.getLockoutStatus());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithValidPassword_ReturnsSuccessAndResetsCounter() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS) VALUES (?, ?, ?, ?)",
+            "TestCompany", "company@mail.com", hashedPassword, 2
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertTrue(result.isAuthenticated());
+        Integer failedAttempts = jdbcTemplate.queryForObject(
+            "SELECT FAILED_LOGIN_ATTEMPTS FROM companies WHERE EMAIL = ?", Integer.class, "company@mail.com");
+        assertEquals(0, failedAttempts);
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithWrongPassword_ReturnsUpdatedStatus() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS) VALUES (?, ?, ?, ?)",
+            "TestCompany", "company@mail.com", hashedPassword, 2
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "wrongpass", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.FAILURE, result.getOutcome());
+        AccountLockoutStatus status = result.getLockoutStatus();
+        assertNotNull(status);
+        assertEquals(3, status.getFailedLoginAttempts());
+        assertFalse(status.isAccountLocked());
+        assertNotNull(status.getLastFailedLogin());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_ReachingMaxAttempts_LocksAccountInSameUpdate() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS) VALUES (?, ?, ?, ?)",
+            "TestCompany", "company@mail.com", hashedPassword, 2
+        );
+
+        companiesDAO.authenticateAndTrack("company@mail.com", "wrongpass", 3, 30);
+        AccountLockoutStatus status = companiesDAO.getAccountLockoutStatus("company@mail.com");
+
+        assertTrue(status.isAccountLocked());
+        assertNotNull(status.getLockedUntil());
+        assertTrue(status.getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLocked_ReturnsLockedWithoutWriting() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(30);
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)",
+            "TestCompany", "company@mail.com", hashedPassword, 5, true, lockedUntil
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.LOCKED, result.getOutcome());
+        Integer failedAttempts = jdbcTemplate.queryForObject(
+            "SELECT FAILED_LOGIN_ATTEMPTS FROM companies WHERE EMAIL = ?", Integer.class, "company@mail.com");
+        assertEquals(5, failedAttempts);
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLockoutExpired_RestartsCounterOnFailure() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        LocalDateTime lockedUntil = LocalDateTime.now().minusMinutes(1);
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)",
+            "TestCompany", "company@mail.com", hashedPassword, 5, true, lockedUntil
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "wrongpass", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.FAILURE, result.getOutcome());
+        assertEquals(1, result.getLockoutStatus().getFailedLoginAttempts());
+        assertFalse(result.getLockoutStatus().isAccountLocked());
+        assertNull(result.getLockoutStatus().getLockedUntil());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithLowerCostHash_ReturnsHashToUpgrade() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+            "Acme", "acme@mail.com", weakHash
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("acme@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertEquals(weakHash, result.getPasswordHashToUpgrade());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithCurrentCostHash_ReturnsNoHashToUpgrade() throws Exception {
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+            "Acme", "acme@mail.com", PasswordHasher.hashPassword("password123")
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("acme@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertNull(result.getPasswordHashToUpgrade());
+    }
+
+    @Test
+    void testUpdatePasswordHash_WhenHashMatches_ReplacesHash() throws Exception {
+        String oldHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+            "Acme", "acme@mail.com", oldHash
+        );
+        Long id = jdbcTemplate.queryForObject("SELECT ID FROM companies WHERE EMAIL = ?", Long.class, "acme@mail.com");
+        String newHash = PasswordHasher.hashPassword("password123");
+
+        boolean updated = companiesDAO.updatePasswordHash(id, oldHash, newHash);
+
+        assertTrue(updated);
+        String storedHash = jdbcTemplate.queryForObject(
+            "SELECT PASSWORD FROM companies WHERE ID = ?", String.class, id);
+        assertEquals(newHash, storedHash);
+    }
+
+    @Test
+    void testUpdatePasswordHash_WhenHashChanged_DoesNotOverwrite() throws Exception {
+        String currentHash = PasswordHasher.hashPassword("newPassword456");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD) VALUES (?, ?, ?)",
+            "Acme", "acme@mail.com", currentHash
+        );
+        Long id = jdbcTemplate.queryForObject("SELECT ID FROM companies WHERE EMAIL = ?", Long.class, "acme@mail.com");
+
+        boolean updated = companiesDAO.updatePasswordHash(id, "$2a$04$staleHashThatNoLongerMatchesTheStoredValue1234567",
+                PasswordHasher.hashPassword("password123"));
+
+        assertFalse(updated);
+        String storedHash = jdbcTemplate.queryForObject(
+            "SELECT PASSWORD FROM companies WHERE ID = ?", String.class, id);
+        assertEquals(currentHash, storedHash);
+    }
+
+    @Test
+    void testUnlockExpiredAccounts_UnlocksOnlyExpiredTimedLockouts() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        String insert = "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, "Expired", "expired@mail.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update(insert, "Active", "active@mail.com", hashedPassword, 5, true, LocalDateTime.now().plusMinutes(30));
+        jdbcTemplate.update(insert, "Permanent", "permanent@mail.com", hashedPassword, 5, true, null);
+
+        int unlocked = companiesDAO.unlockExpiredAccounts(LocalDateTime.now());
+
+        assertEquals(1, unlocked);
+        assertFalse(companiesDAO.getAccountLockoutStatus("expired@mail.com").isAccountLocked());
+        assertEquals(0, companiesDAO.getAccountLockoutStatus("expired@mail.com").getFailedLoginAttempts());
+        assertTrue(companiesDAO.getAccountLockoutStatus("active@mail.com").isAccountLocked());
+        assertTrue(companiesDAO.getAccountLockoutStatus("permanent@mail.com").isAccountLocked());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLockoutExpired_SucceedsWithoutUnlockWrite() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)",
+            "TestCompany", "company@mail.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1)
+        );
+
+        LoginAttemptResult result = companiesDAO.authenticateAndTrack("company@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        Boolean stillFlagged = jdbcTemplate.queryForObject(
+            "SELECT ACCOUNT_LOCKED FROM companies WHERE EMAIL = ?", Boolean.class, "company@mail.com");
+        assertEquals(Boolean.TRUE, stillFlagged, "expired lockouts are cleared by the sweep job, not by login");
+    }
+
+    @Test
+    void testCountLockedAccounts_CountsActiveAndPermanentLockouts() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        String insert = "INSERT INTO companies (NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, "TestCompany", "expired@mail.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update(insert, "TestCompany", "active@mail.com", hashedPassword, 5, true, LocalDateTime.now().plusMinutes(30));
+        jdbcTemplate.update(insert, "TestCompany", "permanent@mail.com", hashedPassword, 5, true, null);
+        jdbcTemplate.update(insert, "TestCompany", "open@mail.com", hashedPassword, 0, false, null);
+
+        assertEquals(2, companiesDAO.countLockedAccounts(LocalDateTime.now()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.jhf.coupon.sql.dao.company;
 
+import com.jhf.coupon.sql.ids.IdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -25,7 +26,7 @@ class CompaniesDAOSqlErrorTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        companiesDAO = new CompaniesDAOImpl(dataSource);
+        companiesDAO = new CompaniesDAOImpl(dataSource, new IdGenerator(0));
     }
 
     @Test
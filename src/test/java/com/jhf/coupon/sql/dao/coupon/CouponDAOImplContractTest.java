@@ -0,0 +1,55 @@
+package com.jhf.coupon.sql.dao.coupon;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.sql.dao.outbox.OutboxDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * CouponsDAOContractTest against the JDBC engine. Accounts are seeded with SQL.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CouponDAOImplContractTest extends CouponsDAOContractTest {
+
+    @Autowired
+    private CouponsDAO jdbcCouponsDAO;
+
+    @Autowired
+    private OutboxDAO outboxDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupon_sales_daily");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+                COMPANY_ID, "Acme", "acme@mail.com", "hash");
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+                CUSTOMER_ID, "John", "Doe", "john@mail.com", "hash");
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+                2, "Jane", "Roe", "jane@mail.com", "hash");
+        couponsDAO = jdbcCouponsDAO;
+    }
+
+    @Override
+    protected List<OutboxEvent> unpublishedEvents() throws Exception {
+        return outboxDAO.fetchUnpublished(Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected void deleteCompany(long companyId) {
+        jdbcTemplate.update("DELETE FROM companies WHERE id = ?", companyId);
+    }
+}
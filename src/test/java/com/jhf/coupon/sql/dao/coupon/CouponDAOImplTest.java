@@ -1,8 +1,10 @@
 package com.jhf.coupon.sql.dao.coupon;
 
+import com.jhf.coupon.backend.beans.CartItemResult;
 import com.jhf.coupon.backend.beans.Company;
 import com.jhf.coupon.backend.beans.Coupon;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
 import com.jhf.coupon.backend.couponCategory.Category;
 import com.jhf.coupon.backend.security.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +16,10 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +36,7 @@ class CouponDAOImplTest {
     @BeforeEach
     void setUp() throws Exception {
         // Clean up database before each test
+        jdbcTemplate.execute("DELETE FROM outbox_events");
         jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
         jdbcTemplate.execute("DELETE FROM coupons");
         jdbcTemplate.execute("DELETE FROM companies");
@@ -179,6 +186,20 @@ class CouponDAOImplTest {
         assertTrue(exception.getMessage().contains("999"));
     }
 
+    @Test
+    void testGetExistingCouponIds_ReturnsOnlyStoredIds() throws Exception {
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", "hash");
+        for (int id = 1; id <= 2; id++) {
+            jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, 1, Category.SKYING.getId(), "Coupon " + id, "Description",
+                Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 99.99, "image.jpg");
+        }
+
+        assertEquals(Set.of(1L, 2L), couponsDAO.getExistingCouponIds(List.of(2L, 1L, 999L)));
+        assertTrue(couponsDAO.getExistingCouponIds(List.of()).isEmpty());
+    }
+
     @Test
     void testGetAllCoupons_ReturnsList() throws Exception {
         // Insert companies first (foreign key dependency)
@@ -462,7 +483,7 @@ class CouponDAOImplTest {
             1, 1, Category.SKYING.getId(), "Test Coupon", "Description",
             Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 99.99, "image.jpg");
 
-        couponsDAO.addCouponPurchase(1, 1);
+        assertTrue(couponsDAO.addCouponPurchase(1, 1));
 
         // Verify purchase was added
         Integer count = jdbcTemplate.queryForObject(
@@ -510,6 +531,55 @@ class CouponDAOImplTest {
         assertEquals(0, coupons.size());
     }
 
+    @Test
+    void testGetCustomerCoupons_ByCustomerId_ReturnsCouponsInSingleQuery() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+            1, "John", "Doe", "john@customer.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, 1, Category.SKYING.getId(), "Coupon1", "Description1",
+            Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 99.99, "image1.jpg");
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            2, 1, Category.SKY_DIVING.getId(), "Coupon2", "Description2",
+            Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 5, 199.99, "image2.jpg");
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            3, 1, Category.SKYING.getId(), "NotPurchased", "Description3",
+            Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 5, 9.99, "image3.jpg");
+        jdbcTemplate.update("INSERT INTO customers_vs_coupons (CUSTOMER_ID, COUPON_ID) VALUES (?, ?)", 1, 2);
+        jdbcTemplate.update("INSERT INTO customers_vs_coupons (CUSTOMER_ID, COUPON_ID) VALUES (?, ?)", 1, 1);
+
+        var coupons = couponsDAO.getCustomerCoupons(1);
+
+        assertEquals(2, coupons.size());
+        assertEquals("Coupon1", coupons.get(0).getTitle());
+        assertEquals(Category.SKYING, coupons.get(0).getCATEGORY());
+        assertEquals("Coupon2", coupons.get(1).getTitle());
+        assertEquals(199.99, coupons.get(1).getPrice());
+    }
+
+    @Test
+    void testGetCompanyCoupons_ByCompanyIdAndCategory_ReturnsMatchingCoupons() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@mail.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, 1, Category.SKY_DIVING.getId(), "Sky Diving Coupon", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 199.99, "skydiving.jpg");
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            2, 1, Category.SKYING.getId(), "Ski Coupon", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 49.99, "ski.jpg");
+
+        var byCategory = couponsDAO.getCompanyCoupons(1, Category.SKY_DIVING);
+        var byPrice = couponsDAO.getCompanyCoupons(1, 100.0);
+
+        assertEquals(1, byCategory.size());
+        assertEquals("Sky Diving Coupon", byCategory.get(0).getTitle());
+        assertEquals(1, byPrice.size());
+        assertEquals("Ski Coupon", byPrice.get(0).getTitle());
+    }
+
     @Test
     void testDeleteCouponPurchase_Success() throws Exception {
         // Insert company first (foreign key dependency)
@@ -537,4 +607,340 @@ class CouponDAOImplTest {
             Integer.class, 1, 1);
         assertEquals(0, count);
     }
+
+    private void insertSalesFixture() {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+            1, "John", "Doe", "john@customer.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+            2, "Jane", "Doe", "jane@customer.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, 1, Category.SKYING.getId(), "Ski Coupon", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "ski.jpg");
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            2, 1, Category.SKY_DIVING.getId(), "Dive Coupon", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 149.99, "dive.jpg");
+    }
+
+    @Test
+    void testAddCouponPurchase_RecordsTimestampAndUpdatesRollup() throws Exception {
+        insertSalesFixture();
+        LocalDate today = LocalDate.now();
+
+        couponsDAO.addCouponPurchase(1, 1);
+        couponsDAO.addCouponPurchase(2, 1);
+        couponsDAO.addCouponPurchase(1, 2);
+
+        Integer timestamped = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM customers_vs_coupons WHERE purchased_at IS NOT NULL", Integer.class);
+        assertEquals(3, timestamped);
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 1", Integer.class));
+
+        var daily = couponsDAO.getCompanyDailySales(1, today.minusDays(1), today);
+        assertEquals(2, daily.size());
+        assertEquals(new DailyCategorySales(today, Category.SKYING, 2), daily.get(0));
+        assertEquals(new DailyCategorySales(today, Category.SKY_DIVING, 1), daily.get(1));
+
+        Map<Category, Integer> byCategory = couponsDAO.getCompanySalesByCategory(1, today, today);
+        assertEquals(Map.of(Category.SKYING, 2, Category.SKY_DIVING, 1), byCategory);
+    }
+
+    @Test
+    void testDeleteCouponPurchase_DecrementsRollup() throws Exception {
+        insertSalesFixture();
+        LocalDate today = LocalDate.now();
+        couponsDAO.addCouponPurchase(1, 1);
+        couponsDAO.addCouponPurchase(2, 1);
+
+        couponsDAO.deleteCouponPurchase(1, 1);
+
+        assertEquals(Map.of(Category.SKYING, 1), couponsDAO.getCompanySalesByCategory(1, today, today));
+
+        couponsDAO.deleteCouponPurchase(2, 1);
+
+        assertTrue(couponsDAO.getCompanyDailySales(1, today, today).isEmpty());
+        assertTrue(couponsDAO.getCompanySalesByCategory(1, today, today).isEmpty());
+    }
+
+    @Test
+    void testDeleteCouponPurchase_WithoutTimestamp_LeavesRollupUntouched() throws Exception {
+        insertSalesFixture();
+        LocalDate today = LocalDate.now();
+        couponsDAO.addCouponPurchase(1, 1);
+        // Purchase recorded before timestamps existed
+        jdbcTemplate.update("INSERT INTO customers_vs_coupons (CUSTOMER_ID, COUPON_ID) VALUES (?, ?)", 2, 1);
+
+        couponsDAO.deleteCouponPurchase(2, 1);
+
+        assertEquals(Map.of(Category.SKYING, 1), couponsDAO.getCompanySalesByCategory(1, today, today));
+    }
+
+    @Test
+    void testAddCouponPurchase_DuplicatePurchase_RollsBackStockAndRollup() throws Exception {
+        insertSalesFixture();
+        LocalDate today = LocalDate.now();
+        couponsDAO.addCouponPurchase(1, 1);
+
+        assertThrows(java.sql.SQLException.class, () -> couponsDAO.addCouponPurchase(1, 1));
+
+        assertEquals(9, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 1", Integer.class));
+        assertEquals(Map.of(Category.SKYING, 1), couponsDAO.getCompanySalesByCategory(1, today, today));
+    }
+
+    @Test
+    void testAddCouponPurchase_OutOfStock_ReturnsFalseAndWritesNothing() throws Exception {
+        insertSalesFixture();
+        jdbcTemplate.update("UPDATE coupons SET amount = 0 WHERE id = 1");
+
+        assertFalse(couponsDAO.addCouponPurchase(1, 1));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 1", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM customers_vs_coupons WHERE coupon_id = 1", Integer.class));
+        assertTrue(couponsDAO.getCompanySalesByCategory(1, LocalDate.now(), LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    void testAddCouponPurchases_BuysWholeCartInOneTransaction() throws Exception {
+        insertSalesFixture();
+        LocalDate today = LocalDate.now();
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(2L, 1L, 2L));
+
+        assertEquals(List.of(new CartItemResult(1, CartItemResult.Status.PURCHASED),
+            new CartItemResult(2, CartItemResult.Status.PURCHASED)), results);
+        assertEquals(9, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 1", Integer.class));
+        assertEquals(9, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 2", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM customers_vs_coupons WHERE customer_id = 1 AND purchased_at IS NOT NULL", Integer.class));
+        assertEquals(Map.of(Category.SKYING, 1, Category.SKY_DIVING, 1), couponsDAO.getCompanySalesByCategory(1, today, today));
+        assertEquals(List.of("COUPON_PURCHASED", "COUPON_PURCHASED"), outboxEventTypes());
+    }
+
+    @Test
+    void testAddCouponPurchases_AddsToExistingRollupRow() throws Exception {
+        insertSalesFixture();
+        LocalDate today = LocalDate.now();
+        couponsDAO.addCouponPurchase(2, 1);
+
+        couponsDAO.addCouponPurchases(1, List.of(1L));
+
+        assertEquals(Map.of(Category.SKYING, 2), couponsDAO.getCompanySalesByCategory(1, today, today));
+    }
+
+    @Test
+    void testAddCouponPurchases_WhenOneAlreadyOwned_WritesNothing() throws Exception {
+        insertSalesFixture();
+        couponsDAO.addCouponPurchase(1, 1);
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(1L, 2L));
+
+        assertEquals(List.of(new CartItemResult(1, CartItemResult.Status.ALREADY_PURCHASED),
+            new CartItemResult(2, CartItemResult.Status.NOT_PURCHASED)), results);
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 2", Integer.class));
+        assertEquals(List.of("COUPON_PURCHASED"), outboxEventTypes());
+    }
+
+    @Test
+    void testAddCouponPurchases_WhenOneOutOfStockOrMissing_RollsBackOtherDecrements() throws Exception {
+        insertSalesFixture();
+        jdbcTemplate.update("UPDATE coupons SET amount = 0 WHERE id = 2");
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(1L, 2L, 999L));
+
+        assertEquals(List.of(new CartItemResult(1, CartItemResult.Status.NOT_PURCHASED),
+            new CartItemResult(2, CartItemResult.Status.OUT_OF_STOCK),
+            new CartItemResult(999, CartItemResult.Status.NOT_FOUND)), results);
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT amount FROM coupons WHERE id = 1", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers_vs_coupons", Integer.class));
+        assertTrue(couponsDAO.getCompanySalesByCategory(1, LocalDate.now(), LocalDate.now()).isEmpty());
+        assertTrue(outboxEventTypes().isEmpty());
+    }
+
+    @Test
+    void testAddCouponPurchases_WithEmptyCart_ReturnsEmpty() throws Exception {
+        assertTrue(couponsDAO.addCouponPurchases(1, List.of()).isEmpty());
+    }
+
+    @Test
+    void testGetCompanyDailySales_OutsideRange_ReturnsEmpty() throws Exception {
+        insertSalesFixture();
+        couponsDAO.addCouponPurchase(1, 1);
+        LocalDate lastWeek = LocalDate.now().minusDays(7);
+
+        assertTrue(couponsDAO.getCompanyDailySales(1, lastWeek.minusDays(7), lastWeek).isEmpty());
+        assertTrue(couponsDAO.getCompanyDailySales(2, LocalDate.now(), LocalDate.now()).isEmpty());
+    }
+
+    private List<String> outboxEventTypes() {
+        return jdbcTemplate.queryForList("SELECT event_type FROM outbox_events ORDER BY id", String.class);
+    }
+
+    @Test
+    void testAddCoupon_AssignsIdAndWritesCreatedEvent() throws Exception {
+        insertSalesFixture();
+        Coupon coupon = new Coupon(0, 1, Category.FANCY_RESTAURANT, "Dinner", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 5, 59.5, "dinner.jpg");
+
+        couponsDAO.addCoupon(coupon);
+
+        assertTrue(coupon.getId() > 0);
+        Map<String, Object> event = jdbcTemplate.queryForMap(
+            "SELECT aggregate_type, aggregate_id, event_type, payload, published_at FROM outbox_events");
+        assertEquals("coupon", event.get("AGGREGATE_TYPE"));
+        assertEquals(coupon.getId(), event.get("AGGREGATE_ID"));
+        assertEquals("COUPON_CREATED", event.get("EVENT_TYPE"));
+        assertEquals("{\"couponId\":" + coupon.getId() + ",\"companyId\":1,\"categoryId\":30,\"price\":59.5}",
+            event.get("PAYLOAD"));
+        assertNull(event.get("PUBLISHED_AT"));
+    }
+
+    @Test
+    void testAddCoupons_InsertsBatchWithAssignedIdsAndEvents() throws Exception {
+        insertSalesFixture();
+        Coupon first = new Coupon(0, 1, Category.FANCY_RESTAURANT, "Lunch", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 5, 29.5, "lunch.jpg");
+        Coupon second = new Coupon(0, 1, Category.SKYING, "Slopes", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 3, 120.0, "ski.jpg");
+
+        couponsDAO.addCoupons(List.of(first, second));
+
+        assertTrue(first.getId() < second.getId());
+        assertEquals("Lunch", couponsDAO.getCoupon(first.getId()).getTitle());
+        assertEquals("Slopes", couponsDAO.getCoupon(second.getId()).getTitle());
+        assertEquals(List.of(first.getId(), second.getId()), jdbcTemplate.queryForList(
+            "SELECT aggregate_id FROM outbox_events WHERE event_type = 'COUPON_CREATED' ORDER BY id", Long.class));
+    }
+
+    @Test
+    void testAddCoupons_EmptyList_DoesNothing() throws Exception {
+        couponsDAO.addCoupons(List.of());
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons", Integer.class));
+    }
+
+    @Test
+    void testUpdateAndDeleteCoupon_WriteEvents() throws Exception {
+        insertSalesFixture();
+        Coupon coupon = couponsDAO.getCoupon(1);
+        coupon.setPrice(79.99);
+
+        couponsDAO.updateCoupon(coupon);
+        couponsDAO.deleteCoupon(1);
+        // Nothing changed, so nothing to announce
+        couponsDAO.deleteCoupon(999);
+
+        assertEquals(List.of("COUPON_UPDATED", "COUPON_DELETED"), outboxEventTypes());
+    }
+
+    @Test
+    void testAddCouponPurchase_WritesPurchasedEvent() throws Exception {
+        insertSalesFixture();
+
+        couponsDAO.addCouponPurchase(2, 1);
+
+        String payload = jdbcTemplate.queryForObject(
+            "SELECT payload FROM outbox_events WHERE event_type = 'COUPON_PURCHASED'", String.class);
+        assertEquals("{\"couponId\":1,\"companyId\":1,\"categoryId\":10,\"price\":99.99,\"customerId\":2}", payload);
+    }
+
+    @Test
+    void testAddCouponPurchase_Failure_WritesNoEvent() throws Exception {
+        insertSalesFixture();
+        couponsDAO.addCouponPurchase(1, 1);
+
+        assertThrows(java.sql.SQLException.class, () -> couponsDAO.addCouponPurchase(1, 1));
+
+        assertEquals(List.of("COUPON_PURCHASED"), outboxEventTypes());
+    }
+
+    @Test
+    void testForEachCoupon_StreamsEveryRow() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO coupons (COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, Category.SKYING.getId(), "Ski Pass", "Description", Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 99.99, "image.jpg");
+
+        List<Coupon> coupons = new java.util.ArrayList<>();
+        couponsDAO.forEachCoupon(coupons::add);
+
+        assertEquals(1, coupons.size());
+        assertEquals("Ski Pass", coupons.get(0).getTitle());
+        assertEquals(Category.SKYING, coupons.get(0).getCATEGORY());
+        assertEquals(Date.valueOf("2025-12-31"), coupons.get(0).getEndDate());
+    }
+
+    @Test
+    void testScanCouponColumns_StreamsEveryRow() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO coupons (COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, Category.SKYING.getId(), "Ski Pass", "Description", Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 99.99, "image.jpg");
+        jdbcTemplate.update("INSERT INTO coupons (COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, Category.FANCY_RESTAURANT.getId(), "Dinner", "Description", Date.valueOf("2025-01-01"), Date.valueOf("2025-06-30"), 4, 50.0, "image.jpg");
+
+        List<String> rows = new java.util.ArrayList<>();
+        couponsDAO.scanCouponColumns((companyId, categoryId, endDateEpochDay, amount, price) ->
+            rows.add(companyId + "/" + categoryId + "/" + LocalDate.ofEpochDay(endDateEpochDay) + "/" + amount + "/" + price));
+
+        assertEquals(2, rows.size());
+        assertTrue(rows.contains("1/10/2025-12-31/10/99.99"));
+        assertTrue(rows.contains("1/30/2025-06-30/4/50.0"));
+    }
+
+    @Test
+    void testGetExpiredCouponIds_FiltersByEndDateAndIdRange() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        Date lastWeek = Date.valueOf(LocalDate.now().minusDays(7));
+        Date yesterday = Date.valueOf(LocalDate.now().minusDays(1));
+        Date nextWeek = Date.valueOf(LocalDate.now().plusDays(7));
+        String insert = "INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, 3, 1, Category.SKYING.getId(), "Expired 3", "D", lastWeek, yesterday, 1, 1.0, "");
+        jdbcTemplate.update(insert, 7, 1, Category.SKYING.getId(), "Valid 7", "D", lastWeek, nextWeek, 1, 1.0, "");
+        jdbcTemplate.update(insert, 12, 1, Category.SKYING.getId(), "Expired 12", "D", lastWeek, yesterday, 1, 1.0, "");
+
+        assertEquals(12, couponsDAO.getMaxCouponId());
+        assertEquals(List.of(3L, 12L), couponsDAO.getExpiredCouponIds(LocalDate.now(), 1, 12));
+        assertEquals(List.of(3L), couponsDAO.getExpiredCouponIds(LocalDate.now(), 1, 10));
+        assertEquals(List.of(), couponsDAO.getExpiredCouponIds(LocalDate.now(), 4, 11));
+    }
+
+    @Test
+    void testGetMaxCouponId_WhenEmpty_ReturnsZero() throws Exception {
+        assertEquals(0, couponsDAO.getMaxCouponId());
+    }
+
+    @Test
+    void testGetMostPurchasedCoupons_OrdersByPurchaseCount() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        String insertCoupon = "INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int id = 1; id <= 3; id++) {
+            jdbcTemplate.update(insertCoupon, id, 1, Category.SKYING.getId(), "Coupon " + id, "D",
+                Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31"), 10, 1.0, "");
+        }
+        for (int id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+                id, "First", "Last", "customer" + id + "@test.com", hashedPassword);
+        }
+        String insertPurchase = "INSERT INTO customers_vs_coupons (CUSTOMER_ID, COUPON_ID) VALUES (?, ?)";
+        jdbcTemplate.update(insertPurchase, 1, 2);
+        jdbcTemplate.update(insertPurchase, 2, 2);
+        jdbcTemplate.update(insertPurchase, 3, 2);
+        jdbcTemplate.update(insertPurchase, 1, 3);
+        jdbcTemplate.update(insertPurchase, 2, 3);
+        jdbcTemplate.update(insertPurchase, 1, 1);
+
+        Map<Long, Integer> purchases = couponsDAO.getMostPurchasedCoupons(10);
+        assertEquals(List.of(2L, 3L, 1L), List.copyOf(purchases.keySet()));
+        assertEquals(List.of(3, 2, 1), List.copyOf(purchases.values()));
+        assertEquals(List.of(2L, 3L), List.copyOf(couponsDAO.getMostPurchasedCoupons(2).keySet()));
+    }
 }
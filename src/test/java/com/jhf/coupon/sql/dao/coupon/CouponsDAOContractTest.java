@@ -0,0 +1,314 @@
+package com.jhf.coupon.sql.dao.coupon;
+
+import com.jhf.coupon.backend.beans.CartItemResult;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.DailyCategorySales;
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.events.CouponEventType;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every CouponsDAO engine must share: purchases, the sales rollup, events and the
+ * cascades of the foreign keys. Before each test, subclasses set couponsDAO to a DAO over a
+ * store holding only company COMPANY_ID and customers CUSTOMER_ID and 2, with no events.
+ */
+public abstract class CouponsDAOContractTest {
+
+    protected static final long COMPANY_ID = 1;
+    protected static final long CUSTOMER_ID = 1;
+
+    protected CouponsDAO couponsDAO;
+
+    /**
+     * @return Events not published yet, in the order they were written
+     */
+    protected abstract List<OutboxEvent> unpublishedEvents() throws Exception;
+
+    /**
+     * Deletes a company directly, bypassing the DAOs, with the cascades of the engine.
+     */
+    protected abstract void deleteCompany(long companyId) throws Exception;
+
+    protected Coupon coupon(String title, Category category, int amount, double price, LocalDate endDate) {
+        return new Coupon(0, COMPANY_ID, category, title, "Description",
+                Date.valueOf(LocalDate.now().minusDays(1)), Date.valueOf(endDate), amount, price, null);
+    }
+
+    protected Coupon addCoupon(String title, int amount) throws Exception {
+        Coupon coupon = coupon(title, Category.SKYING, amount, 99.99, LocalDate.now().plusDays(30));
+        couponsDAO.addCoupon(coupon);
+        return coupon;
+    }
+
+    @Test
+    void testAddCoupon_StoresCouponAndAppendsCreatedEvent() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 10);
+
+        assertTrue(coupon.getId() > 0);
+        assertEquals(coupon, couponsDAO.getCoupon(coupon.getId()));
+        assertTrue(couponsDAO.couponExists(coupon));
+        List<OutboxEvent> events = unpublishedEvents();
+        assertEquals(1, events.size());
+        assertEquals(CouponEventType.COUPON_CREATED.name(), events.get(0).getEventType());
+        assertEquals(coupon.getId(), events.get(0).getAggregateId());
+    }
+
+    @Test
+    void testAddCoupon_WithUnknownCompany_ThrowsForeignKeyViolation() throws Exception {
+        Coupon coupon = coupon("Orphan", Category.SKYING, 1, 10, LocalDate.now().plusDays(1));
+        coupon.setCompanyID(999);
+
+        SQLException exception = assertThrows(SQLException.class, () -> couponsDAO.addCoupon(coupon));
+
+        assertTrue(exception.getSQLState().startsWith("23"), "integrity constraint violation");
+        assertTrue(couponsDAO.getAllCoupons().isEmpty());
+        assertEquals(0, unpublishedEvents().size());
+    }
+
+    @Test
+    void testAddCoupons_AssignsIdsInOrder() throws Exception {
+        List<Coupon> batch = List.of(
+                coupon("One", Category.SKYING, 1, 10, LocalDate.now().plusDays(1)),
+                coupon("Two", Category.SKY_DIVING, 2, 20, LocalDate.now().plusDays(2)));
+
+        couponsDAO.addCoupons(batch);
+
+        assertTrue(batch.get(0).getId() < batch.get(1).getId());
+        assertEquals(2, couponsDAO.getCompanyCoupons(COMPANY_ID).size());
+        assertEquals(batch.get(1).getId(), couponsDAO.getMaxCouponId());
+        assertEquals(2, unpublishedEvents().size());
+    }
+
+    @Test
+    void testUpdateCoupon_ReplacesColumnsAndTitleIndex() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 10);
+        coupon.setTitle("Renamed");
+        coupon.setPrice(12.35);
+
+        couponsDAO.updateCoupon(coupon);
+
+        Coupon updated = couponsDAO.getCoupon(coupon.getId());
+        assertEquals("Renamed", updated.getTitle());
+        assertEquals(12.35, updated.getPrice());
+        assertFalse(couponsDAO.couponExists(coupon(
+                "Test Coupon", Category.SKYING, 1, 1, LocalDate.now())));
+    }
+
+    @Test
+    void testGetCoupon_WhenNotExists_ThrowsException() throws Exception {
+        assertThrows(CouponNotFoundException.class, () -> couponsDAO.getCoupon(999));
+    }
+
+    @Test
+    void testGetExistingCouponIds_ReturnsOnlyStoredIds() throws Exception {
+        Coupon first = addCoupon("First", 1);
+        Coupon second = addCoupon("Second", 1);
+
+        assertEquals(Set.of(first.getId(), second.getId()),
+                couponsDAO.getExistingCouponIds(List.of(second.getId(), first.getId(), 999L)));
+    }
+
+    @Test
+    void testGetCompanyCoupons_FiltersByCategoryAndMaxPrice() throws Exception {
+        couponsDAO.addCoupon(coupon("Cheap", Category.SKYING, 1, 10, LocalDate.now().plusDays(1)));
+        couponsDAO.addCoupon(coupon("Dear", Category.FANCY_RESTAURANT, 1, 100, LocalDate.now().plusDays(1)));
+
+        assertEquals(List.of("Dear"), titles(couponsDAO.getCompanyCoupons(COMPANY_ID, Category.FANCY_RESTAURANT)));
+        assertEquals(List.of("Cheap"), titles(couponsDAO.getCompanyCoupons(COMPANY_ID, 50.0)));
+        assertTrue(couponsDAO.getCompanyCoupons(2).isEmpty());
+    }
+
+    @Test
+    void testAddCouponPurchase_DecrementsStockAndCountsSale() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 2);
+
+        assertTrue(couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId()));
+
+        assertEquals(1, couponsDAO.getCoupon(coupon.getId()).getAmount());
+        assertTrue(couponsDAO.customerCouponPurchaseExists(CUSTOMER_ID, coupon.getId()));
+        assertEquals(List.of("Test Coupon"), titles(couponsDAO.getCustomerCoupons(CUSTOMER_ID)));
+        assertEquals(List.of(new DailyCategorySales(LocalDate.now(), Category.SKYING, 1)),
+                couponsDAO.getCompanyDailySales(COMPANY_ID, LocalDate.now(), LocalDate.now()));
+        assertEquals(CouponEventType.COUPON_PURCHASED.name(), unpublishedEvents().get(1).getEventType());
+    }
+
+    @Test
+    void testAddCouponPurchase_WhenOutOfStock_ReturnsFalse() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 1);
+        assertTrue(couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId()));
+
+        assertFalse(couponsDAO.addCouponPurchase(2, coupon.getId()));
+
+        assertEquals(0, couponsDAO.getCoupon(coupon.getId()).getAmount());
+        assertFalse(couponsDAO.customerCouponPurchaseExists(2, coupon.getId()));
+    }
+
+    @Test
+    void testAddCouponPurchase_WhenCouponMissing_ReturnsFalse() throws Exception {
+        assertFalse(couponsDAO.addCouponPurchase(CUSTOMER_ID, 999));
+    }
+
+    @Test
+    void testAddCouponPurchase_WhenAlreadyPurchased_ThrowsAndLeavesStockAndRollup() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId());
+
+        SQLException exception = assertThrows(SQLException.class,
+                () -> couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId()));
+
+        assertTrue(exception.getSQLState().startsWith("23"), "integrity constraint violation");
+        assertEquals(4, couponsDAO.getCoupon(coupon.getId()).getAmount());
+        assertEquals(Map.of(Category.SKYING, 1),
+                couponsDAO.getCompanySalesByCategory(COMPANY_ID, LocalDate.now(), LocalDate.now()));
+    }
+
+    @Test
+    void testAddCouponPurchase_WithUnknownCustomer_ThrowsForeignKeyViolation() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 5);
+
+        SQLException exception = assertThrows(SQLException.class,
+                () -> couponsDAO.addCouponPurchase(999, coupon.getId()));
+
+        assertTrue(exception.getSQLState().startsWith("23"), "integrity constraint violation");
+        assertEquals(5, couponsDAO.getCoupon(coupon.getId()).getAmount());
+    }
+
+    @Test
+    void testAddCouponPurchases_BuysWholeCart() throws Exception {
+        Coupon first = addCoupon("First", 5);
+        Coupon second = addCoupon("Second", 5);
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(CUSTOMER_ID, List.of(second.getId(), first.getId()));
+
+        assertEquals(List.of(new CartItemResult(first.getId(), CartItemResult.Status.PURCHASED),
+                new CartItemResult(second.getId(), CartItemResult.Status.PURCHASED)), results);
+        assertEquals(4, couponsDAO.getCoupon(first.getId()).getAmount());
+        assertEquals(2, couponsDAO.getCustomerCoupons(CUSTOMER_ID).size());
+        assertEquals(Map.of(Category.SKYING, 2),
+                couponsDAO.getCompanySalesByCategory(COMPANY_ID, LocalDate.now(), LocalDate.now()));
+        assertEquals(4, unpublishedEvents().size());
+    }
+
+    @Test
+    void testAddCouponPurchases_WhenOneAlreadyOwned_BuysNothing() throws Exception {
+        Coupon first = addCoupon("First", 5);
+        Coupon second = addCoupon("Second", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, first.getId());
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(CUSTOMER_ID, List.of(first.getId(), second.getId()));
+
+        assertEquals(List.of(new CartItemResult(first.getId(), CartItemResult.Status.ALREADY_PURCHASED),
+                new CartItemResult(second.getId(), CartItemResult.Status.NOT_PURCHASED)), results);
+        assertEquals(5, couponsDAO.getCoupon(second.getId()).getAmount());
+    }
+
+    @Test
+    void testAddCouponPurchases_WhenOneOutOfStockOrMissing_BuysNothing() throws Exception {
+        Coupon inStock = addCoupon("In Stock", 5);
+        Coupon soldOut = addCoupon("Sold Out", 0);
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(CUSTOMER_ID,
+                List.of(inStock.getId(), soldOut.getId(), Long.MAX_VALUE));
+
+        assertEquals(List.of(new CartItemResult(inStock.getId(), CartItemResult.Status.NOT_PURCHASED),
+                new CartItemResult(soldOut.getId(), CartItemResult.Status.OUT_OF_STOCK),
+                new CartItemResult(Long.MAX_VALUE, CartItemResult.Status.NOT_FOUND)), results);
+        assertEquals(5, couponsDAO.getCoupon(inStock.getId()).getAmount());
+        assertTrue(couponsDAO.getCustomerCoupons(CUSTOMER_ID).isEmpty());
+        assertEquals(2, unpublishedEvents().size());
+    }
+
+    @Test
+    void testDeleteCouponPurchase_RemovesSaleButKeepsStock() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId());
+
+        couponsDAO.deleteCouponPurchase(CUSTOMER_ID, coupon.getId());
+
+        assertFalse(couponsDAO.customerCouponPurchaseExists(CUSTOMER_ID, coupon.getId()));
+        assertEquals(4, couponsDAO.getCoupon(coupon.getId()).getAmount());
+        assertTrue(couponsDAO.getCompanyDailySales(COMPANY_ID, LocalDate.now(), LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    void testDeleteCoupon_DeletesPurchasesAndKeepsRollup() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId());
+
+        couponsDAO.deleteCoupon(coupon.getId());
+
+        assertThrows(CouponNotFoundException.class, () -> couponsDAO.getCoupon(coupon.getId()));
+        assertTrue(couponsDAO.getCustomerCoupons(CUSTOMER_ID).isEmpty());
+        assertEquals(Map.of(Category.SKYING, 1),
+                couponsDAO.getCompanySalesByCategory(COMPANY_ID, LocalDate.now(), LocalDate.now()));
+        assertEquals(CouponEventType.COUPON_DELETED.name(), unpublishedEvents().get(2).getEventType());
+    }
+
+    @Test
+    void testGetMostPurchasedCoupons_OrdersByPurchasesThenId() throws Exception {
+        Coupon first = addCoupon("First", 5);
+        Coupon second = addCoupon("Second", 5);
+        Coupon third = addCoupon("Third", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, second.getId());
+        couponsDAO.addCouponPurchase(2, second.getId());
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, first.getId());
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, third.getId());
+
+        LinkedHashMap<Long, Integer> top = couponsDAO.getMostPurchasedCoupons(2);
+
+        assertEquals(List.of(second.getId(), first.getId()), new ArrayList<>(top.keySet()));
+        assertEquals(2, top.get(second.getId()));
+    }
+
+    @Test
+    void testGetExpiredCouponIds_ReturnsIdsInRangeEndingBefore() throws Exception {
+        Coupon expired = coupon("Expired", Category.SKYING, 1, 10, LocalDate.now().minusDays(2));
+        Coupon current = coupon("Current", Category.SKYING, 1, 10, LocalDate.now().plusDays(2));
+        couponsDAO.addCoupons(List.of(expired, current));
+
+        assertEquals(List.of(expired.getId()),
+                couponsDAO.getExpiredCouponIds(LocalDate.now(), 0, Long.MAX_VALUE));
+        assertTrue(couponsDAO.getExpiredCouponIds(LocalDate.now(), expired.getId() + 1, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void testForEachCouponAndScanCouponColumns_VisitEveryCoupon() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 7);
+
+        List<Coupon> streamed = new ArrayList<>();
+        couponsDAO.forEachCoupon(streamed::add);
+        List<Integer> amounts = new ArrayList<>();
+        couponsDAO.scanCouponColumns((companyId, categoryId, endDateEpochDay, amount, price) -> amounts.add(amount));
+
+        assertEquals(List.of(coupon), streamed);
+        assertEquals(List.of(7), amounts);
+    }
+
+    @Test
+    void testDeleteCompany_DeletesCouponsPurchasesAndRollup() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId());
+
+        deleteCompany(COMPANY_ID);
+
+        assertTrue(couponsDAO.getAllCoupons().isEmpty());
+        assertTrue(couponsDAO.getCustomerCoupons(CUSTOMER_ID).isEmpty());
+        assertTrue(couponsDAO.getCompanySalesByCategory(COMPANY_ID, LocalDate.now(), LocalDate.now()).isEmpty());
+    }
+
+    private static List<String> titles(List<Coupon> coupons) {
+        return coupons.stream().map(Coupon::getTitle).toList();
+    }
+}
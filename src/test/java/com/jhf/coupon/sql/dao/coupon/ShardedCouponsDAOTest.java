@@ -0,0 +1,370 @@
+package com.jhf.coupon.sql.dao.coupon;
+
+import com.jhf.coupon.backend.beans.CartItemResult;
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.events.ShardOutboxRelays;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.sharding.ConsistentHashRing;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sharding over three H2 databases: the usual test database as the primary shard and two more
+ * in-memory databases. Each shard allocates coupon IDs from its own range (primary from 1,
+ * shard-1 from 1000001, shard-2 from 2000001), as deployments must.
+ */
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.shards[0].name=shard-1",
+        "sharding.shards[0].url=" + ShardedCouponsDAOTest.SHARD_1_URL,
+        "sharding.shards[0].maximum-pool-size=4",
+        "sharding.shards[1].name=shard-2",
+        "sharding.shards[1].url=" + ShardedCouponsDAOTest.SHARD_2_URL,
+        "sharding.shards[1].maximum-pool-size=4"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ShardedCouponsDAOTest {
+
+    static final String SHARD_1_URL = "jdbc:h2:mem:shard1;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String SHARD_2_URL = "jdbc:h2:mem:shard2;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final ConsistentHashRing RING =
+            new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), List.of(1, 1, 1), 160);
+
+    @Autowired
+    private CouponsDAO couponsDAO;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private ShardOutboxRelays shardOutboxRelays;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private List<JdbcTemplate> databases;
+
+    /** One company ID per shard, by shard index */
+    private final int[] companies = new int[3];
+
+    @BeforeEach
+    void setUp() {
+        List<JdbcTemplate> shards = new ArrayList<>();
+        for (String url : List.of(SHARD_1_URL, SHARD_2_URL)) {
+            DataSource shard = new DriverManagerDataSource(url, "sa", "");
+            new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql")).execute(shard);
+            shards.add(new JdbcTemplate(shard));
+        }
+        databases = List.of(primary, shards.get(0), shards.get(1));
+
+        for (JdbcTemplate db : databases) {
+            db.execute("DELETE FROM outbox_events");
+            db.execute("DELETE FROM customers_vs_coupons");
+            db.execute("DELETE FROM coupon_sales_daily");
+            db.execute("DELETE FROM coupons");
+        }
+        primary.execute("DELETE FROM companies");
+        primary.execute("DELETE FROM customers");
+
+        for (int shard = 0; shard < companies.length; shard++) {
+            int companyId = 1;
+            while (RING.shardFor(companyId) != shard) {
+                companyId++;
+            }
+            companies[shard] = companyId;
+            primary.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+                companyId, "Company" + companyId, "company" + companyId + "@company.com", "hash");
+        }
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        for (int customerId = 1; customerId <= 3; customerId++) {
+            primary.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+                customerId, "Customer", "Number" + customerId, "customer" + customerId + "@customer.com", hashedPassword);
+        }
+    }
+
+    private Coupon addCoupon(int shard, String title, String endDate) throws Exception {
+        Coupon coupon = new Coupon(0, companies[shard], Category.SKYING, title, "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf(endDate), 10, 99.99, "image.jpg");
+        couponsDAO.addCoupon(coupon);
+        return coupon;
+    }
+
+    private int couponCount(int shard) {
+        return databases.get(shard).queryForObject("SELECT COUNT(*) FROM coupons", Integer.class);
+    }
+
+    @Test
+    void testContext_UsesShardedDaoWithShardPools() {
+        assertInstanceOf(ShardedCouponsDAO.class, couponsDAO);
+        assertEquals(2, shardOutboxRelays.getRelays().size());
+        assertNotNull(meterRegistry.find("coupon_system_db_pool_active").tag("pool", "shard-shard-1").gauge());
+        assertNotNull(meterRegistry.find("coupon_system_db_pool_active").tag("pool", "shard-shard-2").gauge());
+    }
+
+    @Test
+    void testAddCoupon_StoredOnCompanyShardWithItsOutboxEvent() throws Exception {
+        Coupon coupon = addCoupon(2, "Shard Two Coupon", "2099-12-31");
+
+        assertEquals(coupon.getId(), databases.get(2).queryForObject("SELECT id FROM coupons", Long.class));
+        assertEquals(List.of(0, 0, 1), List.of(couponCount(0), couponCount(1), couponCount(2)));
+        assertEquals(1, databases.get(2).queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+        assertTrue(couponsDAO.couponExists(coupon));
+        assertEquals(List.of(coupon.getId()),
+            couponsDAO.getCompanyCoupons(companies[2]).stream().map(Coupon::getId).toList());
+        assertTrue(couponsDAO.getCompanyCoupons(companies[1]).isEmpty());
+    }
+
+    @Test
+    void testGetAllCoupons_MergesEveryShard() throws Exception {
+        for (int shard = 0; shard < 3; shard++) {
+            addCoupon(shard, "Coupon " + shard, "2099-12-31");
+        }
+
+        List<Coupon> coupons = couponsDAO.getAllCoupons();
+
+        assertEquals(3, coupons.size());
+        assertEquals(List.of(1, 1, 1), List.of(couponCount(0), couponCount(1), couponCount(2)));
+    }
+
+    @Test
+    void testAddCoupons_SplitsBatchByShard() throws Exception {
+        List<Coupon> coupons = new ArrayList<>();
+        for (int shard : new int[]{2, 0, 2, 1}) {
+            coupons.add(new Coupon(0, companies[shard], Category.SKYING, "Batch " + coupons.size(), "Description",
+                Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "image.jpg"));
+        }
+
+        couponsDAO.addCoupons(coupons);
+
+        assertEquals(List.of(1, 1, 2), List.of(couponCount(0), couponCount(1), couponCount(2)));
+        for (Coupon coupon : coupons) {
+            assertEquals(coupon.getTitle(), couponsDAO.getCoupon(coupon.getId()).getTitle());
+        }
+        assertEquals(2, databases.get(2).queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+    }
+
+    @Test
+    void testGetCoupon_FindsCouponOnAnyShard() throws Exception {
+        Coupon onPrimary = addCoupon(0, "Primary Coupon", "2099-12-31");
+        Coupon onShard = addCoupon(1, "Shard One Coupon", "2099-12-31");
+
+        assertEquals("Primary Coupon", couponsDAO.getCoupon(onPrimary.getId()).getTitle());
+        assertEquals("Shard One Coupon", couponsDAO.getCoupon(onShard.getId()).getTitle());
+        assertThrows(CouponNotFoundException.class, () -> couponsDAO.getCoupon(999));
+    }
+
+    @Test
+    void testPurchases_GoToCouponShardAndMergePerCustomer() throws Exception {
+        Coupon onPrimary = addCoupon(0, "Primary Coupon", "2099-12-31");
+        Coupon onShard = addCoupon(2, "Shard Two Coupon", "2099-12-31");
+
+        assertTrue(couponsDAO.addCouponPurchase(1, onShard.getId()));
+        assertTrue(couponsDAO.addCouponPurchase(1, onPrimary.getId()));
+
+        assertEquals(9, databases.get(2).queryForObject(
+            "SELECT amount FROM coupons WHERE id = ?", Integer.class, onShard.getId()));
+        assertEquals(List.of(onPrimary.getId(), onShard.getId()),
+            couponsDAO.getCustomerCoupons(1).stream().map(Coupon::getId).toList());
+        assertTrue(couponsDAO.customerCouponPurchaseExists(1, onShard.getId()));
+        assertFalse(couponsDAO.customerCouponPurchaseExists(2, onShard.getId()));
+
+        couponsDAO.deleteCouponPurchase(1, onShard.getId());
+
+        assertFalse(couponsDAO.customerCouponPurchaseExists(1, onShard.getId()));
+        assertEquals(List.of(onPrimary.getId()),
+            couponsDAO.getCustomerCoupons(1).stream().map(Coupon::getId).toList());
+    }
+
+    @Test
+    void testAddCouponPurchase_UnknownCoupon_ReturnsFalse() throws Exception {
+        assertFalse(couponsDAO.addCouponPurchase(1, 424242));
+    }
+
+    @Test
+    void testAddCouponPurchases_OneShard_BuysInOneTransactionThere() throws Exception {
+        Coupon first = addCoupon(2, "Shard Two Coupon", "2099-12-31");
+        Coupon second = addCoupon(2, "Another Shard Two Coupon", "2099-12-31");
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(second.getId(), first.getId()));
+
+        assertEquals(List.of(new CartItemResult(first.getId(), CartItemResult.Status.PURCHASED),
+            new CartItemResult(second.getId(), CartItemResult.Status.PURCHASED)), results);
+        assertEquals(2, databases.get(2).queryForObject(
+            "SELECT COUNT(*) FROM customers_vs_coupons WHERE customer_id = 1", Integer.class));
+    }
+
+    @Test
+    void testAddCouponPurchases_SpanningShards_RejectedWithoutWriting() throws Exception {
+        Coupon onPrimary = addCoupon(0, "Primary Coupon", "2099-12-31");
+        Coupon onShardTwo = addCoupon(2, "Shard Two Coupon", "2099-12-31");
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(onShardTwo.getId(), onPrimary.getId()));
+
+        assertEquals(List.of(new CartItemResult(onPrimary.getId(), CartItemResult.Status.CROSS_SHARD),
+            new CartItemResult(onShardTwo.getId(), CartItemResult.Status.CROSS_SHARD)), results);
+        for (JdbcTemplate db : databases) {
+            assertEquals(0, db.queryForObject("SELECT COUNT(*) FROM customers_vs_coupons", Integer.class));
+        }
+        assertEquals(10, primary.queryForObject(
+            "SELECT amount FROM coupons WHERE id = ?", Integer.class, onPrimary.getId()));
+    }
+
+    @Test
+    void testAddCouponPurchases_CouponsNotLocatedYet_LocatedTogether() throws Exception {
+        for (long id : new long[]{21, 22}) {
+            databases.get(1).update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, companies[1], Category.SKYING.getId(), "Inserted By Hand " + id, "Description",
+                Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "image.jpg");
+        }
+
+        assertEquals(Set.of(21L, 22L), couponsDAO.getExistingCouponIds(List.of(21L, 22L, 23L)));
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(21L, 22L));
+
+        assertTrue(results.stream().allMatch(CartItemResult::isPurchased));
+        assertEquals(9, databases.get(1).queryForObject("SELECT amount FROM coupons WHERE id = 21", Integer.class));
+    }
+
+    @Test
+    void testAddCouponPurchases_UnknownCoupon_WritesNothing() throws Exception {
+        Coupon onShard = addCoupon(1, "Shard One Coupon", "2099-12-31");
+
+        List<CartItemResult> results = couponsDAO.addCouponPurchases(1, List.of(onShard.getId(), 424242L));
+
+        assertEquals(List.of(new CartItemResult(424242, CartItemResult.Status.NOT_FOUND),
+            new CartItemResult(onShard.getId(), CartItemResult.Status.NOT_PURCHASED)), results);
+        assertEquals(10, databases.get(1).queryForObject(
+            "SELECT amount FROM coupons WHERE id = ?", Integer.class, onShard.getId()));
+    }
+
+    @Test
+    void testDeleteCoupon_RemovesFromItsShard() throws Exception {
+        Coupon onShard = addCoupon(1, "Shard One Coupon", "2099-12-31");
+        addCoupon(2, "Shard Two Coupon", "2099-12-31");
+
+        couponsDAO.deleteCoupon(onShard.getId());
+
+        assertEquals(List.of(0, 0, 1), List.of(couponCount(0), couponCount(1), couponCount(2)));
+    }
+
+    @Test
+    void testExpiredCouponIds_MergedInIdOrderWithMaxAcrossShards() throws Exception {
+        Coupon expiredOnPrimary = addCoupon(0, "Expired Primary", "2020-01-01");
+        addCoupon(1, "Active One", "2099-12-31");
+        Coupon expiredOnShard = addCoupon(2, "Expired Two", "2020-01-01");
+
+        assertEquals(expiredOnShard.getId(), couponsDAO.getMaxCouponId());
+        assertEquals(List.of(expiredOnPrimary.getId(), expiredOnShard.getId()),
+            couponsDAO.getExpiredCouponIds(LocalDate.now(), 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testGetMostPurchasedCoupons_MergesShardRankings() throws Exception {
+        Coupon popular = addCoupon(1, "Popular", "2099-12-31");
+        Coupon middle = addCoupon(0, "Middle", "2099-12-31");
+        Coupon quiet = addCoupon(2, "Quiet", "2099-12-31");
+        for (int customerId = 1; customerId <= 3; customerId++) {
+            couponsDAO.addCouponPurchase(customerId, popular.getId());
+        }
+        couponsDAO.addCouponPurchase(1, middle.getId());
+        couponsDAO.addCouponPurchase(2, middle.getId());
+        couponsDAO.addCouponPurchase(1, quiet.getId());
+
+        LinkedHashMap<Long, Integer> top = couponsDAO.getMostPurchasedCoupons(2);
+
+        assertEquals(List.of(popular.getId(), middle.getId()), List.copyOf(top.keySet()));
+        assertEquals(List.of(3, 2), List.copyOf(top.values()));
+    }
+
+    @Test
+    void testForEachCoupon_VisitsEveryShard() throws Exception {
+        for (int shard = 0; shard < 3; shard++) {
+            addCoupon(shard, "Coupon " + shard, "2099-12-31");
+        }
+        List<String> titles = new ArrayList<>();
+
+        couponsDAO.forEachCoupon(coupon -> titles.add(coupon.getTitle()));
+
+        assertEquals(List.of("Coupon 0", "Coupon 1", "Coupon 2"), titles);
+    }
+
+    @Test
+    void testSameCouponIdOnTwoShards_Throws() throws Exception {
+        for (int shard : new int[]{1, 2}) {
+            databases.get(shard).update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                5, companies[shard], Category.SKYING.getId(), "Duplicate", "Description",
+                Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "image.jpg");
+        }
+
+        assertThrows(IllegalStateException.class, () -> couponsDAO.addCouponPurchase(1, 5));
+    }
+
+    @Test
+    void testLookupsById_AfterAdd_QueryOnlyTheCouponShard() throws Exception {
+        Coupon onShard = addCoupon(1, "Shard One Coupon", "2099-12-31");
+        // A stray row with the same ID elsewhere would fail a probe of every shard
+        databases.get(2).update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            onShard.getId(), companies[2], Category.SKYING.getId(), "Stray", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "image.jpg");
+
+        assertEquals("Shard One Coupon", couponsDAO.getCoupon(onShard.getId()).getTitle());
+        assertFalse(couponsDAO.customerCouponPurchaseExists(1, onShard.getId()));
+        assertTrue(couponsDAO.addCouponPurchase(1, onShard.getId()));
+        assertTrue(couponsDAO.customerCouponPurchaseExists(1, onShard.getId()));
+        assertEquals(9, databases.get(1).queryForObject(
+            "SELECT amount FROM coupons WHERE id = ?", Integer.class, onShard.getId()));
+    }
+
+    @Test
+    void testGetCoupon_ProbedOnce_ThenServedFromFoundShard() throws Exception {
+        databases.get(2).update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            7, companies[2], Category.SKYING.getId(), "Inserted By Hand", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "image.jpg");
+
+        assertEquals("Inserted By Hand", couponsDAO.getCoupon(7).getTitle());
+        databases.get(1).update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            7, companies[1], Category.SKYING.getId(), "Stray", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "image.jpg");
+
+        assertEquals("Inserted By Hand", couponsDAO.getCoupon(7).getTitle());
+    }
+
+    @Test
+    void testDeleteCoupon_ForgetsItsShard() throws Exception {
+        Coupon onShard = addCoupon(1, "Shard One Coupon", "2099-12-31");
+
+        couponsDAO.deleteCoupon(onShard.getId());
+
+        assertThrows(CouponNotFoundException.class, () -> couponsDAO.getCoupon(onShard.getId()));
+        assertFalse(couponsDAO.addCouponPurchase(1, onShard.getId()));
+    }
+
+    @Test
+    void testConstructor_RingAndDaoCountMismatch_Throws() {
+        ExecutorService fanOut = Executors.newSingleThreadExecutor();
+
+        assertThrows(IllegalArgumentException.class, () -> new ShardedCouponsDAO(RING, List.of(couponsDAO), fanOut));
+        fanOut.shutdown();
+    }
+}
@@ -0,0 +1,109 @@
+package com.jhf.coupon.sql.dao.customer;
+
+import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every CustomerDAO engine must share. Subclasses set customerDAO to a DAO over an
+ * empty store before each test and seed rows the way their engine stores them.
+ */
+public abstract class CustomerDAOContractTest {
+
+    protected static final String HASH = PasswordHasher.hashPassword("password123");
+
+    protected CustomerDAO customerDAO;
+
+    /**
+     * Stores a customer "John Doe" with password "password123" directly, bypassing the DAO.
+     */
+    protected abstract void seedCustomer(long id, String email) throws Exception;
+
+    /**
+     * Stores a coupon of a new company and a purchase of it by a customer.
+     *
+     * @return The coupon's ID
+     */
+    protected abstract long seedPurchase(long customerId) throws Exception;
+
+    protected abstract boolean purchaseExists(long customerId, long couponId) throws Exception;
+
+    @Test
+    void testAddCustomer_SetsGeneratedIdAndHashesPassword() throws Exception {
+        Customer customer = new Customer(0, "John", "Doe", "john@mail.com", "password123");
+
+        customerDAO.addCustomer(customer);
+
+        assertTrue(customer.getId() > 0);
+        Customer stored = customerDAO.getCustomer(customer.getId());
+        assertEquals("John", stored.getFirstName());
+        assertEquals("Doe", stored.getLastName());
+        assertTrue(PasswordHasher.verifyPassword("password123", stored.getPassword()));
+        assertTrue(customerDAO.isCustomerExists("john@mail.com", "password123"));
+        assertFalse(customerDAO.isCustomerExists("john@mail.com", "wrongpass"));
+    }
+
+    @Test
+    void testUpdateCustomer_ReindexesEmail() throws Exception {
+        seedCustomer(1, "old@mail.com");
+
+        customerDAO.updateCustomer(new Customer(1, "Jane", "Roe", "new@mail.com", "newpassword"));
+
+        Customer updated = customerDAO.getCustomerByEmail("new@mail.com");
+        assertEquals("Jane", updated.getFirstName());
+        assertEquals("Roe", updated.getLastName());
+        assertFalse(customerDAO.isCustomerEmailExists("old@mail.com"));
+        assertTrue(PasswordHasher.verifyPassword("newpassword", updated.getPassword()));
+    }
+
+    @Test
+    void testDeleteCustomer_DeletesTheirPurchases() throws Exception {
+        seedCustomer(1, "john@mail.com");
+        long couponId = seedPurchase(1);
+
+        customerDAO.deleteCustomer(1);
+
+        assertThrows(CustomerNotFoundException.class, () -> customerDAO.getCustomer(1));
+        assertFalse(purchaseExists(1, couponId));
+    }
+
+    @Test
+    void testGetCustomerByEmail_WhenNotExists_ThrowsException() {
+        CustomerNotFoundException exception = assertThrows(CustomerNotFoundException.class,
+                () -> customerDAO.getCustomerByEmail("nobody@mail.com"));
+
+        assertTrue(exception.getMessage().contains("nobody@mail.com"));
+    }
+
+    @Test
+    void testGetAllCustomers_AndForEachCustomer_ReturnRowsInIdOrder() throws Exception {
+        seedCustomer(2, "b@mail.com");
+        seedCustomer(1, "a@mail.com");
+
+        List<Long> streamed = new ArrayList<>();
+        customerDAO.forEachCustomer(customer -> streamed.add(customer.getId()));
+
+        assertEquals(List.of(1L, 2L), customerDAO.getAllCustomers().stream().map(Customer::getId).toList());
+        assertEquals(List.of(1L, 2L), streamed);
+    }
+
+    @Test
+    void testAuthenticateAndTrack_LocksCustomerAfterMaxAttempts() throws Exception {
+        seedCustomer(1, "john@mail.com");
+
+        customerDAO.authenticateAndTrack("john@mail.com", "wrongpass", 2, 30);
+        LoginAttemptResult second = customerDAO.authenticateAndTrack("john@mail.com", "wrongpass", 2, 30);
+        LoginAttemptResult third = customerDAO.authenticateAndTrack("john@mail.com", "password123", 2, 30);
+
+        assertTrue(second.getLockoutStatus().isCurrentlyLocked());
+        assertEquals(LoginAttemptResult.Outcome.LOCKED, third.getOutcome());
+        assertEquals(1, customerDAO.countLockedAccounts(LocalDateTime.now()));
+    }
+}
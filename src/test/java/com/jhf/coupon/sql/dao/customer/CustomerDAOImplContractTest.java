@@ -0,0 +1,61 @@
+package com.jhf.coupon.sql.dao.customer;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CustomerDAOContractTest against the JDBC engine. Rows are seeded with SQL.
+ */
+@SpringBootTest
+class CustomerDAOImplContractTest extends CustomerDAOContractTest {
+
+    @Autowired
+    private CustomerDAO jdbcCustomerDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextCouponId = 100;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM customers_vs_coupons");
+        jdbcTemplate.execute("DELETE FROM coupons");
+        jdbcTemplate.execute("DELETE FROM companies");
+        jdbcTemplate.execute("DELETE FROM customers");
+        customerDAO = jdbcCustomerDAO;
+    }
+
+    @Override
+    protected void seedCustomer(long id, String email) {
+        jdbcTemplate.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+                id, "John", "Doe", email, HASH);
+    }
+
+    @Override
+    protected long seedPurchase(long customerId) {
+        long couponId = nextCouponId++;
+        jdbcTemplate.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+                couponId, "Acme " + couponId, "acme" + couponId + "@mail.com", HASH);
+        jdbcTemplate.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                couponId, couponId, Category.SKYING.getId(), "Ski", "Desc",
+                Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), 5, 10.0, null);
+        jdbcTemplate.update("INSERT INTO customers_vs_coupons (customer_id, coupon_id, purchased_at) VALUES (?, ?, ?)",
+                customerId, couponId, Timestamp.valueOf(LocalDateTime.now()));
+        return couponId;
+    }
+
+    @Override
+    protected boolean purchaseExists(long customerId, long couponId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers_vs_coupons WHERE customer_id = ? AND coupon_id = ?",
+                Integer.class, customerId, couponId) > 0;
+    }
+}
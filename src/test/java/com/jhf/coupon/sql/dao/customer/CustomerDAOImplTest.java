@@ -2,6 +2,7 @@ package com.jhf.coupon.sql.dao.customer;
 
 import com.jhf.coupon.backend.beans.AccountLockoutStatus;
 import com.jhf.coupon.backend.beans.Customer;
+import com.jhf.coupon.backend.beans.LoginAttemptResult;
 import com.jhf.coupon.backend.security.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,10 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -53,6 +56,17 @@ class CustomerDAOImplTest {
         assertFalse(result);
     }
 
+    @Test
+    void testAddCustomer_SetsGeneratedId() throws Exception {
+        Customer customer = new Customer(0, "John", "Doe", "john@mail.com", "password123");
+
+        customerDAO.addCustomer(customer);
+
+        assertTrue(customer.getId() > 0);
+        assertEquals(customer.getId(), jdbcTemplate.queryForObject(
+            "SELECT ID FROM customers WHERE EMAIL = ?", Long.class, "john@mail.com"));
+    }
+
     @Test
     void testAddCustomer_Success() throws Exception {
         // Create test customer
@@ -92,9 +106,9 @@ class CustomerDAOImplTest {
             "John", "Doe", "john@mail.com", hashedPassword);
 
         // Get the customer ID
-        Integer customerId = jdbcTemplate.queryForObject(
+        Long customerId = jdbcTemplate.queryForObject(
             "SELECT ID FROM customers WHERE EMAIL = ?",
-            Integer.class,
+            Long.class,
             "john@mail.com"
         );
 
@@ -136,9 +150,9 @@ class CustomerDAOImplTest {
             "John", "Doe", "john@mail.com", hashedPassword);
 
         // Get the customer ID
-        Integer customerId = jdbcTemplate.queryForObject(
+        Long customerId = jdbcTemplate.queryForObject(
             "SELECT ID FROM customers WHERE EMAIL = ?",
-            Integer.class,
+            Long.class,
             "john@mail.com"
         );
 
@@ -162,9 +176,9 @@ class CustomerDAOImplTest {
             "John", "Doe", "john@mail.com", hashedPassword);
 
         // Get the customer ID
-        Integer customerId = jdbcTemplate.queryForObject(
+        Long customerId = jdbcTemplate.queryForObject(
             "SELECT ID FROM customers WHERE EMAIL = ?",
-            Integer.class,
+            Long.class,
             "john@mail.com"
         );
 
@@ -210,6 +224,20 @@ class CustomerDAOImplTest {
         assertEquals("Jane", customers.get(1).getFirstName());
     }
 
+    @Test
+    void testForEachCustomer_StreamsEveryRow() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("pass1");
+        jdbcTemplate.update("INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", hashedPassword);
+        jdbcTemplate.update("INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            "Jane", "Smith", "jane@mail.com", hashedPassword);
+
+        List<String> emails = new ArrayList<>();
+        customerDAO.forEachCustomer(customer -> emails.add(customer.getEmail()));
+
+        assertEquals(List.of("john@mail.com", "jane@mail.com"), emails);
+    }
+
     @Test
     void testGetAllCustomers_ReturnsEmptyList_WhenNoCustomers() throws Exception {
         // Get all customers when table is empty
@@ -421,4 +449,202 @@ class CustomerDAOImplTest {
         );
         assertNull(lockedUntilAfter);
     }
+
+    @Test
+    void testAuthenticateAndTrack_WhenNotExists_ReturnsNotFound() throws Exception {
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("nobody@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.NOT_FOUND, result.getOutcome());
+        assertNull(result.getLockoutStatus());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithValidPassword_ReturnsSuccessAndResetsCounter() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS) VALUES (?, ?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", hashedPassword, 2
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("john@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertTrue(result.isAuthenticated());
+        Integer failedAttempts = jdbcTemplate.queryForObject(
+            "SELECT FAILED_LOGIN_ATTEMPTS FROM customers WHERE EMAIL = ?", Integer.class, "john@mail.com");
+        assertEquals(0, failedAttempts);
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithWrongPassword_ReturnsUpdatedStatus() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS) VALUES (?, ?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", hashedPassword, 2
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("john@mail.com", "wrongpass", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.FAILURE, result.getOutcome());
+        AccountLockoutStatus status = result.getLockoutStatus();
+        assertNotNull(status);
+        assertEquals(3, status.getFailedLoginAttempts());
+        assertFalse(status.isAccountLocked());
+        assertNotNull(status.getLastFailedLogin());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_ReachingMaxAttempts_LocksAccountInSameUpdate() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS) VALUES (?, ?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", hashedPassword, 2
+        );
+
+        customerDAO.authenticateAndTrack("john@mail.com", "wrongpass", 3, 30);
+        AccountLockoutStatus status = customerDAO.getAccountLockoutStatus("john@mail.com");
+
+        assertTrue(status.isAccountLocked());
+        assertNotNull(status.getLockedUntil());
+        assertTrue(status.getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLocked_ReturnsLockedWithoutWriting() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(30);
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", hashedPassword, 5, true, lockedUntil
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("john@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.LOCKED, result.getOutcome());
+        Integer failedAttempts = jdbcTemplate.queryForObject(
+            "SELECT FAILED_LOGIN_ATTEMPTS FROM customers WHERE EMAIL = ?", Integer.class, "john@mail.com");
+        assertEquals(5, failedAttempts);
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLockoutExpired_RestartsCounterOnFailure() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        LocalDateTime lockedUntil = LocalDateTime.now().minusMinutes(1);
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", hashedPassword, 5, true, lockedUntil
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("john@mail.com", "wrongpass", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.FAILURE, result.getOutcome());
+        assertEquals(1, result.getLockoutStatus().getFailedLoginAttempts());
+        assertFalse(result.getLockoutStatus().isAccountLocked());
+        assertNull(result.getLockoutStatus().getLockedUntil());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithLowerCostHash_ReturnsHashToUpgrade() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", weakHash
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("john@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertEquals(weakHash, result.getPasswordHashToUpgrade());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WithCurrentCostHash_ReturnsNoHashToUpgrade() throws Exception {
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", PasswordHasher.hashPassword("password123")
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("john@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        assertNull(result.getPasswordHashToUpgrade());
+    }
+
+    @Test
+    void testUpdatePasswordHash_WhenHashMatches_ReplacesHash() throws Exception {
+        String oldHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", oldHash
+        );
+        Long id = jdbcTemplate.queryForObject("SELECT ID FROM customers WHERE EMAIL = ?", Long.class, "john@mail.com");
+        String newHash = PasswordHasher.hashPassword("password123");
+
+        boolean updated = customerDAO.updatePasswordHash(id, oldHash, newHash);
+
+        assertTrue(updated);
+        String storedHash = jdbcTemplate.queryForObject(
+            "SELECT PASSWORD FROM customers WHERE ID = ?", String.class, id);
+        assertEquals(newHash, storedHash);
+    }
+
+    @Test
+    void testUpdatePasswordHash_WhenHashChanged_DoesNotOverwrite() throws Exception {
+        String currentHash = PasswordHasher.hashPassword("newPassword456");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            "John", "Doe", "john@mail.com", currentHash
+        );
+        Long id = jdbcTemplate.queryForObject("SELECT ID FROM customers WHERE EMAIL = ?", Long.class, "john@mail.com");
+
+        boolean updated = customerDAO.updatePasswordHash(id, "$2a$04$staleHashThatNoLongerMatchesTheStoredValue1234567",
+                PasswordHasher.hashPassword("password123"));
+
+        assertFalse(updated);
+        String storedHash = jdbcTemplate.queryForObject(
+            "SELECT PASSWORD FROM customers WHERE ID = ?", String.class, id);
+        assertEquals(currentHash, storedHash);
+    }
+
+    @Test
+    void testUnlockExpiredAccounts_UnlocksOnlyExpiredTimedLockouts() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password");
+        String insert = "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, "Ex", "Pired", "expired@mail.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update(insert, "Ac", "Tive", "active@mail.com", hashedPassword, 5, true, LocalDateTime.now().plusMinutes(30));
+
+        int unlocked = customerDAO.unlockExpiredAccounts(LocalDateTime.now());
+
+        assertEquals(1, unlocked);
+        assertFalse(customerDAO.getAccountLockoutStatus("expired@mail.com").isAccountLocked());
+        assertTrue(customerDAO.getAccountLockoutStatus("active@mail.com").isAccountLocked());
+    }
+
+    @Test
+    void testAuthenticateAndTrack_WhenLockoutExpired_SucceedsWithoutUnlockWrite() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        jdbcTemplate.update(
+            "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            "Test", "User", "customer@mail.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1)
+        );
+
+        LoginAttemptResult result = customerDAO.authenticateAndTrack("customer@mail.com", "password123", 5, 30);
+
+        assertEquals(LoginAttemptResult.Outcome.SUCCESS, result.getOutcome());
+        Boolean stillFlagged = jdbcTemplate.queryForObject(
+            "SELECT ACCOUNT_LOCKED FROM customers WHERE EMAIL = ?", Boolean.class, "customer@mail.com");
+        assertEquals(Boolean.TRUE, stillFlagged, "expired lockouts are cleared by the sweep job, not by login");
+    }
+
+    @Test
+    void testCountLockedAccounts_CountsActiveAndPermanentLockouts() throws Exception {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        String insert = "INSERT INTO customers (FIRST_NAME, LAST_NAME, EMAIL, PASSWORD, FAILED_LOGIN_ATTEMPTS, ACCOUNT_LOCKED, LOCKED_UNTIL) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, "Test", "User", "expired@mail.com", hashedPassword, 5, true, LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update(insert, "Test", "User", "active@mail.com", hashedPassword, 5, true, LocalDateTime.now().plusMinutes(30));
+        jdbcTemplate.update(insert, "Test", "User", "permanent@mail.com", hashedPassword, 5, true, null);
+        jdbcTemplate.update(insert, "Test", "User", "open@mail.com", hashedPassword, 0, false, null);
+
+        assertEquals(2, customerDAO.countLockedAccounts(LocalDateTime.now()));
+    }
 }
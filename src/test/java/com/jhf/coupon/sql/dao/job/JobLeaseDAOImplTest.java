@@ -0,0 +1,76 @@
+package com.jhf.coupon.sql.dao.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JobLeaseDAOImplTest {
+
+    @Autowired
+    private JobLeaseDAO jobLeaseDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM job_leases");
+    }
+
+    @Test
+    void testTryAcquire_FirstCallerGetsNewLease() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "instance-a", now, now.plusMinutes(5)));
+        assertFalse(jobLeaseDAO.tryAcquire("job", 0, "instance-b", now, now.plusMinutes(5)));
+
+        String owner = jdbcTemplate.queryForObject(
+            "SELECT owner FROM job_leases WHERE job_name = ? AND shard = ?", String.class, "job", 0);
+        assertEquals("instance-a", owner);
+    }
+
+    @Test
+    void testTryAcquire_HolderCanRenew() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        jobLeaseDAO.tryAcquire("job", 0, "instance-a", now, now.plusMinutes(5));
+
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "instance-a", now.plusMinutes(1), now.plusMinutes(6)));
+    }
+
+    @Test
+    void testTryAcquire_ExpiredLeaseCanBeTakenOver() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        jobLeaseDAO.tryAcquire("job", 0, "instance-a", now, now.plusMinutes(5));
+
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "instance-b", now.plusMinutes(6), now.plusMinutes(11)));
+        assertFalse(jobLeaseDAO.tryAcquire("job", 0, "instance-a", now.plusMinutes(7), now.plusMinutes(12)));
+    }
+
+    @Test
+    void testTryAcquire_ShardsAreIndependent() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "instance-a", now, now.plusMinutes(5)));
+        assertTrue(jobLeaseDAO.tryAcquire("job", 1, "instance-b", now, now.plusMinutes(5)));
+        assertTrue(jobLeaseDAO.tryAcquire("other-job", 0, "instance-b", now, now.plusMinutes(5)));
+    }
+
+    @Test
+    void testRecordSuccess_StoresLastSuccess() throws Exception {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        jobLeaseDAO.tryAcquire("job", 0, "instance-a", now, now.plusMinutes(5));
+
+        assertNull(jobLeaseDAO.getLastSuccess("job", 0));
+        jobLeaseDAO.recordSuccess("job", 0, now);
+
+        assertEquals(now, jobLeaseDAO.getLastSuccess("job", 0));
+        assertNull(jobLeaseDAO.getLastSuccess("unknown", 0));
+    }
+}
@@ -0,0 +1,148 @@
+package com.jhf.coupon.sql.dao.outbox;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxDAOImplTest {
+
+    @Autowired
+    private OutboxDAO outboxDAO;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanOutbox() {
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+    }
+
+    private void append(int aggregateId, String eventType) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            OutboxWriter.append(connection, "coupon", aggregateId, eventType, "{\"couponId\":" + aggregateId + "}");
+        }
+    }
+
+    @Test
+    void testFetchUnpublished_ReturnsOldestFirstUpToLimit() throws Exception {
+        append(1, "COUPON_CREATED");
+        append(2, "COUPON_CREATED");
+        append(1, "COUPON_PURCHASED");
+
+        List<OutboxEvent> events = outboxDAO.fetchUnpublished(2);
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).getId() < events.get(1).getId());
+        assertEquals("coupon", events.get(0).getAggregateType());
+        assertEquals(1, events.get(0).getAggregateId());
+        assertEquals("COUPON_CREATED", events.get(0).getEventType());
+        assertEquals("{\"couponId\":1}", events.get(0).getPayload());
+        assertNotNull(events.get(0).getCreatedAt());
+    }
+
+    @Test
+    void testMarkPublished_RemovesOnlyThoseEvents() throws Exception {
+        append(1, "COUPON_CREATED");
+        append(2, "COUPON_CREATED");
+        append(3, "COUPON_CREATED");
+        List<OutboxEvent> events = outboxDAO.fetchUnpublished(10);
+
+        outboxDAO.markPublished(List.of(events.get(0).getId(), events.get(2).getId()), LocalDateTime.now());
+        outboxDAO.markPublished(List.of(), LocalDateTime.now());
+
+        List<OutboxEvent> remaining = outboxDAO.fetchUnpublished(10);
+        assertEquals(1, remaining.size());
+        assertEquals(2, remaining.get(0).getAggregateId());
+        assertEquals(1, outboxDAO.countUnpublished());
+    }
+
+    @Test
+    void testAppend_RolledBackWithCallerTransaction() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            OutboxWriter.append(connection, "coupon", 1, "COUPON_CREATED", "{}");
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+
+        assertEquals(0, outboxDAO.countUnpublished());
+    }
+
+    @Test
+    void testDeletePublishedBefore_KeepsUnpublishedAndRecentEvents() throws Exception {
+        append(1, "COUPON_CREATED");
+        append(2, "COUPON_CREATED");
+        append(3, "COUPON_CREATED");
+        List<OutboxEvent> events = outboxDAO.fetchUnpublished(10);
+        LocalDateTime now = LocalDateTime.now();
+        outboxDAO.markPublished(List.of(events.get(0).getId()), now.minusDays(2));
+        outboxDAO.markPublished(List.of(events.get(1).getId()), now);
+
+        int deleted = outboxDAO.deletePublishedBefore(now.minusDays(1));
+
+        assertEquals(1, deleted);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+        assertEquals(1, outboxDAO.countUnpublished());
+    }
+
+    @Test
+    void testPublishUnpublished_ConcurrentRelaysClaimDisjointBatches() throws Exception {
+        append(1, "COUPON_CREATED");
+        append(2, "COUPON_CREATED");
+        append(3, "COUPON_CREATED");
+        List<OutboxEvent> concurrent = new ArrayList<>();
+
+        // A second relay claims while the first still holds its batch
+        List<OutboxEvent> first = outboxDAO.publishUnpublished(2, events -> concurrent.addAll(
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return outboxDAO.publishUnpublished(10, claimed -> { });
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }).orTimeout(10, TimeUnit.SECONDS).join()));
+
+        // PostgreSQL hands the second relay event 3; H2 also skips it while the first batch is
+        // locked, so only the absence of overlap is asserted here
+        assertEquals(List.of(1L, 2L), first.stream().map(OutboxEvent::getAggregateId).toList());
+        assertTrue(concurrent.stream().noneMatch(event -> event.getAggregateId() <= 2));
+        List<OutboxEvent> rest = outboxDAO.publishUnpublished(10, claimed -> { });
+        assertEquals(3, first.size() + concurrent.size() + rest.size());
+        assertEquals(0, outboxDAO.countUnpublished());
+    }
+
+    @Test
+    void testPublishUnpublished_PublisherFails_LeavesEventsUnpublished() throws Exception {
+        append(1, "COUPON_CREATED");
+        append(2, "COUPON_CREATED");
+
+        assertThrows(IllegalStateException.class, () -> outboxDAO.publishUnpublished(10, events -> {
+            throw new IllegalStateException("bus closed");
+        }));
+
+        assertEquals(2, outboxDAO.countUnpublished());
+        assertEquals(2, outboxDAO.publishUnpublished(10, events -> { }).size());
+        assertEquals(0, outboxDAO.countUnpublished());
+    }
+}
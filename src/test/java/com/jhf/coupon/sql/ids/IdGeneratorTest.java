@@ -0,0 +1,122 @@
+package com.jhf.coupon.sql.ids;
+
+import com.jhf.coupon.sql.memory.InMemoryJobLeaseDAO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void testNextId_EncodesTimestampAndNode() {
+        IdGenerator generator = new IdGenerator(5, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertEquals(Instant.ofEpochMilli(NOW), IdGenerator.timestampOf(id));
+        assertEquals(5, IdGenerator.nodeOf(id));
+    }
+
+    @Test
+    void testNextId_IncreasesWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGenerator generator = new IdGenerator(1, clock::get);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+        clock.incrementAndGet();
+        long third = generator.nextId();
+
+        assertTrue(first < second);
+        assertTrue(second < third);
+    }
+
+    @Test
+    void testNextId_SequenceExhausted_WaitsForNextMillisecond() {
+        AtomicLong reads = new AtomicLong();
+        // The clock advances after 200 reads, well after the 128 IDs of the first millisecond
+        IdGenerator generator = new IdGenerator(0, () -> reads.incrementAndGet() > 200 ? NOW + 1 : NOW);
+
+        long[] ids = generator.nextIds(129);
+
+        assertEquals(Instant.ofEpochMilli(NOW), IdGenerator.timestampOf(ids[127]));
+        assertEquals(Instant.ofEpochMilli(NOW + 1), IdGenerator.timestampOf(ids[128]));
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i - 1] < ids[i]);
+        }
+    }
+
+    @Test
+    void testNextId_ClockGoesBack_KeepsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGenerator generator = new IdGenerator(0, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+        assertEquals(Instant.ofEpochMilli(NOW), IdGenerator.timestampOf(after));
+    }
+
+    @Test
+    void testNextId_DifferentNodes_NeverCollide() {
+        IdGenerator node1 = new IdGenerator(1, () -> NOW);
+        IdGenerator node2 = new IdGenerator(2, () -> NOW);
+        Set<Long> ids = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            ids.add(node1.nextId());
+            ids.add(node2.nextId());
+        }
+
+        assertEquals(200, ids.size());
+    }
+
+    @Test
+    void testNextId_FitsJavaScriptNumbers() {
+        long farFuture = Instant.parse("2090-01-01T00:00:00Z").toEpochMilli();
+        IdGenerator generator = new IdGenerator(IdGenerator.MAX_NODE_ID, () -> farFuture);
+
+        assertTrue(generator.nextId() < (1L << 53));
+    }
+
+    @Test
+    void testConstructor_NodeOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(IdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void testConstructor_NoConfiguredNode_UsesLeasedNode() throws Exception {
+        NodeIdLease lease = new NodeIdLease(new InMemoryJobLeaseDAO(), "instance-a", Duration.ofMinutes(10),
+                LocalDateTime::now);
+
+        IdGenerator generator = new IdGenerator("", lease);
+        assertThrows(IllegalStateException.class, generator::nextId);
+        generator.afterSingletonsInstantiated();
+
+        assertEquals(lease.getNodeId(), IdGenerator.nodeOf(generator.nextId()));
+    }
+
+    @Test
+    void testConstructor_ConfiguredNode_DoesNotLease() throws Exception {
+        NodeIdLease lease = new NodeIdLease(new InMemoryJobLeaseDAO(), "instance-a", Duration.ofMinutes(10),
+                LocalDateTime::now);
+
+        IdGenerator generator = new IdGenerator("7", lease);
+        generator.afterSingletonsInstantiated();
+
+        assertEquals(7, IdGenerator.nodeOf(generator.nextId()));
+        assertThrows(IllegalStateException.class, lease::getNodeId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.jhf.coupon.sql.ids;
+
+import com.jhf.coupon.sql.memory.InMemoryJobLeaseDAO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeIdLeaseTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    private final InMemoryJobLeaseDAO jobLeaseDAO = new InMemoryJobLeaseDAO();
+    private final AtomicReference<LocalDateTime> clock = new AtomicReference<>(LocalDateTime.of(2026, 3, 1, 12, 0));
+
+    private NodeIdLease lease(String owner) {
+        return new NodeIdLease(jobLeaseDAO, owner, LEASE, clock::get);
+    }
+
+    @Test
+    void testClaim_InstancesGetDistinctNodes() throws Exception {
+        Set<Integer> nodes = new HashSet<>();
+        for (int i = 0; i <= IdGenerator.MAX_NODE_ID; i++) {
+            NodeIdLease lease = lease("instance-" + i);
+            assertEquals(lease.claim(), lease.getNodeId());
+            nodes.add(lease.getNodeId());
+        }
+
+        assertEquals(IdGenerator.MAX_NODE_ID + 1, nodes.size());
+        assertThrows(IllegalStateException.class, () -> lease("one-too-many").claim());
+    }
+
+    @Test
+    void testClaim_Again_RenewsHeldNode() throws Exception {
+        NodeIdLease lease = lease("instance-a");
+        int node = lease.claim();
+
+        clock.set(clock.get().plus(LEASE).minusMinutes(1));
+
+        assertEquals(node, lease.claim());
+        assertFalse(jobLeaseDAO.tryAcquire(NodeIdLease.LEASE_NAME, node, "instance-b", clock.get().plusMinutes(2),
+                clock.get().plus(LEASE)));
+    }
+
+    @Test
+    void testRenew_NodeTakenAfterExpiry_ClaimsAnotherNode() throws Exception {
+        NodeIdLease lease = lease("instance-a");
+        int node = lease.claim();
+        clock.set(clock.get().plus(LEASE).plusMinutes(1));
+        assertTrue(jobLeaseDAO.tryAcquire(NodeIdLease.LEASE_NAME, node, "instance-b", clock.get(),
+                clock.get().plus(LEASE)));
+
+        lease.renew();
+
+        assertNotEquals(node, lease.getNodeId());
+    }
+
+    @Test
+    void testGetNodeId_WithoutValidLease_Throws() throws Exception {
+        assertThrows(IllegalStateException.class, () -> lease("instance-a").getNodeId());
+
+        NodeIdLease expiring = new NodeIdLease(jobLeaseDAO, "instance-b", Duration.ofMillis(1), clock::get);
+        expiring.claim();
+        Thread.sleep(5);
+
+        assertThrows(IllegalStateException.class, expiring::getNodeId);
+    }
+}
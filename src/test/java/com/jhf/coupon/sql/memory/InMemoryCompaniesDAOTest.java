@@ -0,0 +1,45 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.sql.dao.company.CompaniesDAOContractTest;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * CompaniesDAOContractTest against the in-memory engine. Rows are seeded through the store.
+ */
+class InMemoryCompaniesDAOTest extends CompaniesDAOContractTest {
+
+    @TempDir
+    Path directory;
+
+    private MemoryStore store;
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = MemoryStore.open(directory, false);
+        companiesDAO = new InMemoryCompaniesDAO(store, new IdGenerator(0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Override
+    protected long seedCompany(String name, String email, String hash, int failedLoginAttempts,
+                               boolean accountLocked, LocalDateTime lockedUntil) throws Exception {
+        AccountRow row = new AccountRow(nextId++, name, null, email, hash, failedLoginAttempts, accountLocked,
+                lockedUntil, null);
+        store.exclusive(() -> {
+            store.putCompany(row);
+            return null;
+        });
+        return row.getId();
+    }
+}
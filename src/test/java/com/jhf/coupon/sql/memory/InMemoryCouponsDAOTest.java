@@ -0,0 +1,87 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAOContractTest;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CouponsDAOContractTest against the in-memory engine, plus what it copies from the PostgreSQL
+ * schema that the H2 test schema does not model: NUMERIC(10, 2) prices and the SQLStates of
+ * constraint violations.
+ */
+class InMemoryCouponsDAOTest extends CouponsDAOContractTest {
+
+    @TempDir
+    Path directory;
+
+    private MemoryStore store;
+    private InMemoryOutboxDAO outbox;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = MemoryStore.open(directory, false);
+        outbox = new InMemoryOutboxDAO();
+        couponsDAO = new InMemoryCouponsDAO(store, outbox, new IdGenerator(0));
+        store.exclusive(() -> {
+            store.putCompany(AccountRow.of(COMPANY_ID, "Acme", null, "acme@mail.com", "hash"));
+            store.putCustomer(AccountRow.of(CUSTOMER_ID, "John", "Doe", "john@mail.com", "hash"));
+            store.putCustomer(AccountRow.of(2, "Jane", "Roe", "jane@mail.com", "hash"));
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Override
+    protected List<OutboxEvent> unpublishedEvents() {
+        return outbox.fetchUnpublished(Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected void deleteCompany(long companyId) throws Exception {
+        store.exclusive(() -> {
+            store.deleteCompany(companyId);
+            return null;
+        });
+    }
+
+    @Test
+    void testUpdateCoupon_RoundsPriceToCents() throws Exception {
+        Coupon coupon = addCoupon("Test Coupon", 10);
+        coupon.setPrice(12.345);
+
+        couponsDAO.updateCoupon(coupon);
+
+        assertEquals(12.35, couponsDAO.getCoupon(coupon.getId()).getPrice());
+    }
+
+    @Test
+    void testConstraintViolations_ReportPostgresSqlStates() throws Exception {
+        Coupon orphan = coupon("Orphan", Category.SKYING, 1, 10, LocalDate.now().plusDays(1));
+        orphan.setCompanyID(999);
+        Coupon coupon = addCoupon("Test Coupon", 5);
+        couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId());
+
+        assertEquals("23503", assertThrows(SQLException.class, () -> couponsDAO.addCoupon(orphan)).getSQLState());
+        assertEquals("23503", assertThrows(SQLException.class,
+                () -> couponsDAO.addCouponPurchase(999, coupon.getId())).getSQLState());
+        assertEquals("23505", assertThrows(SQLException.class,
+                () -> couponsDAO.addCouponPurchase(CUSTOMER_ID, coupon.getId())).getSQLState());
+    }
+}
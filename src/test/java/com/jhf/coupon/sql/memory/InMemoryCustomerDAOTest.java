@@ -0,0 +1,75 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.sql.dao.customer.CustomerDAOContractTest;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CustomerDAOContractTest against the in-memory engine. Rows are seeded through the store.
+ */
+class InMemoryCustomerDAOTest extends CustomerDAOContractTest {
+
+    @TempDir
+    Path directory;
+
+    private MemoryStore store;
+    private long nextCouponId = 100;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = MemoryStore.open(directory, false);
+        customerDAO = new InMemoryCustomerDAO(store, new IdGenerator(0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Override
+    protected void seedCustomer(long id, String email) throws Exception {
+        store.exclusive(() -> {
+            store.putCustomer(AccountRow.of(id, "John", "Doe", email, HASH));
+            return null;
+        });
+    }
+
+    @Override
+    protected long seedPurchase(long customerId) throws Exception {
+        long couponId = nextCouponId++;
+        store.exclusive(() -> {
+            store.putCompany(AccountRow.of(couponId, "Acme " + couponId, null, "acme" + couponId + "@mail.com", HASH));
+            store.putCoupon(new CouponRow(couponId, couponId, Category.SKYING, "Ski",
+                    "Desc", LocalDate.now(), LocalDate.now().plusDays(30), 5, 10.0, null));
+            store.addPurchase(customerId, couponId, LocalDateTime.now());
+            return null;
+        });
+        return couponId;
+    }
+
+    @Override
+    protected boolean purchaseExists(long customerId, long couponId) {
+        return store.purchases().contains(customerId, couponId);
+    }
+
+    @Test
+    void testDeleteCustomer_RemovesThemFromCouponBuyerIndex() throws Exception {
+        seedCustomer(1, "john@mail.com");
+        long couponId = seedPurchase(1);
+
+        customerDAO.deleteCustomer(1);
+
+        assertTrue(store.purchases().customersByCoupon().getOrDefault(couponId, Set.of()).isEmpty());
+    }
+}
@@ -0,0 +1,41 @@
+package com.jhf.coupon.sql.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryJobLeaseDAOTest {
+
+    private final InMemoryJobLeaseDAO jobLeaseDAO = new InMemoryJobLeaseDAO();
+    private final LocalDateTime now = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    @Test
+    void testTryAcquire_WhenLeaseHeldByOther_ReturnsFalse() {
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "a", now, now.plusMinutes(5)));
+
+        assertFalse(jobLeaseDAO.tryAcquire("job", 0, "b", now.plusMinutes(1), now.plusMinutes(6)));
+        assertTrue(jobLeaseDAO.tryAcquire("job", 1, "b", now.plusMinutes(1), now.plusMinutes(6)));
+    }
+
+    @Test
+    void testTryAcquire_WhenLeaseExpiredOrOwned_ReturnsTrue() {
+        jobLeaseDAO.tryAcquire("job", 0, "a", now, now.plusMinutes(5));
+
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "a", now.plusMinutes(1), now.plusMinutes(6)));
+        assertTrue(jobLeaseDAO.tryAcquire("job", 0, "b", now.plusMinutes(7), now.plusMinutes(12)));
+        assertFalse(jobLeaseDAO.tryAcquire("job", 0, "a", now.plusMinutes(8), now.plusMinutes(13)));
+    }
+
+    @Test
+    void testRecordSuccess_KeptAcrossOwners() {
+        assertNull(jobLeaseDAO.getLastSuccess("job", 0));
+        jobLeaseDAO.tryAcquire("job", 0, "a", now, now.plusMinutes(5));
+
+        jobLeaseDAO.recordSuccess("job", 0, now.plusMinutes(1));
+        jobLeaseDAO.tryAcquire("job", 0, "b", now.plusMinutes(10), now.plusMinutes(15));
+
+        assertEquals(now.plusMinutes(1), jobLeaseDAO.getLastSuccess("job", 0));
+    }
+}
@@ -0,0 +1,73 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.beans.OutboxEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOutboxDAOTest {
+
+    private final InMemoryOutboxDAO outboxDAO = new InMemoryOutboxDAO();
+
+    @Test
+    void testFetchUnpublished_ReturnsOldestFirstUpToLimit() {
+        outboxDAO.append("coupon", 1, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 2, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 3, "COUPON_CREATED", "{}");
+
+        List<OutboxEvent> events = outboxDAO.fetchUnpublished(2);
+
+        assertEquals(List.of(1L, 2L), events.stream().map(OutboxEvent::getAggregateId).toList());
+        assertEquals(3, outboxDAO.countUnpublished());
+    }
+
+    @Test
+    void testMarkPublished_RemovesFromUnpublished() {
+        outboxDAO.append("coupon", 1, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 2, "COUPON_CREATED", "{}");
+        long firstId = outboxDAO.fetchUnpublished(1).get(0).getId();
+
+        outboxDAO.markPublished(List.of(firstId), LocalDateTime.now());
+
+        assertEquals(1, outboxDAO.countUnpublished());
+        assertEquals(2, outboxDAO.fetchUnpublished(10).get(0).getAggregateId());
+    }
+
+    @Test
+    void testPublishUnpublished_HandsOverAndMarksBatch() throws Exception {
+        outboxDAO.append("coupon", 1, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 2, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 3, "COUPON_CREATED", "{}");
+        List<Long> handed = new ArrayList<>();
+
+        List<OutboxEvent> claimed = outboxDAO.publishUnpublished(2,
+                events -> events.forEach(event -> handed.add(event.getAggregateId())));
+
+        assertEquals(List.of(1L, 2L), handed);
+        assertEquals(2, claimed.size());
+        assertEquals(1, outboxDAO.countUnpublished());
+        assertThrows(InterruptedException.class, () -> outboxDAO.publishUnpublished(10, events -> {
+            throw new InterruptedException();
+        }));
+        assertEquals(1, outboxDAO.countUnpublished());
+    }
+
+    @Test
+    void testDeletePublishedBefore_DeletesOnlyOldPublishedEvents() {
+        outboxDAO.append("coupon", 1, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 2, "COUPON_CREATED", "{}");
+        outboxDAO.append("coupon", 3, "COUPON_CREATED", "{}");
+        List<OutboxEvent> events = outboxDAO.fetchUnpublished(10);
+        LocalDateTime now = LocalDateTime.now();
+        outboxDAO.markPublished(List.of(events.get(0).getId()), now.minusDays(2));
+        outboxDAO.markPublished(List.of(events.get(1).getId()), now);
+
+        assertEquals(1, outboxDAO.deletePublishedBefore(now.minusDays(1)));
+        assertEquals(0, outboxDAO.deletePublishedBefore(now.minusDays(1)));
+        assertEquals(1, outboxDAO.countUnpublished());
+    }
+}
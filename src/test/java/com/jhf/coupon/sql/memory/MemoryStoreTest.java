@@ -0,0 +1,223 @@
+package com.jhf.coupon.sql.memory;
+
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.sql.ids.IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static CouponRow couponRow(long id, long companyId, int amount) {
+        return new CouponRow(id, companyId, Category.SKYING, "Coupon " + id, "Desc",
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31), amount, 10.0, null);
+    }
+
+    private static void seed(MemoryStore store, int coupons, int amount) throws Exception {
+        store.exclusive(() -> {
+            store.putCompany(AccountRow.of(1, "Acme", null, "acme@mail.com", "hash"));
+            store.putCustomer(AccountRow.of(1, "John", "Doe", "john@mail.com", "hash"));
+            for (int i = 1; i <= coupons; i++) {
+                store.putCoupon(couponRow(100 + i, 1, amount));
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void testOpen_ReplaysWriteAheadLog() throws Exception {
+        LocalDateTime purchasedAt = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_000_000);
+        try (MemoryStore store = MemoryStore.open(directory, true)) {
+            seed(store, 2, 5);
+            store.shared(101, () -> {
+                store.addPurchase(1, 101, purchasedAt);
+                return null;
+            });
+            store.exclusive(() -> {
+                store.putCompany(store.companies().get(1).withName("Renamed").withFailedLoginAttempts(3));
+                store.deleteCoupon(102);
+                return null;
+            });
+        }
+
+        try (MemoryStore store = MemoryStore.open(directory, true)) {
+            assertEquals("Renamed", store.companies().get(1).getName());
+            assertEquals(3, store.companies().get(1).getFailedLoginAttempts());
+            assertTrue(store.companies().nameExists("Renamed"));
+            assertEquals(4, store.coupons().get(101).getAmount());
+            assertNull(store.coupons().get(102));
+            assertEquals(purchasedAt, store.purchases().ofCustomer(1).get(101L));
+            assertEquals(1, store.sales().range(1, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1))
+                    .get(LocalDate.of(2026, 3, 1)).get(Category.SKYING));
+        }
+    }
+
+    @Test
+    void testSnapshot_RecoversWithLaterChangesAndDropsOldSegments() throws Exception {
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            seed(store, 3, 5);
+            assertEquals(5, store.snapshot());
+            assertEquals(1, WriteAheadLog.segments(directory).size());
+            store.exclusive(() -> {
+                store.putCoupon(couponRow(200, 1, 1));
+                store.deleteCoupon(101);
+                return null;
+            });
+        }
+
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            assertEquals(3, store.coupons().size());
+            assertNull(store.coupons().get(101));
+            assertNotNull(store.coupons().get(200));
+            assertEquals("acme@mail.com", store.companies().firstByEmail("acme@mail.com").getEmail());
+        }
+    }
+
+    @Test
+    void testOpen_ReplaysCascadesOfDeletedCompany() throws Exception {
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            seed(store, 2, 5);
+            store.shared(101, () -> {
+                store.addPurchase(1, 101, LocalDateTime.now());
+                return null;
+            });
+            store.exclusive(() -> {
+                store.deleteCompany(1);
+                return null;
+            });
+        }
+
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            assertEquals(0, store.companies().size());
+            assertEquals(0, store.coupons().size());
+            assertEquals(0, store.purchases().size());
+            assertTrue(store.purchases().ofCustomer(1).isEmpty());
+            assertNotNull(store.customers().get(1));
+        }
+    }
+
+    @Test
+    void testConcurrentPurchasesOfLastUnits_NeverOversell() throws Exception {
+        int buyers = 32;
+        int stock = 5;
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            seed(store, 1, stock);
+            store.exclusive(() -> {
+                for (int i = 2; i <= buyers; i++) {
+                    store.putCustomer(AccountRow.of(i, "Buyer", null, "buyer" + i + "@mail.com", "hash"));
+                }
+                return null;
+            });
+            InMemoryCouponsDAO couponsDAO = new InMemoryCouponsDAO(store, new InMemoryOutboxDAO(),
+                    new IdGenerator(0));
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger succeeded = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 1; i <= buyers; i++) {
+                long customerId = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (couponsDAO.addCouponPurchase(customerId, 101)) {
+                        succeeded.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            assertEquals(stock, succeeded.get());
+            assertEquals(0, store.coupons().get(101).getAmount());
+            assertEquals(stock, store.purchases().size());
+        }
+    }
+
+    @Test
+    void testOpen_ReplaysCartPurchasesAsOneRecord() throws Exception {
+        LocalDateTime purchasedAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            seed(store, 3, 5);
+            long[] cart = {101, 103};
+            store.sharedAll(cart, () -> {
+                store.addPurchases(1, cart, purchasedAt);
+                return null;
+            });
+        }
+
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            assertEquals(List.of(101L, 103L), new ArrayList<>(store.purchases().ofCustomer(1).keySet()));
+            assertEquals(4, store.coupons().get(103).getAmount());
+            assertEquals(5, store.coupons().get(102).getAmount());
+            assertEquals(2, store.sales().range(1, purchasedAt.toLocalDate(), purchasedAt.toLocalDate())
+                    .get(purchasedAt.toLocalDate()).get(Category.SKYING));
+        }
+    }
+
+    @Test
+    void testConcurrentCartsOverSameCoupons_DoNotDeadlock() throws Exception {
+        int coupons = 20;
+        int buyers = 16;
+        try (MemoryStore store = MemoryStore.open(directory, false)) {
+            seed(store, coupons, buyers);
+            store.exclusive(() -> {
+                for (int i = 2; i <= buyers; i++) {
+                    store.putCustomer(AccountRow.of(i, "Buyer", null, "buyer" + i + "@mail.com", "hash"));
+                }
+                return null;
+            });
+            InMemoryCouponsDAO couponsDAO = new InMemoryCouponsDAO(store, new InMemoryOutboxDAO(), new IdGenerator(0));
+            List<Long> cart = new ArrayList<>();
+            for (long id = 101; id <= 100 + coupons; id++) {
+                cart.add(id);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 1; i <= buyers; i++) {
+                long customerId = i;
+                List<Long> order = new ArrayList<>(cart);
+                if (i % 2 == 0) {
+                    Collections.reverse(order);
+                }
+                futures.add(executor.submit(() -> couponsDAO.addCouponPurchases(customerId, order)));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(coupons * buyers, store.purchases().size());
+            assertEquals(0, store.coupons().get(101).getAmount());
+        }
+    }
+
+    @Test
+    void testStripeOf_StaysWithinStripes() {
+        for (long key = -1000; key < 1000; key++) {
+            int stripe = MemoryStore.stripeOf(key);
+            assertTrue(stripe >= 0 && stripe < MemoryStore.LOCK_STRIPES);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.jhf.coupon.sql.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] record(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String> replay(Path file) throws Exception {
+        List<String> records = new ArrayList<>();
+        WriteAheadLog.replay(file, in -> records.add(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    @Test
+    void testReplay_ReturnsRecordsInOrder() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, true)) {
+            wal.append(record("one"));
+            wal.appendAll(List.of(record("two"), record("three")));
+        }
+
+        assertEquals(List.of("one", "two", "three"), replay(WriteAheadLog.segmentPath(directory, 1)));
+    }
+
+    @Test
+    void testReplay_TruncatesTornTail() throws Exception {
+        Path file = WriteAheadLog.segmentPath(directory, 1);
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            wal.append(record("one"));
+            wal.append(record("two"));
+        }
+        long intactSize = Files.size(file);
+        // A frame header announcing 100 bytes, followed by only 3 of them
+        Files.write(file, new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 'a', 'b', 'c'}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("one", "two"), replay(file));
+        assertEquals(intactSize, Files.size(file));
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            wal.append(record("three"));
+        }
+        assertEquals(List.of("one", "two", "three"), replay(file));
+    }
+
+    @Test
+    void testReplay_StopsAtCorruptedRecord() throws Exception {
+        Path file = WriteAheadLog.segmentPath(directory, 1);
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            wal.append(record("one"));
+            wal.append(record("two"));
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertEquals(List.of("one"), replay(file));
+    }
+
+    @Test
+    void testRotateAndDeleteSegmentsBefore() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            wal.append(record("one"));
+            assertEquals(2, wal.rotate());
+            wal.append(record("two"));
+            assertEquals(List.of(1L, 2L), WriteAheadLog.segments(directory));
+
+            wal.deleteSegmentsBefore(2);
+
+            assertEquals(List.of(2L), WriteAheadLog.segments(directory));
+            assertEquals(2, wal.getSegment());
+        }
+        assertEquals(List.of("two"), replay(WriteAheadLog.segmentPath(directory, 2)));
+    }
+
+    @Test
+    void testAppend_RejectsEmptyRecord() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, false)) {
+            assertThrows(IllegalArgumentException.class, () -> wal.append(new byte[0]));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.jhf.coupon.sql.routing;
+
+import com.jhf.coupon.backend.beans.Coupon;
+import com.jhf.coupon.backend.couponCategory.Category;
+import com.jhf.coupon.backend.facade.CustomerFacade;
+import com.jhf.coupon.backend.security.PasswordHasher;
+import com.jhf.coupon.sql.dao.coupon.CouponsDAO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing against two H2 databases: the usual test database as primary and a second
+ * in-memory database as replica. Nothing replicates between them, so a row's location
+ * shows which pool served a query.
+ */
+@SpringBootTest(properties = {
+        "datasource.replica.url=jdbc:h2:mem:replicadb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "datasource.replica.hikari.maximum-pool-size=4"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private CouponsDAO couponsDAO;
+
+    @Autowired
+    private CustomerFacade customerFacade;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.execute("DELETE FROM outbox_events");
+            db.execute("DELETE FROM customers_vs_coupons");
+            db.execute("DELETE FROM coupon_sales_daily");
+            db.execute("DELETE FROM coupons");
+            db.execute("DELETE FROM companies");
+            db.execute("DELETE FROM customers");
+            insertFixture(db);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void insertFixture(JdbcTemplate db) {
+        String hashedPassword = PasswordHasher.hashPassword("password123");
+        db.update("INSERT INTO companies (ID, NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?)",
+            1, "TestCompany", "test@company.com", hashedPassword);
+        db.update("INSERT INTO customers (ID, FIRST_NAME, LAST_NAME, EMAIL, PASSWORD) VALUES (?, ?, ?, ?, ?)",
+            1, "John", "Doe", "john@customer.com", hashedPassword);
+        db.update("INSERT INTO coupons (ID, COMPANY_ID, category_id, TITLE, DESCRIPTION, START_DATE, END_DATE, AMOUNT, PRICE, IMAGE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            1, 1, Category.SKYING.getId(), "Ski Coupon", "Description",
+            Date.valueOf("2025-01-01"), Date.valueOf("2099-12-31"), 10, 99.99, "ski.jpg");
+    }
+
+    @Test
+    void testDataSourceIsRoutingWithBothPools() {
+        assertInstanceOf(ReadWriteRoutingDataSource.class, dataSource);
+        assertNotNull(meterRegistry.find("coupon_system_db_pool_utilization").tag("pool", "replica").gauge());
+        assertNotNull(meterRegistry.find("coupon_system_db_pool_pending").tag("pool", "primary").gauge());
+    }
+
+    @Test
+    void testReadOnlyQuery_ReadsFromReplica() throws Exception {
+        replica.update("UPDATE coupons SET title = 'Replica Title' WHERE id = 1");
+
+        List<Coupon> catalog = couponsDAO.getAllCoupons();
+
+        assertEquals(1, catalog.size());
+        assertEquals("Replica Title", catalog.get(0).getTitle());
+        assertTrue(meterRegistry.get("coupon_system_datasource_connections_total").tag("pool", "replica")
+            .counter().count() > 0);
+    }
+
+    @Test
+    void testUnannotatedQueriesAndWrites_UsePrimary() throws Exception {
+        replica.update("UPDATE coupons SET title = 'Replica Title' WHERE id = 1");
+
+        assertEquals("Ski Coupon", couponsDAO.getCoupon(1).getTitle());
+
+        couponsDAO.addCouponPurchase(1, 1);
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM customers_vs_coupons", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM customers_vs_coupons", Integer.class));
+    }
+
+    @Test
+    void testPurchase_ThenOwnCouponsReadFromPrimary() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "john@customer.com", null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+
+        customerFacade.purchaseCoupon(1, 1);
+
+        // The replica has not seen the purchase, but the buyer reads their own write
+        assertEquals(1, couponsDAO.getCustomerCoupons(1).size());
+
+        // Other users keep reading the (lagging) replica
+        SecurityContextHolder.clearContext();
+        assertTrue(couponsDAO.getCustomerCoupons(1).isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package com.jhf.coupon.sql.routing;
+
+import com.jhf.coupon.backend.metrics.PrometheusMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ReplicaRoutingInterceptor - route selection, nesting and read-your-writes
+ */
+class ReplicaRoutingInterceptorTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000L);
+    private SimpleMeterRegistry registry;
+    private RoutedService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), 100, nanos::get);
+        ProxyFactory factory = new ProxyFactory(new RoutedService());
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new DefaultPointcutAdvisor(new ReplicaRoutingInterceptor.RoutedMethodPointcut(),
+                new ReplicaRoutingInterceptor(tracker, new PrometheusMetrics(registry))));
+        service = (RoutedService) factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+    }
+
+    @Test
+    void testRoutesByAnnotation() {
+        assertEquals(DataSourceRoute.REPLICA, service.readOnlyQuery());
+        assertEquals(DataSourceRoute.REPLICA, service.readOnlyTransaction());
+        assertEquals(DataSourceRoute.PRIMARY, service.write(null));
+        assertNull(service.unannotated());
+        assertNull(DataSourceRouteContext.current());
+    }
+
+    @Test
+    void testReadsInsideWriteStayOnPrimary() {
+        assertEquals(DataSourceRoute.PRIMARY, service.write(service));
+    }
+
+    @Test
+    void testWriteInsideReadGoesToPrimary() {
+        assertEquals(List.of(DataSourceRoute.REPLICA, DataSourceRoute.PRIMARY, DataSourceRoute.REPLICA),
+                service.readThenWrite(service));
+    }
+
+    @Test
+    void testReadYourWrites_StickyForWriterUntilWindowPasses() {
+        authenticate("john@customer.com");
+        service.write(null);
+
+        assertEquals(DataSourceRoute.PRIMARY, service.readOnlyQuery());
+        assertEquals(1.0, registry.get("coupon_system_datasource_sticky_reads_total").counter().count());
+
+        authenticate("jane@customer.com");
+        assertEquals(DataSourceRoute.REPLICA, service.readOnlyQuery());
+
+        authenticate("john@customer.com");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertEquals(DataSourceRoute.REPLICA, service.readOnlyQuery());
+    }
+
+    @Test
+    void testFailedWrite_DoesNotMakeUserSticky() {
+        authenticate("john@customer.com");
+
+        assertThrows(IllegalStateException.class, () -> service.failingWrite());
+
+        assertEquals(DataSourceRoute.REPLICA, service.readOnlyQuery());
+    }
+
+    static class RoutedService {
+        @ReadOnlyQuery
+        public DataSourceRoute readOnlyQuery() {
+            return DataSourceRouteContext.current();
+        }
+
+        @Transactional(readOnly = true)
+        public DataSourceRoute readOnlyTransaction() {
+            return DataSourceRouteContext.current();
+        }
+
+        @Transactional
+        public DataSourceRoute write(RoutedService self) {
+            return self == null ? DataSourceRouteContext.current() : self.readOnlyQuery();
+        }
+
+        @Transactional
+        public void failingWrite() {
+            throw new IllegalStateException("rolled back");
+        }
+
+        @ReadOnlyQuery
+        public List<DataSourceRoute> readThenWrite(RoutedService self) {
+            return List.of(DataSourceRouteContext.current(), self.write(null), DataSourceRouteContext.current());
+        }
+
+        public DataSourceRoute unannotated() {
+            return DataSourceRouteContext.current();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.jhf.coupon.sql.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int COMPANIES = 30_000;
+
+    private static ConsistentHashRing ring(List<String> shards) {
+        return new ConsistentHashRing(shards, shards.stream().map(shard -> 1).toList(), 160);
+    }
+
+    private static String owner(ConsistentHashRing ring, int companyId) {
+        return ring.getShards().get(ring.shardFor(companyId));
+    }
+
+    @Test
+    void testShardFor_DependsOnNamesNotOrder() {
+        ConsistentHashRing ring = ring(List.of("a", "b", "c"));
+        ConsistentHashRing reordered = ring(List.of("c", "a", "b"));
+
+        for (int companyId = 1; companyId <= COMPANIES; companyId++) {
+            assertEquals(owner(ring, companyId), owner(reordered, companyId));
+        }
+    }
+
+    @Test
+    void testShardFor_SpreadsCompaniesEvenly() {
+        ConsistentHashRing ring = ring(List.of("a", "b", "c"));
+        int[] counts = new int[3];
+
+        for (int companyId = 1; companyId <= COMPANIES; companyId++) {
+            counts[ring.shardFor(companyId)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > COMPANIES / 4 && count < COMPANIES * 5 / 12, "unbalanced: " + count);
+        }
+    }
+
+    @Test
+    void testAddingShard_OnlyMovesCompaniesToTheNewShard() {
+        ConsistentHashRing before = ring(List.of("a", "b", "c"));
+        ConsistentHashRing after = ring(List.of("a", "b", "c", "d"));
+        int moved = 0;
+
+        for (int companyId = 1; companyId <= COMPANIES; companyId++) {
+            if (!owner(before, companyId).equals(owner(after, companyId))) {
+                assertEquals("d", owner(after, companyId));
+                moved++;
+            }
+        }
+
+        assertTrue(moved > COMPANIES * 0.18 && moved < COMPANIES * 0.32, "moved: " + moved);
+    }
+
+    @Test
+    void testRemovingShard_OnlyMovesItsCompanies() {
+        ConsistentHashRing before = ring(List.of("a", "b", "c", "d"));
+        ConsistentHashRing after = ring(List.of("a", "b", "d"));
+
+        for (int companyId = 1; companyId <= COMPANIES; companyId++) {
+            if (!owner(before, companyId).equals("c")) {
+                assertEquals(owner(before, companyId), owner(after, companyId));
+            }
+        }
+    }
+
+    @Test
+    void testWeights_ScaleShareOfCompanies() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("big", "small"), List.of(3, 1), 160);
+        int big = 0;
+
+        for (int companyId = 1; companyId <= COMPANIES; companyId++) {
+            if (ring.shardFor(companyId) == 0) {
+                big++;
+            }
+        }
+
+        assertTrue(big > COMPANIES * 0.65 && big < COMPANIES * 0.85, "big shard: " + big);
+    }
+
+    @Test
+    void testSingleShard_OwnsEverything() {
+        ConsistentHashRing ring = ring(List.of("only"));
+
+        assertEquals(0, ring.shardFor(Integer.MIN_VALUE));
+        assertEquals(0, ring.shardFor(0));
+        assertEquals(0, ring.shardFor(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testInvalidConfiguration_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> ring(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> ring(List.of("a", "a")));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsistentHashRing(List.of("a", "b"), List.of(1), 160));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsistentHashRing(List.of("a", "b"), List.of(1, 0), 160));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsistentHashRing(List.of("a"), List.of(1), 0));
+    }
+}
@@ -54,7 +54,7 @@ public class H2TestDatabase {
             // Create companies table
             stmt.execute(
                 "CREATE TABLE IF NOT EXISTS companies (" +
-                "ID INT AUTO_INCREMENT PRIMARY KEY, " +
+                "ID BIGINT AUTO_INCREMENT PRIMARY KEY, " +
                 "NAME VARCHAR(48), " +
                 "EMAIL VARCHAR(48), " +
                 "PASSWORD VARCHAR(48)" +
@@ -64,7 +64,7 @@ public class H2TestDatabase {
             // Create customers table
             stmt.execute(
                 "CREATE TABLE IF NOT EXISTS customers (" +
-                "ID INT AUTO_INCREMENT PRIMARY KEY, " +
+                "ID BIGINT AUTO_INCREMENT PRIMARY KEY, " +
                 "FIRST_NAME VARCHAR(48), " +
                 "LAST_NAME VARCHAR(48), " +
                 "EMAIL VARCHAR(48), " +
@@ -75,8 +75,8 @@ public class H2TestDatabase {
             // Create coupons table
             stmt.execute(
                 "CREATE TABLE IF NOT EXISTS coupons (" +
-                "ID INT AUTO_INCREMENT PRIMARY KEY, " +
-                "COMPANY_ID INT, " +
+                "ID BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "COMPANY_ID BIGINT, " +
                 "CATEGORY_ID INT, " +
                 "TITLE VARCHAR(48), " +
                 "DESCRIPTION VARCHAR(48), " +
@@ -93,8 +93,8 @@ public class H2TestDatabase {
             // Create customers_vs_coupons table
             stmt.execute(
                 "CREATE TABLE IF NOT EXISTS customers_vs_coupons (" +
-                "CUSTOMER_ID INT NOT NULL, " +
-                "COUPON_ID INT NOT NULL, " +
+                "CUSTOMER_ID BIGINT NOT NULL, " +
+                "COUPON_ID BIGINT NOT NULL, " +
                 "PRIMARY KEY (CUSTOMER_ID, COUPON_ID), " +
                 "FOREIGN KEY (CUSTOMER_ID) REFERENCES customers(ID) ON DELETE CASCADE, " +
                 "FOREIGN KEY (COUPON_ID) REFERENCES coupons(ID) ON DELETE CASCADE" +
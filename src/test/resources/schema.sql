@@ -14,7 +14,7 @@ MERGE INTO categories (id, name) VALUES (30, 'FANCY_RESTAURANT');
 MERGE INTO categories (id, name) VALUES (40, 'ALL_INCLUSIVE_VACATION');
 
 CREATE TABLE IF NOT EXISTS companies (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(100),
     email VARCHAR(48),
     password VARCHAR(60),
@@ -25,7 +25,7 @@ CREATE TABLE IF NOT EXISTS companies (
 );
 
 CREATE TABLE IF NOT EXISTS customers (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
     first_name VARCHAR(48),
     last_name VARCHAR(48),
     email VARCHAR(48),
@@ -37,8 +37,8 @@ CREATE TABLE IF NOT EXISTS customers (
 );
 
 CREATE TABLE IF NOT EXISTS coupons (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    company_id INT,
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    company_id BIGINT,
     category_id INT,
     title VARCHAR(48),
     description VARCHAR(255),
@@ -52,9 +52,54 @@ CREATE TABLE IF NOT EXISTS coupons (
 );
 
 CREATE TABLE IF NOT EXISTS customers_vs_coupons (
-    customer_id INT NOT NULL,
-    coupon_id INT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    coupon_id BIGINT NOT NULL,
+    purchased_at TIMESTAMP NULL,
     PRIMARY KEY (customer_id, coupon_id),
     FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE,
     FOREIGN KEY (coupon_id) REFERENCES coupons(id) ON DELETE CASCADE
 );
+
+-- Purchase rollup: coupons sold per company, category and day (maintained by CouponDAO)
+CREATE TABLE IF NOT EXISTS coupon_sales_daily (
+    company_id BIGINT NOT NULL,
+    sale_date DATE NOT NULL,
+    category_id INT NOT NULL,
+    purchases INT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (company_id, sale_date, category_id),
+    FOREIGN KEY (company_id) REFERENCES companies(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+-- Transactional outbox: coupon lifecycle events, written with the mutation and drained by OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(48) NOT NULL,
+    payload VARCHAR(1024),
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP NULL
+);
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished ON outbox_events(published_at, id);
+
+CREATE TABLE IF NOT EXISTS job_leases (
+    job_name VARCHAR(64) NOT NULL,
+    shard INT NOT NULL,
+    owner VARCHAR(128) NOT NULL,
+    lease_until TIMESTAMP NOT NULL,
+    last_success_at TIMESTAMP NULL,
+    PRIMARY KEY (job_name, shard)
+);
+
+-- Production indexes (postgres-schema.sql), so query plans and the DAO scaling suite match PostgreSQL
+CREATE INDEX IF NOT EXISTS idx_companies_name ON companies(name);
+CREATE INDEX IF NOT EXISTS idx_companies_email ON companies(email);
+CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
+CREATE INDEX IF NOT EXISTS idx_companies_account_locked ON companies(account_locked, locked_until);
+CREATE INDEX IF NOT EXISTS idx_customers_account_locked ON customers(account_locked, locked_until);
+CREATE INDEX IF NOT EXISTS idx_coupons_end_date ON coupons(end_date);
+CREATE INDEX IF NOT EXISTS idx_coupons_company_category ON coupons(company_id, category_id);
+CREATE INDEX IF NOT EXISTS idx_coupons_company_price ON coupons(company_id, price);
+CREATE INDEX IF NOT EXISTS idx_coupons_title_company ON coupons(company_id, title);
+CREATE INDEX IF NOT EXISTS idx_customers_vs_coupons_coupon ON customers_vs_coupons(coupon_id);
@@ -0,0 +1,59 @@
+-- H2 schema for an additional coupon shard (matches postgres-shard-schema.sql)
+
+CREATE TABLE IF NOT EXISTS categories (
+    id INT PRIMARY KEY,
+    name VARCHAR(48)
+);
+
+MERGE INTO categories (id, name) VALUES (10, 'SKYING');
+MERGE INTO categories (id, name) VALUES (20, 'SKY_DIVING');
+MERGE INTO categories (id, name) VALUES (30, 'FANCY_RESTAURANT');
+MERGE INTO categories (id, name) VALUES (40, 'ALL_INCLUSIVE_VACATION');
+
+CREATE TABLE IF NOT EXISTS coupons (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    company_id BIGINT,
+    category_id INT,
+    title VARCHAR(48),
+    description VARCHAR(255),
+    start_date DATE,
+    end_date DATE,
+    amount INT,
+    price DOUBLE,
+    image VARCHAR(255),
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS customers_vs_coupons (
+    customer_id BIGINT NOT NULL,
+    coupon_id BIGINT NOT NULL,
+    purchased_at TIMESTAMP NULL,
+    PRIMARY KEY (customer_id, coupon_id),
+    FOREIGN KEY (coupon_id) REFERENCES coupons(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS coupon_sales_daily (
+    company_id BIGINT NOT NULL,
+    sale_date DATE NOT NULL,
+    category_id INT NOT NULL,
+    purchases INT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (company_id, sale_date, category_id),
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(48) NOT NULL,
+    payload VARCHAR(1024),
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP NULL
+);
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished ON outbox_events(published_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_coupons_end_date ON coupons(end_date);
+CREATE INDEX IF NOT EXISTS idx_coupons_company_category ON coupons(company_id, category_id);
+CREATE INDEX IF NOT EXISTS idx_coupons_company_price ON coupons(company_id, price);
+CREATE INDEX IF NOT EXISTS idx_coupons_title_company ON coupons(company_id, title);
+CREATE INDEX IF NOT EXISTS idx_customers_vs_coupons_coupon ON customers_vs_coupons(coupon_id);